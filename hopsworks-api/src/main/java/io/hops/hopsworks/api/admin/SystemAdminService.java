@@ -50,6 +50,7 @@ import io.hops.hopsworks.common.agent.AgentLivenessMonitor;
 import io.hops.hopsworks.common.dao.kafka.TopicDefaultValueDTO;
 import io.hops.hopsworks.common.hosts.HostsController;
 import io.hops.hopsworks.common.kafka.KafkaController;
+import io.hops.hopsworks.common.monitoring.MonitoringRegistry;
 import io.hops.hopsworks.common.security.CertificatesMgmService;
 import io.hops.hopsworks.common.security.ServiceJWTKeepAlive;
 import io.hops.hopsworks.common.util.RemoteCommandResult;
@@ -82,6 +83,7 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.GenericEntity;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
@@ -116,6 +118,8 @@ public class SystemAdminService {
   private ServiceJWTKeepAlive serviceJWTKeepAlive;
   @EJB
   private KafkaController kafkaController;
+  @EJB
+  private MonitoringRegistry monitoringRegistry;
   
   /**
    * Admin endpoint that changes the master encryption password used to encrypt the certificates' password
@@ -280,4 +284,23 @@ public class SystemAdminService {
     ElasticJWTResponseDTO responseDTO = jWTHelper.createTokenForELKAsAdmin();
     return Response.ok().entity(responseDTO).build();
   }
+  
+  @ApiOperation(value = "Get the names of the sources of internal metrics")
+  @GET
+  @Path("/monitoring")
+  public Response getMonitoringSources(@Context SecurityContext sc) {
+    GenericEntity<List<String>> names = new GenericEntity<List<String>>(monitoringRegistry.getNames()) { };
+    return noCacheResponse.getNoCacheResponseBuilder(Response.Status.OK).entity(names).build();
+  }
+  
+  @ApiOperation(value = "Get a snapshot of the internal metrics of a source, e.g. jobs, downloads or hiveserver")
+  @GET
+  @Path("/monitoring/{name}")
+  public Response getMonitoringSnapshot(@PathParam("name") String name, @Context SecurityContext sc) {
+    Object snapshot = monitoringRegistry.getSnapshot(name);
+    if (snapshot == null) {
+      return noCacheResponse.getNoCacheResponseBuilder(Response.Status.NOT_FOUND).build();
+    }
+    return noCacheResponse.getNoCacheResponseBuilder(Response.Status.OK).entity(snapshot).build();
+  }
 }
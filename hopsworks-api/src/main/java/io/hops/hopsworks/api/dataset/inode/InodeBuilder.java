@@ -24,9 +24,9 @@ import io.hops.hopsworks.common.api.ResourceRequest;
 import io.hops.hopsworks.common.dao.AbstractFacade;
 import io.hops.hopsworks.common.dao.hdfs.inode.InodeFacade;
 import io.hops.hopsworks.common.dao.user.UserFacade;
+import io.hops.hopsworks.common.dataset.ArchiveController;
 import io.hops.hopsworks.common.dataset.DatasetController;
 import io.hops.hopsworks.common.dataset.FilePreviewMode;
-import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.exceptions.DatasetException;
 import io.hops.hopsworks.persistence.entity.hdfs.inode.Inode;
 import io.hops.hopsworks.persistence.entity.project.Project;
@@ -41,6 +41,7 @@ import javax.ejb.TransactionAttributeType;
 import javax.ws.rs.core.UriInfo;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -63,7 +64,7 @@ public class InodeBuilder {
   @EJB
   private DatasetHelper datasetHelper;
   @EJB
-  private Settings settings;
+  private ArchiveController archiveController;
   
   private InodeDTO uri(InodeDTO dto, UriInfo uriInfo) {
     dto.setHref(uriInfo.getAbsolutePathBuilder().build());
@@ -96,12 +97,17 @@ public class InodeBuilder {
   
   public InodeDTO buildStat(UriInfo uriInfo, ResourceRequest resourceRequest, Inode inode, String parentPath,
     Users dirOwner) {
+    return buildStat(uriInfo, resourceRequest, inode, parentPath, dirOwner, null);
+  }
+  
+  private InodeDTO buildStat(UriInfo uriInfo, ResourceRequest resourceRequest, Inode inode, String parentPath,
+    Users dirOwner, Map<String, Users> owners) {
     InodeDTO dto = new InodeDTO();
     uri(dto, uriInfo, inode);
     expand(dto, resourceRequest);
     if (dto.isExpand()) {
       dto.setAttributes(inodeAttributeBuilder.build(new InodeAttributeDTO(), resourceRequest, inode, parentPath,
-        dirOwner));
+        dirOwner, owners));
     }
     return dto;
   }
@@ -112,7 +118,7 @@ public class InodeBuilder {
     expand(dto, resourceRequest);
     if (dto.isExpand()) {
       dto.setAttributes(inodeAttributeBuilder.build(new InodeAttributeDTO(), resourceRequest, inode, null, null));
-      dto.setZipState(settings.getZipState(dto.getAttributes().getPath()));
+      dto.setZipState(archiveController.getState(dto.getAttributes().getPath()).name());
     }
     return dto;
   }
@@ -212,7 +218,10 @@ public class InodeBuilder {
   private InodeDTO items(UriInfo uriInfo, InodeDTO dto, ResourceRequest resourceRequest, List<Inode> inodes,
     String parentPath, Users dirOwner) {
     if (inodes != null && !inodes.isEmpty()) {
-      inodes.forEach((inode) -> dto.addItem(buildStat(uriInfo, resourceRequest, inode, parentPath, dirOwner)));
+      // Owners other than the dir owner are fetched for the whole page at once
+      Map<String, Users> owners = inodeAttributeBuilder.getOwners(resourceRequest, inodes, dirOwner);
+      inodes.forEach((inode) -> dto.addItem(buildStat(uriInfo, resourceRequest, inode, parentPath, dirOwner,
+        owners)));
     } else if (inodes != null && inodes.isEmpty()) {
       dto.setItems(new ArrayList<>());
     }
@@ -29,6 +29,11 @@ import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import java.io.File;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Logger;
 
 @Stateless
@@ -61,24 +66,56 @@ public class InodeAttributeBuilder {
     return firstName + " " + lastName;
   }
   
-  private String getUserName(HdfsUsers hdfsUser, Users dirOwner) {
+  private String getUserName(HdfsUsers hdfsUser, Users dirOwner, Map<String, Users> owners) {
     if (dirOwner != null && hdfsUser.getUsername().equals(dirOwner.getUsername())) {
       return getFullName(dirOwner, hdfsUser.getUsername());
     }
+    if (owners != null) {
+      return getFullName(owners.get(hdfsUser.getUsername()), hdfsUser.getUsername());
+    }
     //Most files in a dir will be owned by the dir owner, so this should not be called that often
     Users user = userFacade.findByUsername(hdfsUser.getUsername());
     return getFullName(user, hdfsUser.getUsername());
   }
   
+  /**
+   * Fetch the users owning a list of inodes with a single query, to be passed to
+   * {@link #build(InodeAttributeDTO, ResourceRequest, Inode, String, Users, Map)} for each of the inodes.
+   *
+   * @return the owners keyed by username, without the dir owner
+   */
+  public Map<String, Users> getOwners(ResourceRequest resourceRequest, List<Inode> inodes, Users dirOwner) {
+    Map<String, Users> owners = new HashMap<>();
+    if (!expand(resourceRequest)) {
+      return owners;
+    }
+    Set<String> usernames = new HashSet<>();
+    for (Inode inode : inodes) {
+      String username = inode.getHdfsUser().getUsername();
+      if (dirOwner == null || !username.equals(dirOwner.getUsername())) {
+        usernames.add(username);
+      }
+    }
+    for (Users user : userFacade.findByUsernames(usernames)) {
+      owners.put(user.getUsername(), user);
+    }
+    return owners;
+  }
+  
   public InodeAttributeDTO build(InodeAttributeDTO dto, ResourceRequest resourceRequest, Inode inode,
     String parentPath, Users dirOwner) {
+    return build(dto, resourceRequest, inode, parentPath, dirOwner, null);
+  }
+  
+  public InodeAttributeDTO build(InodeAttributeDTO dto, ResourceRequest resourceRequest, Inode inode,
+    String parentPath, Users dirOwner, Map<String, Users> owners) {
     if (expand(resourceRequest)) {
       dto.setId(inode.getId());
       dto.setName(inode.getInodePK().getName());
       dto.setAccessTime(new Date(inode.getAccessTime().longValue()));
       dto.setModificationTime(new Date(inode.getModificationTime().longValue()));
       dto.setDir(inode.isDir());
-      dto.setOwner(getUserName(inode.getHdfsUser(), dirOwner));
+      dto.setOwner(getUserName(inode.getHdfsUser(), dirOwner, owners));
       dto.setGroup(inode.getHdfsGroup().getName());
       dto.setParentId(inode.getInodePK().getParentId());
       String path = parentPath != null ? parentPath + File.separator + inode.getInodePK().getName() :
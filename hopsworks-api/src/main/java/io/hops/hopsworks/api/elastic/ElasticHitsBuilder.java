@@ -42,8 +42,10 @@ import javax.ejb.TransactionAttributeType;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -71,77 +73,28 @@ public class ElasticHitsBuilder {
   private HdfsUsersController hdfsUsersController;
   
   public ElasticHitDTO buildElasticHits(String searchTerm, Users user) throws ServiceException, ElasticException {
-    ElasticHitDTO elasticHitDTO = new ElasticHitDTO();
-    elasticHitDTO.setProjects(new ElasticProjectDTO());
-    elasticHitDTO.setDatasets(new ElasticDatasetDTO());
-    elasticHitDTO.setInodes(new ElasticInodeDTO());
     SearchHit[] elasticHits = elasticController.globalSearchHighLevel(searchTerm);
-    for (SearchHit hit : elasticHits) {
-      if (hit.getSourceAsMap().containsKey(Settings.META_DOC_TYPE_FIELD)) {
-        String type = (String) hit.getSourceAsMap().get(Settings.META_DOC_TYPE_FIELD);
-        switch (type) {
-          case Settings.DOC_TYPE_PROJECT:
-            buildElasticProjects(hit, elasticHitDTO.getProjects(), user);
-            break;
-          case Settings.DOC_TYPE_DATASET:
-            buildElasticDatasets(hit, elasticHitDTO.getDatasets(), user);
-            break;
-          case Settings.DOC_TYPE_INODE:
-            buildElasticInodes(hit, elasticHitDTO.getInodes());
-            break;
-          default:
-            LOGGER
-              .log(Level.WARNING, "Got a wrong document type [{0}] was expecting one of these types [{1}, {2}, {3}]",
-                new Object[]{type, Settings.DOC_TYPE_INODE, Settings.DOC_TYPE_DATASET, Settings.DOC_TYPE_PROJECT});
-        }
-      }
-    }
-    setCount(elasticHitDTO.getProjects());
-    setCount(elasticHitDTO.getDatasets());
-    setCount(elasticHitDTO.getInodes());
-    return elasticHitDTO;
+    return buildElasticHits(elasticHits, user);
   }
   
   public ElasticHitDTO buildElasticHits(Integer projectId, String searchTerm, Users user) throws ServiceException,
     ElasticException {
-    ElasticHitDTO elasticHitDTO = new ElasticHitDTO();
-    elasticHitDTO.setProjects(new ElasticProjectDTO());
-    elasticHitDTO.setDatasets(new ElasticDatasetDTO());
-    elasticHitDTO.setInodes(new ElasticInodeDTO());
     SearchHit[] elasticHits = elasticController.projectSearchHighLevel(projectId, searchTerm);
-    for (SearchHit hit : elasticHits) {
-      if (hit.getSourceAsMap().containsKey(Settings.META_DOC_TYPE_FIELD)) {
-        String type = (String) hit.getSourceAsMap().get(Settings.META_DOC_TYPE_FIELD);
-        switch (type) {
-          case Settings.DOC_TYPE_PROJECT:
-            buildElasticProjects(hit, elasticHitDTO.getProjects(), user);
-            break;
-          case Settings.DOC_TYPE_DATASET:
-            buildElasticDatasets(hit, elasticHitDTO.getDatasets(), user);
-            break;
-          case Settings.DOC_TYPE_INODE:
-            buildElasticInodes(hit, elasticHitDTO.getInodes());
-            break;
-          default:
-            LOGGER
-              .log(Level.WARNING, "Got a wrong document type [{0}] was expecting one of these types [{1}, {2}, {3}]",
-                new Object[]{type, Settings.DOC_TYPE_INODE, Settings.DOC_TYPE_DATASET, Settings.DOC_TYPE_PROJECT});
-        }
-      }
-    }
-    setCount(elasticHitDTO.getProjects());
-    setCount(elasticHitDTO.getDatasets());
-    setCount(elasticHitDTO.getInodes());
-    return elasticHitDTO;
+    return buildElasticHits(elasticHits, user);
   }
   
   public ElasticHitDTO buildElasticHits(Integer projectId, String datasetName, String searchTerm, Users user)
     throws ServiceException, ElasticException {
+    SearchHit[] elasticHits = elasticController.datasetSearchHighLevel(projectId, datasetName, searchTerm);
+    return buildElasticHits(elasticHits, user);
+  }
+  
+  private ElasticHitDTO buildElasticHits(SearchHit[] elasticHits, Users user) {
     ElasticHitDTO elasticHitDTO = new ElasticHitDTO();
     elasticHitDTO.setProjects(new ElasticProjectDTO());
     elasticHitDTO.setDatasets(new ElasticDatasetDTO());
     elasticHitDTO.setInodes(new ElasticInodeDTO());
-    SearchHit[] elasticHits = elasticController.datasetSearchHighLevel(projectId, datasetName, searchTerm);
+    Map<Long, Dataset> datasets = getDatasets(elasticHits);
     for (SearchHit hit : elasticHits) {
       if (hit.getSourceAsMap().containsKey(Settings.META_DOC_TYPE_FIELD)) {
         String type = (String) hit.getSourceAsMap().get(Settings.META_DOC_TYPE_FIELD);
@@ -150,10 +103,10 @@ public class ElasticHitsBuilder {
             buildElasticProjects(hit, elasticHitDTO.getProjects(), user);
             break;
           case Settings.DOC_TYPE_DATASET:
-            buildElasticDatasets(hit, elasticHitDTO.getDatasets(), user);
+            buildElasticDatasets(hit, elasticHitDTO.getDatasets(), user, datasets);
             break;
           case Settings.DOC_TYPE_INODE:
-            buildElasticInodes(hit, elasticHitDTO.getInodes());
+            buildElasticInodes(hit, elasticHitDTO.getInodes(), datasets);
             break;
           default:
             LOGGER
@@ -168,6 +121,18 @@ public class ElasticHitsBuilder {
     return elasticHitDTO;
   }
   
+  //the datasets of all the dataset and inode hits, with one query instead of one per hit
+  private Map<Long, Dataset> getDatasets(SearchHit[] elasticHits) {
+    Set<Long> datasetIIds = new HashSet<>();
+    for (SearchHit hit : elasticHits) {
+      Long datasetIId = getLongValue(hit, "dataset_id");
+      if (datasetIId != null) {
+        datasetIIds.add(datasetIId);
+      }
+    }
+    return datasetController.getDatasetsByInodeIds(datasetIIds);
+  }
+  
   public void buildElasticProjects (SearchHit hit, ElasticProjectDTO elasticProjectDTO, Users user) {
     ElasticProjectDTO item = new ElasticProjectDTO();
     item.setMap(hit.getSourceAsMap());
@@ -193,7 +158,8 @@ public class ElasticHitsBuilder {
     elasticProjectDTO.getItems().add(item);
   }
   
-  public void buildElasticDatasets (SearchHit hit, ElasticDatasetDTO elasticDatasetDTO, Users user) {
+  public void buildElasticDatasets (SearchHit hit, ElasticDatasetDTO elasticDatasetDTO, Users user,
+    Map<Long, Dataset> datasets) {
     ElasticDatasetDTO item = new ElasticDatasetDTO();
     item.setMap(hit.getSourceAsMap());
     item.setScore(hit.getScore());
@@ -209,7 +175,7 @@ public class ElasticHitsBuilder {
       elasticDatasetDTO.setItems(new ArrayList<>());
     }
     if (item.getDatasetIId() != null) {
-      Dataset dataset = datasetController.getDatasetByInodeId(item.getDatasetIId());
+      Dataset dataset = datasets.get(item.getDatasetIId());
       if (dataset != null) {
         item.setParentProjectName(dataset.getProject().getName());
         item.setSize(dataset.getInode().getSize());
@@ -223,7 +189,7 @@ public class ElasticHitsBuilder {
     elasticDatasetDTO.getItems().add(item);
   }
   
-  public void buildElasticInodes (SearchHit hit, ElasticInodeDTO elasticInodeDTO) {
+  public void buildElasticInodes (SearchHit hit, ElasticInodeDTO elasticInodeDTO, Map<Long, Dataset> datasets) {
     ElasticInodeDTO item = new ElasticInodeDTO();
     item.setMap(hit.getSourceAsMap());
     item.setScore(hit.getScore());
@@ -239,7 +205,7 @@ public class ElasticHitsBuilder {
       elasticInodeDTO.setItems(new ArrayList<>());
     }
     if (item.getParentDatasetIId() != null) {
-      Dataset dataset = datasetController.getDatasetByInodeId(item.getParentDatasetIId());
+      Dataset dataset = datasets.get(item.getParentDatasetIId());
       if (dataset != null) {
         item.setParentDatasetId(dataset.getId());
         item.setParentDatasetName(dataset.getName());
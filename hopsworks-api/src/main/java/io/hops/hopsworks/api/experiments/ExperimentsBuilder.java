@@ -45,6 +45,7 @@ import io.hops.hopsworks.persistence.entity.dataset.Dataset;
 import io.hops.hopsworks.persistence.entity.hdfs.user.HdfsUsers;
 import io.hops.hopsworks.persistence.entity.project.Project;
 import io.hops.hopsworks.persistence.entity.project.team.ProjectTeam;
+import io.hops.hopsworks.persistence.entity.tensorflow.TensorBoard;
 import io.hops.hopsworks.persistence.entity.user.Users;
 import io.hops.hopsworks.restutils.RESTCodes;
 import org.apache.logging.log4j.core.util.Integers;
@@ -68,6 +69,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 @Stateless
 @TransactionAttribute(TransactionAttributeType.NEVER)
@@ -164,9 +166,13 @@ public class ExperimentsBuilder {
           List<ProvStateDTO> experiments = fileState.getItems();
           dto.setCount(fileState.getCount());
           if (experiments != null && !experiments.isEmpty()) {
+            // The TensorBoards of the whole page are fetched together instead of once per experiment
+            Map<String, TensorBoard> tensorBoards = tensorBoardBuilder.getTensorBoards(
+              resourceRequest.get(ResourceRequest.Name.TENSORBOARD),
+              experiments.stream().map(ProvStateDTO::getMlId).collect(Collectors.toSet()));
             for (ProvStateDTO fileProvStateHit : experiments) {
               ExperimentDTO experimentDTO = build(uriInfo, resourceRequest, project, user,
-                provFilesParamBuilder.getValue1(), fileProvStateHit);
+                provFilesParamBuilder.getValue1(), fileProvStateHit, tensorBoards);
               if (experimentDTO != null) {
                 dto.addItem(experimentDTO);
               }
@@ -207,6 +213,12 @@ public class ExperimentsBuilder {
   public ExperimentDTO build(UriInfo uriInfo, ResourceRequest resourceRequest, Project project, Users user,
     Map<Long, ExperimentsEndpointDTO> endpoints, ProvStateDTO fileProvenanceHit)
     throws ExperimentsException, DatasetException, ProvenanceException, MetadataException, GenericException {
+    return build(uriInfo, resourceRequest, project, user, endpoints, fileProvenanceHit, null);
+  }
+  
+  private ExperimentDTO build(UriInfo uriInfo, ResourceRequest resourceRequest, Project project, Users user,
+    Map<Long, ExperimentsEndpointDTO> endpoints, ProvStateDTO fileProvenanceHit, Map<String, TensorBoard> tensorBoards)
+    throws ExperimentsException, DatasetException, ProvenanceException, MetadataException, GenericException {
 
     ExperimentDTO experimentDTO = new ExperimentDTO();
     ExperimentsEndpointDTO endpoint = endpoints.get(fileProvenanceHit.getProjectInodeId());
@@ -265,7 +277,8 @@ public class ExperimentsBuilder {
         experimentDTO.setEnvironment(experimentSummary.getEnvironment());
         experimentDTO.setProgram(experimentSummary.getProgram());
         experimentDTO.setTensorboard(tensorBoardBuilder.build(uriInfo,
-            resourceRequest.get(ResourceRequest.Name.TENSORBOARD), project, fileProvenanceHit.getMlId()));
+            resourceRequest.get(ResourceRequest.Name.TENSORBOARD), project, fileProvenanceHit.getMlId(),
+            tensorBoards));
         experimentDTO.setResults(experimentResultsBuilder.build(uriInfo,
             resourceRequest.get(ResourceRequest.Name.RESULTS), project, fileProvenanceHit.getMlId()));
       } else {
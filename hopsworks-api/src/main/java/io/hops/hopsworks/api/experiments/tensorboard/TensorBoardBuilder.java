@@ -27,6 +27,9 @@ import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import javax.ws.rs.core.UriInfo;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 @Stateless
 @TransactionAttribute(TransactionAttributeType.NEVER)
@@ -53,11 +56,34 @@ public class TensorBoardBuilder {
   }
 
   public TensorBoardDTO build(UriInfo uriInfo, ResourceRequest resourceRequest, Project project, String mlId) {
+    return build(uriInfo, resourceRequest, project, mlId, null);
+  }
+  
+  /**
+   * Fetch the TensorBoards of a page of experiments with a single query
+   *
+   * @return the TensorBoards keyed by mlId, empty if they are not expanded
+   */
+  public Map<String, TensorBoard> getTensorBoards(ResourceRequest resourceRequest, Collection<String> mlIds) {
+    Map<String, TensorBoard> tensorBoards = new HashMap<>();
+    if (resourceRequest != null && resourceRequest.contains(ResourceRequest.Name.TENSORBOARD)) {
+      for (TensorBoard tensorBoard : tensorBoardFacade.findByMlIds(mlIds)) {
+        tensorBoards.put(tensorBoard.getMlId(), tensorBoard);
+      }
+    }
+    return tensorBoards;
+  }
+  
+  /**
+   * @param tensorBoards the TensorBoards of the page as returned by getTensorBoards, null to look the TensorBoard up
+   */
+  public TensorBoardDTO build(UriInfo uriInfo, ResourceRequest resourceRequest, Project project, String mlId,
+    Map<String, TensorBoard> tensorBoards) {
     TensorBoardDTO dto = new TensorBoardDTO();
     uri(dto, uriInfo, project, mlId);
     expand(dto, resourceRequest);
     if (dto.isExpand()) {
-      TensorBoard tensorBoard = tensorBoardFacade.findByMlId(mlId);
+      TensorBoard tensorBoard = tensorBoards != null ? tensorBoards.get(mlId) : tensorBoardFacade.findByMlId(mlId);
       dto.setMlId(mlId);
       dto.setEndpoint(tensorBoard.getEndpoint());
       dto.setHdfsLogdir(tensorBoard.getHdfsLogdir());
@@ -37,10 +37,15 @@ public class FeatureGroupPreviewBeanParam {
   @ApiParam(value = "partition=date=01/01/01")
   private String partition;
 
+  @QueryParam("stream")
+  @ApiParam(value = "Write the rows to the response as they are read from the offline storage", required = false)
+  private boolean stream = false;
+
   public FeatureGroupPreviewBeanParam(
       @QueryParam("storage") String storageStr,
       @QueryParam("limit") Integer limit,
-      @QueryParam("partition") String partition) {
+      @QueryParam("partition") String partition,
+      @QueryParam("stream") Boolean stream) {
 
     if (!Strings.isNullOrEmpty(storageStr)) {
       this.storage = FeatureGroupStorage.valueOf(storageStr.toUpperCase());
@@ -51,6 +56,13 @@ public class FeatureGroupPreviewBeanParam {
       throw new IllegalArgumentException("Preview does not support partition selector for online storage");
     }
     this.partition = partition;
+
+    if (stream != null && stream) {
+      if (storage.equals(FeatureGroupStorage.ONLINE)) {
+        throw new IllegalArgumentException("Preview does not support streaming from online storage");
+      }
+      this.stream = true;
+    }
   }
 
   public FeatureGroupStorage getStorage() {
@@ -84,4 +96,12 @@ public class FeatureGroupPreviewBeanParam {
   public void setPartition(String partition) {
     this.partition = partition;
   }
+
+  public boolean isStream() {
+    return stream;
+  }
+
+  public void setStream(boolean stream) {
+    this.stream = stream;
+  }
 }
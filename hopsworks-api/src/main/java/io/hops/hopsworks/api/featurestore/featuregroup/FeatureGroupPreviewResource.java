@@ -45,6 +45,7 @@ import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 
 @RequestScoped
@@ -88,6 +89,10 @@ public class FeatureGroupPreviewResource {
       throws FeaturestoreException, HopsSecurityException {
     Users user = jwtHelper.getUserPrincipal(sc);
 
+    if (featureGroupPreviewBeanParam.isStream()) {
+      return getPreviewStream(featureGroupPreviewBeanParam, uriInfo, user);
+    }
+
     if (featureGroupPreviewBeanParam.getLimit() != null && (
         featureGroupPreviewBeanParam.getLimit() < 0  ||
         featureGroupPreviewBeanParam.getLimit() > settings.getFGPreviewLimit())) {
@@ -102,4 +107,20 @@ public class FeatureGroupPreviewResource {
 
     return Response.ok().entity(previewDTO).build();
   }
+
+  private Response getPreviewStream(FeatureGroupPreviewBeanParam featureGroupPreviewBeanParam, UriInfo uriInfo,
+                                    Users user) {
+    if (featureGroupPreviewBeanParam.getLimit() != null && (
+        featureGroupPreviewBeanParam.getLimit() < 0  ||
+        featureGroupPreviewBeanParam.getLimit() > settings.getFGPreviewStreamLimit())) {
+      throw new IllegalArgumentException(
+          "Row limit should greater than 0 and lower than: " + settings.getFGPreviewStreamLimit());
+    }
+
+    StreamingOutput previewStream = previewBuilder.buildStream(uriInfo, user, project, featuregroup,
+        featureGroupPreviewBeanParam.getPartition(),
+        featureGroupPreviewBeanParam.getLimit() == null ? 20 : featureGroupPreviewBeanParam.getLimit());
+
+    return Response.ok().entity(previewStream).build();
+  }
 }
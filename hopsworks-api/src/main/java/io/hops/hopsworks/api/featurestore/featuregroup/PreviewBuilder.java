@@ -25,11 +25,18 @@ import io.hops.hopsworks.persistence.entity.featurestore.featuregroup.Featuregro
 import io.hops.hopsworks.persistence.entity.project.Project;
 import io.hops.hopsworks.persistence.entity.user.Users;
 import io.hops.hopsworks.restutils.RESTCodes;
+import io.hops.hopsworks.restutils.RESTException;
+import org.javatuples.Pair;
 
 import javax.ejb.EJB;
 import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
+import javax.json.Json;
+import javax.json.stream.JsonGenerator;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import java.net.URI;
 import java.sql.SQLException;
@@ -79,4 +86,42 @@ public class PreviewBuilder {
     return previewDTO;
   }
 
+  /**
+   * Builds a preview of the offline storage which writes each row to the response as soon as it is read from Hive,
+   * in the same format as {@link PreviewDTO}, so that large previews are not held in memory.
+   */
+  public StreamingOutput buildStream(UriInfo uriInfo, Users user, Project project, Featuregroup featuregroup,
+                                     String partition, int limit) {
+    URI href = uri(uriInfo, project, featuregroup);
+    return out -> {
+      try (JsonGenerator generator = Json.createGenerator(out)) {
+        generator.writeStartObject()
+            .write("href", href.toString())
+            .write("expand", true)
+            .writeStartArray("items");
+        featuregroupController.streamFeaturegroupPreview(featuregroup, project, user, partition, limit, row -> {
+          generator.writeStartObject().writeStartArray("row");
+          for (Pair<String, String> column : row.getValues()) {
+            generator.writeStartObject().write("columnName", column.getValue0());
+            if (column.getValue1() == null) {
+              generator.writeNull("columnValue");
+            } else {
+              generator.write("columnValue", column.getValue1());
+            }
+            generator.writeEnd();
+          }
+          generator.writeEnd().writeEnd();
+        });
+        generator.writeEnd().writeEnd();
+      } catch (FeaturestoreException | HopsSecurityException e) {
+        // Rows are flushed in chunks, the status can still be changed unless the first chunk has been sent
+        throw new WebApplicationException(e.getUsrMsg(), e, toStatus(e));
+      }
+    };
+  }
+
+  private Response.Status toStatus(RESTException e) {
+    return Response.Status.fromStatusCode(e.getErrorCode().getRespStatus().getStatusCode());
+  }
+
 }
@@ -17,6 +17,7 @@ package io.hops.hopsworks.api.filter;
 
 import io.hops.hopsworks.api.util.RESTApiJsonResponse;
 import io.hops.hopsworks.common.dao.project.ProjectFacade;
+import io.hops.hopsworks.common.dao.project.team.ProjectRoleCache;
 import io.hops.hopsworks.common.dao.project.team.ProjectTeamFacade;
 import io.hops.hopsworks.common.dao.user.UserFacade;
 import io.hops.hopsworks.persistence.entity.project.Project;
@@ -36,8 +37,11 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.ext.Provider;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -59,11 +63,17 @@ public class ProjectAuthFilter implements ContainerRequestFilter {
   
   @EJB
   private UserFacade userFacade;
+  
+  @EJB
+  private ProjectRoleCache projectRoleCache;
 
   @Context
   private ResourceInfo resourceInfo;
 
   private static final Logger LOGGER = Logger.getLogger(ProjectAuthFilter.class.getName());
+  
+  // Allowed roles of each resource method, resolved from the annotations once
+  private final Map<Class<?>, Map<Method, Set<String>>> allowedRoles = new ConcurrentHashMap<>();
 
   @Override
   public void filter(ContainerRequestContext requestContext) {
@@ -87,43 +97,58 @@ public class ProjectAuthFilter implements ContainerRequestFilter {
     } catch (NumberFormatException ne) {
       //
     }
+    Set<String> rolesSet = getAllowedRoles(resourceClass, method);
 
-    Project project = id != null ? projectBean.find(id) : projectBean.findByName(projectName);
-    if (project == null) {
-      jsonResponse.setErrorCode(RESTCodes.ProjectErrorCode.PROJECT_NOT_FOUND.getCode());
-      jsonResponse.setErrorMsg(RESTCodes.ProjectErrorCode.PROJECT_NOT_FOUND.getMessage());
-      requestContext.abortWith(Response.status(Response.Status.NOT_FOUND).entity(jsonResponse).build());
-      return;
+    // Roles are cached by project id. A name from the path is always resolved first, so a project recreated with
+    // the name of a deleted one is never authorized with the roles of the old project.
+    Project project = null;
+    if (id == null) {
+      project = projectBean.findByName(projectName);
+      if (project == null) {
+        abortProjectNotFound(requestContext, jsonResponse);
+        return;
+      }
+      id = project.getId();
     }
-    LOGGER.log(Level.FINEST, "Filtering project request path: {0}", project.getName());
 
-    AllowedProjectRoles methodProjectRolesAnnotation = method.getAnnotation(AllowedProjectRoles.class);
-    AllowedProjectRoles classProjectRolesAnnotation = resourceClass.getAnnotation(AllowedProjectRoles.class);
-
-    AllowedProjectRoles rolesAnnotation = methodProjectRolesAnnotation != null ? methodProjectRolesAnnotation
-        : classProjectRolesAnnotation;
-    Set<String> rolesSet;
-    rolesSet = new HashSet<>(Arrays.asList(rolesAnnotation.value()));
-
-    if (requestContext.getSecurityContext().getUserPrincipal() == null) {
-      LOGGER.log(Level.WARNING, "Authentication not done. No user found.");
-      jsonResponse.setErrorCode(RESTCodes.SecurityErrorCode.EJB_ACCESS_LOCAL.getCode());
-      jsonResponse.setErrorMsg(RESTCodes.SecurityErrorCode.EJB_ACCESS_LOCAL.getMessage());
-      requestContext.abortWith(Response.status(Response.Status.UNAUTHORIZED).entity(jsonResponse).build());
-      return;
+    ProjectRoleCache.CachedRole cachedRole = null;
+    if (requestContext.getSecurityContext().getUserPrincipal() != null) {
+      cachedRole = projectRoleCache.get(requestContext.getSecurityContext().getUserPrincipal().getName(), id);
     }
-    String username = requestContext.getSecurityContext().getUserPrincipal().getName();
-    Users user = userFacade.findByUsername(username);
-    
-    if (user == null) {
-      LOGGER.log(Level.WARNING, "User not found.");
-      jsonResponse.setErrorCode(RESTCodes.SecurityErrorCode.EJB_ACCESS_LOCAL.getCode());
-      jsonResponse.setErrorMsg(RESTCodes.SecurityErrorCode.EJB_ACCESS_LOCAL.getMessage());
-      requestContext.abortWith(Response.status(Response.Status.UNAUTHORIZED).entity(jsonResponse).build());
-      return;
+    if (cachedRole != null) {
+      userRole = cachedRole.getRole();
+    } else {
+      long stamp = projectRoleCache.stamp();
+      if (project == null) {
+        project = projectBean.find(id);
+      }
+      if (project == null) {
+        abortProjectNotFound(requestContext, jsonResponse);
+        return;
+      }
+      LOGGER.log(Level.FINEST, "Filtering project request path: {0}", project.getName());
+
+      if (requestContext.getSecurityContext().getUserPrincipal() == null) {
+        LOGGER.log(Level.WARNING, "Authentication not done. No user found.");
+        jsonResponse.setErrorCode(RESTCodes.SecurityErrorCode.EJB_ACCESS_LOCAL.getCode());
+        jsonResponse.setErrorMsg(RESTCodes.SecurityErrorCode.EJB_ACCESS_LOCAL.getMessage());
+        requestContext.abortWith(Response.status(Response.Status.UNAUTHORIZED).entity(jsonResponse).build());
+        return;
+      }
+      String username = requestContext.getSecurityContext().getUserPrincipal().getName();
+      Users user = userFacade.findByUsername(username);
+      
+      if (user == null) {
+        LOGGER.log(Level.WARNING, "User not found.");
+        jsonResponse.setErrorCode(RESTCodes.SecurityErrorCode.EJB_ACCESS_LOCAL.getCode());
+        jsonResponse.setErrorMsg(RESTCodes.SecurityErrorCode.EJB_ACCESS_LOCAL.getMessage());
+        requestContext.abortWith(Response.status(Response.Status.UNAUTHORIZED).entity(jsonResponse).build());
+        return;
+      }
+      
+      userRole = projectTeamBean.findCurrentRole(project, user);
+      projectRoleCache.put(username, project.getId(), userRole, stamp);
     }
-    
-    userRole = projectTeamBean.findCurrentRole(project, user);
 
     //If the resource is allowed for all roles check if user is a member of the project. 
     if (userRole != null && !userRole.isEmpty() && rolesSet.contains(AllowedProjectRoles.ANYONE)) {
@@ -145,4 +170,21 @@ public class ProjectAuthFilter implements ContainerRequestFilter {
       requestContext.abortWith(Response.status(Response.Status.FORBIDDEN).entity(jsonResponse).build());
     }
   }
+  
+  private void abortProjectNotFound(ContainerRequestContext requestContext, JsonResponse jsonResponse) {
+    jsonResponse.setErrorCode(RESTCodes.ProjectErrorCode.PROJECT_NOT_FOUND.getCode());
+    jsonResponse.setErrorMsg(RESTCodes.ProjectErrorCode.PROJECT_NOT_FOUND.getMessage());
+    requestContext.abortWith(Response.status(Response.Status.NOT_FOUND).entity(jsonResponse).build());
+  }
+  
+  private Set<String> getAllowedRoles(Class<?> resourceClass, Method method) {
+    return allowedRoles.computeIfAbsent(resourceClass, c -> new ConcurrentHashMap<>())
+      .computeIfAbsent(method, m -> {
+        AllowedProjectRoles methodProjectRolesAnnotation = m.getAnnotation(AllowedProjectRoles.class);
+        AllowedProjectRoles classProjectRolesAnnotation = resourceClass.getAnnotation(AllowedProjectRoles.class);
+        AllowedProjectRoles rolesAnnotation = methodProjectRolesAnnotation != null ? methodProjectRolesAnnotation
+          : classProjectRolesAnnotation;
+        return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(rolesAnnotation.value())));
+      });
+  }
 }
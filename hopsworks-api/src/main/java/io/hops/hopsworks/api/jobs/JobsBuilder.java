@@ -15,6 +15,7 @@
  */
 package io.hops.hopsworks.api.jobs;
 
+import io.hops.hopsworks.api.jobs.executions.ExecutionDTO;
 import io.hops.hopsworks.api.jobs.executions.ExecutionsBuilder;
 import io.hops.hopsworks.api.user.UsersBuilder;
 import io.hops.hopsworks.common.api.ResourceRequest;
@@ -31,6 +32,8 @@ import javax.ws.rs.core.UriInfo;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Stateless
@@ -74,17 +77,23 @@ public class JobsBuilder {
     uri(dto, uriInfo, job);
     expand(dto, resourceRequest);
     if (dto.isExpand()) {
-      dto.setId(job.getId());
-      dto.setName(job.getName());
-      dto.setCreationTime(job.getCreationTime());
-      dto.setConfig(job.getJobConfig());
-      dto.setJobType(job.getJobType());
-      dto.setCreator(usersBuilder.build(uriInfo, resourceRequest.get(ResourceRequest.Name.CREATOR), job.getCreator()));
-      dto.setExecutions(executionsBuilder.build(uriInfo, resourceRequest.get(ResourceRequest.Name.EXECUTIONS), job));
+      build(dto, uriInfo, resourceRequest, job,
+        executionsBuilder.build(uriInfo, resourceRequest.get(ResourceRequest.Name.EXECUTIONS), job));
     }
     return dto;
   }
   
+  private void build(JobDTO dto, UriInfo uriInfo, ResourceRequest resourceRequest, Jobs job,
+    ExecutionDTO executions) {
+    dto.setId(job.getId());
+    dto.setName(job.getName());
+    dto.setCreationTime(job.getCreationTime());
+    dto.setConfig(job.getJobConfig());
+    dto.setJobType(job.getJobType());
+    dto.setCreator(usersBuilder.build(uriInfo, resourceRequest.get(ResourceRequest.Name.CREATOR), job.getCreator()));
+    dto.setExecutions(executions);
+  }
+  
   public JobDTO build(UriInfo uriInfo, ResourceRequest resourceRequest, Project project) {
     JobDTO dto = new JobDTO();
     uri(dto, uriInfo, project);
@@ -96,7 +105,19 @@ public class JobsBuilder {
         resourceRequest.getSort(), project);
       //set the count
       dto.setCount(collectionInfo.getCount());
-      collectionInfo.getItems().forEach((job) -> dto.addItem(build(uriInfo, resourceRequest, (Jobs) job)));
+      List<Jobs> jobs = (List<Jobs>) collectionInfo.getItems();
+      // The executions of the whole page are fetched together instead of once per job
+      Map<Integer, ExecutionDTO> executions =
+        executionsBuilder.build(uriInfo, resourceRequest.get(ResourceRequest.Name.EXECUTIONS), jobs);
+      for (Jobs job : jobs) {
+        JobDTO jobDTO = new JobDTO();
+        uri(jobDTO, uriInfo, job);
+        expand(jobDTO, resourceRequest);
+        if (jobDTO.isExpand()) {
+          build(jobDTO, uriInfo, resourceRequest, job, executions.get(job.getId()));
+        }
+        dto.addItem(jobDTO);
+      }
     }
     return dto;
   }
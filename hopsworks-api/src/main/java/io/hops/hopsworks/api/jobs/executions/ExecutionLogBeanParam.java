@@ -0,0 +1,76 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.api.jobs.executions;
+
+import io.hops.hopsworks.common.jobs.JobLogRequest;
+import io.swagger.annotations.ApiParam;
+
+import javax.ws.rs.QueryParam;
+
+public class ExecutionLogBeanParam {
+
+  @QueryParam("offset")
+  @ApiParam(value = "Byte offset in the log to start reading from", required = false)
+  private Long offset;
+
+  @QueryParam("length")
+  @ApiParam(value = "Maximum number of bytes to return", required = false)
+  private Integer length;
+
+  @QueryParam("tail")
+  @ApiParam(value = "Return the last n lines of the log", required = false)
+  private Integer tail;
+
+  @QueryParam("filter")
+  @ApiParam(value = "Return only lines matching the regular expression, ex. filter=ERROR|WARN", required = false)
+  private String filter;
+
+  public Long getOffset() {
+    return offset;
+  }
+
+  public void setOffset(Long offset) {
+    this.offset = offset;
+  }
+
+  public Integer getLength() {
+    return length;
+  }
+
+  public void setLength(Integer length) {
+    this.length = length;
+  }
+
+  public Integer getTail() {
+    return tail;
+  }
+
+  public void setTail(Integer tail) {
+    this.tail = tail;
+  }
+
+  public String getFilter() {
+    return filter;
+  }
+
+  public void setFilter(String filter) {
+    this.filter = filter;
+  }
+
+  public JobLogRequest toRequest() {
+    return new JobLogRequest(offset, length, tail, filter);
+  }
+}
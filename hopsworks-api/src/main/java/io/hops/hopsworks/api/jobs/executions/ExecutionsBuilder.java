@@ -32,7 +32,10 @@ import javax.ejb.TransactionAttributeType;
 import javax.ws.rs.core.UriInfo;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Stateless
@@ -134,6 +137,32 @@ public class ExecutionsBuilder {
     return dto;
   }
   
+  /**
+   * Build the executions of a page of jobs, fetching the executions of all jobs together
+   *
+   * @return the executions of each job keyed by job id
+   */
+  public Map<Integer, ExecutionDTO> build(UriInfo uriInfo, ResourceRequest resourceRequest, List<Jobs> jobs) {
+    Map<Integer, ExecutionDTO> dtos = new HashMap<>();
+    Map<Integer, AbstractFacade.CollectionInfo> executions = new HashMap<>();
+    if (resourceRequest != null && resourceRequest.contains(ResourceRequest.Name.EXECUTIONS)) {
+      executions = executionFacade.findByJobs(resourceRequest.getOffset(), resourceRequest.getLimit(),
+        resourceRequest.getFilter(), resourceRequest.getSort(), jobs);
+    }
+    for (Jobs job : jobs) {
+      ExecutionDTO dto = new ExecutionDTO();
+      uri(dto, uriInfo, job);
+      expand(dto, resourceRequest);
+      if (dto.isExpand()) {
+        AbstractFacade.CollectionInfo collectionInfo = executions.get(job.getId());
+        dto.setCount(collectionInfo.getCount());
+        collectionInfo.getItems().forEach((exec) -> dto.addItem(build(uriInfo, resourceRequest, (Execution) exec)));
+      }
+      dtos.put(job.getId(), dto);
+    }
+    return dtos;
+  }
+  
   public Comparator<Execution> getComparator(ResourceRequest resourceRequest) {
     Set<ExecutionFacade.SortBy> sortBy = (Set<ExecutionFacade.SortBy>) resourceRequest.getSort();
     if (resourceRequest.getSort() != null && !resourceRequest.getSort().isEmpty()) {
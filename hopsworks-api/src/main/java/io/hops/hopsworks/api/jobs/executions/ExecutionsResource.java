@@ -24,6 +24,7 @@ import io.hops.hopsworks.api.jwt.JWTHelper;
 import io.hops.hopsworks.api.util.Pagination;
 import io.hops.hopsworks.common.api.ResourceRequest;
 import io.hops.hopsworks.common.jobs.JobLogDTO;
+import io.hops.hopsworks.common.jobs.JobLogFollowDTO;
 import io.hops.hopsworks.common.jobs.execution.ExecutionController;
 import io.hops.hopsworks.exceptions.GenericException;
 import io.hops.hopsworks.exceptions.JobException;
@@ -51,6 +52,9 @@ import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -192,12 +196,38 @@ public class ExecutionsResource {
   @ApiKeyRequired( acceptedScopes = {ApiScope.JOB}, allowedUserRoles = {"HOPS_ADMIN", "HOPS_USER"})
   public Response getLog(
     @PathParam("id") Integer id,
-    @PathParam("type") JobLogDTO.LogType type, @Context SecurityContext sc) throws JobException {
+    @PathParam("type") JobLogDTO.LogType type,
+    @BeanParam ExecutionLogBeanParam logBeanParam,
+    @Context SecurityContext sc) throws JobException {
     Execution execution = executionController.authorize(job, id);
-    JobLogDTO dto = executionController.getLog(execution, type);
+    JobLogDTO dto = executionController.getLog(execution, type, logBeanParam.toRequest());
     return Response.ok().entity(dto).build();
   }
   
+  @ApiOperation(value = "Wait for the log a running execution writes after the cursor",
+    response = JobLogFollowDTO.class)
+  @GET
+  @Path("{id}/log/{type}/follow")
+  @Produces(MediaType.APPLICATION_JSON)
+  @AllowedProjectRoles({AllowedProjectRoles.DATA_OWNER, AllowedProjectRoles.DATA_SCIENTIST})
+  @JWTRequired(acceptedTokens={Audience.API}, allowedUserRoles={"HOPS_ADMIN", "HOPS_USER"})
+  @ApiKeyRequired( acceptedScopes = {ApiScope.JOB}, allowedUserRoles = {"HOPS_ADMIN", "HOPS_USER"})
+  public void followLog(
+    @PathParam("id") Integer id,
+    @PathParam("type") JobLogDTO.LogType type,
+    @ApiParam(value = "cursor of the previous response") @QueryParam("cursor") String cursor,
+    @Context SecurityContext sc, @Suspended AsyncResponse asyncResponse) throws JobException {
+    Execution execution = executionController.authorize(job, id);
+    // The request thread is released while the log is polled, the client sends the returned cursor to continue
+    executionController.followLog(execution, type, cursor).whenComplete((dto, error) -> {
+      if (error != null) {
+        asyncResponse.resume(error);
+      } else {
+        asyncResponse.resume(Response.ok().entity(dto).build());
+      }
+    });
+  }
+  
   @ApiOperation(value = "Retry log aggregation of given execution and type", response = JobLogDTO.class)
   @POST
   @Path("{id}/log/{type}")
@@ -57,11 +57,13 @@ import io.hops.hopsworks.common.jobs.spark.SparkController;
 import io.hops.hopsworks.common.jupyter.JupyterController;
 import io.hops.hopsworks.common.jupyter.JupyterJWTManager;
 import io.hops.hopsworks.common.jupyter.JupyterNbVCSController;
+import io.hops.hopsworks.common.jupyter.JupyterStartTracker;
 import io.hops.hopsworks.common.jupyter.NullJupyterNbVCSController;
 import io.hops.hopsworks.common.jupyter.RepositoryStatus;
 import io.hops.hopsworks.common.livy.LivyController;
 import io.hops.hopsworks.common.livy.LivyMsg;
 import io.hops.hopsworks.common.security.CertificateMaterializer;
+import io.hops.hopsworks.common.util.FutureTasks;
 import io.hops.hopsworks.common.util.HopsUtils;
 import io.hops.hopsworks.common.util.Ip;
 import io.hops.hopsworks.common.util.Settings;
@@ -85,9 +87,11 @@ import io.hops.hopsworks.persistence.entity.user.Users;
 import io.hops.hopsworks.restutils.RESTCodes;
 import org.apache.commons.codec.digest.DigestUtils;
 
+import javax.annotation.Resource;
 import javax.ejb.EJB;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
+import javax.enterprise.concurrent.ManagedExecutorService;
 import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
@@ -113,6 +117,8 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
@@ -159,6 +165,10 @@ public class JupyterService {
   private JupyterNbVCSController jupyterNbVCSController;
   @EJB
   private SparkController sparkController;
+  @EJB
+  private JupyterStartTracker jupyterStartTracker;
+  @Resource(lookup = "concurrent/hopsExecutorService")
+  private ManagedExecutorService executorService;
 
   private Integer projectId;
   // No @EJB annotation for Project, it's injected explicitly in ProjectService.
@@ -323,23 +333,52 @@ public class JupyterService {
       int allowOriginPort = uriInfo.getBaseUri().getPort();
       String allowOriginPortStr = allowOriginPort != -1 ? ":" + allowOriginPort : "";
       String allowOrigin = settings.getJupyterOriginScheme() + "://" + allowOriginHost + allowOriginPortStr;
+      long startTime = System.currentTimeMillis();
+      // When Livy launches a job it will look in the standard directory for the certificates
+      // We materialize them twice but most probably other operations will need them too, so it is OK
+      // Remember to remove both when stopping Jupyter server or an exception is thrown
+      // They do not depend on the server, so they are materialized while the server process starts
+      FutureTask<Void> localCertificates = new FutureTask<>(() -> {
+        certificateMaterializer.materializeCertificatesLocal(user.getUsername(), project.getName());
+        return null;
+      });
+      boolean started = false;
       try {
         jupyterSettingsFacade.update(jupyterSettings);
 
         //Inspect dependencies
         sparkController
           .inspectDependencies(project, hopsworksUser, (SparkJobConfiguration) jupyterSettings.getJobConfig());
-        dto = jupyterManager.startJupyterServer(project, configSecret, hdfsUser, hopsworksUser,
-          jupyterSettings, allowOrigin);
-        jupyterJWTManager.materializeJWT(hopsworksUser, project, jupyterSettings, dto.getCid(), dto.getPort(),
-          JUPYTER_JWT_AUD);
-        HopsUtils.materializeCertificatesForUserCustomDir(project.getName(), user.getUsername(),
-            settings.getHdfsTmpCertDir(), dfso, certificateMaterializer, settings, dto.getCertificatesDir());
-        // When Livy launches a job it will look in the standard directory for the certificates
-        // We materialize them twice but most probably other operations will need them too, so it is OK
-        // Remember to remove both when stopping Jupyter server or an exception is thrown
-        certificateMaterializer.materializeCertificatesLocal(user.getUsername(), project.getName());
+        long serverStartTime = System.currentTimeMillis();
+        long materializationTime;
+        FutureTasks.execute(executorService, localCertificates);
+        try {
+          dto = jupyterManager.startJupyterServer(project, configSecret, hdfsUser, hopsworksUser,
+            jupyterSettings, allowOrigin);
+          materializationTime = System.currentTimeMillis();
+          JupyterDTO server = dto;
+          FutureTask<Void> jwt = new FutureTask<>(() -> {
+            jupyterJWTManager.materializeJWT(hopsworksUser, project, jupyterSettings, server.getCid(),
+              server.getPort(), JUPYTER_JWT_AUD);
+            return null;
+          });
+          FutureTasks.execute(executorService, jwt);
+          try {
+            HopsUtils.materializeCertificatesForUserCustomDir(project.getName(), user.getUsername(),
+              settings.getHdfsTmpCertDir(), dfso, certificateMaterializer, settings, dto.getCertificatesDir());
+          } finally {
+            await(jwt);
+          }
+        } finally {
+          // also on failure, so the clean up removes them
+          await(localCertificates);
+        }
+        long materializationEnd = System.currentTimeMillis();
         jupyterManager.waitForStartup(project, hopsworksUser);
+        long startEnd = System.currentTimeMillis();
+        jupyterStartTracker.started(materializationTime - serverStartTime, materializationEnd - materializationTime,
+          startEnd - startTime);
+        started = true;
       } catch (ServiceException | TimeoutException ex) {
         if (dto != null) {
           jupyterController
@@ -355,6 +394,10 @@ public class JupyterService {
         throw new HopsSecurityException(RESTCodes.SecurityErrorCode.CERT_MATERIALIZATION_ERROR, Level.SEVERE,
           ex.getMessage(), null, ex);
       } finally {
+        if (!started) {
+          jupyterStartTracker.failed();
+          removeLocalCertificates(dto, localCertificates, user);
+        }
         if (dfso != null) {
           dfsService.closeDfsClient(dfso);
         }
@@ -478,6 +521,39 @@ public class JupyterService {
     return noCacheResponse.getNoCacheResponseBuilder(Response.Status.OK).build();
   }
 
+  // the failure of a materialization task is thrown as the failure of the request
+  private void await(FutureTask<Void> task) throws IOException, ServiceException {
+    try {
+      FutureTasks.await(task);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while materializing the credentials of the Jupyter server", ex);
+    } catch (ExecutionException ex) {
+      Throwable cause = ex.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof ServiceException) {
+        throw (ServiceException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IOException(cause);
+    }
+  }
+  
+  // if the server was started, shutting it down removes the local certificates as well
+  private void removeLocalCertificates(JupyterDTO dto, FutureTask<Void> localCertificates, HdfsUsers user) {
+    if (dto != null || !localCertificates.isDone()) {
+      return;
+    }
+    try {
+      localCertificates.get();
+      certificateMaterializer.removeCertificatesLocal(user.getUsername(), project.getName());
+    } catch (InterruptedException | ExecutionException ex) {
+      LOGGER.log(Level.FINE, "Local certificates were not materialized", ex);
+    }
+  }
+
   private String getHdfsUser(SecurityContext sc) {
     Users user = jWTHelper.getUserPrincipal(sc);
     return  hdfsUsersController.getHdfsUserName(project, user);
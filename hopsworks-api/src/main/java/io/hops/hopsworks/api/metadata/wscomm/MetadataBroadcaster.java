@@ -0,0 +1,90 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.api.metadata.wscomm;
+
+import io.hops.hopsworks.api.metadata.wscomm.message.Message;
+import io.hops.hopsworks.common.monitoring.MonitoringRegistry;
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.common.websocket.WebsocketSendQueues;
+
+import javax.annotation.PostConstruct;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.websocket.EncodeException;
+import javax.websocket.Session;
+
+/**
+ * Sends the messages of the metadata websocket to the sessions of a project without blocking the thread that
+ * handled the incoming message. Each message is encoded once and queued for every session through
+ * {@link WebsocketSendQueues}.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@DependsOn("Settings")
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class MetadataBroadcaster {
+  
+  @EJB
+  private Settings settings;
+  @EJB
+  private MonitoringRegistry monitoringRegistry;
+  
+  private final MessageEncoder encoder = new MessageEncoder();
+  private WebsocketSendQueues queues;
+  
+  @PostConstruct
+  public void init() {
+    queues = new WebsocketSendQueues(settings.getWebsocketSendQueueSize());
+    monitoringRegistry.register("websockets", queues::getMetrics);
+  }
+  
+  public void register(Session session, Integer projectId) {
+    queues.register(session, projectId);
+  }
+  
+  public void unregister(Session session) {
+    queues.unregister(session);
+  }
+  
+  /**
+   * Queue a message for every session open on a project
+   *
+   * @param projectId
+   * @param msg
+   * @throws EncodeException
+   */
+  public void broadcast(Integer projectId, Message msg) throws EncodeException {
+    queues.broadcast(projectId, encoder.encode(msg));
+  }
+  
+  /**
+   * Queue a message for one session
+   *
+   * @param session
+   * @param msg
+   * @return false if the session is not registered
+   * @throws EncodeException
+   */
+  public boolean send(Session session, Message msg) throws EncodeException {
+    return queues.send(session, encoder.encode(msg));
+  }
+}
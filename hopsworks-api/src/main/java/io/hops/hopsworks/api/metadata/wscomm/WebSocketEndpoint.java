@@ -83,6 +83,8 @@ public class WebSocketEndpoint {
   private HttpSession httpSession;//this might be used to check the underlying http session
   @EJB
   private MetadataProtocol protocol;
+  @EJB
+  private MetadataBroadcaster broadcaster;
 
   @OnOpen
   public void open(Session session, EndpointConfig config,
@@ -116,8 +118,10 @@ public class WebSocketEndpoint {
       } catch (IOException ex) {
         logger.log(Level.SEVERE, ex.getMessage(), ex);
       }
+      return;
     }
     session.getUserProperties().put("projectID", this.project.getId());
+    this.broadcaster.register(session, this.project.getId());
   }
 
   @OnMessage
@@ -136,25 +140,23 @@ public class WebSocketEndpoint {
     logger.log(Level.FINEST,
             "HOPSWORKS: USER {0} SESSION DESTROYED sessions {1}",
             new Object[]{this.sender, session.getOpenSessions().size()});
+    this.broadcaster.unregister(session);
     Message message = new TextMessage(this.sender, " Left");
     message.setStatus("INFO");
     this.broadcast(message, session);
   }
 
-  //broadcast to every one connected to the same project
+  //broadcast to every one connected to the same project, queued per session so a slow client does not block the
+  //others
   private void broadcast(Message msg, Session session) {
-    for (Session s : session.getOpenSessions()) {
-      try {
-        if (s.isOpen() && s.getUserProperties().get("projectID").equals(
-                session.getUserProperties().get("projectID"))) {
-          s.getBasicRemote().sendObject(msg);//RemoteEndpoint.Basic interface provides blocking methods to send
-          //messages; the RemoteEndpoint.Async interface provides nonblocking methods.
-          //logger.log(Level.INFO, "Sending >>> {0} to session: {1}",
-          //new Object[]{msg, s.getUserPrincipal()});
-        }
-      } catch (IOException | EncodeException ex) {
-        this.sendError(session, ex.getMessage());
-      }
+    Integer projectId = (Integer) session.getUserProperties().get("projectID");
+    if (projectId == null) {
+      return;
+    }
+    try {
+      this.broadcaster.broadcast(projectId, msg);
+    } catch (EncodeException ex) {
+      this.sendError(session, ex.getMessage());
     }
   }
 
@@ -165,7 +167,10 @@ public class WebSocketEndpoint {
 
   private void sendClient(Session session, Message message) {
     try {
-      session.getBasicRemote().sendObject(message);
+      //sessions not registered yet have no asynchronous send in flight
+      if (!this.broadcaster.send(session, message)) {
+        session.getBasicRemote().sendObject(message);
+      }
     } catch (IOException | EncodeException e) {
       logger.log(Level.SEVERE, e.getMessage(), e);
     }
@@ -22,10 +22,12 @@ import io.hops.hopsworks.api.filter.Audience;
 import io.hops.hopsworks.api.filter.apiKey.ApiKeyRequired;
 import io.hops.hopsworks.common.dao.project.ProjectFacade;
 import io.hops.hopsworks.common.serving.inference.InferenceController;
+import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.exceptions.InferenceException;
 import io.hops.hopsworks.jwt.annotation.JWTRequired;
 import io.hops.hopsworks.persistence.entity.project.Project;
 import io.hops.hopsworks.persistence.entity.user.security.apiKey.ApiScope;
+import io.hops.hopsworks.restutils.RESTCodes;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -39,10 +41,14 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -58,6 +64,8 @@ public class InferenceResource {
   private InferenceController inferenceController;
   @EJB
   private ProjectFacade projectFacade;
+  @EJB
+  private Settings settings;
   
   private Project project;
 
@@ -75,17 +83,29 @@ public class InferenceResource {
   @AllowedProjectRoles({AllowedProjectRoles.DATA_OWNER, AllowedProjectRoles.DATA_SCIENTIST})
   @JWTRequired(acceptedTokens={Audience.API, Audience.JOB}, allowedUserRoles={"HOPS_ADMIN", "HOPS_USER"})
   @ApiKeyRequired( acceptedScopes = {ApiScope.INFERENCE}, allowedUserRoles = {"HOPS_ADMIN", "HOPS_USER"})
-  public Response infer(
+  public void infer(
       @ApiParam(value = "Name of the model to query", required = true) @PathParam("modelName") String modelName,
       @ApiParam(value = "Version of the model to query") @PathParam("version") String modelVersion,
       @ApiParam(value = "Type of query") @PathParam("verb") String verb, @Context SecurityContext sc,
-      String inferenceRequestJson) throws InferenceException {
+      String inferenceRequestJson, @Suspended AsyncResponse asyncResponse) throws InferenceException {
     Integer version = null;
     if (!Strings.isNullOrEmpty(modelVersion)) {
       version = Integer.valueOf(modelVersion.split("/")[2]);
     }
 
-    String inferenceResult = inferenceController.infer(project, modelName, version, verb, inferenceRequestJson);
-    return Response.ok().entity(inferenceResult).build();
+    // The request thread is released while the serving server works on the request. The socket timeout of the
+    // client only bounds the silence between two packets, so the whole request is bounded here as well.
+    asyncResponse.setTimeoutHandler(response -> response.resume(
+        new InferenceException(RESTCodes.InferenceErrorCode.REQUEST_TIMEOUT, Level.FINE, "model: " + modelName)));
+    asyncResponse.setTimeout(settings.getServingConnectTimeout() + settings.getServingBatchingWindow()
+        + settings.getServingRequestTimeout(), TimeUnit.MILLISECONDS);
+    inferenceController.inferAsync(project, modelName, version, verb, inferenceRequestJson)
+        .whenComplete((inferenceResult, error) -> {
+          if (error != null) {
+            asyncResponse.resume(error);
+          } else {
+            asyncResponse.resume(Response.ok().entity(inferenceResult).build());
+          }
+        });
   }
 }
@@ -0,0 +1,53 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.api.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+@XmlRootElement
+public class ClusterMetricsPollDTO {
+
+  // Version of the sample, the client passes it to the next poll
+  private long version;
+  // Cluster metrics as returned by the ResourceManager, null while it is not reachable
+  private JsonNode metrics;
+
+  public ClusterMetricsPollDTO() {
+  }
+
+  public ClusterMetricsPollDTO(long version, JsonNode metrics) {
+    this.version = version;
+    this.metrics = metrics;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public void setVersion(long version) {
+    this.version = version;
+  }
+
+  public JsonNode getMetrics() {
+    return metrics;
+  }
+
+  public void setMetrics(JsonNode metrics) {
+    this.metrics = metrics;
+  }
+}
@@ -39,14 +39,19 @@
 
 package io.hops.hopsworks.api.util;
 
-import com.logicalclocks.servicediscoverclient.service.Service;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.hops.hopsworks.api.filter.Audience;
 import io.hops.hopsworks.api.filter.NoCacheResponse;
-import io.hops.hopsworks.common.hosts.ServiceDiscoveryController;
-import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.common.yarn.ClusterMetricsSampler;
+import io.hops.hopsworks.common.yarn.ClusterMetricsSnapshot;
 import io.hops.hopsworks.jwt.annotation.JWTRequired;
 import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
 
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 import javax.ejb.EJB;
 import javax.ejb.Stateless;
@@ -55,10 +60,13 @@ import javax.ejb.TransactionAttributeType;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
-import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 
 @Stateless
@@ -70,31 +78,57 @@ import javax.ws.rs.core.Response;
 public class ClusterUtilisationService {
   
   private final static Logger LOGGER = Logger.getLogger(ClusterUtilisationService.class.getName());
+  // Polls without change return empty after this long, below the idle timeouts of proxies
+  private static final long POLL_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(25);
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  
   @EJB
   private NoCacheResponse noCacheResponse;
   @EJB
-  private Settings settings;
-  @EJB
-  private ServiceDiscoveryController serviceDiscoveryController;
+  private ClusterMetricsSampler clusterMetricsSampler;
   
+  @ApiOperation(value = "Get the latest sample of the ResourceManager cluster metrics")
   @GET
   @Path("/metrics")
   @Produces(MediaType.APPLICATION_JSON)
-  public Response getGpus() {
-    Response response = null;
-    Client client = ClientBuilder.newClient();
-    try {
-      Service rm = serviceDiscoveryController
-          .getAnyAddressOfServiceWithDNS(ServiceDiscoveryController.HopsworksService.HTTP_RESOURCEMANAGER);
-      String rmUrl = "http://" + rm.getAddress() + ":" + rm.getPort() + "/ws/v1/cluster/metrics";
-      WebTarget target = client.target(rmUrl);
-      response = target.request().get();
-    } catch (Exception ex) {
+  public Response getGpus(@Context Request request) {
+    ClusterMetricsSnapshot snapshot = clusterMetricsSampler.getSnapshot();
+    if (snapshot == null || !snapshot.isAvailable()) {
       return noCacheResponse.getNoCacheResponseBuilder(Response.Status.SERVICE_UNAVAILABLE).build();
-    } finally {
-      client.close();
     }
-    return response;
+    EntityTag etag = new EntityTag(snapshot.getEtag());
+    if (request.evaluatePreconditions(etag) != null) {
+      return noCacheResponse.getNoCacheResponseBuilder(Response.Status.NOT_MODIFIED).tag(etag).build();
+    }
+    return noCacheResponse.getNoCacheResponseBuilder(Response.Status.OK)
+      .entity(snapshot.getMetrics())
+      .tag(etag)
+      .lastModified(new Date(snapshot.getModifiedAt()))
+      .build();
+  }
+  
+  @ApiOperation(value = "Wait for the ResourceManager cluster metrics to change",
+    response = ClusterMetricsPollDTO.class)
+  @GET
+  @Path("/metrics/poll")
+  @Produces(MediaType.APPLICATION_JSON)
+  public void pollMetrics(@QueryParam("version") Long version, @Suspended AsyncResponse asyncResponse) {
+    // The request thread is released while waiting, the client polls again with the returned version
+    clusterMetricsSampler.onChange(version == null ? 0 : version, POLL_TIMEOUT_MS).whenComplete((snapshot, error) -> {
+      if (error != null) {
+        asyncResponse.resume(error);
+      } else if (snapshot == null || (version != null && snapshot.getVersion() == version)) {
+        asyncResponse.resume(noCacheResponse.getNoCacheResponseBuilder(Response.Status.NO_CONTENT).build());
+      } else {
+        try {
+          JsonNode metrics = snapshot.isAvailable() ? OBJECT_MAPPER.readTree(snapshot.getMetrics()) : null;
+          asyncResponse.resume(noCacheResponse.getNoCacheResponseBuilder(Response.Status.OK)
+            .entity(new ClusterMetricsPollDTO(snapshot.getVersion(), metrics)).build());
+        } catch (IOException e) {
+          asyncResponse.resume(e);
+        }
+      }
+    });
   }
   
 }
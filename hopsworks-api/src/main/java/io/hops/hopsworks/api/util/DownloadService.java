@@ -48,7 +48,9 @@ import io.hops.hopsworks.api.filter.Audience;
 import io.hops.hopsworks.api.jwt.JWTHelper;
 import io.hops.hopsworks.common.constants.message.ResponseMessages;
 import io.hops.hopsworks.common.dao.user.UserFacade;
+import io.hops.hopsworks.common.dataset.ArchiveController;
 import io.hops.hopsworks.common.dataset.DatasetController;
+import io.hops.hopsworks.common.dataset.DownloadController;
 import io.hops.hopsworks.common.hdfs.DistributedFileSystemOps;
 import io.hops.hopsworks.common.hdfs.DistributedFsService;
 import io.hops.hopsworks.common.hdfs.HdfsUsersController;
@@ -66,7 +68,9 @@ import io.hops.hopsworks.persistence.entity.project.Project;
 import io.hops.hopsworks.persistence.entity.user.Users;
 import io.hops.hopsworks.restutils.RESTCodes;
 import io.swagger.annotations.ApiOperation;
+import org.apache.commons.io.IOUtils;
 import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.Path;
 
 import javax.ejb.EJB;
@@ -74,17 +78,19 @@ import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import javax.enterprise.context.RequestScoped;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
-import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.StreamingOutput;
 import java.io.IOException;
-import java.io.OutputStream;
+import java.util.Date;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -93,6 +99,11 @@ import java.util.logging.Logger;
 public class DownloadService {
 
   private static final Logger LOGGER = Logger.getLogger(DownloadService.class.getName());
+  private static final String ZIP_MEDIA_TYPE = "application/zip";
+  private static final String RANGE = "Range";
+  private static final String IF_RANGE = "If-Range";
+  private static final String CONTENT_RANGE = "Content-Range";
+  private static final String ACCEPT_RANGES = "Accept-Ranges";
 
   @EJB
   private DistributedFsService dfs;
@@ -110,6 +121,10 @@ public class DownloadService {
   private DatasetController datasetController;
   @EJB
   private DatasetHelper datasetHelper;
+  @EJB
+  private ArchiveController archiveController;
+  @EJB
+  private DownloadController downloadController;
 
   public DownloadService() {
   }
@@ -170,7 +185,8 @@ public class DownloadService {
   @JWTNotRequired
   @ApiOperation(value = "Download file.", response = StreamingOutput.class)
   public Response downloadFromHDFS(@PathParam("path") String path, @QueryParam("token") String token,
-    @QueryParam("type") DatasetType datasetType, @Context SecurityContext sc) throws DatasetException,
+    @QueryParam("type") DatasetType datasetType, @HeaderParam(RANGE) String range,
+    @HeaderParam(IF_RANGE) String ifRange, @Context SecurityContext sc) throws DatasetException,
     SigningKeyNotFoundException, VerificationException, ProjectException {
     if(!settings.isDownloadAllowed()){
       throw new DatasetException(RESTCodes.DatasetErrorCode.DOWNLOAD_NOT_ALLOWED, Level.FINEST);
@@ -187,14 +203,49 @@ public class DownloadService {
       throw new DatasetException(RESTCodes.DatasetErrorCode.DOWNLOAD_ERROR, Level.FINE);
     }
 
-    FSDataInputStream stream;
-    DistributedFileSystemOps udfso;
+    FSDataInputStream stream = null;
+    DistributedFileSystemOps udfso = null;
+    // Once the response is built the client is closed by the streaming output, after the file was sent
+    boolean streaming = false;
     try {
       if (projectUsername != null) {
         udfso = dfs.getDfsOps(projectUsername);
         Path p = new Path(fullPath);
+        if (udfso.isDir(fullPath)) {
+          // Directories are zipped while they are sent, the archive is never materialized
+          Response.ResponseBuilder response = Response.ok(buildZipOutputStream(p, udfso), ZIP_MEDIA_TYPE);
+          response.header("Content-disposition", "attachment; filename=\"" + p.getName() +
+            ArchiveController.ZIP_EXTENSION + "\"");
+          streaming = true;
+          return response.build();
+        }
+        FileStatus status = udfso.getFileStatus(p);
+        long length = status.getLen();
+        EntityTag etag = new EntityTag(Long.toHexString(status.getModificationTime()) + "-" +
+          Long.toHexString(length));
+        // A range is only honoured if the client still has the same version of the file
+        long[] byteRange = ifRange == null ||
+          DownloadController.isSameVersion(ifRange, etag.toString(), status.getModificationTime()) ?
+          DownloadController.parseRange(range, length) : null;
+        if (byteRange != null && byteRange[0] >= length) {
+          return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+            .header(CONTENT_RANGE, DownloadController.BYTES_UNIT + " */" + length).build();
+        }
+        long offset = byteRange == null ? 0 : byteRange[0];
+        long count = byteRange == null ? length : byteRange[1] - byteRange[0] + 1;
         stream = udfso.open(p);
-        Response.ResponseBuilder response = Response.ok(buildOutputStream(stream, udfso));
+        DownloadController.Download download = downloadController.start(fullPath, projectUsername, offset, count);
+        Response.ResponseBuilder response = Response.status(byteRange == null ? Response.Status.OK :
+          Response.Status.PARTIAL_CONTENT).entity(buildOutputStream(stream, udfso, download));
+        streaming = true;
+        if (byteRange != null) {
+          response.header(CONTENT_RANGE,
+            DownloadController.BYTES_UNIT + " " + offset + "-" + byteRange[1] + "/" + length);
+        }
+        response.header(HttpHeaders.CONTENT_LENGTH, count);
+        response.header(ACCEPT_RANGES, DownloadController.BYTES_UNIT);
+        response.tag(etag);
+        response.lastModified(new Date(status.getModificationTime()));
         response.header("Content-disposition", "attachment; filename=\"" + p.getName() + "\"" );
         return response.build();
       } else {
@@ -204,35 +255,40 @@ public class DownloadService {
     } catch (IOException ex) {
       throw new DatasetException(RESTCodes.DatasetErrorCode.DOWNLOAD_ERROR, Level.SEVERE, "path: " + fullPath,
         ex.getMessage(), ex);
+    } finally {
+      if (!streaming) {
+        IOUtils.closeQuietly(stream);
+        dfs.closeDfsClient(udfso);
+      }
     }
   }
 
   /**
    *
    * @param stream
+   * @param udfso
+   * @param download
    * @return
    */
   private StreamingOutput buildOutputStream(final FSDataInputStream stream,
-      final DistributedFileSystemOps udfso) {
-    StreamingOutput output = new StreamingOutput() {
-      @Override
-      public void write(OutputStream out) throws IOException,
-          WebApplicationException {
-        try {
-          int length;
-          byte[] buffer = new byte[1024];
-          while ((length = stream.read(buffer)) != -1) {
-            out.write(buffer, 0, length);
-          }
-          out.flush();
-          stream.close();
-        } finally {
-          dfs.closeDfsClient(udfso);
-        }
+      final DistributedFileSystemOps udfso, final DownloadController.Download download) {
+    return out -> {
+      try {
+        downloadController.copy(download, stream, out);
+      } finally {
+        dfs.closeDfsClient(udfso);
+      }
+    };
+  }
+  
+  private StreamingOutput buildZipOutputStream(final Path path, final DistributedFileSystemOps udfso) {
+    return out -> {
+      try {
+        archiveController.writeZip(udfso, path, out);
+      } finally {
+        dfs.closeDfsClient(udfso);
       }
     };
-
-    return output;
   }
 
 }
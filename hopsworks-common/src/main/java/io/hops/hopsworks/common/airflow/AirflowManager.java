@@ -29,6 +29,7 @@ import io.hops.hopsworks.persistence.entity.user.BbcGroup;
 import io.hops.hopsworks.common.dao.user.UserFacade;
 import io.hops.hopsworks.persistence.entity.user.Users;
 import io.hops.hopsworks.common.hdfs.HdfsUsersController;
+import io.hops.hopsworks.common.jwt.ServiceJWTRegistry;
 import io.hops.hopsworks.common.security.CertificateMaterializer;
 import io.hops.hopsworks.common.util.DateUtils;
 import io.hops.hopsworks.common.util.Settings;
@@ -57,6 +58,7 @@ import javax.ejb.TimerConfig;
 import javax.ejb.TimerService;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
+import javax.enterprise.concurrent.ManagedExecutorService;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
@@ -73,16 +75,14 @@ import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -104,21 +104,9 @@ public class AirflowManager {
     TOKEN_FILE_PERMISSIONS.add(PosixFilePermission.GROUP_EXECUTE);
   }
   
-  private final TreeSet<AirflowJWT> airflowJWTs = new TreeSet<>(new Comparator<AirflowJWT>() {
-    @Override
-    public int compare(AirflowJWT t0, AirflowJWT t1) {
-      if (t0.equals(t1)) {
-        return 0;
-      } else {
-        if (t0.expiration.isBefore(t1.expiration)) {
-          return -1;
-        } else if (t0.expiration.isAfter(t1.expiration)) {
-          return 1;
-        }
-        return 0;
-      }
-    }
-  });
+  private final ServiceJWTRegistry<MaterializedJWTID, AirflowJWT> airflowJWTs = new ServiceJWTRegistry<>();
+  // a sweep still running when the timer fires again is not overlapped
+  private final AtomicBoolean monitoring = new AtomicBoolean(false);
   
   @EJB
   private HdfsUsersController hdfsUsersController;
@@ -138,6 +126,8 @@ public class AirflowManager {
   private ProjectFacade projectFacade;
   @Resource
   private TimerService timerService;
+  @Resource(lookup = "concurrent/hopsExecutorService")
+  private ManagedExecutorService executorService;
   
   private GroupPrincipal airflowGroup;
   private volatile boolean initialized = false;
@@ -257,7 +247,7 @@ public class AirflowManager {
         certificateMaterializer.materializeCertificatesLocalCustomDir(user.getUsername(), project.getName(),
             getProjectSecretsDirectory(user.getUsername()).toString());
         LOG.log(Level.FINE, "Materialized X.509 for " + materialIdentifier);
-        airflowJWTs.add(airflowJWT);
+        addToken(airflowJWT);
       } catch (IOException ex) {
         LOG.log(Level.WARNING, "Could not materialize X.509 for " + materialIdentifier
             + " Invalidating JWT and deleting from FS. JWT and X.509 will not be available for Airflow DAGs.", ex);
@@ -282,6 +272,16 @@ public class AirflowManager {
     }
   }
   
+  private void addToken(AirflowJWT airflowJWT) {
+    MaterializedJWTID key = airflowJWT.key();
+    airflowJWTs.lock(key);
+    try {
+      airflowJWTs.put(key, airflowJWT, airflowJWT.expiration);
+    } finally {
+      airflowJWTs.unlock(key);
+    }
+  }
+  
   private String[] getUserRoles(Users p) {
     Collection<BbcGroup> groupList = p.getBbcGroupCollection();
     String[] roles = new String[groupList.size()];
@@ -301,7 +301,7 @@ public class AirflowManager {
     }
   }
   
-  @Lock(LockType.WRITE)
+  @Lock(LockType.READ)
   @AccessTimeout(value = 5, unit = TimeUnit.SECONDS)
   public void onProjectRemoval(Project project) throws IOException {
     if (initialized) {
@@ -317,48 +317,53 @@ public class AirflowManager {
     isInitialized();
     MaterializedJWTID materialID = new MaterializedJWTID(project.getId(), user.getUid(),
         MaterializedJWTID.USAGE.AIRFLOW);
-    if (!materializedJWTFacade.exists(materialID)) {
-      LocalDateTime expirationDate = DateUtils.getNow().plus(settings.getJWTLifetimeMs(), ChronoUnit.MILLIS);
-      AirflowJWT airflowJWT = new AirflowJWT(user.getUsername(), project.getId(), project.getName(), expirationDate,
-          user.getUid());
-      try {
-        String[] roles = getUserRoles(user);
-        MaterializedJWT airflowMaterial = new MaterializedJWT(new MaterializedJWTID(project.getId(), user.getUid(),
-            MaterializedJWTID.USAGE.AIRFLOW));
-        materializedJWTFacade.persist(airflowMaterial);
-        Map<String, Object> claims = new HashMap<>(3);
-        claims.put(Constants.RENEWABLE, false);
-        claims.put(Constants.EXPIRY_LEEWAY, settings.getJWTExpLeewaySec());
-        claims.put(Constants.ROLES, roles);
-        String token = jwtController.createToken(settings.getJWTSigningKeyName(), false, settings.getJWTIssuer(),
-            audience, DateUtils.localDateTime2Date(expirationDate),
-            DateUtils.localDateTime2Date(DateUtils.getNow()), user.getUsername(),
-            claims, SignatureAlgorithm.valueOf(settings.getJWTSignatureAlg()));
-        String projectAirflowDir = getProjectSecretsDirectory(user.getUsername()).toString();
-        airflowJWT.tokenFile = Paths.get(projectAirflowDir, getTokenFileName(project.getName(), user.getUsername()));
-        
-        airflowJWT.token = token;
-        writeTokenToFile(airflowJWT);
-        certificateMaterializer.materializeCertificatesLocalCustomDir(user.getUsername(), project.getName(),
-            projectAirflowDir);
-        airflowJWTs.add(airflowJWT);
-      } catch (GeneralSecurityException | JWTException ex) {
-        deleteAirflowMaterial(materialID);
-        throw new AirflowException(RESTCodes.AirflowErrorCode.JWT_NOT_CREATED, Level.SEVERE,
-            "Could not generate Airflow JWT for user " + user.getUsername(), ex.getMessage(), ex);
-      } catch (IOException ex) {
-        LOG.log(Level.WARNING, "Could not write Airflow JWT for user " + hdfsUsersController
-            .getHdfsUserName(project, user), ex);
-        deleteAirflowMaterial(materialID);
+    airflowJWTs.lock(materialID);
+    try {
+      if (!materializedJWTFacade.exists(materialID)) {
+        LocalDateTime expirationDate = DateUtils.getNow().plus(settings.getJWTLifetimeMs(), ChronoUnit.MILLIS);
+        AirflowJWT airflowJWT = new AirflowJWT(user.getUsername(), project.getId(), project.getName(), expirationDate,
+            user.getUid());
         try {
-          jwtController.invalidate(airflowJWT.token);
-        } catch (InvalidationException invEx) {
-          LOG.log(Level.FINE, "Could not invalidate Airflow JWT. Skipping...", ex);
+          String[] roles = getUserRoles(user);
+          MaterializedJWT airflowMaterial = new MaterializedJWT(new MaterializedJWTID(project.getId(), user.getUid(),
+              MaterializedJWTID.USAGE.AIRFLOW));
+          materializedJWTFacade.persist(airflowMaterial);
+          Map<String, Object> claims = new HashMap<>(3);
+          claims.put(Constants.RENEWABLE, false);
+          claims.put(Constants.EXPIRY_LEEWAY, settings.getJWTExpLeewaySec());
+          claims.put(Constants.ROLES, roles);
+          String token = jwtController.createToken(settings.getJWTSigningKeyName(), false, settings.getJWTIssuer(),
+              audience, DateUtils.localDateTime2Date(expirationDate),
+              DateUtils.localDateTime2Date(DateUtils.getNow()), user.getUsername(),
+              claims, SignatureAlgorithm.valueOf(settings.getJWTSignatureAlg()));
+          String projectAirflowDir = getProjectSecretsDirectory(user.getUsername()).toString();
+          airflowJWT.tokenFile = Paths.get(projectAirflowDir, getTokenFileName(project.getName(), user.getUsername()));
+          
+          airflowJWT.token = token;
+          writeTokenToFile(airflowJWT);
+          certificateMaterializer.materializeCertificatesLocalCustomDir(user.getUsername(), project.getName(),
+              projectAirflowDir);
+          airflowJWTs.put(materialID, airflowJWT, expirationDate);
+        } catch (GeneralSecurityException | JWTException ex) {
+          deleteAirflowMaterial(materialID);
+          throw new AirflowException(RESTCodes.AirflowErrorCode.JWT_NOT_CREATED, Level.SEVERE,
+              "Could not generate Airflow JWT for user " + user.getUsername(), ex.getMessage(), ex);
+        } catch (IOException ex) {
+          LOG.log(Level.WARNING, "Could not write Airflow JWT for user " + hdfsUsersController
+              .getHdfsUserName(project, user), ex);
+          deleteAirflowMaterial(materialID);
+          try {
+            jwtController.invalidate(airflowJWT.token);
+          } catch (InvalidationException invEx) {
+            LOG.log(Level.FINE, "Could not invalidate Airflow JWT. Skipping...", ex);
+          }
+          throw new AirflowException(RESTCodes.AirflowErrorCode.JWT_NOT_STORED, Level.SEVERE,
+              "Could not store Airflow JWT for user " + hdfsUsersController.getHdfsUserName(project, user),
+              ex.getMessage(), ex);
         }
-        throw new AirflowException(RESTCodes.AirflowErrorCode.JWT_NOT_STORED, Level.SEVERE,
-            "Could not store Airflow JWT for user " + hdfsUsersController.getHdfsUserName(project, user),
-            ex.getMessage(), ex);
       }
+    } finally {
+      airflowJWTs.unlock(materialID);
     }
   }
   
@@ -373,57 +378,65 @@ public class AirflowManager {
    *
    * @param timer
    */
-  @Lock(LockType.WRITE)
-  @AccessTimeout(value = 500)
+  @Lock(LockType.READ)
   @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
   @Timeout
   public void monitorSecurityMaterial(Timer timer) {
+    if (!monitoring.compareAndSet(false, true)) {
+      return;
+    }
     try {
       LocalDateTime now = DateUtils.getNow();
       // Clean unused token files and X.509 certificates
       cleanStaleSecurityMaterial();
 
-      // Renew them
-      Set<AirflowJWT> newTokens2Add = new HashSet<>();
-      Iterator<AirflowJWT> airflowJWTIt = airflowJWTs.iterator();
-      while (airflowJWTIt.hasNext()) {
-        AirflowJWT airflowJWT = airflowJWTIt.next();
-        // Set is sorted by expiration date
-        // If first does not need to be renewed, neither do the rest
-        if (airflowJWT.maybeRenew(now)) {
-          try {
-            LocalDateTime expirationDateTime = now.plus(settings.getJWTLifetimeMs(), ChronoUnit.MILLIS);
-            Date expirationDate = DateUtils.localDateTime2Date(expirationDateTime);
-            String token = jwtController.renewToken(airflowJWT.token, expirationDate,
-                DateUtils.localDateTime2Date(DateUtils.getNow()), true, new HashMap<>(3));
+      // Renew the expired ones in parallel batches, each holding the lock of its token only
+      airflowJWTs.renewExpired(executorService, settings.getJWTRenewalConcurrency(), key -> renewJWT(key, now));
+    } catch (Exception e) {
+      LOG.log(Level.SEVERE, "Got an exception while renewing/invalidating airflow jwt token", e);
+    } finally {
+      monitoring.set(false);
+    }
+  }
+  
+  private void renewJWT(MaterializedJWTID key, LocalDateTime now) {
+    airflowJWTs.lock(key);
+    try {
+      AirflowJWT airflowJWT = airflowJWTs.get(key);
+      // cleaned or renewed meanwhile
+      if (airflowJWT == null || !airflowJWT.maybeRenew(now)) {
+        return;
+      }
+      try {
+        LocalDateTime expirationDateTime = now.plus(settings.getJWTLifetimeMs(), ChronoUnit.MILLIS);
+        Date expirationDate = DateUtils.localDateTime2Date(expirationDateTime);
+        String token = jwtController.renewToken(airflowJWT.token, expirationDate,
+            DateUtils.localDateTime2Date(DateUtils.getNow()), true, new HashMap<>(3));
 
-            AirflowJWT renewedJWT = new AirflowJWT(airflowJWT.username, airflowJWT.projectId, airflowJWT.projectName,
-                expirationDateTime, airflowJWT.uid);
-            renewedJWT.tokenFile = airflowJWT.tokenFile;
-            renewedJWT.token = token;
+        AirflowJWT renewedJWT = new AirflowJWT(airflowJWT.username, airflowJWT.projectId, airflowJWT.projectName,
+            expirationDateTime, airflowJWT.uid);
+        renewedJWT.tokenFile = airflowJWT.tokenFile;
+        renewedJWT.token = token;
 
-            airflowJWTIt.remove();
-            writeTokenToFile(renewedJWT);
-            newTokens2Add.add(renewedJWT);
-          } catch (JWTException ex) {
-            LOG.log(Level.WARNING, "Could not renew Airflow JWT for " + airflowJWT, ex);
-          } catch (IOException ex) {
-            LOG.log(Level.WARNING, "Could not write renewed Airflow JWT for " + airflowJWT, ex);
-            try {
-              jwtController.invalidate(airflowJWT.token);
-            } catch (InvalidationException iex) {
-              LOG.log(Level.FINE, "Could not invalidate Airflow JWT. SKipping...");
-            }
-          } catch (Exception ex) {
-            LOG.log(Level.SEVERE, "Generic error while renewing Airflow JWTs", ex);
-          }
-        } else {
-          break;
+        airflowJWTs.remove(key);
+        writeTokenToFile(renewedJWT);
+        airflowJWTs.put(key, renewedJWT, expirationDateTime);
+      } catch (JWTException ex) {
+        LOG.log(Level.WARNING, "Could not renew Airflow JWT for " + airflowJWT, ex);
+        airflowJWTs.reschedule(key);
+      } catch (IOException ex) {
+        LOG.log(Level.WARNING, "Could not write renewed Airflow JWT for " + airflowJWT, ex);
+        try {
+          jwtController.invalidate(airflowJWT.token);
+        } catch (InvalidationException iex) {
+          LOG.log(Level.FINE, "Could not invalidate Airflow JWT. SKipping...");
         }
+      } catch (Exception ex) {
+        LOG.log(Level.SEVERE, "Generic error while renewing Airflow JWTs", ex);
+        airflowJWTs.reschedule(key);
       }
-      airflowJWTs.addAll(newTokens2Add);
-    } catch (Exception e) {
-      LOG.log(Level.SEVERE, "Got an exception while renewing/invalidating airflow jwt token", e);
+    } finally {
+      airflowJWTs.unlock(key);
     }
   }
   
@@ -476,41 +489,50 @@ public class AirflowManager {
   }
   
   private void cleanStaleSecurityMaterial() {
-    Iterator<AirflowJWT> airflowJWTsIt = airflowJWTs.iterator();
-    while (airflowJWTsIt.hasNext()) {
-      AirflowJWT nextElement = airflowJWTsIt.next();
+    for (MaterializedJWTID key : airflowJWTs.keys()) {
+      airflowJWTs.lock(key);
       try {
-        MaterializedJWTID materialId = new MaterializedJWTID(nextElement.projectId, nextElement.uid,
-            MaterializedJWTID.USAGE.AIRFLOW);
-        MaterializedJWT airflowMaterial = materializedJWTFacade.findById(materialId);
-        boolean shouldDelete = true;
-        
-        if (airflowMaterial != null) {
-          List<AirflowDag> ownedDags = airflowDagFacade.filterByOwner(nextElement.username);
-          for (AirflowDag dag : ownedDags) {
-            if (!dag.getPaused()) {
-              shouldDelete = false;
-              break;
-            }
+        cleanStaleSecurityMaterial(key);
+      } finally {
+        airflowJWTs.unlock(key);
+      }
+    }
+  }
+  
+  private void cleanStaleSecurityMaterial(MaterializedJWTID key) {
+    AirflowJWT nextElement = airflowJWTs.get(key);
+    if (nextElement == null) {
+      return;
+    }
+    try {
+      MaterializedJWT airflowMaterial = materializedJWTFacade.findById(key);
+      boolean shouldDelete = true;
+      
+      if (airflowMaterial != null) {
+        List<AirflowDag> ownedDags = airflowDagFacade.filterByOwner(nextElement.username);
+        for (AirflowDag dag : ownedDags) {
+          if (!dag.getPaused()) {
+            shouldDelete = false;
+            break;
           }
         }
+      }
+      
+      if (shouldDelete) {
+        certificateMaterializer.removeCertificatesLocalCustomDir(nextElement.username, nextElement.projectName,
+            getProjectSecretsDirectory(nextElement.username).toString());
         
-        if (shouldDelete) {
-          certificateMaterializer.removeCertificatesLocalCustomDir(nextElement.username, nextElement.projectName,
-              getProjectSecretsDirectory(nextElement.username).toString());
-          
-          FileUtils.deleteQuietly(nextElement.tokenFile.toFile());
-          airflowJWTsIt.remove();
-          if (airflowMaterial != null) {
-            deleteAirflowMaterial(materialId);
-          }
-          deleteDirectoryIfEmpty(nextElement.tokenFile.getParent());
+        FileUtils.deleteQuietly(nextElement.tokenFile.toFile());
+        airflowJWTs.remove(key);
+        if (airflowMaterial != null) {
+          deleteAirflowMaterial(key);
         }
-      } catch (Exception ex) {
-        // Catch everything here. We don't want the timer thread to get killed (expunging timer)
-        // Be on the safe side and renew the token
-        LOG.log(Level.WARNING, "Could not determine if token " + nextElement + " is stale. It will be renewed!", ex);
+        deleteDirectoryIfEmpty(nextElement.tokenFile.getParent());
       }
+    } catch (Exception ex) {
+      // Catch everything here. We don't want the timer thread to get killed (expunging timer)
+      // Be on the safe side and renew the token
+      LOG.log(Level.WARNING, "Could not determine if token " + nextElement + " is stale. It will be renewed!", ex);
     }
   }
   
@@ -532,6 +554,10 @@ public class AirflowManager {
       this.uid = uid;
     }
     
+    private MaterializedJWTID key() {
+      return new MaterializedJWTID(projectId, uid, MaterializedJWTID.USAGE.AIRFLOW);
+    }
+    
     private boolean maybeRenew(LocalDateTime now) {
       return now.isAfter(expiration) || now.isEqual(expiration);
     }
@@ -145,6 +145,12 @@ public class CertsFacade {
     em.merge(uc);
   }
 
+  public void updateAll(List<UserCerts> ucs) {
+    for (UserCerts uc : ucs) {
+      em.merge(uc);
+    }
+  }
+
   public <T> void remove(T uc) {
     if (uc != null) {
       em.remove(uc);
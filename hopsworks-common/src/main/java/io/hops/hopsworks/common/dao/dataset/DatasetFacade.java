@@ -55,6 +55,7 @@ import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -104,6 +105,21 @@ public class DatasetFacade extends AbstractFacade<Dataset> {
     }
   }
 
+  /**
+   * Finds the datasets of several inodes with one query.
+   * <p/>
+   * @param inodeIds
+   * @return
+   */
+  public List<Dataset> findByInodeIdIn(Collection<Long> inodeIds) {
+    if (inodeIds.isEmpty()) {
+      return new ArrayList<>();
+    }
+    return em.createNamedQuery("Dataset.findByInodeIdIn", Dataset.class)
+      .setParameter("inodeIds", inodeIds)
+      .getResultList();
+  }
+
   public Optional<Dataset> findByPublicDsIdProject(String publicDsId, Project project) {
     TypedQuery<Dataset> query = em.createNamedQuery("Dataset.findByPublicDsIdProject", Dataset.class)
       .setParameter("publicDsId", publicDsId)
@@ -100,6 +100,22 @@ public class InodeFacade extends AbstractFacade<Inode> {
     return query.getResultList();
   }
   
+  /**
+   * Find a page of the children of <i>parent</i>, ordered by name.
+   * <p/>
+   * @param parent
+   * @param afterName only children whose name comes after this one are returned, empty for the first page
+   * @param limit maximum number of children returned
+   * @return
+   */
+  public List<Inode> findByParent(Inode parent, String afterName, int limit) {
+    TypedQuery<Inode> query = em.createNamedQuery("Inode.findByParentIdAfterName", Inode.class);
+    query.setParameter("parentId", parent.getId());
+    query.setParameter("name", afterName);
+    query.setMaxResults(limit);
+    return query.getResultList();
+  }
+  
   public Long countByParentId(Inode parent) {
     TypedQuery<Long> query = em.createNamedQuery("Inode.countByParentId", Long.class);
     query.setParameter("parentId", parent.getId());
@@ -55,9 +55,12 @@ import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.logging.Level;
@@ -173,6 +176,77 @@ public class ExecutionFacade extends AbstractFacade<Execution> {
     return new CollectionInfo((Long) queryCount.getSingleResult(), query.getResultList());
   }
   
+  /**
+   * Page through the executions of several jobs at once. A paged request first reads the job and id of every
+   * matching execution in order, windows them per job and then reads the executions in the windows, so the number of
+   * queries does not depend on the number of jobs or on their number of executions.
+   *
+   * @return the executions of each job, keyed by job id
+   */
+  public Map<Integer, CollectionInfo> findByJobs(Integer offset, Integer limit,
+    Set<? extends AbstractFacade.FilterBy> filters,
+    Set<? extends AbstractFacade.SortBy> sorts,
+    List<Jobs> jobs) {
+    Map<Integer, CollectionInfo> executions = new HashMap<>();
+    if (jobs.isEmpty()) {
+      return executions;
+    }
+    // Same semantics as setOffsetAndLim
+    int from = offset == null || offset < 0 ? 0 : offset;
+    long to = limit == null || limit <= 0 ? Long.MAX_VALUE : (long) from + limit;
+    Map<Integer, Long> counts = new HashMap<>();
+    Map<Integer, List<Execution>> byJob = new HashMap<>();
+    if (to == Long.MAX_VALUE) {
+      String queryStr = buildQuery("SELECT e FROM Execution e ", filters, sorts, "e.job IN :jobs ");
+      Query query = em.createQuery(queryStr, Execution.class).setParameter("jobs", jobs);
+      setFilter(filters, query);
+      for (Object exec : query.getResultList()) {
+        Execution execution = (Execution) exec;
+        long position = counts.merge(execution.getJob().getId(), 1L, Long::sum) - 1;
+        if (position >= from) {
+          byJob.computeIfAbsent(execution.getJob().getId(), id -> new ArrayList<>()).add(execution);
+        }
+      }
+    } else {
+      String idQueryStr = buildQuery("SELECT e.job.id, e.id FROM Execution e ", filters, sorts, "e.job IN :jobs ");
+      Query idQuery = em.createQuery(idQueryStr).setParameter("jobs", jobs);
+      setFilter(filters, idQuery);
+      Map<Integer, List<Integer>> windows = new HashMap<>();
+      List<Integer> ids = new ArrayList<>();
+      for (Object row : idQuery.getResultList()) {
+        Object[] jobExecution = (Object[]) row;
+        Integer jobId = (Integer) jobExecution[0];
+        long position = counts.merge(jobId, 1L, Long::sum) - 1;
+        if (position >= from && position < to) {
+          windows.computeIfAbsent(jobId, id -> new ArrayList<>()).add((Integer) jobExecution[1]);
+          ids.add((Integer) jobExecution[1]);
+        }
+      }
+      if (!ids.isEmpty()) {
+        Map<Integer, Execution> byId = new HashMap<>();
+        for (Execution execution : em.createQuery("SELECT e FROM Execution e WHERE e.id IN :ids", Execution.class)
+          .setParameter("ids", ids).getResultList()) {
+          byId.put(execution.getId(), execution);
+        }
+        for (Map.Entry<Integer, List<Integer>> window : windows.entrySet()) {
+          List<Execution> page = new ArrayList<>();
+          for (Integer id : window.getValue()) {
+            // An execution removed between the two queries is left out of the page
+            if (byId.containsKey(id)) {
+              page.add(byId.get(id));
+            }
+          }
+          byJob.put(window.getKey(), page);
+        }
+      }
+    }
+    for (Jobs job : jobs) {
+      executions.put(job.getId(), new CollectionInfo(counts.getOrDefault(job.getId(), 0L),
+        byJob.getOrDefault(job.getId(), new ArrayList<>())));
+    }
+    return executions;
+  }
+  
   
   private void setFilter(Set<? extends AbstractFacade.FilterBy> filter, Query q) {
     if (filter == null || filter.isEmpty()) {
@@ -369,6 +443,28 @@ public class ExecutionFacade extends AbstractFacade<Execution> {
     return exec;
   }
 
+  /**
+   * Update state, final status and progress of an execution with a single merge. Nothing is written if none of the
+   * values differs from what is currently stored.
+   *
+   * @param exec execution
+   * @param newState new state
+   * @param finalStatus new final status
+   * @param progress new progress
+   * @return the updated execution
+   */
+  public Execution updateStatus(Execution exec, JobState newState, JobFinalStatus finalStatus, float progress) {
+    exec = getExecution(exec);
+    if (exec.getState() == newState && exec.getFinalStatus() == finalStatus && exec.getProgress() == progress) {
+      return exec;
+    }
+    exec.setState(newState);
+    exec.setFinalStatus(finalStatus);
+    exec.setProgress(progress);
+    merge(exec);
+    return exec;
+  }
+
   public Execution updateExecutionStart(Execution exec, long executionStart) {
     exec = getExecution(exec);
     exec.setExecutionStart(executionStart);
@@ -41,6 +41,7 @@ package io.hops.hopsworks.common.dao.project;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import javax.ejb.EJB;
 import javax.ejb.Stateless;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
@@ -50,12 +51,15 @@ import javax.persistence.TypedQuery;
 import io.hops.hopsworks.persistence.entity.project.Project;
 import io.hops.hopsworks.persistence.entity.user.Users;
 import io.hops.hopsworks.common.dao.AbstractFacade;
+import io.hops.hopsworks.common.dao.project.team.ProjectRoleCache;
 
 @Stateless
 public class ProjectFacade extends AbstractFacade<Project> {
 
   @PersistenceContext(unitName = "kthfsPU")
   private EntityManager em;
+  @EJB
+  private ProjectRoleCache projectRoleCache;
 
   @Override
   protected EntityManager getEntityManager() {
@@ -228,6 +232,7 @@ public class ProjectFacade extends AbstractFacade<Project> {
   public void removeProject(Project project) {
     project.setDeleted(Boolean.TRUE);
     em.merge(project);
+    projectRoleCache.invalidateProject(project.getId());
   }
 
   /**
@@ -0,0 +1,153 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.dao.project.team;
+
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.ejb.Timer;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short lived cache of the role a user has in a project, used to authorize project scoped requests without
+ * querying the project, the user and the team for every call. Entries are keyed by project id. The entries of a
+ * project are dropped whenever its team changes through {@link ProjectTeamFacade} or the project is removed, both
+ * right away and once the surrounding transaction completes. A role read from the database is only cached if no
+ * invalidation happened since the read started, so that a concurrent request cannot cache the role it read before
+ * the change was committed.
+ * <p>
+ * Invalidation is local to this instance. A change made through another Hopsworks instance is seen here once the
+ * entries expire, so a removed member or a demoted role keeps its old access for at most {@link #TTL_MS} ms. The TTL
+ * is kept short for that reason; it only has to cover the burst of requests a single page load makes.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class ProjectRoleCache {
+  
+  private static final long TTL_MS = TimeUnit.SECONDS.toMillis(5);
+  
+  private final Map<String, CachedRole> roles = new ConcurrentHashMap<>();
+  private final AtomicLong invalidations = new AtomicLong();
+  
+  @Resource
+  private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+  
+  /**
+   * @param username user
+   * @param projectId project id
+   * @return the cached role, or null if there is no valid entry
+   */
+  public CachedRole get(String username, Integer projectId) {
+    CachedRole cached = roles.get(key(username, projectId));
+    if (cached == null || cached.isExpired()) {
+      return null;
+    }
+    return cached;
+  }
+  
+  /**
+   * @return a stamp to take before reading a role from the database and to pass to
+   * {@link #put(String, Integer, String, long)}
+   */
+  public long stamp() {
+    return invalidations.get();
+  }
+  
+  /**
+   * @param username user
+   * @param projectId project id
+   * @param role the role of the user in the project or null if the user is not a member
+   * @param stamp the stamp taken before the role was read
+   */
+  public void put(String username, Integer projectId, String role, long stamp) {
+    String key = key(username, projectId);
+    roles.put(key, new CachedRole(projectId, role));
+    // An invalidation raced with the read, the role might be stale
+    if (invalidations.get() != stamp) {
+      roles.remove(key);
+    }
+  }
+  
+  /**
+   * Drop the entries of a project now and, if a transaction is active, again after it completes.
+   *
+   * @param projectId project id
+   */
+  @TransactionAttribute(TransactionAttributeType.SUPPORTS)
+  public void invalidateProject(Integer projectId) {
+    removeProject(projectId);
+    if (transactionSynchronizationRegistry.getTransactionStatus() == Status.STATUS_ACTIVE) {
+      transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+        @Override
+        public void beforeCompletion() {
+        }
+  
+        @Override
+        public void afterCompletion(int status) {
+          removeProject(projectId);
+        }
+      });
+    }
+  }
+  
+  private void removeProject(Integer projectId) {
+    invalidations.incrementAndGet();
+    roles.values().removeIf(cached -> cached.getProjectId().equals(projectId));
+  }
+  
+  @Schedule(persistent = false, minute = "*", hour = "*")
+  public void removeExpired(Timer timer) {
+    roles.values().removeIf(CachedRole::isExpired);
+  }
+  
+  private String key(String username, Integer projectId) {
+    return username + "/" + projectId;
+  }
+  
+  public static class CachedRole {
+    private final Integer projectId;
+    private final String role;
+    private final long expiresAt = System.currentTimeMillis() + TTL_MS;
+    
+    private CachedRole(Integer projectId, String role) {
+      this.projectId = projectId;
+      this.role = role;
+    }
+    
+    public Integer getProjectId() {
+      return projectId;
+    }
+    
+    public String getRole() {
+      return role;
+    }
+    
+    private boolean isExpired() {
+      return expiresAt < System.currentTimeMillis();
+    }
+  }
+}
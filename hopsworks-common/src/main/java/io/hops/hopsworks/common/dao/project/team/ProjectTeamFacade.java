@@ -44,6 +44,7 @@ import io.hops.hopsworks.persistence.entity.project.team.ProjectRoleTypes;
 import io.hops.hopsworks.persistence.entity.project.team.ProjectTeam;
 import io.hops.hopsworks.persistence.entity.user.Users;
 
+import javax.ejb.EJB;
 import javax.ejb.Stateless;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
@@ -59,6 +60,8 @@ public class ProjectTeamFacade extends AbstractFacade<ProjectTeam> {
 
   @PersistenceContext(unitName = "kthfsPU")
   private EntityManager em;
+  @EJB
+  private ProjectRoleCache projectRoleCache;
 
   @Override
   protected EntityManager getEntityManager() {
@@ -253,6 +256,22 @@ public class ProjectTeamFacade extends AbstractFacade<ProjectTeam> {
 
   public void persistProjectTeam(ProjectTeam team) {
     em.persist(team);
+    projectRoleCache.invalidateProject(team.getProject().getId());
+  }
+  
+  @Override
+  public ProjectTeam update(ProjectTeam team) {
+    ProjectTeam updated = super.update(team);
+    projectRoleCache.invalidateProject(team.getProject().getId());
+    return updated;
+  }
+  
+  @Override
+  public void remove(ProjectTeam team) {
+    super.remove(team);
+    if (team != null) {
+      projectRoleCache.invalidateProject(team.getProject().getId());
+    }
   }
 
   /**
@@ -267,6 +286,7 @@ public class ProjectTeamFacade extends AbstractFacade<ProjectTeam> {
     if (team != null) {
       em.remove(team);
     }
+    projectRoleCache.invalidateProject(project.getId());
   }
 
   /**
@@ -298,6 +318,7 @@ public class ProjectTeamFacade extends AbstractFacade<ProjectTeam> {
       team.setTimestamp(new Date());
       em.merge(team);
     }
+    projectRoleCache.invalidateProject(project.getId());
   }
 
   /**
@@ -328,6 +349,7 @@ public class ProjectTeamFacade extends AbstractFacade<ProjectTeam> {
       member.setTimestamp(new Date());
       em.merge(member);
     }
+    projectRoleCache.invalidateProject(project.getId());
     return teamMembers;
   }
 
@@ -26,6 +26,8 @@ import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
 import javax.persistence.TypedQuery;
 import javax.validation.ConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -108,6 +110,15 @@ public class TensorBoardFacade {
     return q.getResultList();
   }
 
+  public List<TensorBoard> findByMlIds(Collection<String> mlIds) {
+    if (mlIds.isEmpty()) {
+      return new ArrayList<>();
+    }
+    TypedQuery<TensorBoard> q = em.createNamedQuery("TensorBoard.findByMlIds", TensorBoard.class);
+    q.setParameter("mlIds", mlIds);
+    return q.getResultList();
+  }
+
   public TensorBoard findByMlId(String mlId) {
     try {
       TypedQuery<TensorBoard> q = em.createNamedQuery("TensorBoard.findByMlId", TensorBoard.class);
@@ -55,6 +55,7 @@ import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -318,6 +319,14 @@ public class UserFacade extends AbstractFacade<Users> {
     }
   }
 
+  public List<Users> findByUsernames(Collection<String> usernames) {
+    if (usernames.isEmpty()) {
+      return new ArrayList<>();
+    }
+    return em.createNamedQuery("Users.findByUsernames", Users.class).setParameter("usernames", usernames)
+        .getResultList();
+  }
+
   public void persist(Users user) {
     em.persist(user);
   }
@@ -46,6 +46,12 @@ public class SecretsFacade {
     entityManager.merge(secret);
   }
   
+  public void updateAll(List<Secret> secrets) {
+    for (Secret secret : secrets) {
+      entityManager.merge(secret);
+    }
+  }
+  
   public List<Secret> findAllForUser(Users user) {
     return entityManager.createNamedQuery("Secret.findByUser", Secret.class)
         .setParameter("uid", user.getUid())
@@ -57,6 +63,13 @@ public class SecretsFacade {
         .getResultList();
   }
   
+  public List<Secret> findAll(int offset, int limit) {
+    return entityManager.createNamedQuery("Secret.findAllOrderById", Secret.class)
+        .setFirstResult(offset)
+        .setMaxResults(limit)
+        .getResultList();
+  }
+  
   public void deleteSecret(SecretId id) {
     Secret secret = findById(id);
     if (secret != null) {
@@ -0,0 +1,526 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.dataset;
+
+import io.hops.hopsworks.common.hdfs.DistributedFileSystemOps;
+import io.hops.hopsworks.common.hdfs.DistributedFsService;
+import io.hops.hopsworks.common.monitoring.MonitoringRegistry;
+import io.hops.hopsworks.common.util.FutureTasks;
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.exceptions.DatasetException;
+import io.hops.hopsworks.restutils.RESTCodes;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.permission.FsPermission;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Zips and unzips files in HopsFS by streaming them through the JVM, archives are never staged on local disk.
+ * Entries of up to {@link #MAX_BUFFERED_ENTRY} bytes are read (zip) or written (unzip) by up to
+ * {@link Settings#getArchiveEntryConcurrency()} tasks in parallel, larger entries are streamed by the thread writing
+ * the archive.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@DependsOn("Settings")
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class ArchiveController {
+  
+  private static final Logger LOGGER = Logger.getLogger(ArchiveController.class.getName());
+  public static final String ZIP_EXTENSION = ".zip";
+  private static final int MAX_BUFFERED_ENTRY = 8 * 1024 * 1024;
+  private static final int BUFFER_SIZE = 64 * 1024;
+  
+  @EJB
+  private Settings settings;
+  @EJB
+  private MonitoringRegistry monitoringRegistry;
+  @EJB
+  private DistributedFsService dfs;
+  @Resource(lookup = "concurrent/hopsExecutorService")
+  private ManagedExecutorService executorService;
+  
+  // Operations started from the UI by path, finished ones are removed once their final state has been read
+  private final Map<String, ArchiveOperation> operations = new ConcurrentHashMap<>();
+  
+  @PostConstruct
+  public void init() {
+    monitoringRegistry.register("archives", this::getMetrics);
+  }
+  
+  public enum State {
+    NONE,
+    ZIPPING,
+    UNZIPPING,
+    SUCCESS,
+    FAILED
+  }
+  
+  /**
+   * Zip a file or a directory in the background into a .zip file next to it.
+   *
+   * @param path the file or directory to zip
+   * @param hdfsUser the user reading the files and owning the archive
+   * @throws DatasetException if the archive already exists or the path is already being zipped or unzipped
+   */
+  public void zip(Path path, String hdfsUser) throws DatasetException {
+    Path archive = new Path(path.getParent(), path.getName() + ZIP_EXTENSION);
+    if (exists(archive, hdfsUser)) {
+      throw new DatasetException(RESTCodes.DatasetErrorCode.DESTINATION_EXISTS, Level.FINE,
+        "path: " + archive);
+    }
+    start(path, State.ZIPPING, hdfsUser, (udfso, operation) -> {
+      // Written under a hidden name and renamed once complete, so that a failed zip leaves no partial archive
+      Path partial = new Path(path.getParent(), "." + archive.getName() + ".partial");
+      boolean renamed = false;
+      try {
+        try (OutputStream out = udfso.create(partial)) {
+          writeZip(udfso, path, out, operation);
+        }
+        // Unlike create, rename does not replace an archive which was created while zipping
+        renamed = udfso.getFilesystem().rename(partial, archive);
+        if (!renamed) {
+          throw new IOException("Archive " + archive + " already exists");
+        }
+      } finally {
+        if (!renamed) {
+          delete(udfso, partial);
+        }
+      }
+    });
+  }
+  
+  /**
+   * Extract a .zip file in the background into the directory holding it.
+   *
+   * @param archive the archive to extract
+   * @param hdfsUser the user reading the archive and owning the extracted files
+   * @throws DatasetException if the archive is already being zipped or unzipped
+   */
+  public void unzip(Path archive, String hdfsUser) throws DatasetException {
+    start(archive, State.UNZIPPING, hdfsUser, (udfso, operation) -> {
+      try (InputStream in = udfso.open(archive)) {
+        readZip(udfso, in, archive.getParent(), operation);
+      }
+    });
+  }
+  
+  /**
+   * Write a file or a directory as a zip archive. The stream is finished but not closed.
+   *
+   * @param udfso client of the user reading the files
+   * @param path the file or directory to zip, it is the single top level entry of the archive
+   * @param out where the archive is written
+   * @throws IOException
+   */
+  public void writeZip(DistributedFileSystemOps udfso, Path path, OutputStream out) throws IOException {
+    writeZip(udfso, path, out, new ArchiveOperation(State.ZIPPING, udfso.getEffectiveUser()));
+  }
+  
+  /**
+   * The state of the last zip or unzip of a path. A final state is only returned once.
+   *
+   * @param path
+   * @return
+   */
+  public State getState(String path) {
+    ArchiveOperation operation = operations.get(path);
+    if (operation == null) {
+      return State.NONE;
+    }
+    State state = operation.state;
+    if (state == State.SUCCESS || state == State.FAILED) {
+      operations.remove(path, operation);
+    }
+    return state;
+  }
+  
+  public ArchiveControllerMetrics getMetrics() {
+    ArchiveControllerMetrics metrics = new ArchiveControllerMetrics();
+    long now = System.currentTimeMillis();
+    operations.forEach((path, operation) -> metrics.getOperations().add(
+      new ArchiveControllerMetrics.ArchiveOperationMetrics(path, operation.state.name(), operation.hdfsUser,
+        now - operation.startedAt, operation.entries.get(), operation.bytes.get())));
+    return metrics;
+  }
+  
+  private void start(Path path, State state, String hdfsUser, ArchiveTask task) throws DatasetException {
+    ArchiveOperation operation = new ArchiveOperation(state, hdfsUser);
+    ArchiveOperation running = operations.merge(path.toString(), operation,
+      (previous, next) -> previous.state == State.ZIPPING || previous.state == State.UNZIPPING ? previous : next);
+    if (running != operation) {
+      throw new DatasetException(RESTCodes.DatasetErrorCode.COMPRESSION_ERROR, Level.FINE,
+        "path: " + path + " is already being " + running.state.name().toLowerCase());
+    }
+    try {
+      executorService.submit(() -> run(path, operation, task));
+    } catch (RejectedExecutionException e) {
+      operations.remove(path.toString(), operation);
+      throw new DatasetException(RESTCodes.DatasetErrorCode.COMPRESSION_ERROR, Level.WARNING, "path: " + path,
+        e.getMessage(), e);
+    }
+  }
+  
+  private void run(Path path, ArchiveOperation operation, ArchiveTask task) {
+    DistributedFileSystemOps udfso = null;
+    try {
+      udfso = dfs.getDfsOps(operation.hdfsUser);
+      task.run(udfso, operation);
+      operation.state = State.SUCCESS;
+      LOGGER.log(Level.FINE, "Finished {0} {1}: entries={2}, bytes={3}, elapsed={4}ms", new Object[]{
+        operation.operation, path, operation.entries.get(), operation.bytes.get(),
+        System.currentTimeMillis() - operation.startedAt});
+    } catch (IOException | RuntimeException e) {
+      operation.state = State.FAILED;
+      LOGGER.log(Level.WARNING, "Failed " + operation.operation + " " + path, e);
+    } finally {
+      dfs.closeDfsClient(udfso);
+    }
+  }
+  
+  private boolean exists(Path path, String hdfsUser) throws DatasetException {
+    DistributedFileSystemOps udfso = null;
+    try {
+      udfso = dfs.getDfsOps(hdfsUser);
+      return udfso.exists(path);
+    } catch (IOException e) {
+      throw new DatasetException(RESTCodes.DatasetErrorCode.COMPRESSION_ERROR, Level.WARNING, "path: " + path,
+        e.getMessage(), e);
+    } finally {
+      dfs.closeDfsClient(udfso);
+    }
+  }
+  
+  private void delete(DistributedFileSystemOps udfso, Path path) {
+    try {
+      udfso.rm(path, false);
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Could not delete " + path, e);
+    }
+  }
+  
+  private void writeZip(DistributedFileSystemOps udfso, Path path, OutputStream out, ArchiveOperation operation)
+    throws IOException {
+    int concurrency = Math.max(1, settings.getArchiveEntryConcurrency());
+    ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+    // Entries in the order they are written to the archive, small files are read ahead in parallel
+    Deque<ZipSource> window = new ArrayDeque<>();
+    Deque<ZipSource> dirs = new ArrayDeque<>();
+    try {
+      ZipSource root = new ZipSource(udfso.getFileStatus(path), path.getName());
+      window.add(root);
+      if (root.status.isDirectory()) {
+        dirs.push(root);
+      }
+      while (!dirs.isEmpty()) {
+        ZipSource dir = dirs.pop();
+        for (FileStatus child : udfso.listStatus(dir.status.getPath())) {
+          ZipSource source = new ZipSource(child, dir.name + "/" + child.getPath().getName());
+          while (window.size() >= concurrency) {
+            putEntry(zos, udfso, window.poll(), operation);
+          }
+          if (child.isDirectory()) {
+            dirs.push(source);
+          } else if (child.getLen() <= MAX_BUFFERED_ENTRY) {
+            source.content = new FutureTask<>(() -> readFully(udfso, child));
+            FutureTasks.execute(executorService, source.content);
+          }
+          window.add(source);
+        }
+      }
+      while (!window.isEmpty()) {
+        putEntry(zos, udfso, window.poll(), operation);
+      }
+      zos.finish();
+      zos.flush();
+    } finally {
+      window.forEach(source -> {
+        if (source.content != null) {
+          source.content.cancel(true);
+        }
+      });
+    }
+  }
+  
+  private void putEntry(ZipOutputStream zos, DistributedFileSystemOps udfso, ZipSource source,
+    ArchiveOperation operation) throws IOException {
+    ZipEntry entry = new ZipEntry(source.status.isDirectory() ? source.name + "/" : source.name);
+    entry.setTime(source.status.getModificationTime());
+    zos.putNextEntry(entry);
+    if (source.content != null) {
+      byte[] content = FutureTasks.awaitIO(source.content, "waiting for an archive entry");
+      zos.write(content);
+      operation.bytes.addAndGet(content.length);
+    } else if (!source.status.isDirectory()) {
+      try (InputStream in = udfso.open(source.status.getPath())) {
+        copy(in, zos, operation);
+      }
+    }
+    zos.closeEntry();
+    operation.entries.incrementAndGet();
+  }
+  
+  private byte[] readFully(DistributedFileSystemOps udfso, FileStatus status) throws IOException {
+    byte[] content = new byte[(int) status.getLen()];
+    try (FSDataInputStream in = udfso.open(status.getPath())) {
+      in.readFully(0, content);
+    }
+    return content;
+  }
+  
+  private void readZip(DistributedFileSystemOps udfso, InputStream in, Path destination, ArchiveOperation operation)
+    throws IOException {
+    int concurrency = Math.max(1, settings.getArchiveEntryConcurrency());
+    ZipInputStream zis = new ZipInputStream(new BufferedInputStream(in, BUFFER_SIZE));
+    Deque<FutureTask<Void>> writers = new ArrayDeque<>();
+    Extraction extraction = new Extraction(udfso, destination);
+    boolean extracted = false;
+    try {
+      ZipEntry entry;
+      boolean empty = true;
+      while ((entry = zis.getNextEntry()) != null) {
+        empty = false;
+        Path target = resolve(destination, entry.getName());
+        extraction.creating(target);
+        if (entry.isDirectory()) {
+          udfso.mkdirs(target, FsPermission.getDefault());
+        } else if (entry.getSize() >= 0 && entry.getSize() <= MAX_BUFFERED_ENTRY) {
+          byte[] content = new byte[(int) entry.getSize()];
+          readFully(zis, content);
+          while (writers.size() >= concurrency) {
+            FutureTasks.awaitIO(writers.poll(), "waiting for an archive entry");
+          }
+          FutureTask<Void> writer = new FutureTask<>(() -> {
+            if (extraction.failed) {
+              return null;
+            }
+            try (OutputStream out = udfso.create(target)) {
+              out.write(content);
+            }
+            operation.bytes.addAndGet(content.length);
+            return null;
+          });
+          FutureTasks.execute(executorService, writer);
+          writers.add(writer);
+        } else {
+          // Entries without a size in their header are streamed as well
+          try (OutputStream out = udfso.create(target)) {
+            copy(zis, out, operation);
+          }
+        }
+        operation.entries.incrementAndGet();
+      }
+      if (empty) {
+        throw new IOException("Not a zip archive or an empty one");
+      }
+      while (!writers.isEmpty()) {
+        FutureTasks.awaitIO(writers.poll(), "waiting for an archive entry");
+      }
+      extracted = true;
+    } finally {
+      if (!extracted) {
+        extraction.failed = true;
+        // Writers which did not start yet return at once, the running ones finish before the clean up
+        for (FutureTask<Void> writer : writers) {
+          try {
+            FutureTasks.awaitIO(writer, "waiting for an archive entry");
+          } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Extraction into " + destination + " failed", e);
+          }
+        }
+        extraction.cleanUp();
+      }
+    }
+  }
+  
+  /**
+   * Resolve the name of a zip entry against the directory the archive is extracted into. Names which would be
+   * written anywhere else, through a parent reference, an absolute URI or a scheme, are rejected.
+   *
+   * @param destination the directory the archive is extracted into
+   * @param name the name of the entry
+   * @return the normalized path of the entry, strictly inside destination
+   * @throws IOException if the entry does not belong to destination
+   */
+  static Path resolve(Path destination, String name) throws IOException {
+    StringBuilder relative = new StringBuilder();
+    // Archives written on Windows may separate the parts of a name with backslashes
+    for (String part : name.replace('\\', '/').split("/")) {
+      if (part.isEmpty() || part.equals(".")) {
+        continue;
+      }
+      if (part.equals("..")) {
+        throw new IOException("Illegal zip entry: " + name);
+      }
+      if (relative.length() > 0) {
+        relative.append('/');
+      }
+      relative.append(part);
+    }
+    if (relative.length() == 0) {
+      throw new IOException("Illegal zip entry: " + name);
+    }
+    URI child;
+    try {
+      child = new Path(relative.toString()).toUri();
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Illegal zip entry: " + name, e);
+    }
+    // A child with a scheme or an authority would be returned unchanged by new Path(destination, child)
+    if (child.getScheme() != null || child.getAuthority() != null || child.getPath().startsWith("/")) {
+      throw new IOException("Illegal zip entry: " + name);
+    }
+    Path target = new Path(destination, relative.toString());
+    URI parent = destination.toUri();
+    URI resolved = target.toUri();
+    String parentPath = parent.getPath().endsWith("/") ? parent.getPath() : parent.getPath() + "/";
+    if (!Objects.equals(parent.getScheme(), resolved.getScheme())
+      || !Objects.equals(parent.getAuthority(), resolved.getAuthority())
+      || !resolved.getPath().startsWith(parentPath) || resolved.getPath().length() == parentPath.length()) {
+      throw new IOException("Illegal zip entry: " + name);
+    }
+    return target;
+  }
+  
+  private void readFully(InputStream in, byte[] content) throws IOException {
+    int offset = 0;
+    while (offset < content.length) {
+      int read = in.read(content, offset, content.length - offset);
+      if (read < 0) {
+        throw new IOException("Truncated zip entry");
+      }
+      offset += read;
+    }
+  }
+  
+  private void copy(InputStream in, OutputStream out, ArchiveOperation operation) throws IOException {
+    byte[] buffer = new byte[BUFFER_SIZE];
+    int read;
+    while ((read = in.read(buffer)) != -1) {
+      out.write(buffer, 0, read);
+      operation.bytes.addAndGet(read);
+    }
+  }
+  
+  /**
+   * Remembers what an extraction created, so that a failed extraction can remove it. Entries under a top level
+   * directory created by the extraction are removed with it, entries under an existing directory are removed one by one
+   * if they did not exist before.
+   */
+  private static class Extraction {
+    private final DistributedFileSystemOps udfso;
+    private final Path destination;
+    private final Map<String, Boolean> topLevelExisted = new HashMap<>();
+    private final List<Path> created = new ArrayList<>();
+    private volatile boolean failed;
+    
+    private Extraction(DistributedFileSystemOps udfso, Path destination) {
+      this.udfso = udfso;
+      this.destination = destination;
+    }
+    
+    private void creating(Path target) throws IOException {
+      String relative = target.toUri().getPath().substring(destination.toUri().getPath().length());
+      String topLevel = relative.replaceFirst("^/+", "").split("/")[0];
+      Boolean existed = topLevelExisted.get(topLevel);
+      if (existed == null) {
+        Path topLevelPath = new Path(destination, topLevel);
+        existed = udfso.exists(topLevelPath);
+        topLevelExisted.put(topLevel, existed);
+        if (!existed) {
+          created.add(topLevelPath);
+        }
+      }
+      if (existed && !udfso.exists(target)) {
+        created.add(target);
+      }
+    }
+    
+    private void cleanUp() {
+      for (int i = created.size() - 1; i >= 0; i--) {
+        try {
+          udfso.rm(created.get(i), true);
+        } catch (IOException e) {
+          LOGGER.log(Level.WARNING, "Could not remove " + created.get(i) + " of a failed extraction", e);
+        }
+      }
+    }
+  }
+  
+  private interface ArchiveTask {
+    void run(DistributedFileSystemOps udfso, ArchiveOperation operation) throws IOException;
+  }
+  
+  private static class ZipSource {
+    private final FileStatus status;
+    private final String name;
+    private FutureTask<byte[]> content;
+    
+    private ZipSource(FileStatus status, String name) {
+      this.status = status;
+      this.name = name;
+    }
+  }
+  
+  private static class ArchiveOperation {
+    private final State operation;
+    private final String hdfsUser;
+    private final long startedAt = System.currentTimeMillis();
+    private final AtomicLong entries = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private volatile State state;
+    
+    private ArchiveOperation(State operation, String hdfsUser) {
+      this.operation = operation;
+      this.hdfsUser = hdfsUser;
+      this.state = operation;
+    }
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.dataset;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Zip and unzip operations tracked by {@link ArchiveController}
+ */
+@XmlRootElement
+public class ArchiveControllerMetrics implements Serializable {
+  
+  private List<ArchiveOperationMetrics> operations = new ArrayList<>();
+  
+  public ArchiveControllerMetrics() {
+  }
+  
+  public List<ArchiveOperationMetrics> getOperations() {
+    return operations;
+  }
+  
+  public void setOperations(List<ArchiveOperationMetrics> operations) {
+    this.operations = operations;
+  }
+  
+  public static class ArchiveOperationMetrics implements Serializable {
+    
+    private String path;
+    private String state;
+    private String hdfsUser;
+    private long elapsedMs;
+    private long entries;
+    private long bytes;
+    
+    public ArchiveOperationMetrics() {
+    }
+    
+    public ArchiveOperationMetrics(String path, String state, String hdfsUser, long elapsedMs, long entries,
+      long bytes) {
+      this.path = path;
+      this.state = state;
+      this.hdfsUser = hdfsUser;
+      this.elapsedMs = elapsedMs;
+      this.entries = entries;
+      this.bytes = bytes;
+    }
+    
+    public String getPath() {
+      return path;
+    }
+    
+    public void setPath(String path) {
+      this.path = path;
+    }
+    
+    public String getState() {
+      return state;
+    }
+    
+    public void setState(String state) {
+      this.state = state;
+    }
+    
+    public String getHdfsUser() {
+      return hdfsUser;
+    }
+    
+    public void setHdfsUser(String hdfsUser) {
+      this.hdfsUser = hdfsUser;
+    }
+    
+    public long getElapsedMs() {
+      return elapsedMs;
+    }
+    
+    public void setElapsedMs(long elapsedMs) {
+      this.elapsedMs = elapsedMs;
+    }
+    
+    public long getEntries() {
+      return entries;
+    }
+    
+    public void setEntries(long entries) {
+      this.entries = entries;
+    }
+    
+    public long getBytes() {
+      return bytes;
+    }
+    
+    public void setBytes(long bytes) {
+      this.bytes = bytes;
+    }
+  }
+}
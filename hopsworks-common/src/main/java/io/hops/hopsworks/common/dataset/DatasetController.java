@@ -39,7 +39,6 @@
 
 package io.hops.hopsworks.common.dataset;
 
-import io.hops.common.Pair;
 import io.hops.hopsworks.common.constants.auth.AllowedRoles;
 import io.hops.hopsworks.common.dao.dataset.DatasetFacade;
 import io.hops.hopsworks.common.dao.dataset.DatasetRequestFacade;
@@ -58,13 +57,11 @@ import io.hops.hopsworks.common.hdfs.FsPermissions;
 import io.hops.hopsworks.common.hdfs.HdfsUsersController;
 import io.hops.hopsworks.common.hdfs.Utils;
 import io.hops.hopsworks.common.hdfs.inode.InodeController;
+import io.hops.hopsworks.common.hdfs.inode.InodeTreeWalker;
 import io.hops.hopsworks.common.jupyter.JupyterController;
 import io.hops.hopsworks.common.provenance.core.HopsFSProvenanceController;
 import io.hops.hopsworks.common.provenance.core.dto.ProvTypeDTO;
 import io.hops.hopsworks.common.util.HopsUtils;
-import io.hops.hopsworks.common.util.OSProcessExecutor;
-import io.hops.hopsworks.common.util.ProcessDescriptor;
-import io.hops.hopsworks.common.util.ProcessResult;
 import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.exceptions.DatasetException;
 import io.hops.hopsworks.exceptions.HopsSecurityException;
@@ -88,7 +85,6 @@ import io.hops.hopsworks.persistence.entity.user.Users;
 import io.hops.hopsworks.persistence.entity.user.activity.ActivityFlag;
 import io.hops.hopsworks.restutils.RESTCodes;
 import org.apache.commons.codec.binary.Base64;
-import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileStatus;
@@ -106,8 +102,10 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Stack;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -126,6 +124,8 @@ public class DatasetController {
   @EJB
   private InodeController inodeController;
   @EJB
+  private InodeTreeWalker inodeTreeWalker;
+  @EJB
   private TemplateFacade templates;
   @EJB
   private DatasetFacade datasetFacade;
@@ -148,7 +148,7 @@ public class DatasetController {
   @EJB
   private HdfsUsersController hdfsUsersController;
   @EJB
-  private OSProcessExecutor osProcessExecutor;
+  private ArchiveController archiveController;
   @EJB
   private DatasetRequestFacade datasetRequest;
   @EJB
@@ -326,37 +326,41 @@ public class DatasetController {
      * available in HOPSFS client. So we build all the path of the tree and
      * we call the set permission on each one
      */
+    boolean changeOwner = username != null && group != null && dfso != null;
     // Set permission/ownership for the root
-    if (username != null && group != null && dfso != null) {
+    if (changeOwner) {
       dfso.setOwner(path, username, group);
     }
     udfso.setPermission(path, permission);
     Inode rootInode = inodeController.getInodeAtPath(path.toString());
 
-    // Keep a list of directories to avoid using recursion
-    // Remember also the path to avoid going to the database for path resolution
-    Stack<Pair<Inode, Path>> dirs = new Stack<>();
-    if (rootInode.isDir()) {
-      dirs.push(new Pair<>(rootInode, path));
-    }
-
-    while (!dirs.isEmpty()) {
-      Pair<Inode, Path> dirInode = dirs.pop();
-      for (Inode child : inodeController.getChildren(dirInode.getL())) {
-        Path childPath = new Path(dirInode.getR(), child.getInodePK().getName());
-
-        if (username != null && group != null && dfso != null) {
-          dfso.setOwner(childPath, username, group);
-        }
-        udfso.setPermission(childPath, permission);
-
-        if (child.isDir()) {
-          dirs.push(new Pair<>(child, childPath));
-        }
+    // Inodes which already have the expected ownership and permission are skipped, so running the same change again
+    // after it was interrupted only touches what is left. The inode rows read by the walk can be stale, so an inode
+    // is only skipped once the file system confirms it, which costs one read instead of two writes.
+    inodeTreeWalker.walk(rootInode, path, (inode, inodePath) -> {
+      boolean setOwner = changeOwner && !isOwnedBy(inode, username, group);
+      boolean setPermission = inode.getPermission() != permission.toShort();
+      if (!setOwner && !setPermission) {
+        FileStatus status = udfso.getFileStatus(inodePath);
+        setOwner = changeOwner && !(username.equals(status.getOwner()) && group.equals(status.getGroup()));
+        setPermission = status.getPermission().toShort() != permission.toShort();
       }
-    }
+      if (setOwner) {
+        dfso.setOwner(inodePath, username, group);
+      }
+      if (setPermission) {
+        udfso.setPermission(inodePath, permission);
+      }
+      return setOwner || setPermission;
+    });
+  }
+  
+  private boolean isOwnedBy(Inode inode, String username, String group) {
+    return inode.getHdfsUser() != null && username.equals(inode.getHdfsUser().getName())
+      && inode.getHdfsGroup() != null && group.equals(inode.getHdfsGroup().getName());
   }
 
+
   /**
    * Creates a folder in HDFS at the given path, and associates a template with
    * that folder.
@@ -559,6 +563,20 @@ public class DatasetController {
     return datasetFacade.findByInode(inode);
   }
   
+  /**
+   * Datasets of several inodes, fetched with one query
+   *
+   * @param inodeIds
+   * @return inode id -> dataset, inodes that are not datasets are left out
+   */
+  public Map<Long, Dataset> getDatasetsByInodeIds(Collection<Long> inodeIds) {
+    Map<Long, Dataset> datasets = new HashMap<>();
+    for (Dataset dataset : datasetFacade.findByInodeIdIn(inodeIds)) {
+      datasets.put(dataset.getInodeId(), dataset);
+    }
+    return datasets;
+  }
+  
   /**
    * Get a top level dataset by project name or parent path. If parent path is null the project name is used as parent
    * @param currentProject
@@ -750,69 +768,13 @@ public class DatasetController {
   public void unzip(Project project, Users user, Path path) throws DatasetException {
     String hdfsUser = hdfsUsersController.getHdfsUserName(project, user);
     checkFileExists(path, hdfsUser);
-    String localDir = DigestUtils.sha256Hex(path.toString());
-    String stagingDir = settings.getStagingDir() + File.separator + localDir;
-    
-    File unzipDir = new File(stagingDir);
-    unzipDir.mkdirs();
-    settings.addUnzippingState(path.toString());
-    
-    ProcessDescriptor processDescriptor = new ProcessDescriptor.Builder()
-      .addCommand(settings.getHopsworksDomainDir() + "/bin/unzip-background.sh")
-      .addCommand(stagingDir)
-      .addCommand(path.toString())
-      .addCommand(hdfsUser)
-      .ignoreOutErrStreams(true)
-      .build();
-    
-    try {
-      ProcessResult processResult = osProcessExecutor.execute(processDescriptor);
-      int result = processResult.getExitCode();
-      if (result == 2) {
-        throw new DatasetException(RESTCodes.DatasetErrorCode.COMPRESSION_SIZE_ERROR, Level.WARNING);
-      }
-      if (result != 0) {
-        throw new DatasetException(RESTCodes.DatasetErrorCode.COMPRESSION_ERROR, Level.WARNING,
-          "path: " + path.toString() + ", result: " + result);
-      }
-    } catch (IOException ex) {
-      throw new DatasetException(RESTCodes.DatasetErrorCode.COMPRESSION_ERROR, Level.SEVERE,
-        "path: " + path.toString(), ex.getMessage(), ex);
-    }
+    archiveController.unzip(path, hdfsUser);
   }
   
   public void zip(Project project, Users user, Path path) throws DatasetException {
     String hdfsUser = hdfsUsersController.getHdfsUserName(project, user);
     checkFileExists(path, hdfsUser);
-    String localDir = DigestUtils.sha256Hex(path.toString());
-    String stagingDir = settings.getStagingDir() + File.separator + localDir;
-    
-    File zipDir = new File(stagingDir);
-    zipDir.mkdirs();
-    settings.addZippingState(path.toString());
-    
-    ProcessDescriptor processDescriptor = new ProcessDescriptor.Builder()
-      .addCommand(settings.getHopsworksDomainDir() + "/bin/zip-background.sh")
-      .addCommand(stagingDir)
-      .addCommand(path.toString())
-      .addCommand(hdfsUser)
-      .ignoreOutErrStreams(true)
-      .build();
-    
-    try {
-      ProcessResult processResult = osProcessExecutor.execute(processDescriptor);
-      int result = processResult.getExitCode();
-      if (result == 2) {
-        throw new DatasetException(RESTCodes.DatasetErrorCode.COMPRESSION_SIZE_ERROR, Level.WARNING);
-      }
-      if (result != 0) {
-        throw new DatasetException(RESTCodes.DatasetErrorCode.COMPRESSION_ERROR, Level.WARNING,
-          "path: " + path.toString() + ", result: " + result);
-      }
-    } catch (IOException ex) {
-      throw new DatasetException(RESTCodes.DatasetErrorCode.COMPRESSION_ERROR, Level.SEVERE,
-        "path: " + path.toString(), ex.getMessage(), ex);
-    }
+    archiveController.zip(path, hdfsUser);
   }
   
   public void share(String targetProjectName, String fullPath,  DatasetAccessPermission permission, Project project,
@@ -0,0 +1,373 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.dataset;
+
+import io.hops.hopsworks.common.monitoring.MonitoringRegistry;
+import io.hops.hopsworks.common.util.FutureTasks;
+import io.hops.hopsworks.common.util.Settings;
+import org.apache.hadoop.fs.FSDataInputStream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Copies byte ranges of files in HopsFS to download responses with positional reads and keeps throughput
+ * statistics of the downloads. Up to {@link Settings#getDownloadPrefetchSegments()} segments of the range are read
+ * ahead in parallel while the response is written. Segment buffers are bounded across all downloads, when none is
+ * free a download reads ahead less or streams through a small buffer.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@DependsOn("Settings")
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class DownloadController {
+  
+  private static final Logger LOGGER = Logger.getLogger(DownloadController.class.getName());
+  public static final String BYTES_UNIT = "bytes";
+  private static final int SEGMENT_SIZE = 4 * 1024 * 1024;
+  private static final int MAX_POOLED_BUFFERS = 16;
+  // Segment buffers in use by all downloads together
+  private static final int MAX_BUFFERS = 64;
+  private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+  private static final int MAX_RECENT_DOWNLOADS = 50;
+  
+  @EJB
+  private Settings settings;
+  @EJB
+  private MonitoringRegistry monitoringRegistry;
+  @Resource(lookup = "concurrent/hopsExecutorService")
+  private ManagedExecutorService executorService;
+  
+  // Segment buffers are reused between downloads instead of allocating a few MB per request
+  private final BlockingQueue<byte[]> buffers = new ArrayBlockingQueue<>(MAX_POOLED_BUFFERS);
+  private final Semaphore bufferPermits = new Semaphore(MAX_BUFFERS);
+  private final Map<Long, Download> active = new ConcurrentHashMap<>();
+  private final Deque<Download> recent = new ArrayDeque<>();
+  private final AtomicLong downloadIds = new AtomicLong();
+  private final AtomicLong completed = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final AtomicLong bytesServed = new AtomicLong();
+  
+  @PostConstruct
+  public void init() {
+    monitoringRegistry.register("downloads", this::getMetrics);
+  }
+  
+  /**
+   * Register a download, its time to first byte is measured from now.
+   *
+   * @param path the downloaded file
+   * @param hdfsUser the user downloading the file
+   * @param offset the first byte sent
+   * @param length the number of bytes sent
+   * @return
+   */
+  public Download start(String path, String hdfsUser, long offset, long length) {
+    Download download = new Download(downloadIds.incrementAndGet(), path, hdfsUser, offset, length);
+    active.put(download.id, download);
+    return download;
+  }
+  
+  /**
+   * Copy the range of a download to the client. The input stream is closed.
+   *
+   * @param download the download returned by {@link #start(String, String, long, long)}
+   * @param in the downloaded file
+   * @param out the response
+   * @throws IOException
+   */
+  public void copy(Download download, FSDataInputStream in, OutputStream out) throws IOException {
+    try (FSDataInputStream stream = in) {
+      int prefetch = settings.getDownloadPrefetchSegments();
+      if (prefetch > 0 && download.length > SEGMENT_SIZE) {
+        copyPrefetching(download, stream, out, prefetch);
+      } else {
+        copySequential(download, stream, out);
+      }
+      out.flush();
+      finish(download, true);
+    } catch (IOException | RuntimeException e) {
+      // Most of the time the client went away
+      finish(download, false);
+      throw e;
+    }
+  }
+  
+  private void copySequential(Download download, FSDataInputStream in, OutputStream out) throws IOException {
+    byte[] buffer = borrowBuffer();
+    try {
+      copyRange(download, in, out, download.offset, download.length,
+        buffer != null ? buffer : new byte[STREAM_BUFFER_SIZE]);
+    } finally {
+      returnBuffer(buffer);
+    }
+  }
+  
+  private void copyRange(Download download, FSDataInputStream in, OutputStream out, long offset, long length,
+    byte[] buffer) throws IOException {
+    long position = offset;
+    long end = offset + length;
+    while (position < end) {
+      int read = in.read(position, buffer, 0, (int) Math.min(buffer.length, end - position));
+      if (read < 0) {
+        throw new EOFException("Unexpected end of " + download.path + " at " + position);
+      }
+      write(download, out, buffer, read);
+      position += read;
+    }
+  }
+  
+  private void copyPrefetching(Download download, FSDataInputStream in, OutputStream out, int prefetch)
+    throws IOException {
+    Deque<Segment> segments = new ArrayDeque<>();
+    AtomicBoolean aborted = new AtomicBoolean();
+    byte[] streamBuffer = null;
+    long next = download.offset;
+    long end = download.offset + download.length;
+    try {
+      while (next < end || !segments.isEmpty()) {
+        while (next < end && segments.size() < prefetch) {
+          byte[] buffer = borrowBuffer();
+          if (buffer == null) {
+            // Read ahead again once other downloads have returned their buffers
+            break;
+          }
+          long position = next;
+          int size = (int) Math.min(SEGMENT_SIZE, end - position);
+          Segment segment = new Segment(buffer, size, new FutureTask<>(() -> {
+            if (!aborted.get()) {
+              in.readFully(position, buffer, 0, size);
+            }
+            return null;
+          }));
+          FutureTasks.execute(executorService, segment.read);
+          segments.add(segment);
+          next += size;
+        }
+        if (segments.isEmpty()) {
+          // No buffer is free, the next segment is streamed
+          if (streamBuffer == null) {
+            streamBuffer = new byte[STREAM_BUFFER_SIZE];
+          }
+          int size = (int) Math.min(SEGMENT_SIZE, end - next);
+          copyRange(download, in, out, next, size, streamBuffer);
+          next += size;
+          continue;
+        }
+        Segment segment = segments.peek();
+        FutureTasks.awaitIO(segment.read, "reading a download segment");
+        write(download, out, segment.buffer, segment.length);
+        returnBuffer(segments.poll().buffer);
+      }
+    } finally {
+      // Segments not read yet are skipped, a buffer goes back to the pool only once no read can write into it
+      aborted.set(true);
+      for (Segment segment : segments) {
+        try {
+          FutureTasks.await(segment.read);
+          returnBuffer(segment.buffer);
+        } catch (ExecutionException e) {
+          returnBuffer(segment.buffer);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          // The read may still be running, the buffer is left to it
+          bufferPermits.release();
+        }
+      }
+    }
+  }
+  
+  private void write(Download download, OutputStream out, byte[] buffer, int length) throws IOException {
+    out.write(buffer, 0, length);
+    if (download.firstByteAt == 0) {
+      download.firstByteAt = System.currentTimeMillis();
+    }
+    download.sent.addAndGet(length);
+  }
+  
+  private void finish(Download download, boolean success) {
+    download.finishedAt = System.currentTimeMillis();
+    download.success = success;
+    active.remove(download.id);
+    bytesServed.addAndGet(download.sent.get());
+    (success ? completed : failed).incrementAndGet();
+    synchronized (recent) {
+      recent.addFirst(download);
+      if (recent.size() > MAX_RECENT_DOWNLOADS) {
+        recent.removeLast();
+      }
+    }
+    LOGGER.log(Level.FINE, "Download of {0} {1}: bytes={2}, ttfb={3}ms, elapsed={4}ms", new Object[]{download.path,
+      success ? "finished" : "failed", download.sent.get(), download.getTimeToFirstByte(),
+      download.finishedAt - download.startedAt});
+  }
+  
+  /**
+   * The first and the last byte of a single byte range. Multiple ranges are not supported and, as allowed by
+   * RFC 7233, answered with the whole file. A range starting at or after the end of the file is returned as is, the
+   * caller answers it as not satisfiable.
+   *
+   * @param range the Range header
+   * @param length the length of the file
+   * @return the first and the last byte of the range, null if the whole file should be sent
+   */
+  public static long[] parseRange(String range, long length) {
+    if (range == null || !range.startsWith(BYTES_UNIT + "=") || range.contains(",")) {
+      return null;
+    }
+    String spec = range.substring(BYTES_UNIT.length() + 1).trim();
+    int dash = spec.indexOf('-');
+    try {
+      if (dash == 0) {
+        long suffix = Long.parseLong(spec.substring(1));
+        return suffix > 0 ? new long[]{Math.max(0, length - suffix), length - 1} : new long[]{length, length - 1};
+      } else if (dash > 0) {
+        long first = Long.parseLong(spec.substring(0, dash));
+        long last = dash == spec.length() - 1 ? length - 1 :
+          Math.min(Long.parseLong(spec.substring(dash + 1)), length - 1);
+        if (last >= first || first >= length) {
+          return new long[]{first, last};
+        }
+      }
+    } catch (NumberFormatException e) {
+      LOGGER.log(Level.FINE, "Ignoring malformed range: {0}", range);
+    }
+    return null;
+  }
+  
+  /**
+   * @param ifRange the If-Range header, an entity tag or an HTTP date
+   * @param etag the entity tag of the file
+   * @param modificationTime the modification time of the file in milliseconds
+   * @return true if the client has the version of the file identified by the entity tag and modification time
+   */
+  public static boolean isSameVersion(String ifRange, String etag, long modificationTime) {
+    if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+      return ifRange.equals(etag);
+    }
+    try {
+      return DateTimeFormatter.RFC_1123_DATE_TIME.parse(ifRange, Instant::from).getEpochSecond() ==
+        modificationTime / 1000;
+    } catch (DateTimeParseException e) {
+      return false;
+    }
+  }
+  
+  /**
+   * @return a segment buffer, or null if all downloads together already use {@link #MAX_BUFFERS}
+   */
+  private byte[] borrowBuffer() {
+    if (!bufferPermits.tryAcquire()) {
+      return null;
+    }
+    byte[] buffer = buffers.poll();
+    return buffer != null ? buffer : new byte[SEGMENT_SIZE];
+  }
+  
+  private void returnBuffer(byte[] buffer) {
+    if (buffer == null) {
+      return;
+    }
+    buffers.offer(buffer);
+    bufferPermits.release();
+  }
+  
+  public DownloadControllerMetrics getMetrics() {
+    DownloadControllerMetrics metrics = new DownloadControllerMetrics();
+    metrics.setCompleted(completed.get());
+    metrics.setFailed(failed.get());
+    metrics.setBytesServed(bytesServed.get());
+    long now = System.currentTimeMillis();
+    active.values().forEach(download -> metrics.getActive().add(download.toMetrics(now)));
+    synchronized (recent) {
+      recent.forEach(download -> metrics.getRecent().add(download.toMetrics(download.finishedAt)));
+    }
+    return metrics;
+  }
+  
+  private static class Segment {
+    private final byte[] buffer;
+    private final int length;
+    private final FutureTask<Void> read;
+    
+    private Segment(byte[] buffer, int length, FutureTask<Void> read) {
+      this.buffer = buffer;
+      this.length = length;
+      this.read = read;
+    }
+  }
+  
+  public static class Download {
+    private final long id;
+    private final String path;
+    private final String hdfsUser;
+    private final long offset;
+    private final long length;
+    private final long startedAt = System.currentTimeMillis();
+    private final AtomicLong sent = new AtomicLong();
+    private volatile long firstByteAt;
+    private volatile long finishedAt;
+    private volatile boolean success;
+    
+    private Download(long id, String path, String hdfsUser, long offset, long length) {
+      this.id = id;
+      this.path = path;
+      this.hdfsUser = hdfsUser;
+      this.offset = offset;
+      this.length = length;
+    }
+    
+    private long getTimeToFirstByte() {
+      return firstByteAt > 0 ? firstByteAt - startedAt : -1;
+    }
+    
+    private DownloadControllerMetrics.DownloadMetrics toMetrics(long now) {
+      long elapsed = now - startedAt;
+      long bytes = sent.get();
+      String state = finishedAt == 0 ? "RUNNING" : success ? "FINISHED" : "FAILED";
+      return new DownloadControllerMetrics.DownloadMetrics(path, hdfsUser, offset, length, bytes, elapsed,
+        getTimeToFirstByte(), elapsed > 0 ? bytes * 1000 / elapsed : 0, state);
+    }
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.dataset;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Downloads served through {@link DownloadController}
+ */
+@XmlRootElement
+public class DownloadControllerMetrics implements Serializable {
+  
+  private long completed;
+  private long failed;
+  private long bytesServed;
+  private List<DownloadMetrics> active = new ArrayList<>();
+  private List<DownloadMetrics> recent = new ArrayList<>();
+  
+  public DownloadControllerMetrics() {
+  }
+  
+  public long getCompleted() {
+    return completed;
+  }
+  
+  public void setCompleted(long completed) {
+    this.completed = completed;
+  }
+  
+  public long getFailed() {
+    return failed;
+  }
+  
+  public void setFailed(long failed) {
+    this.failed = failed;
+  }
+  
+  public long getBytesServed() {
+    return bytesServed;
+  }
+  
+  public void setBytesServed(long bytesServed) {
+    this.bytesServed = bytesServed;
+  }
+  
+  public List<DownloadMetrics> getActive() {
+    return active;
+  }
+  
+  public void setActive(List<DownloadMetrics> active) {
+    this.active = active;
+  }
+  
+  public List<DownloadMetrics> getRecent() {
+    return recent;
+  }
+  
+  public void setRecent(List<DownloadMetrics> recent) {
+    this.recent = recent;
+  }
+  
+  public static class DownloadMetrics implements Serializable {
+    
+    private String path;
+    private String hdfsUser;
+    private long offset;
+    private long length;
+    private long bytesSent;
+    private long elapsedMs;
+    private long timeToFirstByteMs;
+    private long bytesPerSecond;
+    private String state;
+    
+    public DownloadMetrics() {
+    }
+    
+    public DownloadMetrics(String path, String hdfsUser, long offset, long length, long bytesSent, long elapsedMs,
+      long timeToFirstByteMs, long bytesPerSecond, String state) {
+      this.path = path;
+      this.hdfsUser = hdfsUser;
+      this.offset = offset;
+      this.length = length;
+      this.bytesSent = bytesSent;
+      this.elapsedMs = elapsedMs;
+      this.timeToFirstByteMs = timeToFirstByteMs;
+      this.bytesPerSecond = bytesPerSecond;
+      this.state = state;
+    }
+    
+    public String getPath() {
+      return path;
+    }
+    
+    public void setPath(String path) {
+      this.path = path;
+    }
+    
+    public String getHdfsUser() {
+      return hdfsUser;
+    }
+    
+    public void setHdfsUser(String hdfsUser) {
+      this.hdfsUser = hdfsUser;
+    }
+    
+    public long getOffset() {
+      return offset;
+    }
+    
+    public void setOffset(long offset) {
+      this.offset = offset;
+    }
+    
+    public long getLength() {
+      return length;
+    }
+    
+    public void setLength(long length) {
+      this.length = length;
+    }
+    
+    public long getBytesSent() {
+      return bytesSent;
+    }
+    
+    public void setBytesSent(long bytesSent) {
+      this.bytesSent = bytesSent;
+    }
+    
+    public long getElapsedMs() {
+      return elapsedMs;
+    }
+    
+    public void setElapsedMs(long elapsedMs) {
+      this.elapsedMs = elapsedMs;
+    }
+    
+    public long getTimeToFirstByteMs() {
+      return timeToFirstByteMs;
+    }
+    
+    public void setTimeToFirstByteMs(long timeToFirstByteMs) {
+      this.timeToFirstByteMs = timeToFirstByteMs;
+    }
+    
+    public long getBytesPerSecond() {
+      return bytesPerSecond;
+    }
+    
+    public void setBytesPerSecond(long bytesPerSecond) {
+      this.bytesPerSecond = bytesPerSecond;
+    }
+    
+    public String getState() {
+      return state;
+    }
+    
+    public void setState(String state) {
+      this.state = state;
+    }
+  }
+}
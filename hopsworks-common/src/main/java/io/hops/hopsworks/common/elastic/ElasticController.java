@@ -46,6 +46,7 @@ import io.hops.hopsworks.persistence.entity.project.Project;
 import io.hops.hopsworks.common.dao.project.ProjectFacade;
 import io.hops.hopsworks.persistence.entity.user.Users;
 import io.hops.hopsworks.common.dataset.DatasetController;
+import io.hops.hopsworks.common.provenance.core.elastic.ElasticCache;
 import io.hops.hopsworks.common.proxies.client.NotFoundClientProtocolException;
 import io.hops.hopsworks.exceptions.ElasticException;
 import io.hops.hopsworks.exceptions.ProjectException;
@@ -54,6 +55,7 @@ import io.hops.hopsworks.exceptions.ServiceException;
 import io.hops.hopsworks.common.util.Settings;
 import org.apache.http.util.EntityUtils;
 import org.apache.lucene.search.join.ScoreMode;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
 import org.elasticsearch.action.search.MultiSearchRequest;
 import org.elasticsearch.action.search.MultiSearchResponse;
@@ -78,6 +80,7 @@ import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
@@ -85,10 +88,12 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
-import java.util.stream.Stream;
+import java.util.stream.Collectors;
 
 import static org.elasticsearch.index.query.QueryBuilders.boolQuery;
 import static org.elasticsearch.index.query.QueryBuilders.fuzzyQuery;
@@ -119,6 +124,8 @@ public class ElasticController {
   private ElasticClient elasticClient;
   @EJB
   private KibanaClient kibanaClient;
+  @EJB
+  private ElasticCache elasticCache;
   
   private static final Logger LOG = Logger.getLogger(ElasticController.class.getName());
   
@@ -128,7 +135,7 @@ public class ElasticController {
     RestHighLevelClient client = getClient();
   
     //check if the index are up and running
-    if (!this.indexExists(client, Settings.META_INDEX)) {
+    if (!elasticCache.indexExists(Settings.META_INDEX)) {
       throw new ServiceException(RESTCodes.ServiceErrorCode.ELASTIC_INDEX_NOT_FOUND,
         Level.SEVERE, "index: " + Settings.META_INDEX);
     }
@@ -153,11 +160,13 @@ public class ElasticController {
     //construct the response
     List<ElasticHit> elasticHits = new LinkedList<>();
     SearchHit[] hits = globalSearchHighLevel(searchTerm);
+    Map<Long, Dataset> datasets = datasetController.getDatasetsByInodeIds(
+      Arrays.stream(hits).map(hit -> Long.parseLong(hit.getId())).collect(Collectors.toSet()));
     for (SearchHit hit : hits) {
       ElasticHit eHit = new ElasticHit(hit);
       eHit.setLocalDataset(true);
       long inode_id = Long.parseLong(hit.getId());
-      Dataset dsl = datasetController.getDatasetByInodeId(inode_id);
+      Dataset dsl = datasets.get(inode_id);
       if (dsl != null && dsl.isPublicDs()) {
         Dataset ds = dsl;
         eHit.setPublicId(ds.getPublicDsId());
@@ -172,19 +181,26 @@ public class ElasticController {
     RestHighLevelClient client = getClient();
     
     //check if the index are up and running
-    if (!this.indexExists(client, Settings.META_INDEX)) {
+    if (!elasticCache.indexExists(Settings.META_INDEX)) {
       throw new ServiceException(RESTCodes.ServiceErrorCode.ELASTIC_INDEX_NOT_FOUND,
         Level.SEVERE, "index: " + Settings.META_INDEX);
     }
     
-    SearchResponse response = executeSearchQuery(client, projectSearchQuery(projectId, searchTerm.toLowerCase()));
+    //the searches in the datasets shared with the project run in parallel with the project search
+    CompletableFuture<SearchResponse> projectResponse =
+      executeSearchQueryAsync(client, projectSearchQuery(projectId, searchTerm.toLowerCase()));
+    List<CompletableFuture<SearchResponse>> sharedResponses =
+      projectSearchInSharedDatasetsAsync(client, projectId, searchTerm);
+    SearchResponse response = waitForSearch(projectResponse);
     if (response.status().getStatus() == 200) {
-      SearchHit[] hits = new SearchHit[0];
-      if (response.getHits().getHits().length > 0) {
-        hits = response.getHits().getHits();
+      List<SearchHit> hits = new ArrayList<>(Arrays.asList(response.getHits().getHits()));
+      for (CompletableFuture<SearchResponse> sharedResponse : sharedResponses) {
+        SearchResponse shared = waitForSearch(sharedResponse);
+        if (shared.status().getStatus() == 200) {
+          hits.addAll(Arrays.asList(shared.getHits().getHits()));
+        }
       }
-      projectSearchInSharedDatasets(client, projectId, searchTerm, hits);
-      return hits;
+      return hits.toArray(new SearchHit[0]);
     }
     //we need to further check the status if it is a probelm with
     // elasticsearch rather than a bad query
@@ -210,7 +226,7 @@ public class ElasticController {
     throws ServiceException, ElasticException {
     RestHighLevelClient client = getClient();
     //check if the indices are up and running
-    if (!this.indexExists(client, Settings.META_INDEX)) {
+    if (!elasticCache.indexExists(Settings.META_INDEX)) {
       throw new ServiceException(RESTCodes.ServiceErrorCode.ELASTIC_INDEX_NOT_FOUND,
         Level.SEVERE, "index: " + Settings.META_INDEX);
     }
@@ -267,7 +283,7 @@ public class ElasticController {
     throws ElasticException, ServiceException {
     RestHighLevelClient client = getClient();
     //check if the indices are up and running
-    if (!this.indexExists(client, Settings.FEATURESTORE_INDEX)) {
+    if (!elasticCache.indexExists(Settings.FEATURESTORE_INDEX)) {
       throw new ServiceException(RESTCodes.ServiceErrorCode.ELASTIC_INDEX_NOT_FOUND,
         Level.SEVERE, "index: " + Settings.FEATURESTORE_INDEX);
     }
@@ -330,7 +346,7 @@ public class ElasticController {
     throws ElasticException, ServiceException {
     RestHighLevelClient client = getClient();
     //check if the indices are up and running
-    if (!this.indexExists(client, Settings.FEATURESTORE_INDEX)) {
+    if (!elasticCache.indexExists(Settings.FEATURESTORE_INDEX)) {
       throw new ServiceException(RESTCodes.ServiceErrorCode.ELASTIC_INDEX_NOT_FOUND,
         Level.SEVERE, "index: " + Settings.FEATURESTORE_INDEX);
     }
@@ -406,6 +422,7 @@ public class ElasticController {
       throw new ElasticException(RESTCodes.ElasticErrorCode.ELASTIC_INTERNAL_REQ_ERROR,
           Level.INFO,"Error while deleting an index", e.getMessage(), e);
     }
+    elasticCache.clearIndexExists(index);
     if (acked) {
       LOG.log(Level.INFO, "Acknowledged deletion of elastic index:{0}", index);
     } else {
@@ -435,6 +452,7 @@ public class ElasticController {
       throw new ElasticException(RESTCodes.ElasticErrorCode.ELASTIC_INTERNAL_REQ_ERROR,
           Level.INFO,"Error while creating an index", e.getMessage(), e);
     }
+    elasticCache.clearIndexExists(index);
     if (!acked) {
       throw new ServiceException(RESTCodes.ServiceErrorCode.ELASTIC_INDEX_CREATION_ERROR,  Level.SEVERE,
         "Elastic index:{0} creation could not be acknowledged. index: " + index);
@@ -556,27 +574,17 @@ public class ElasticController {
     }
   }
   
-  private void projectSearchInSharedDatasets(RestHighLevelClient client, Integer projectId, String searchTerm,
-    SearchHit[] elasticHits) throws ServiceException {
+  private List<CompletableFuture<SearchResponse>> projectSearchInSharedDatasetsAsync(RestHighLevelClient client,
+    Integer projectId, String searchTerm) {
+    List<CompletableFuture<SearchResponse>> responses = new ArrayList<>();
     Project project = projectFacade.find(projectId);
     Collection<DatasetSharedWith> datasetSharedWithCollection = project.getDatasetSharedWithCollection();
     for (DatasetSharedWith ds : datasetSharedWithCollection) {
       long datasetId = ds.getDataset().getInode().getId();
-      executeProjectSearchQuery(client, searchSpecificDataset(datasetId, searchTerm), elasticHits);
-      executeProjectSearchQuery(client, datasetSearchQuery(datasetId, searchTerm), elasticHits);
-    
-    }
-  }
-  
-  private void executeProjectSearchQuery(RestHighLevelClient client, QueryBuilder query, SearchHit[] elasticHits)
-    throws ServiceException {
-    SearchResponse response = executeSearchQuery(client, query);
-    if (response.status().getStatus() == 200) {
-      if (response.getHits().getHits().length > 0) {
-        SearchHit[] hits = response.getHits().getHits();
-        elasticHits = Stream.concat(Arrays.stream(elasticHits), Arrays.stream(hits)).toArray(SearchHit[]::new);
-      }
+      responses.add(executeSearchQueryAsync(client, searchSpecificDataset(datasetId, searchTerm)));
+      responses.add(executeSearchQueryAsync(client, datasetSearchQuery(datasetId, searchTerm)));
     }
+    return responses;
   }
   
   private void executeProjectSearchQuery(RestHighLevelClient client, QueryBuilder query,
@@ -599,6 +607,45 @@ public class ElasticController {
     return executeSearchQuery(client, Settings.META_INDEX, query);
   }
   
+  /**
+   * Sends a search on the meta index without waiting for the response, so several searches can be in flight at once
+   * <p/>
+   * @param client
+   * @param query
+   * @return
+   */
+  private CompletableFuture<SearchResponse> executeSearchQueryAsync(RestHighLevelClient client, QueryBuilder query) {
+    SearchRequest searchRequest = new SearchRequest(Settings.META_INDEX);
+    searchRequest.source(new SearchSourceBuilder().query(query));
+    LOG.log(Level.FINE, "Search Elastic query is: {0}", searchRequest);
+    CompletableFuture<SearchResponse> response = new CompletableFuture<>();
+    client.searchAsync(searchRequest, RequestOptions.DEFAULT, new ActionListener<SearchResponse>() {
+      @Override
+      public void onResponse(SearchResponse searchResponse) {
+        response.complete(searchResponse);
+      }
+      
+      @Override
+      public void onFailure(Exception e) {
+        response.completeExceptionally(e);
+      }
+    });
+    return response;
+  }
+  
+  private SearchResponse waitForSearch(CompletableFuture<SearchResponse> response) throws ServiceException {
+    try {
+      return response.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ServiceException(RESTCodes.ServiceErrorCode.ELASTIC_SERVER_NOT_FOUND,
+        Level.SEVERE, "Interrupted while executing search", e.getMessage());
+    } catch (ExecutionException e) {
+      throw new ServiceException(RESTCodes.ServiceErrorCode.ELASTIC_SERVER_NOT_FOUND,
+        Level.SEVERE, "Error while executing search", e.getCause().getMessage());
+    }
+  }
+  
   private SearchResponse executeSearchQuery(RestHighLevelClient client,
       String index, QueryBuilder query)
       throws ServiceException {
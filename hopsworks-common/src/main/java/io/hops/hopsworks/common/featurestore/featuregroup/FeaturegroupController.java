@@ -116,6 +116,7 @@ public class FeaturegroupController {
   public List<FeaturegroupDTO> getFeaturegroupsForFeaturestore(Featurestore featurestore, Project project, Users user)
     throws FeaturestoreException, ServiceException {
     List<Featuregroup> featuregroups = featuregroupFacade.findByFeaturestore(featurestore);
+    cachedFeaturegroupController.loadSchemas(featurestore, featuregroups, project, user);
     List<FeaturegroupDTO> featuregroupDTOS = new ArrayList<>();
     for (Featuregroup featuregroup : featuregroups) {
       featuregroupDTOS.add(convertFeaturegrouptoDTO(featuregroup, project, user));
@@ -575,6 +576,31 @@ public class FeaturegroupController {
     }
   }
 
+  /**
+   * Previews the offline data of a given featuregroup, passing the rows to the consumer as they are read
+   *
+   * @param featuregroup
+   * @param project
+   * @param user
+   * @param partition
+   * @param limit
+   * @param consumer
+   * @throws FeaturestoreException
+   * @throws HopsSecurityException
+   * @throws IOException
+   */
+  public void streamFeaturegroupPreview(Featuregroup featuregroup, Project project, Users user, String partition,
+                                        int limit, CachedFeaturegroupController.PreviewRowConsumer consumer)
+      throws FeaturestoreException, HopsSecurityException, IOException {
+    if (featuregroup.getFeaturegroupType() != FeaturegroupType.CACHED_FEATURE_GROUP) {
+      throw new FeaturestoreException(
+          RESTCodes.FeaturestoreErrorCode.PREVIEW_NOT_SUPPORTED_FOR_ON_DEMAND_FEATUREGROUPS,
+          Level.FINE, "featuregroupId: " + featuregroup.getId());
+    }
+    cachedFeaturegroupController.streamOfflineFeaturegroupPreview(featuregroup, project, user, partition, limit,
+        consumer);
+  }
+
   /**
    * Get a list of partitions for offline feature groups
    * @param featuregroup
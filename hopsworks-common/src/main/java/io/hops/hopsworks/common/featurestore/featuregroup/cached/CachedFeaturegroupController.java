@@ -27,6 +27,7 @@ import io.hops.hopsworks.common.featurestore.query.ConstructorController;
 import io.hops.hopsworks.common.featurestore.query.Feature;
 import io.hops.hopsworks.common.featurestore.utils.FeaturestoreUtils;
 import io.hops.hopsworks.common.hive.HiveController;
+import io.hops.hopsworks.common.hive.HiveServerConnectionPool;
 import io.hops.hopsworks.common.security.CertificateMaterializer;
 import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.exceptions.CryptoPasswordNotFoundException;
@@ -73,7 +74,9 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -104,6 +107,10 @@ public class CachedFeaturegroupController {
   private ConstructorController constructorController;
   @EJB
   private FeaturestoreUtils featurestoreUtils;
+  @EJB
+  private HiveServerConnectionPool hiveServerConnectionPool;
+  @EJB
+  private FeaturegroupSchemaCache featuregroupSchemaCache;
 
   private static final Logger LOGGER = Logger.getLogger(CachedFeaturegroupController.class.getName());
   private static final String HIVE_DRIVER = "org.apache.hive.jdbc.HiveDriver";
@@ -121,7 +128,8 @@ public class CachedFeaturegroupController {
   }
 
   /**
-   * Initializes a JDBC connection (thrift RPC) to HS2 using SSL with a given project user and database
+   * Gets a pooled JDBC connection (thrift RPC) to HS2 with a given project user and database. The connection must be
+   * given back with {@link HiveServerConnectionPool#release(Connection, boolean)}.
    *
    * @param databaseName name of the Hive database to open a connection to
    * @param project      the project of the user making the request
@@ -130,6 +138,20 @@ public class CachedFeaturegroupController {
    * @throws FeaturestoreException
    */
   private Connection initConnection(String databaseName, Project project, Users user) throws FeaturestoreException {
+    return hiveServerConnectionPool.acquire(project.getName(), user.getUsername(), databaseName,
+      () -> openConnection(databaseName, project, user));
+  }
+
+  /**
+   * Initializes a JDBC connection (thrift RPC) to HS2 using SSL with a given project user and database
+   *
+   * @param databaseName name of the Hive database to open a connection to
+   * @param project      the project of the user making the request
+   * @param user         the user making the request
+   * @return conn the JDBC connection
+   * @throws FeaturestoreException
+   */
+  private Connection openConnection(String databaseName, Project project, Users user) throws FeaturestoreException {
     try {
       // Create connection url
       String hiveEndpoint = hiveController.getHiveServerInternalEndpoint();
@@ -244,6 +266,62 @@ public class CachedFeaturegroupController {
   public FeaturegroupPreview getOfflineFeaturegroupPreview(Featuregroup featuregroup, Project project,
                                                            Users user, String partition, int limit)
       throws FeaturestoreException, HopsSecurityException, SQLException {
+    String query = getOfflineFeaturegroupPreviewQuery(featuregroup, project, user, partition, limit);
+    String db = featurestoreController.getOfflineFeaturestoreDbName(featuregroup.getFeaturestore().getProject());
+    try {
+      return executeReadHiveQuery(query, db, project, user);
+    } catch(Exception e) {
+      return executeReadHiveQuery(query, db, project, user);
+    }
+  }
+
+  /**
+   * Receives the rows of a streamed preview one at a time
+   */
+  @FunctionalInterface
+  public interface PreviewRowConsumer {
+    void accept(FeaturegroupPreview.Row row) throws IOException;
+  }
+
+  /**
+   * Previews the offline data of a given featuregroup passing the rows to the consumer as they are fetched from Hive,
+   * instead of collecting them in memory. Rows are fetched from HS2 in batches of the configured fetch size.
+   *
+   * @param featuregroup    the featuregroup to fetch
+   * @param project         the project the user is operating from, in case of shared feature store
+   * @param user            the user making the request
+   * @param partition       the selected partition if any as represented in the PARTITIONS_METASTORE
+   * @param limit           number of sample to fetch
+   * @param consumer        receives the rows
+   * @throws FeaturestoreException
+   * @throws HopsSecurityException
+   * @throws IOException if the consumer failed to write a row
+   */
+  public void streamOfflineFeaturegroupPreview(Featuregroup featuregroup, Project project, Users user,
+                                               String partition, int limit, PreviewRowConsumer consumer)
+      throws FeaturestoreException, HopsSecurityException, IOException {
+    String query = getOfflineFeaturegroupPreviewQuery(featuregroup, project, user, partition, limit);
+    String db = featurestoreController.getOfflineFeaturestoreDbName(featuregroup.getFeaturestore().getProject());
+    Connection conn = initConnection(db, project, user);
+    boolean reusable = false;
+    try (Statement stmt = conn.createStatement()) {
+      stmt.setFetchSize(settings.getFGPreviewFetchSize());
+      try (ResultSet rs = stmt.executeQuery(query)) {
+        ResultSetMetaData rsmd = rs.getMetaData();
+        while (rs.next()) {
+          consumer.accept(parseRow(rs, rsmd));
+        }
+      }
+      reusable = true;
+    } catch (SQLException e) {
+      throwHiveQueryException(e, query, db, project);
+    } finally {
+      hiveServerConnectionPool.release(conn, reusable);
+    }
+  }
+
+  private String getOfflineFeaturegroupPreviewQuery(Featuregroup featuregroup, Project project, Users user,
+                                                    String partition, int limit) throws FeaturestoreException {
     String tbl = getTblName(featuregroup.getName(), featuregroup.getVersion());
     List<FeatureGroupFeatureDTO> features = getFeaturesDTO(featuregroup.getCachedFeaturegroup().getHiveTbls(),
       featuregroup.getFeaturestore(), project, user);
@@ -265,14 +343,7 @@ public class CachedFeaturegroupController {
       new SqlIdentifier("`" + tbl + "`", SqlParserPos.ZERO),
       whereClause, null, null, null, null, null,
       SqlLiteral.createExactNumeric(String.valueOf(limit), SqlParserPos.ZERO));
-    String db = featurestoreController.getOfflineFeaturestoreDbName(featuregroup.getFeaturestore().getProject());
-    try {
-      return executeReadHiveQuery(
-        select.toSqlString(new HiveSqlDialect(SqlDialect.EMPTY_CONTEXT)).getSql(), db, project, user);
-    } catch(Exception e) {
-      return executeReadHiveQuery(
-        select.toSqlString(new HiveSqlDialect(SqlDialect.EMPTY_CONTEXT)).getSql(), db, project, user);
-    }
+    return select.toSqlString(new HiveSqlDialect(SqlDialect.EMPTY_CONTEXT)).getSql();
   }
 
   public SqlNode getWhereCondition(String partition, List<FeatureGroupFeatureDTO> features)
@@ -366,14 +437,13 @@ public class CachedFeaturegroupController {
 
     if (settings.isOnlineFeaturestore() && featuregroup.getCachedFeaturegroup().isOnlineEnabled()) {
       cachedFeaturegroupDTO.setOnlineEnabled(true);
-      List<FeatureGroupFeatureDTO> onlineFeatureGroupFeatureDTOS =
-          onlineFeaturegroupController.getFeaturegroupFeatures(featuregroup);
+      Map<String, String> onlineTypes = featuregroupSchemaCache.getOnlineTypes(featuregroup);
+      if (onlineTypes == null) {
+        onlineTypes = featuregroupSchemaCache.putOnlineTypes(featuregroup,
+          onlineFeaturegroupController.getFeaturegroupFeatures(featuregroup));
+      }
       for (FeatureGroupFeatureDTO featureGroupFeatureDTO : featureGroupFeatureDTOS) {
-        for (FeatureGroupFeatureDTO onlineFeatureGroupFeatureDTO : onlineFeatureGroupFeatureDTOS) {
-          if(featureGroupFeatureDTO.getName().equalsIgnoreCase(onlineFeatureGroupFeatureDTO.getName())){
-            featureGroupFeatureDTO.setOnlineType(onlineFeatureGroupFeatureDTO.getType());
-          }
-        }
+        featureGroupFeatureDTO.setOnlineType(onlineTypes.get(featureGroupFeatureDTO.getName().toLowerCase()));
       }
     }
     cachedFeaturegroupDTO.setFeatures(featureGroupFeatureDTOS);
@@ -395,14 +465,84 @@ public class CachedFeaturegroupController {
 
   public List<FeatureGroupFeatureDTO> getFeaturesDTO(HiveTbls hiveTable, Featurestore featurestore, Project project,
     Users user) throws FeaturestoreException {
+    List<FeatureGroupFeatureDTO> featureGroupFeatureDTOS = featuregroupSchemaCache.getOfflineFeatures(hiveTable);
+    if (featureGroupFeatureDTOS == null) {
+      featureGroupFeatureDTOS = readFeaturesDTO(hiveTable, featurestore, project, user);
+    }
+    return featureGroupFeatureDTOS;
+  }
+  
+  /**
+   * Reads the features of a feature group from the metastore, bypassing the cache, and caches them. To be used
+   * before altering the table, a cached schema can miss changes made to the table by another instance.
+   *
+   * @param hiveTable
+   * @param featurestore
+   * @param project
+   * @param user
+   * @return the features of the feature group
+   * @throws FeaturestoreException
+   */
+  private List<FeatureGroupFeatureDTO> readFeaturesDTO(HiveTbls hiveTable, Featurestore featurestore, Project project,
+    Users user) throws FeaturestoreException {
+    List<FeatureGroupFeatureDTO> featureGroupFeatureDTOS = getFeaturesDTO(hiveTable,
+      offlineFeatureGroupController.getDefaultConstraints(featurestore, hiveTable.getTblName(), project, user));
+    featuregroupSchemaCache.putOfflineFeatures(hiveTable, featureGroupFeatureDTOS);
+    return featureGroupFeatureDTOS;
+  }
+  
+  /**
+   * Loads the schemas of the feature groups of a listing which are not cached yet, reading the default values of
+   * all of them with one metastore client and the online types with one query.
+   *
+   * @param featurestore
+   * @param featuregroups
+   * @param project
+   * @param user
+   * @throws FeaturestoreException
+   */
+  public void loadSchemas(Featurestore featurestore, List<Featuregroup> featuregroups, Project project, Users user)
+    throws FeaturestoreException {
+    Map<String, HiveTbls> offlineMisses = new HashMap<>();
+    List<Featuregroup> onlineMisses = new ArrayList<>();
+    for (Featuregroup featuregroup : featuregroups) {
+      if (featuregroup.getCachedFeaturegroup() == null) {
+        continue;
+      }
+      HiveTbls hiveTable = featuregroup.getCachedFeaturegroup().getHiveTbls();
+      if (featuregroupSchemaCache.getOfflineFeatures(hiveTable) == null) {
+        offlineMisses.put(hiveTable.getTblName(), hiveTable);
+      }
+      if (settings.isOnlineFeaturestore() && featuregroup.getCachedFeaturegroup().isOnlineEnabled()
+        && featuregroupSchemaCache.getOnlineTypes(featuregroup) == null) {
+        onlineMisses.add(featuregroup);
+      }
+    }
+    if (!offlineMisses.isEmpty()) {
+      Map<String, List<SQLDefaultConstraint>> defaultConstraints =
+        offlineFeatureGroupController.getDefaultConstraints(featurestore, offlineMisses.keySet(), project, user);
+      for (HiveTbls hiveTable : offlineMisses.values()) {
+        featuregroupSchemaCache.putOfflineFeatures(hiveTable, getFeaturesDTO(hiveTable,
+          defaultConstraints.getOrDefault(hiveTable.getTblName(), new ArrayList<>())));
+      }
+    }
+    if (!onlineMisses.isEmpty()) {
+      Map<String, List<FeatureGroupFeatureDTO>> onlineFeatures =
+        onlineFeaturegroupController.getFeaturegroupFeatures(featurestore);
+      for (Featuregroup featuregroup : onlineMisses) {
+        featuregroupSchemaCache.putOnlineTypes(featuregroup, onlineFeatures.getOrDefault(
+          getTblName(featuregroup.getName(), featuregroup.getVersion()), new ArrayList<>()));
+      }
+    }
+  }
+  
+  private List<FeatureGroupFeatureDTO> getFeaturesDTO(HiveTbls hiveTable,
+    List<SQLDefaultConstraint> defaultConstraints) {
     List<HiveKeyConstraints> primaryKeys = hiveTable.getHiveKeyConstraintsCollection().stream()
       // 0 is the primary key index
       .filter(c -> c.getConstraintType() == 0)
       .collect(Collectors.toList());
 
-    List<SQLDefaultConstraint> defaultConstraints =
-      offlineFeatureGroupController.getDefaultConstraints(featurestore, hiveTable.getTblName(), project, user);
-
     List<FeatureGroupFeatureDTO> featureGroupFeatureDTOS = new ArrayList<>();
     // Add all the columns - if there is a primary key constraint, set the primary key flag
     for (HiveColumns hc : hiveTable.getSdId().getCdId().getHiveColumnsCollection()) {
@@ -459,6 +599,7 @@ public class CachedFeaturegroupController {
     String db = featurestoreController.getOfflineFeaturestoreDbName(featuregroup.getFeaturestore().getProject());
     String tableName = getTblName(featuregroup.getName(), featuregroup.getVersion());
     offlineFeatureGroupController.dropFeatureGroup(db, tableName, project, user);
+    featuregroupSchemaCache.invalidate(featuregroup);
   }
 
   /**
@@ -489,19 +630,30 @@ public class CachedFeaturegroupController {
     FeaturegroupPreview featuregroupPreview = new FeaturegroupPreview();
 
     while (rs.next()) {
-      FeaturegroupPreview.Row row = new FeaturegroupPreview.Row();
-
-      for (int i = 1; i <= rsmd.getColumnCount(); i++) {
-        Object columnValue = rs.getObject(i);
-        row.addValue(new Pair<>(parseColumnLabel(rsmd.getColumnLabel(i)),
-            columnValue == null ? null : columnValue.toString()));
-      }
-      featuregroupPreview.addRow(row);
+      featuregroupPreview.addRow(parseRow(rs, rsmd));
     }
 
     return featuregroupPreview;
   }
 
+  /**
+   * Parses the current row of a ResultSet
+   *
+   * @param rs resultset positioned on the row to parse
+   * @param rsmd metadata of the resultset
+   * @return the parsed row
+   * @throws SQLException
+   */
+  private FeaturegroupPreview.Row parseRow(ResultSet rs, ResultSetMetaData rsmd) throws SQLException {
+    FeaturegroupPreview.Row row = new FeaturegroupPreview.Row();
+    for (int i = 1; i <= rsmd.getColumnCount(); i++) {
+      Object columnValue = rs.getObject(i);
+      row.addValue(new Pair<>(parseColumnLabel(rsmd.getColumnLabel(i)),
+          columnValue == null ? null : columnValue.toString()));
+    }
+    return row;
+  }
+
   /**
    * Column labels contain the table name as well. Remove it
    * @param columnLabel
@@ -529,49 +681,33 @@ public class CachedFeaturegroupController {
    */
   private FeaturegroupPreview executeReadHiveQuery(String query, String databaseName, Project project, Users user)
       throws SQLException, FeaturestoreException, HopsSecurityException {
-    Connection conn = null;
-    Statement stmt = null;
-    try {
-      //Re-create the connection every time since the connection is database and user-specific
-      conn = initConnection(databaseName, project, user);
-      stmt = conn.createStatement();
-      ResultSet rs = stmt.executeQuery(query);
-      return parseResultset(rs);
+    //The connection is database and user-specific, it is taken from the pool of that user
+    Connection conn = initConnection(databaseName, project, user);
+    boolean reusable = false;
+    FeaturegroupPreview preview = null;
+    try (Statement stmt = conn.createStatement();
+         ResultSet rs = stmt.executeQuery(query)) {
+      preview = parseResultset(rs);
+      reusable = true;
     } catch (SQLException e) {
-      //Hive throws a generic HiveSQLException not a specific AuthorizationException
-      if (e.getMessage().toLowerCase().contains("permission denied")) {
-        throw new HopsSecurityException(RESTCodes.SecurityErrorCode.HDFS_ACCESS_CONTROL, Level.FINE,
-            "project: " + project.getName() + ", hive database: " + databaseName + " hive query: " + query,
-            e.getMessage(), e);
-      } else {
-        throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.HIVE_READ_QUERY_ERROR, Level.SEVERE,
-            "project: " + project.getName() + ", hive database: " + databaseName + " hive query: " + query,
-            e.getMessage(), e);
-      }
+      throwHiveQueryException(e, query, databaseName, project);
     } finally {
-      if (stmt != null) {
-        stmt.close();
-      }
-      closeConnection(conn, user, project);
+      hiveServerConnectionPool.release(conn, reusable);
     }
+    return preview;
   }
 
-  /**
-   * Checks if the JDBC connection to HS2 is open, and if so closes it.
-   *
-   * @param conn the JDBC connection
-   * @param user the user using the connection
-   * @param project the project where the connection is used
-   */
-  private void closeConnection(Connection conn, Users user, Project project) {
-    try {
-      if (conn != null) {
-        conn.close();
-      }
-    } catch (SQLException e) {
-      LOGGER.log(Level.WARNING, "Error closing Hive JDBC connection: " +  e);
-    } finally {
-      certificateMaterializer.removeCertificatesLocal(user.getUsername(), project.getName());
+  private void throwHiveQueryException(SQLException e, String query, String databaseName, Project project)
+      throws HopsSecurityException, FeaturestoreException {
+    //Hive throws a generic HiveSQLException not a specific AuthorizationException
+    if (e.getMessage().toLowerCase().contains("permission denied")) {
+      throw new HopsSecurityException(RESTCodes.SecurityErrorCode.HDFS_ACCESS_CONTROL, Level.FINE,
+          "project: " + project.getName() + ", hive database: " + databaseName + " hive query: " + query,
+          e.getMessage(), e);
+    } else {
+      throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.HIVE_READ_QUERY_ERROR, Level.SEVERE,
+          "project: " + project.getName() + ", hive database: " + databaseName + " hive query: " + query,
+          e.getMessage(), e);
     }
   }
 
@@ -640,7 +776,7 @@ public class CachedFeaturegroupController {
     //Create MySQL Table for Online Feature Group
     String tableName = getTblName(featuregroup.getName(), featuregroup.getVersion());
     List<FeatureGroupFeatureDTO> features =
-      getFeaturesDTO(cachedFeaturegroup.getHiveTbls(), featurestore, project, user);
+      readFeaturesDTO(cachedFeaturegroup.getHiveTbls(), featurestore, project, user);
     if (cachedFeaturegroup.getTimeTravelFormat() == TimeTravelFormat.HUDI){
       features = dropHudiSpecFeatureGroupFeature(features);
     }
@@ -650,6 +786,7 @@ public class CachedFeaturegroupController {
     //Set foreign key of the cached feature group to the new online feature group
     cachedFeaturegroup.setOnlineEnabled(true);
     cachedFeaturegroupFacade.updateMetadata(cachedFeaturegroup);
+    featuregroupSchemaCache.invalidate(featuregroup);
     return convertCachedFeaturegroupToDTO(featuregroup, project, user);
   }
   
@@ -682,6 +819,7 @@ public class CachedFeaturegroupController {
       cachedFeaturegroup.setOnlineEnabled(false);
       cachedFeaturegroupFacade.persist(cachedFeaturegroup);
     }
+    featuregroupSchemaCache.invalidate(featuregroup);
     return convertCachedFeaturegroupToDTO(featuregroup, project, user);
   }
 
@@ -690,7 +828,7 @@ public class CachedFeaturegroupController {
       throws FeaturestoreException, SQLException {
     CachedFeaturegroup cachedFeaturegroup = featuregroup.getCachedFeaturegroup();
     HiveTbls hiveTable = cachedFeaturegroup.getHiveTbls();
-    List<FeatureGroupFeatureDTO> previousSchema = getFeaturesDTO(hiveTable, featuregroup.getFeaturestore(), project,
+    List<FeatureGroupFeatureDTO> previousSchema = readFeaturesDTO(hiveTable, featuregroup.getFeaturestore(), project,
       user);
     String tableName = getTblName(featuregroup.getName(), featuregroup.getVersion());
 
@@ -708,13 +846,18 @@ public class CachedFeaturegroupController {
 
     // alter table
     if (!newFeatures.isEmpty()) {
-      offlineFeatureGroupController.alterHiveTableFeatures(
-        featuregroup.getFeaturestore(), tableName, newFeatures, project, user);
-
-      // if online feature group
-      if (settings.isOnlineFeaturestore() && featuregroup.getCachedFeaturegroup().isOnlineEnabled()) {
-        onlineFeaturegroupController.alterMySQLTableColumns(
+      try {
+        offlineFeatureGroupController.alterHiveTableFeatures(
           featuregroup.getFeaturestore(), tableName, newFeatures, project, user);
+
+        // if online feature group
+        if (settings.isOnlineFeaturestore() && featuregroup.getCachedFeaturegroup().isOnlineEnabled()) {
+          onlineFeaturegroupController.alterMySQLTableColumns(
+            featuregroup.getFeaturestore(), tableName, newFeatures, project, user);
+        }
+      } finally {
+        // also after a partial failure, the next read gets the schema as it is now
+        featuregroupSchemaCache.invalidate(featuregroup);
       }
     }
   }
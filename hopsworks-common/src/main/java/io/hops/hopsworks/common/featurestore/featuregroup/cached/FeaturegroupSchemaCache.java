@@ -0,0 +1,163 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.featurestore.featuregroup.cached;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.hops.hopsworks.common.featurestore.feature.FeatureGroupFeatureDTO;
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.persistence.entity.featurestore.featuregroup.Featuregroup;
+import io.hops.hopsworks.persistence.entity.featurestore.featuregroup.cached.HiveTbls;
+
+import javax.annotation.PostConstruct;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Schemas of cached feature groups. Reading the schema of a feature group needs a call to the Hive metastore for the
+ * default values of its features and, for online feature groups, a query on the information schema of MySQL.
+ * Entries are keyed by the Hive table or feature group and the column descriptor of the table, so a table whose
+ * columns were replaced never reads an old entry, and are invalidated when the features or the online status of a
+ * feature group change.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@DependsOn("Settings")
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class FeaturegroupSchemaCache {
+  
+  @EJB
+  private Settings settings;
+  
+  // (Hive table id, column descriptor id) -> offline features
+  private Cache<SchemaKey, List<FeatureGroupFeatureDTO>> offlineFeatures;
+  // (feature group id, column descriptor id) -> lower case feature name -> MySQL type
+  private Cache<SchemaKey, Map<String, String>> onlineTypes;
+  
+  @PostConstruct
+  public void init() {
+    offlineFeatures = CacheBuilder.newBuilder()
+      .maximumSize(10000)
+      .expireAfterWrite(settings.getFeaturegroupSchemaCacheTtl(), TimeUnit.MILLISECONDS)
+      .build();
+    onlineTypes = CacheBuilder.newBuilder()
+      .maximumSize(10000)
+      .expireAfterWrite(settings.getFeaturegroupSchemaCacheTtl(), TimeUnit.MILLISECONDS)
+      .build();
+  }
+  
+  /**
+   * @param hiveTable
+   * @return a copy of the cached features of the table, null if they are not cached
+   */
+  public List<FeatureGroupFeatureDTO> getOfflineFeatures(HiveTbls hiveTable) {
+    List<FeatureGroupFeatureDTO> features = offlineFeatures.getIfPresent(offlineKey(hiveTable));
+    return features == null ? null : copy(features);
+  }
+  
+  public void putOfflineFeatures(HiveTbls hiveTable, List<FeatureGroupFeatureDTO> features) {
+    offlineFeatures.put(offlineKey(hiveTable), Collections.unmodifiableList(copy(features)));
+  }
+  
+  /**
+   * @param featuregroup
+   * @return the MySQL type of each feature of an online feature group by lower case name, null if not cached
+   */
+  public Map<String, String> getOnlineTypes(Featuregroup featuregroup) {
+    return onlineTypes.getIfPresent(onlineKey(featuregroup));
+  }
+  
+  public Map<String, String> putOnlineTypes(Featuregroup featuregroup, List<FeatureGroupFeatureDTO> features) {
+    Map<String, String> types = new HashMap<>();
+    for (FeatureGroupFeatureDTO feature : features) {
+      types.put(feature.getName().toLowerCase(), feature.getType());
+    }
+    types = Collections.unmodifiableMap(types);
+    onlineTypes.put(onlineKey(featuregroup), types);
+    return types;
+  }
+  
+  /**
+   * Drop the schema of a feature group, to be called whenever its features or its online status change.
+   *
+   * @param featuregroup
+   */
+  public void invalidate(Featuregroup featuregroup) {
+    if (featuregroup.getCachedFeaturegroup() == null) {
+      return;
+    }
+    long tblId = featuregroup.getCachedFeaturegroup().getHiveTbls().getTblId();
+    long featuregroupId = featuregroup.getId();
+    offlineFeatures.asMap().keySet().removeIf(key -> key.id == tblId);
+    onlineTypes.asMap().keySet().removeIf(key -> key.id == featuregroupId);
+  }
+  
+  private SchemaKey offlineKey(HiveTbls hiveTable) {
+    return new SchemaKey(hiveTable.getTblId(), hiveTable.getSdId().getCdId().getCdId());
+  }
+  
+  private SchemaKey onlineKey(Featuregroup featuregroup) {
+    return new SchemaKey(featuregroup.getId(),
+      featuregroup.getCachedFeaturegroup().getHiveTbls().getSdId().getCdId().getCdId());
+  }
+  
+  private List<FeatureGroupFeatureDTO> copy(List<FeatureGroupFeatureDTO> features) {
+    return features.stream()
+      .map(f -> new FeatureGroupFeatureDTO(f.getName(), f.getType(), f.getDescription(), f.getPrimary(),
+        f.getPartition(), f.getOnlineType(), f.getDefaultValue()))
+      .collect(Collectors.toList());
+  }
+  
+  private static class SchemaKey {
+    private final long id;
+    private final long cdId;
+    
+    private SchemaKey(long id, long cdId) {
+      this.id = id;
+      this.cdId = cdId;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      SchemaKey that = (SchemaKey) o;
+      return id == that.id && cdId == that.cdId;
+    }
+    
+    @Override
+    public int hashCode() {
+      return Objects.hash(id, cdId);
+    }
+  }
+}
@@ -21,6 +21,7 @@ import com.logicalclocks.servicediscoverclient.service.Service;
 import io.hops.hopsworks.common.featurestore.FeaturestoreController;
 import io.hops.hopsworks.common.featurestore.feature.FeatureGroupFeatureDTO;
 import io.hops.hopsworks.common.hdfs.HdfsUsersController;
+import io.hops.hopsworks.common.hive.HiveMetastoreClientPool;
 import io.hops.hopsworks.common.hosts.ServiceDiscoveryController;
 import io.hops.hopsworks.common.security.CertificateMaterializer;
 import io.hops.hopsworks.common.util.Settings;
@@ -49,12 +50,15 @@ import org.apache.hadoop.hive.metastore.api.ThriftHiveMetastore;
 import org.apache.hadoop.hive.metastore.api.hive_metastoreConstants;
 import org.apache.hadoop.hive.metastore.conf.MetastoreConf;
 import org.apache.hadoop.hive.serde.serdeConstants;
+import org.apache.thrift.TApplicationException;
 import org.apache.thrift.TException;
 import org.apache.thrift.protocol.TBinaryProtocol;
 import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.protocol.TProtocolException;
 import org.apache.thrift.transport.TSSLTransportFactory;
 import org.apache.thrift.transport.TSocket;
 import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
 
 import javax.annotation.PostConstruct;
 import javax.ejb.EJB;
@@ -63,8 +67,10 @@ import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -84,6 +90,8 @@ public class OfflineFeatureGroupController {
   private CertificateMaterializer certificateMaterializer;
   @EJB
   private ServiceDiscoveryController serviceDiscoveryController;
+  @EJB
+  private HiveMetastoreClientPool metastoreClientPool;
 
   private Configuration metastoreConf;
 
@@ -133,13 +141,64 @@ public class OfflineFeatureGroupController {
     }
   }
 
+  /**
+   * A sequence of metastore operations which runs on a single client
+   *
+   * @param <T> the result of the operations
+   */
+  @FunctionalInterface
+  public interface MetastoreBatch<T> {
+    T execute(ThriftHiveMetastore.Client client) throws FeaturestoreException;
+  }
+
+  /**
+   * Runs several metastore operations on the same pooled client of the user instead of opening a connection for
+   * each of them. The client is given back to the pool unless an operation failed in a way which leaves it in an
+   * unknown state, see {@link #leavesClientUsable(Exception)}.
+   *
+   * @param project the project of the user
+   * @param user the user to run the operations as
+   * @param batch the operations
+   * @param <T> the result of the operations
+   * @return the result of the batch
+   * @throws FeaturestoreException
+   */
+  public <T> T executeBatch(Project project, Users user, MetastoreBatch<T> batch) throws FeaturestoreException {
+    ThriftHiveMetastore.Client client = getMetaStoreClient(project, user);
+    boolean reusable = false;
+    try {
+      T result = batch.execute(client);
+      reusable = true;
+      return result;
+    } catch (FeaturestoreException e) {
+      reusable = leavesClientUsable(e);
+      throw e;
+    } finally {
+      finalizeMetastoreOperation(client, reusable);
+    }
+  }
+
+  /**
+   * Errors declared by the metastore API, such as NoSuchObjectException or AlreadyExistsException, are read as
+   * complete responses and leave the client usable. Transport, protocol and application errors may leave unread or
+   * half written messages on the connection, so the client is closed.
+   */
+  private boolean leavesClientUsable(Exception e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof TTransportException || cause instanceof TProtocolException
+          || cause instanceof TApplicationException) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   public void createHiveTable(Featurestore featurestore, String tableName, String tableDesc,
                               List<FeatureGroupFeatureDTO> featureGroupFeatureDTOList, Project project,
                               Users user, Formats format)
       throws FeaturestoreException, ServiceException, IOException {
     String dbName = featurestoreController.getOfflineFeaturestoreDbName(featurestore.getProject());
     Table table = getEmptyTable(dbName, tableName, hdfsUsersController.getHdfsUserName(project, user), format);
-    ThriftHiveMetastore.Client client = getMetaStoreClient(project, user);
 
     // add table description
     table.getParameters().put(COMMENT, tableDesc);
@@ -172,55 +231,56 @@ public class OfflineFeatureGroupController {
       }
     }
 
-    createTable(client, table, primaryKeys, defaultConstraints, project, user);
-    finalizeMetastoreOperation(project, user, client);
+    executeBatch(project, user, client -> {
+      createTable(client, table, primaryKeys, defaultConstraints);
+      return null;
+    });
   }
   
   public void alterHiveTableDescription(Featurestore featurestore, String tableName, String description,
     Project project, Users user) throws FeaturestoreException {
     String dbName = featurestoreController.getOfflineFeaturestoreDbName(featurestore.getProject());
-    ThriftHiveMetastore.Client client = getMetaStoreClient(project, user);
-    Table table = getTable(client, dbName, tableName, project, user);
-    table.getParameters().put(COMMENT, description);
-    alterTable(client, table, project, user);
-    finalizeMetastoreOperation(project, user, client);
+    executeBatch(project, user, client -> {
+      Table table = getTable(client, dbName, tableName);
+      table.getParameters().put(COMMENT, description);
+      alterTable(client, table);
+      return null;
+    });
   }
 
   public void alterHiveTableFeatures(Featurestore featurestore, String tableName,
     List<FeatureGroupFeatureDTO> featureDTOs, Project project, Users user) throws FeaturestoreException {
     String dbName = featurestoreController.getOfflineFeaturestoreDbName(featurestore.getProject());
 
-    ThriftHiveMetastore.Client client = getMetaStoreClient(project, user);
-    Table table = getTable(client, dbName, tableName, project, user);
- 
-    // modify columns here
-    List<SQLDefaultConstraint> defaultConstraints = getDefaultConstraints(client, featurestore, tableName, project,
-      user);
-    for (FeatureGroupFeatureDTO featureDTO : featureDTOs) {
-      table.getSd().addToCols(
-        new FieldSchema(featureDTO.getName(), featureDTO.getType().toLowerCase(), featureDTO.getDescription()));
-      if (featureDTO.getDefaultValue() != null) {
-        defaultConstraints.add(new SQLDefaultConstraint(table.getCatName(), table.getDbName(),
-          table.getTableName(), featureDTO.getName(), featureDTO.getDefaultValue(),
-          dbName + "_" + tableName + "_" + featureDTO.getName() + "_dc", true, false,
-          false));
+    executeBatch(project, user, client -> {
+      Table table = getTable(client, dbName, tableName);
+
+      // modify columns here
+      List<SQLDefaultConstraint> defaultConstraints = getDefaultConstraints(client, featurestore, tableName);
+      for (FeatureGroupFeatureDTO featureDTO : featureDTOs) {
+        table.getSd().addToCols(
+          new FieldSchema(featureDTO.getName(), featureDTO.getType().toLowerCase(), featureDTO.getDescription()));
+        if (featureDTO.getDefaultValue() != null) {
+          defaultConstraints.add(new SQLDefaultConstraint(table.getCatName(), table.getDbName(),
+            table.getTableName(), featureDTO.getName(), featureDTO.getDefaultValue(),
+            dbName + "_" + tableName + "_" + featureDTO.getName() + "_dc", true, false,
+            false));
+        }
       }
-    }
-    List<SQLPrimaryKey> primaryKeyConstraints = getPrimaryKeyConstraints(client, featurestore, project, user,
-      tableName);
-    alterTable(client, table, project, user);
-    addPrimaryKeyConstraints(client, primaryKeyConstraints, project, user);
-    addDefaultConstraints(client, defaultConstraints, project, user);
-    finalizeMetastoreOperation(project, user, client);
+      List<SQLPrimaryKey> primaryKeyConstraints = getPrimaryKeyConstraints(client, featurestore, tableName);
+      alterTable(client, table);
+      addPrimaryKeyConstraints(client, primaryKeyConstraints);
+      addDefaultConstraints(client, defaultConstraints);
+      return null;
+    });
   }
 
   private void createTable(ThriftHiveMetastore.Client client, Table table, List<SQLPrimaryKey> primaryKeys,
-                           List<SQLDefaultConstraint> defaultConstraints, Project project, Users user)
+                           List<SQLDefaultConstraint> defaultConstraints)
       throws FeaturestoreException {
     try {
       client.create_table_with_constraints(table, primaryKeys, null, null, null, defaultConstraints, null);
     } catch (TException e) {
-      finalizeMetastoreOperation(project, user, client);
       throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.COULD_NOT_CREATE_FEATUREGROUP, Level.SEVERE,
           "Error creating feature group table in the Hive Metastore: " + e.getMessage(), e.getMessage(), e);
     }
@@ -228,28 +288,44 @@ public class OfflineFeatureGroupController {
   
   public List<SQLDefaultConstraint> getDefaultConstraints(Featurestore featurestore, String tableName, Project project,
                                                            Users user) throws FeaturestoreException {
-    ThriftHiveMetastore.Client client = getMetaStoreClient(project, user);
-    List<SQLDefaultConstraint> constraints = getDefaultConstraints(client, featurestore, tableName, project, user);
-    finalizeMetastoreOperation(project, user, client);
-    return constraints;
+    return executeBatch(project, user, client -> getDefaultConstraints(client, featurestore, tableName));
+  }
+  
+  /**
+   * Default constraints of several tables of a feature store, read with a single metastore client
+   *
+   * @param featurestore
+   * @param tableNames
+   * @param project
+   * @param user
+   * @return table name -> default constraints of the table
+   * @throws FeaturestoreException
+   */
+  public Map<String, List<SQLDefaultConstraint>> getDefaultConstraints(Featurestore featurestore,
+    Collection<String> tableNames, Project project, Users user) throws FeaturestoreException {
+    return executeBatch(project, user, client -> {
+      Map<String, List<SQLDefaultConstraint>> defaultConstraints = new HashMap<>();
+      for (String tableName : tableNames) {
+        defaultConstraints.put(tableName, getDefaultConstraints(client, featurestore, tableName));
+      }
+      return defaultConstraints;
+    });
   }
   
   private List<SQLDefaultConstraint> getDefaultConstraints(ThriftHiveMetastore.Client client, Featurestore featurestore,
-                                                          String tableName, Project project, Users user)
+                                                          String tableName)
       throws FeaturestoreException {
     String dbName = featurestoreController.getOfflineFeaturestoreDbName(featurestore.getProject());
-    return getDefaultConstraints(client, project, user, "hive", dbName, tableName);
+    return getDefaultConstraints(client, "hive", dbName, tableName);
   }
   
-  private List<SQLDefaultConstraint> getDefaultConstraints(ThriftHiveMetastore.Client client, Project project,
-                                                           Users user, String catName, String dbName,
-                                                           String tableName)
+  private List<SQLDefaultConstraint> getDefaultConstraints(ThriftHiveMetastore.Client client, String catName,
+                                                           String dbName, String tableName)
       throws FeaturestoreException {
     try {
       DefaultConstraintsRequest constraintRequest = new DefaultConstraintsRequest(catName, dbName, tableName);
       return client.get_default_constraints(constraintRequest).getDefaultConstraints();
     } catch (TException e) {
-      finalizeMetastoreOperation(project, user, client);
       throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.COULD_NOT_GET_FEATURE_GROUP_METADATA,
         Level.SEVERE, "Error getting feature group default constraints from the Hive Metastore: " + e.getMessage(),
         e.getMessage(), e);
@@ -257,102 +333,94 @@ public class OfflineFeatureGroupController {
   }
   
   private List<SQLPrimaryKey> getPrimaryKeyConstraints(ThriftHiveMetastore.Client client, Featurestore featurestore,
-                                                       Project project, Users user, String tableName)
+                                                       String tableName)
       throws FeaturestoreException {
     String dbName = featurestoreController.getOfflineFeaturestoreDbName(featurestore.getProject());
     try {
       PrimaryKeysRequest primaryKeysRequest = new PrimaryKeysRequest(dbName, tableName);
       return client.get_primary_keys(primaryKeysRequest).getPrimaryKeys();
     } catch (TException e) {
-      finalizeMetastoreOperation(project, user, client);
       throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.COULD_NOT_GET_FEATURE_GROUP_METADATA,
         Level.SEVERE, "Error getting feature group primary constraints from the Hive Metastore: " + e.getMessage(),
         e.getMessage(), e);
     }
   }
 
-  private void alterTable(ThriftHiveMetastore.Client client, Table table, Project project, Users user)
-    throws FeaturestoreException {
+  private void alterTable(ThriftHiveMetastore.Client client, Table table) throws FeaturestoreException {
     try {
       client.alter_table_with_cascade(table.getDbName(), table.getTableName(), table, true);
     } catch (TException e) {
-      finalizeMetastoreOperation(project, user, client);
       throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.COULD_NOT_ALTER_FEAUTURE_GROUP_METADATA,
         Level.SEVERE, "Error altering feature group table in the Hive Metastore: " + e.getMessage(), e.getMessage(), e);
     }
   }
   
-  private void addPrimaryKeyConstraints(ThriftHiveMetastore.Client client, List<SQLPrimaryKey> primaryKeyConstraints,
-                                        Project project, Users user) throws FeaturestoreException {
+  private void addPrimaryKeyConstraints(ThriftHiveMetastore.Client client, List<SQLPrimaryKey> primaryKeyConstraints)
+    throws FeaturestoreException {
     try {
       AddPrimaryKeyRequest primaryKeyRequest = new AddPrimaryKeyRequest();
       primaryKeyRequest.setPrimaryKeyCols(primaryKeyConstraints);
       client.add_primary_key(primaryKeyRequest);
     } catch (TException e) {
-      finalizeMetastoreOperation(project, user, client);
       throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.COULD_NOT_ALTER_FEAUTURE_GROUP_METADATA,
         Level.SEVERE, "Error adding primary key constrains to feature group in the Hive Metastore: " + e.getMessage(),
         e.getMessage(), e);
     }
   }
   
-  private void addDefaultConstraints(ThriftHiveMetastore.Client client, List<SQLDefaultConstraint> defaultConstraints,
-                                     Project project, Users user) throws FeaturestoreException {
+  private void addDefaultConstraints(ThriftHiveMetastore.Client client, List<SQLDefaultConstraint> defaultConstraints)
+    throws FeaturestoreException {
     try {
       AddDefaultConstraintRequest constraintRequest = new AddDefaultConstraintRequest();
       constraintRequest.setDefaultConstraintCols(defaultConstraints);
       client.add_default_constraint(constraintRequest);
     } catch (TException e) {
-      finalizeMetastoreOperation(project, user, client);
       throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.COULD_NOT_ALTER_FEAUTURE_GROUP_METADATA,
         Level.SEVERE, "Error adding default constraints to feature group in the Hive Metastore: " + e.getMessage(),
         e.getMessage(), e);
     }
   }
 
-  private Table getTable(ThriftHiveMetastore.Client client, String dbName, String tableName,  Project project,
-                         Users user) throws FeaturestoreException {
+  private Table getTable(ThriftHiveMetastore.Client client, String dbName, String tableName)
+    throws FeaturestoreException {
     try {
       return client.get_table(dbName, tableName);
     } catch (TException e) {
-      finalizeMetastoreOperation(project, user, client);
       throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.COULD_NOT_GET_FEATURE_GROUP_METADATA,
         Level.SEVERE, "Error getting feature group table from Hive Metastore: " + e.getMessage(), e.getMessage(), e);
     }
   }
   
   private ThriftHiveMetastore.Client getMetaStoreClient(Project project, Users user) throws FeaturestoreException {
-    try {
-      return openMetastoreClient(project, user);
-    } catch (ServiceException | IOException e) {
-      throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.ERROR_CREATING_HIVE_METASTORE_CLIENT,
-        Level.SEVERE, "Error opening the Hive Metastore client: " + e.getMessage(), e.getMessage(), e);
-    }
-  }
-
-  private void finalizeMetastoreOperation(Project project, Users user, ThriftHiveMetastore.Client client) {
-    certificateMaterializer.removeCertificatesLocal(user.getUsername(), project.getName());
-    if (client != null) {
+    return metastoreClientPool.acquire(project.getName(), user.getUsername(), () -> {
       try {
-        client.shutdown();
-      } catch (TException e) {
-        LOGGER.log(Level.SEVERE, "Error closing Metastore connection", e);
+        return openMetastoreClient(project, user);
+      } catch (ServiceException | IOException e) {
+        throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.ERROR_CREATING_HIVE_METASTORE_CLIENT,
+          Level.SEVERE, "Error opening the Hive Metastore client: " + e.getMessage(), e.getMessage(), e);
       }
-    }
+    });
+  }
+
+  /**
+   * Gives the client back to the pool, the client and the certificates of the user are kept for the next operation
+   * unless the client failed.
+   */
+  private void finalizeMetastoreOperation(ThriftHiveMetastore.Client client, boolean reusable) {
+    metastoreClientPool.release(client, reusable);
   }
 
   public void dropFeatureGroup(String dbName, String tableName, Project project, Users user)
       throws FeaturestoreException, ServiceException, IOException {
-    ThriftHiveMetastore.Client client = null;
-    try {
-      client = openMetastoreClient(project, user);
-      client.drop_table(dbName, tableName, true);
-    } catch (TException e) {
-      throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.COULD_NOT_DELETE_FEATUREGROUP, Level.SEVERE,
-          "Error dropping feature group in the Hive Metastore: " +  e.getMessage(), e.getMessage(), e);
-    } finally {
-      finalizeMetastoreOperation(project, user, client);
-    }
+    executeBatch(project, user, client -> {
+      try {
+        client.drop_table(dbName, tableName, true);
+      } catch (TException e) {
+        throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.COULD_NOT_DELETE_FEATUREGROUP, Level.SEVERE,
+            "Error dropping feature group in the Hive Metastore: " +  e.getMessage(), e.getMessage(), e);
+      }
+      return null;
+    });
   }
 
   // Here we can't use the HiveMetaStoreClient.java wrapper as we would need to export environment variables and so on
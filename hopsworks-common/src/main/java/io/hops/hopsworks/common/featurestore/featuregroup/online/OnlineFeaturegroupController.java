@@ -37,6 +37,7 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -232,6 +233,19 @@ public class OnlineFeaturegroupController {
         onlineFeaturestoreController.getOnlineFeaturestoreDbName(featuregroup.getFeaturestore().getProject()));
   }
 
+  /**
+   * Queries the metadata in MySQL-Cluster once to get the schema information of all the online feature groups of a
+   * feature store
+   *
+   * @param featurestore the featurestore of the online feature groups
+   * @return the Feature DTOs with the type information by table name
+   */
+  public Map<String, List<FeatureGroupFeatureDTO>> getFeaturegroupFeatures(Featurestore featurestore)
+    throws FeaturestoreException {
+    return onlineFeaturestoreFacade.getMySQLFeatures(
+        onlineFeaturestoreController.getOnlineFeaturestoreDbName(featurestore.getProject()));
+  }
+
   public Long getFeaturegroupSize(Featuregroup featuregroup) {
     return onlineFeaturestoreFacade.getTblSize(
         getTblName(featuregroup),
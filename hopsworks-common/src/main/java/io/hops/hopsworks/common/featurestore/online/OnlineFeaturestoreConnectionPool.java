@@ -0,0 +1,167 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.featurestore.online;
+
+import io.hops.hopsworks.common.monitoring.MonitoringRegistry;
+import io.hops.hopsworks.common.security.secrets.SecretsController;
+import io.hops.hopsworks.common.util.KeyedPool;
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.exceptions.UserException;
+import io.hops.hopsworks.persistence.entity.user.Users;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.ejb.Timer;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps open JDBC connections to the online feature store, one bounded pool per database user and JDBC URL. The
+ * database user is derived from the project and the Hopsworks user, and the URL contains the database, so every pool
+ * serves a single (project, user, database) triple.
+ * <p>
+ * The password of a database user is read from the secrets manager once and kept until the user is invalidated.
+ * Callers must invalidate a database user whenever its password or its privileges change, as MySQL does not apply
+ * database level privileges to connections which are already open.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@DependsOn("Settings")
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class OnlineFeaturestoreConnectionPool {
+  
+  private static final Logger LOGGER = Logger.getLogger(OnlineFeaturestoreConnectionPool.class.getName());
+  // MySQL ER_ACCESS_DENIED_ERROR
+  private static final int ACCESS_DENIED_ERROR = 1045;
+  // Idle connections older than this are validated before being handed out
+  private static final long VALIDATION_INTERVAL_MS = 30000L;
+  private static final int VALIDATION_TIMEOUT_S = 2;
+  
+  @EJB
+  private Settings settings;
+  @EJB
+  private MonitoringRegistry monitoringRegistry;
+  @EJB
+  private SecretsController secretsController;
+  
+  private final KeyedPool<String, Connection> pool =
+      new KeyedPool<>("MySQL JDBC connection", VALIDATION_INTERVAL_MS, this::isValid,
+        (key, connection) -> close(connection));
+  private final Map<String, String> passwords = new ConcurrentHashMap<>();
+  
+  @PostConstruct
+  public void init() {
+    monitoringRegistry.register("onlinefs", this::getStats);
+  }
+  
+  @PreDestroy
+  public void destroy() {
+    pool.invalidateAll();
+  }
+  
+  /**
+   * Get an open connection of a database user. Every call must be paired with a call to
+   * {@link #release(Connection, boolean)}.
+   *
+   * @param jdbcUrl the JDBC URL of the online feature store database
+   * @param dbUsername the database user
+   * @param user the Hopsworks user owning the secret with the password of the database user
+   * @return an open connection
+   * @throws UserException if the password of the database user could not be read
+   * @throws SQLException if a new connection could not be opened
+   */
+  public Connection acquire(String jdbcUrl, String dbUsername, Users user) throws UserException, SQLException {
+    String key = dbUsername + "@" + jdbcUrl;
+    String password = passwords.get(dbUsername);
+    if (password != null) {
+      try {
+        return pool.acquire(key, () -> DriverManager.getConnection(jdbcUrl, dbUsername, password));
+      } catch (SQLException e) {
+        if (e.getErrorCode() != ACCESS_DENIED_ERROR) {
+          throw e;
+        }
+        // The password has been rotated, read it again
+        passwords.remove(dbUsername, password);
+      }
+    }
+    String current = secretsController.get(user, dbUsername).getPlaintext();
+    Connection connection = pool.acquire(key, () -> DriverManager.getConnection(jdbcUrl, dbUsername, current));
+    passwords.put(dbUsername, current);
+    return connection;
+  }
+  
+  /**
+   * Give back a connection acquired from the pool.
+   *
+   * @param connection the connection, may be null
+   * @param reusable false if the connection might be in a broken state and should be closed
+   */
+  public void release(Connection connection, boolean reusable) {
+    pool.release(connection, reusable, settings.getOnlineFeaturestorePoolMaxSize());
+  }
+  
+  /**
+   * Forget the password of a database user and close its idle connections. Connections in use are closed when they
+   * are released.
+   *
+   * @param dbUsername the database user
+   */
+  public void invalidate(String dbUsername) {
+    passwords.remove(dbUsername);
+    String prefix = dbUsername + "@";
+    pool.invalidate(key -> key.startsWith(prefix));
+  }
+  
+  @Schedule(persistent = false, minute = "*", hour = "*")
+  public void evictIdle(Timer timer) {
+    pool.evictIdle(settings.getOnlineFeaturestorePoolIdleTimeoutMs());
+  }
+  
+  public OnlineFeaturestoreConnectionPoolStats getStats() {
+    return new OnlineFeaturestoreConnectionPoolStats(pool.getKeys(), pool.getIdle(), pool.getLeased(), pool.getHits(),
+      pool.getMisses(), pool.getEvictions());
+  }
+  
+  private boolean isValid(Connection connection) {
+    try {
+      return connection.isValid(VALIDATION_TIMEOUT_S);
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+  
+  private void close(Connection connection) {
+    try {
+      connection.close();
+    } catch (SQLException e) {
+      LOGGER.log(Level.WARNING, "Error closing MySQL JDBC connection: " + e);
+    }
+  }
+}
@@ -44,7 +44,7 @@ import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -64,6 +64,8 @@ public class OnlineFeaturestoreController {
   private static final String MYSQL_DRIVER = "com.mysql.cj.jdbc.Driver";
   private static final String MYSQL_JDBC = "jdbc:mysql://";
   private static final String MYSQL_PROPERTIES = "?useSSL=false&allowPublicKeyRetrieval=true";
+  // Pooled connections keep the prepared statements of repeated queries, e.g. previews, on the server
+  private static final String MYSQL_POOL_PROPERTIES = "&useServerPrepStmts=true&cachePrepStmts=true";
 
   @EJB
   private SecretsFacade secretsFacade;
@@ -83,6 +85,8 @@ public class OnlineFeaturestoreController {
   private UserFacade userFacade;
   @EJB
   private ServiceDiscoveryController serviceDiscoveryController;
+  @EJB
+  private OnlineFeaturestoreConnectionPool connectionPool;
   
   @PostConstruct
   public void init() {
@@ -95,7 +99,8 @@ public class OnlineFeaturestoreController {
   }
   
   /**
-   * Initializes a JDBC connection MySQL Server using an online featurestore user and password
+   * Gets a pooled JDBC connection to MySQL Server using an online featurestore user and password. The connection
+   * must be given back with {@link OnlineFeaturestoreConnectionPool#release(Connection, boolean)}.
    *
    * @param databaseName name of the MySQL database to open a connection to
    * @param project      the project of the user making the request
@@ -106,15 +111,12 @@ public class OnlineFeaturestoreController {
   private Connection initConnection(String databaseName, Project project, Users user) throws FeaturestoreException {
     String jdbcString = "";
     String dbUsername = onlineDbUsername(project, user);
-    String password = "";
     try {
-      password = secretsController.get(user, dbUsername).getPlaintext();
+      jdbcString = getJdbcURL(databaseName) + MYSQL_POOL_PROPERTIES;
+      return connectionPool.acquire(jdbcString, dbUsername, user);
     } catch (UserException e) {
       throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.FEATURESTORE_ONLINE_SECRETS_ERROR,
         Level.SEVERE, "Problem getting secrets for the JDBC connection to the online FS");
-    }
-    try {
-      return DriverManager.getConnection(getJdbcURL(databaseName), dbUsername, password);
     } catch (SQLException | ServiceDiscoveryException e) {
       throw new FeaturestoreException(
         RESTCodes.FeaturestoreErrorCode.COULD_NOT_INITIATE_MYSQL_CONNECTION_TO_ONLINE_FEATURESTORE, Level.SEVERE,
@@ -135,23 +137,19 @@ public class OnlineFeaturestoreController {
    */
   public void executeUpdateJDBCQuery(String query, String databaseName, Project project, Users user)
     throws FeaturestoreException, SQLException {
-    //Re-create the connection every time since the connection is database and user-specific
-    Statement stmt = null;
-    Connection conn = null;
+    //The connection is database and user-specific, it is taken from the pool of that user
+    Connection conn = initConnection(databaseName, project, user);
+    boolean reusable = false;
     //Run Query
-    try {
-      conn = initConnection(databaseName, project, user);
-      stmt = conn.createStatement();
+    try (Statement stmt = conn.createStatement()) {
       stmt.executeUpdate(query);
+      reusable = true;
     } catch (SQLException e) {
       throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.MYSQL_JDBC_UPDATE_STATEMENT_ERROR, Level.SEVERE,
         "project: " + project.getName() + ", Online featurestore database: " + databaseName + " jdbc query: " + query,
         e.getMessage(), e);
     } finally {
-      if (stmt != null) {
-        stmt.close();
-      }
-      closeConnection(conn);
+      connectionPool.release(conn, reusable);
     }
   }
   
@@ -168,38 +166,21 @@ public class OnlineFeaturestoreController {
    */
   public FeaturegroupPreview executeReadJDBCQuery(String query, String databaseName, Project project, Users user)
       throws SQLException, FeaturestoreException {
-    Connection conn = null;
-    Statement stmt = null;
-    try {
-      //Re-create the connection every time since the connection is database and user-specific
-      conn = initConnection(databaseName, project, user);
-      stmt = conn.createStatement();
-      ResultSet rs = stmt.executeQuery(query);
-      return cachedFeaturegroupController.parseResultset(rs);
+    //The connection is database and user-specific, it is taken from the pool of that user
+    Connection conn = initConnection(databaseName, project, user);
+    boolean reusable = false;
+    //Prepared statements are cached by the connection, repeating the same query skips parsing it again
+    try (PreparedStatement stmt = conn.prepareStatement(query);
+         ResultSet rs = stmt.executeQuery()) {
+      FeaturegroupPreview preview = cachedFeaturegroupController.parseResultset(rs);
+      reusable = true;
+      return preview;
     } catch (SQLException e) {
       throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.MYSQL_JDBC_READ_QUERY_ERROR, Level.SEVERE,
           "project: " + project.getName() + ", mysql database: " + databaseName + " jdbc query: " + query,
           e.getMessage(), e);
     } finally {
-      if (stmt != null) {
-        stmt.close();
-      }
-      closeConnection(conn);
-    }
-  }
-
-  /**
-   * Checks if the JDBC connection to MySQL Server is open, and if so closes it.
-   *
-   * @param conn the JDBC connection
-   */
-  private void closeConnection(Connection conn) {
-    try {
-      if (conn != null) {
-        conn.close();
-      }
-    } catch (SQLException e) {
-      LOGGER.log(Level.WARNING, "Error closing MySQL JDBC connection: " +  e);
+      connectionPool.release(conn, reusable);
     }
   }
   
@@ -265,6 +246,8 @@ public class OnlineFeaturestoreController {
     } catch (UserException e) {
       throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.FEATURESTORE_ONLINE_SECRETS_ERROR,
               Level.SEVERE, "Problem adding online featurestore password to hopsworks secretsmgr");
+    } finally {
+      connectionPool.invalidate(dbuser);
     }
     return onlineFsPw;
   }
@@ -329,6 +312,8 @@ public class OnlineFeaturestoreController {
     } else {
       onlineFeaturestoreFacade.grantDataScientistPrivileges(db, dbuser);
     }
+    //Open connections keep the privileges they were opened with
+    connectionPool.invalidate(dbuser);
 
     try {
       featurestoreJdbcConnectorController.createJdbcConnectorForOnlineFeaturestore(dbuser, featurestore, db);
@@ -367,6 +352,7 @@ public class OnlineFeaturestoreController {
       Users user = userFacade.findByUsername(hdfsUser.getUsername());
       if (user != null) {
         String dbUser = onlineDbUsername(project, user);
+        connectionPool.invalidate(dbUser);
         try {
           secretsController.delete(user, dbUser);
         } catch (UserException e) {
@@ -403,6 +389,7 @@ public class OnlineFeaturestoreController {
 
     SecretId id = new SecretId(user.getUid(), dbUser);
     secretsFacade.deleteSecret(id);
+    connectionPool.invalidate(dbUser);
     onlineFeaturestoreFacade.removeOnlineFeaturestoreUser(dbUser);
     featurestoreJdbcConnectorController.removeFeaturestoreJdbcConnector(connectorName);
   }
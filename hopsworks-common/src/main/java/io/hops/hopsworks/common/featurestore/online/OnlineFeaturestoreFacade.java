@@ -31,7 +31,9 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -150,6 +152,36 @@ public class OnlineFeaturestoreFacade {
     return featureGroupFeatureDTOS;
   }
 
+  /**
+   * Get the columns of all the tables of a database with a single query
+   *
+   * @param db the database
+   * @return table name -> columns of the table
+   * @throws FeaturestoreException
+   */
+  public Map<String, List<FeatureGroupFeatureDTO>> getMySQLFeatures(String db) throws FeaturestoreException {
+    Map<String, List<FeatureGroupFeatureDTO>> featureGroupFeatureDTOS = new HashMap<>();
+    try (Connection connection = featureStoreDataSource.getConnection();
+         PreparedStatement pStmt = connection.prepareStatement(
+             "SELECT `COLUMNS`.`TABLE_NAME`, `COLUMNS`.`COLUMN_NAME`,`COLUMNS`.`COLUMN_TYPE`, " +
+             "`COLUMNS`.`COLUMN_COMMENT` " +
+             "FROM INFORMATION_SCHEMA.`COLUMNS` " +
+             "WHERE `COLUMNS`.`TABLE_SCHEMA`=?;")) {
+      pStmt.setString(1, db);
+      try (ResultSet resultSet = pStmt.executeQuery()) {
+        while (resultSet.next()) {
+          featureGroupFeatureDTOS.computeIfAbsent(resultSet.getString(1), table -> new ArrayList<>())
+            .add(new FeatureGroupFeatureDTO(resultSet.getString(2), resultSet.getString(3),
+              resultSet.getString(4)));
+        }
+      }
+    } catch (SQLException se) {
+      throw new FeaturestoreException(RESTCodes.FeaturestoreErrorCode.ERROR_ONLINE_FEATURES, Level.SEVERE,
+          "Error reading features from schema", se.getMessage(), se);
+    }
+    return featureGroupFeatureDTOS;
+  }
+
   /**
    * Gets the features of a online featuregroup from the MySQL metadata
    *
@@ -0,0 +1,265 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.hdfs;
+
+import io.hops.hopsworks.common.monitoring.MonitoringRegistry;
+import io.hops.hopsworks.common.security.BaseHadoopClientsService;
+import io.hops.hopsworks.common.util.Settings;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.ejb.Timer;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps one ready {@link DistributedFileSystemOps} per HDFS user so that the proxy user, the configuration and the
+ * materialized certificates are set up once and shared by all concurrent requests of that user.
+ * <p>
+ * Clients are reference counted. A client is closed when it has been idle for longer than the configured timeout,
+ * when the pool is full and room is needed for another user, or when it is invalidated because the certificates of
+ * the user changed. Invalidated clients that are still in use are closed when the last holder releases them.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@DependsOn("Settings")
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class DistributedFsClientPool {
+  
+  private static final Logger LOGGER = Logger.getLogger(DistributedFsClientPool.class.getName());
+  
+  @EJB
+  private Settings settings;
+  @EJB
+  private MonitoringRegistry monitoringRegistry;
+  @EJB
+  private BaseHadoopClientsService bhcs;
+  
+  private final Map<String, PooledClient> clients = new ConcurrentHashMap<>();
+  // Every client handed out by the pool, including invalidated ones which are still in use
+  private final Map<DistributedFileSystemOps, PooledClient> leased = new ConcurrentHashMap<>();
+  
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+  
+  @PostConstruct
+  public void init() {
+    monitoringRegistry.register("hdfsclients", this::getStats);
+  }
+  
+  @PreDestroy
+  public void destroy() {
+    for (String username : clients.keySet()) {
+      invalidate(username);
+    }
+  }
+  
+  /**
+   * Get the pooled client of a user or create one with the given factory. Every call must be paired with a call to
+   * {@link #release(DistributedFileSystemOps)}.
+   *
+   * @param username HDFS username
+   * @param factory creates a new client for the user, may return null
+   * @return the client of the user or null if the factory failed to create one
+   */
+  public DistributedFileSystemOps acquire(String username, Supplier<DistributedFileSystemOps> factory) {
+    while (true) {
+      PooledClient client = clients.get(username);
+      if (client != null) {
+        if (client.retain()) {
+          hits.incrementAndGet();
+          return client.dfso;
+        }
+        // It has been invalidated in the meantime
+        clients.remove(username, client);
+        continue;
+      }
+      
+      misses.incrementAndGet();
+      if (clients.size() >= settings.getDfsClientPoolMaxSize() && !evictLeastRecentlyUsed()) {
+        // Every pooled client is in use, hand out a client which is not pooled
+        return factory.get();
+      }
+      DistributedFileSystemOps dfso = factory.get();
+      if (dfso == null) {
+        return null;
+      }
+      client = new PooledClient(username, dfso);
+      leased.put(dfso, client);
+      if (clients.putIfAbsent(username, client) == null) {
+        return dfso;
+      }
+      // Another thread created a client for the same user first, use that one
+      close(client);
+    }
+  }
+  
+  /**
+   * Give back a client acquired from the pool.
+   *
+   * @param dfso client
+   * @return false if the client is not managed by the pool and should be closed by the caller
+   */
+  public boolean release(DistributedFileSystemOps dfso) {
+    PooledClient client = leased.get(dfso);
+    if (client == null) {
+      return false;
+    }
+    if (client.release()) {
+      close(client);
+    }
+    return true;
+  }
+  
+  /**
+   * Stop handing out the pooled client of a user, for example because the certificates of the user changed. The
+   * client is closed as soon as it is not in use anymore.
+   *
+   * @param username HDFS username
+   */
+  public void invalidate(String username) {
+    PooledClient client = clients.remove(username);
+    if (client != null && client.invalidate()) {
+      close(client);
+    }
+  }
+  
+  /**
+   * Invalidate the pooled clients of all the members of a project
+   *
+   * @param projectName project name
+   */
+  public void invalidateProject(String projectName) {
+    String prefix = projectName + HdfsUsersController.USER_NAME_DELIMITER;
+    for (String username : clients.keySet()) {
+      if (username.startsWith(prefix)) {
+        invalidate(username);
+      }
+    }
+  }
+  
+  @Schedule(persistent = false, minute = "*", hour = "*")
+  public void evictIdle(Timer timer) {
+    long idleTimeout = settings.getDfsClientPoolIdleTimeoutMs();
+    long now = System.currentTimeMillis();
+    for (PooledClient client : clients.values()) {
+      if (client.invalidateIfIdleSince(now - idleTimeout)) {
+        clients.remove(client.username, client);
+        evictions.incrementAndGet();
+        close(client);
+      }
+    }
+  }
+  
+  private boolean evictLeastRecentlyUsed() {
+    PooledClient lru = null;
+    for (PooledClient client : clients.values()) {
+      if (client.isIdle() && (lru == null || client.lastReleased < lru.lastReleased)) {
+        lru = client;
+      }
+    }
+    if (lru != null && lru.invalidateIfIdleSince(Long.MAX_VALUE)) {
+      clients.remove(lru.username, lru);
+      evictions.incrementAndGet();
+      close(lru);
+      return true;
+    }
+    return false;
+  }
+  
+  private void close(PooledClient client) {
+    leased.remove(client.dfso);
+    try {
+      if (settings.getHopsRpcTls()) {
+        bhcs.removeNonSuperUserCertificate(client.username);
+      }
+    } catch (Exception ex) {
+      LOGGER.log(Level.WARNING, "Could not remove certificates of " + client.username, ex);
+    }
+    client.dfso.close();
+  }
+  
+  public DistributedFsClientPoolStats getStats() {
+    return new DistributedFsClientPoolStats(clients.size(), leased.size(), hits.get(), misses.get(), evictions.get());
+  }
+  
+  private static class PooledClient {
+    private final String username;
+    private final DistributedFileSystemOps dfso;
+    private int references = 1;
+    private boolean invalidated = false;
+    private volatile long lastReleased = System.currentTimeMillis();
+    
+    private PooledClient(String username, DistributedFileSystemOps dfso) {
+      this.username = username;
+      this.dfso = dfso;
+    }
+    
+    private synchronized boolean retain() {
+      if (invalidated) {
+        return false;
+      }
+      references++;
+      return true;
+    }
+    
+    /**
+     * @return true if the client should be closed
+     */
+    private synchronized boolean release() {
+      references--;
+      lastReleased = System.currentTimeMillis();
+      return invalidated && references == 0;
+    }
+    
+    /**
+     * @return true if the client should be closed
+     */
+    private synchronized boolean invalidate() {
+      if (invalidated) {
+        return false;
+      }
+      invalidated = true;
+      return references == 0;
+    }
+    
+    private synchronized boolean invalidateIfIdleSince(long timestamp) {
+      if (invalidated || references > 0 || lastReleased > timestamp) {
+        return false;
+      }
+      invalidated = true;
+      return true;
+    }
+    
+    private synchronized boolean isIdle() {
+      return !invalidated && references == 0;
+    }
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.hdfs;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import java.io.Serializable;
+
+@XmlRootElement
+public class DistributedFsClientPoolStats implements Serializable {
+  
+  private int pooled;
+  private int leased;
+  private long hits;
+  private long misses;
+  private long evictions;
+  
+  public DistributedFsClientPoolStats() {
+  }
+  
+  public DistributedFsClientPoolStats(int pooled, int leased, long hits, long misses, long evictions) {
+    this.pooled = pooled;
+    this.leased = leased;
+    this.hits = hits;
+    this.misses = misses;
+    this.evictions = evictions;
+  }
+  
+  public int getPooled() {
+    return pooled;
+  }
+  
+  public void setPooled(int pooled) {
+    this.pooled = pooled;
+  }
+  
+  public int getLeased() {
+    return leased;
+  }
+  
+  public void setLeased(int leased) {
+    this.leased = leased;
+  }
+  
+  public long getHits() {
+    return hits;
+  }
+  
+  public void setHits(long hits) {
+    this.hits = hits;
+  }
+  
+  public long getMisses() {
+    return misses;
+  }
+  
+  public void setMisses(long misses) {
+    this.misses = misses;
+  }
+  
+  public long getEvictions() {
+    return evictions;
+  }
+  
+  public void setEvictions(long evictions) {
+    this.evictions = evictions;
+  }
+}
@@ -90,6 +90,8 @@ public class DistributedFsService {
   private Settings settings;
   @EJB
   private BaseHadoopClientsService bhcs;
+  @EJB
+  private DistributedFsClientPool clientPool;
 
   private Configuration conf;
   private String hadoopConfDir;
@@ -187,7 +189,8 @@ public class DistributedFsService {
   }
   
   /**
-   * Returns the user specific distributed file system operations
+   * Returns the user specific distributed file system operations. Clients are pooled per user, so the returned
+   * client must be given back with {@link #closeDfsClient(DistributedFileSystemOps)}.
    * <p>
    * @param username
    * @return
@@ -196,6 +199,10 @@ public class DistributedFsService {
     if (username == null || username.isEmpty()) {
       throw new IllegalArgumentException("username not provided.");
     }
+    return clientPool.acquire(username, () -> createDfsOps(username));
+  }
+  
+  private DistributedFileSystemOps createDfsOps(String username) {
     UserGroupInformation ugi;
     try {
       ugi = UserGroupInformation.createProxyUser(username, UserGroupInformation.
@@ -226,6 +233,9 @@ public class DistributedFsService {
 
   public void closeDfsClient(DistributedFileSystemOps udfso) {
     if (null != udfso) {
+      if (clientPool.release(udfso)) {
+        return;
+      }
       if (settings.getHopsRpcTls()
           && !udfso.getEffectiveUser().equals(loginUser.getUserName())) {
         bhcs.removeNonSuperUserCertificate(udfso.getEffectiveUser());
@@ -234,6 +244,16 @@ public class DistributedFsService {
     }
   }
   
+  /**
+   * Close the pooled client of a user once it is not in use anymore, so that the next call to
+   * {@link #getDfsOps(String)} picks up new certificates.
+   *
+   * @param username HDFS username
+   */
+  public void invalidateDfsOps(String username) {
+    clientPool.invalidate(username);
+  }
+  
   public DistributedFileSystemOps getDfsOpsForTesting(String username) {
     if (username == null || username.isEmpty()) {
       throw new NullPointerException("username not set.");
@@ -288,6 +308,7 @@ public class DistributedFsService {
     if (username == null || username.isEmpty()) {
       return;
     }
+    clientPool.invalidate(username);
     UserGroupInformation ugi = ugiService.remove(username);
     if (ugi == null) {
       return;
@@ -0,0 +1,298 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.hdfs.inode;
+
+import io.hops.hopsworks.common.dao.hdfs.inode.InodeFacade;
+import io.hops.hopsworks.common.monitoring.MonitoringRegistry;
+import io.hops.hopsworks.common.util.FutureTasks;
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.persistence.entity.hdfs.inode.Inode;
+import org.apache.hadoop.fs.Path;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Visits all the descendants of a directory with a bounded number of workers. The children of a directory are read
+ * from the database a page at a time and every page is a unit of work shared by the workers, so that both deep and
+ * wide sub-trees are visited in parallel. At most {@link Settings#getInodeTreeWalkConcurrency()} workers, including
+ * the calling thread, take part in a walk.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@DependsOn("Settings")
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class InodeTreeWalker {
+  
+  private static final Logger LOGGER = Logger.getLogger(InodeTreeWalker.class.getName());
+  private static final long PROGRESS_LOG_INTERVAL = 10000;
+  
+  @EJB
+  private InodeFacade inodeFacade;
+  @EJB
+  private MonitoringRegistry monitoringRegistry;
+  @EJB
+  private Settings settings;
+  @Resource(lookup = "concurrent/hopsExecutorService")
+  private ManagedExecutorService executorService;
+  
+  private final Map<Long, TreeWalk> walks = new ConcurrentHashMap<>();
+  private final AtomicLong walkIds = new AtomicLong();
+  private final AtomicLong completed = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  
+  @PostConstruct
+  public void init() {
+    monitoringRegistry.register("treewalks", this::getMetrics);
+  }
+  
+  /**
+   * Applied to every descendant of the walked directory. It is called concurrently from several threads.
+   */
+  public interface InodeVisitor {
+    /**
+     * @param inode the visited inode
+     * @param path the path of the inode
+     * @return true if the inode was changed, false if it was already in the expected state
+     * @throws IOException stops the walk
+     */
+    boolean visit(Inode inode, Path path) throws IOException;
+  }
+  
+  /**
+   * Visit all the descendants of a directory, the directory itself is not visited. Returns once all the descendants
+   * have been visited or after the first failed visit.
+   *
+   * @param root the directory to walk
+   * @param rootPath the path of the directory
+   * @param visitor applied to every descendant
+   * @throws IOException the first exception thrown by the visitor
+   */
+  public void walk(Inode root, Path rootPath, InodeVisitor visitor) throws IOException {
+    if (root == null || !root.isDir()) {
+      return;
+    }
+    TreeWalk walk = new TreeWalk(rootPath, visitor, Math.max(1, settings.getInodeTreeWalkPageSize()));
+    walk.push(new Page(root, rootPath, ""));
+    walks.put(walk.id, walk);
+    try {
+      List<FutureTask<Void>> workers = new ArrayList<>();
+      int concurrency = settings.getInodeTreeWalkConcurrency();
+      for (int i = 1; i < concurrency; i++) {
+        FutureTask<Void> worker = new FutureTask<>(walk::work, null);
+        try {
+          executorService.execute(worker);
+        } catch (RejectedExecutionException e) {
+          // The calling thread walks the tree with the workers started so far
+          LOGGER.log(Level.FINE, "Walking {0} with {1} workers", new Object[]{rootPath, i});
+          break;
+        }
+        workers.add(worker);
+      }
+      walk.work();
+      await(walk, workers);
+    } finally {
+      walks.remove(walk.id);
+    }
+    IOException failure = walk.failure;
+    if (failure != null) {
+      failed.incrementAndGet();
+      LOGGER.log(Level.WARNING, "Walking {0} failed after visiting {1} inodes", new Object[]{rootPath,
+        walk.visited.get()});
+      throw failure;
+    }
+    completed.incrementAndGet();
+    LOGGER.log(Level.FINE, "Walked {0}: visited={1}, changed={2}, elapsed={3}ms", new Object[]{rootPath,
+      walk.visited.get(), walk.changed.get(), System.currentTimeMillis() - walk.startedAt});
+  }
+  
+  /**
+   * Wait for the workers which are still visiting their last page. A worker which has not started yet, because the
+   * shared executor is busy with other tasks, is run here instead and returns at once as there is nothing left to
+   * visit, so the walk never waits for a free thread of the executor.
+   */
+  private void await(TreeWalk walk, List<FutureTask<Void>> workers) {
+    for (FutureTask<Void> worker : workers) {
+      try {
+        FutureTasks.await(worker);
+      } catch (InterruptedException e) {
+        // The remaining workers stop before their next page
+        walk.fail(new InterruptedIOException("Interrupted while walking " + walk.root));
+        Thread.currentThread().interrupt();
+        return;
+      } catch (ExecutionException e) {
+        walk.fail(new IOException(e.getCause()));
+      }
+    }
+  }
+  
+  public InodeTreeWalkerMetrics getMetrics() {
+    InodeTreeWalkerMetrics metrics = new InodeTreeWalkerMetrics();
+    metrics.setCompleted(completed.get());
+    metrics.setFailed(failed.get());
+    long now = System.currentTimeMillis();
+    for (TreeWalk walk : walks.values()) {
+      metrics.getWalks().add(new InodeTreeWalkerMetrics.ActiveTreeWalk(walk.root.toString(), now - walk.startedAt,
+        walk.visited.get(), walk.changed.get(), walk.directories.get(), walk.getPending()));
+    }
+    return metrics;
+  }
+  
+  private static class Page {
+    private final Inode dir;
+    private final Path path;
+    // Name of the last child of the previous page
+    private final String afterName;
+    
+    private Page(Inode dir, Path path, String afterName) {
+      this.dir = dir;
+      this.path = path;
+      this.afterName = afterName;
+    }
+  }
+  
+  private class TreeWalk {
+    private final long id = walkIds.incrementAndGet();
+    private final long startedAt = System.currentTimeMillis();
+    private final Path root;
+    private final InodeVisitor visitor;
+    private final int pageSize;
+    private final AtomicLong visited = new AtomicLong();
+    private final AtomicLong changed = new AtomicLong();
+    private final AtomicLong directories = new AtomicLong();
+    // Pages not yet taken by a worker, the most recently found are taken first to keep the queue short
+    private final Deque<Page> pages = new ArrayDeque<>();
+    private int inProgress;
+    private volatile IOException failure;
+    
+    private TreeWalk(Path root, InodeVisitor visitor, int pageSize) {
+      this.root = root;
+      this.visitor = visitor;
+      this.pageSize = pageSize;
+    }
+    
+    private synchronized void push(Page page) {
+      if (failure == null) {
+        pages.push(page);
+        notifyAll();
+      }
+    }
+    
+    // The next page to visit or null once the whole tree has been visited or the walk failed
+    private synchronized Page take() throws InterruptedException {
+      while (failure == null) {
+        Page page = pages.poll();
+        if (page != null) {
+          inProgress++;
+          return page;
+        }
+        if (inProgress == 0) {
+          return null;
+        }
+        wait();
+      }
+      return null;
+    }
+    
+    private synchronized void done() {
+      inProgress--;
+      if (inProgress == 0) {
+        notifyAll();
+      }
+    }
+    
+    private synchronized void fail(IOException e) {
+      if (failure == null) {
+        failure = e;
+      }
+      pages.clear();
+      notifyAll();
+    }
+    
+    private synchronized int getPending() {
+      return pages.size() + inProgress;
+    }
+    
+    private void work() {
+      try {
+        Page page;
+        while ((page = take()) != null) {
+          try {
+            visit(page);
+          } catch (IOException e) {
+            fail(e);
+          } catch (RuntimeException e) {
+            fail(new IOException(e));
+          } finally {
+            done();
+          }
+        }
+      } catch (InterruptedException e) {
+        fail(new InterruptedIOException("Interrupted while walking " + root));
+        Thread.currentThread().interrupt();
+      }
+    }
+    
+    private void visit(Page page) throws IOException {
+      List<Inode> children = inodeFacade.findByParent(page.dir, page.afterName, pageSize);
+      if (children.size() == pageSize) {
+        // Another worker can read and visit the next page of a large directory meanwhile
+        push(new Page(page.dir, page.path, children.get(children.size() - 1).getInodePK().getName()));
+      }
+      for (Inode child : children) {
+        if (failure != null) {
+          return;
+        }
+        Path childPath = new Path(page.path, child.getInodePK().getName());
+        if (visitor.visit(child, childPath)) {
+          changed.incrementAndGet();
+        }
+        if (child.isDir()) {
+          directories.incrementAndGet();
+          push(new Page(child, childPath, ""));
+        }
+        long count = visited.incrementAndGet();
+        if (count % PROGRESS_LOG_INTERVAL == 0) {
+          LOGGER.log(Level.INFO, "Walking {0}: visited={1}, changed={2}, pending={3}, elapsed={4}ms",
+            new Object[]{root, count, changed.get(), getPending(), System.currentTimeMillis() - startedAt});
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.hdfs.inode;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sub-trees being walked by {@link InodeTreeWalker}
+ */
+@XmlRootElement
+public class InodeTreeWalkerMetrics implements Serializable {
+  
+  private long completed;
+  private long failed;
+  private List<ActiveTreeWalk> walks = new ArrayList<>();
+  
+  public InodeTreeWalkerMetrics() {
+  }
+  
+  public long getCompleted() {
+    return completed;
+  }
+  
+  public void setCompleted(long completed) {
+    this.completed = completed;
+  }
+  
+  public long getFailed() {
+    return failed;
+  }
+  
+  public void setFailed(long failed) {
+    this.failed = failed;
+  }
+  
+  public List<ActiveTreeWalk> getWalks() {
+    return walks;
+  }
+  
+  public void setWalks(List<ActiveTreeWalk> walks) {
+    this.walks = walks;
+  }
+  
+  public static class ActiveTreeWalk implements Serializable {
+    
+    private String path;
+    private long elapsedMs;
+    private long visited;
+    private long changed;
+    private long directories;
+    private int pendingPages;
+    
+    public ActiveTreeWalk() {
+    }
+    
+    public ActiveTreeWalk(String path, long elapsedMs, long visited, long changed, long directories,
+      int pendingPages) {
+      this.path = path;
+      this.elapsedMs = elapsedMs;
+      this.visited = visited;
+      this.changed = changed;
+      this.directories = directories;
+      this.pendingPages = pendingPages;
+    }
+    
+    public String getPath() {
+      return path;
+    }
+    
+    public void setPath(String path) {
+      this.path = path;
+    }
+    
+    public long getElapsedMs() {
+      return elapsedMs;
+    }
+    
+    public void setElapsedMs(long elapsedMs) {
+      this.elapsedMs = elapsedMs;
+    }
+    
+    public long getVisited() {
+      return visited;
+    }
+    
+    public void setVisited(long visited) {
+      this.visited = visited;
+    }
+    
+    public long getChanged() {
+      return changed;
+    }
+    
+    public void setChanged(long changed) {
+      this.changed = changed;
+    }
+    
+    public long getDirectories() {
+      return directories;
+    }
+    
+    public void setDirectories(long directories) {
+      this.directories = directories;
+    }
+    
+    public int getPendingPages() {
+      return pendingPages;
+    }
+    
+    public void setPendingPages(int pendingPages) {
+      this.pendingPages = pendingPages;
+    }
+  }
+}
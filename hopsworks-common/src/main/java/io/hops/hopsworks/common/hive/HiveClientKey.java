@@ -0,0 +1,68 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package io.hops.hopsworks.common.hive;
+
+import io.hops.hopsworks.common.hdfs.HdfsUsersController;
+
+import java.util.Objects;
+
+/**
+ * Key of the pooled Hive clients and connections of a project user, optionally to a single database.
+ */
+final class HiveClientKey {
+  
+  private final String projectName;
+  private final String username;
+  private final String databaseName;
+  
+  HiveClientKey(String projectName, String username, String databaseName) {
+    this.projectName = projectName;
+    this.username = username;
+    this.databaseName = databaseName;
+  }
+  
+  String getProjectName() {
+    return projectName;
+  }
+  
+  String getUsername() {
+    return username;
+  }
+  
+  String getHdfsUsername() {
+    return projectName + HdfsUsersController.USER_NAME_DELIMITER + username;
+  }
+  
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof HiveClientKey)) {
+      return false;
+    }
+    HiveClientKey other = (HiveClientKey) o;
+    return projectName.equals(other.projectName) && username.equals(other.username)
+        && Objects.equals(databaseName, other.databaseName);
+  }
+  
+  @Override
+  public int hashCode() {
+    return Objects.hash(projectName, username, databaseName);
+  }
+}
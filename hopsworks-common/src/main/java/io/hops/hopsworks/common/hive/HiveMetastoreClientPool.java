@@ -0,0 +1,160 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.hive;
+
+import io.hops.hopsworks.common.monitoring.MonitoringRegistry;
+import io.hops.hopsworks.common.security.CertificateMaterializer;
+import io.hops.hopsworks.common.util.KeyedPool;
+import io.hops.hopsworks.common.util.Settings;
+import org.apache.hadoop.hive.metastore.api.ThriftHiveMetastore;
+import org.apache.thrift.TException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.ejb.Timer;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps authenticated Hive metastore Thrift clients per project user. Opening a client materializes the certificates
+ * of the user, sets up the TLS transport and sends the UGI and the crypto material to the metastore, so reusing it
+ * saves several round trips per metastore operation.
+ * <p>
+ * Thrift clients are not thread safe, a client is handed out to one caller at a time. The certificates materialized
+ * for a client are removed when the client is closed, either because it has been idle for longer than the configured
+ * timeout, it failed the health check or the certificates of the user changed.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@DependsOn("Settings")
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class HiveMetastoreClientPool {
+  
+  private static final Logger LOGGER = Logger.getLogger(HiveMetastoreClientPool.class.getName());
+  // Idle clients older than this are health checked before being handed out
+  private static final long VALIDATION_INTERVAL_MS = 30000L;
+  
+  @EJB
+  private Settings settings;
+  @EJB
+  private MonitoringRegistry monitoringRegistry;
+  @EJB
+  private CertificateMaterializer certificateMaterializer;
+  
+  private final KeyedPool<HiveClientKey, ThriftHiveMetastore.Client> pool =
+      new KeyedPool<>("Hive metastore client", VALIDATION_INTERVAL_MS, this::isAlive, this::close);
+  
+  @FunctionalInterface
+  public interface ClientFactory<E extends Exception> {
+    /**
+     * Open a new client, materializing the certificates of the user
+     */
+    ThriftHiveMetastore.Client open() throws E;
+  }
+  
+  @PostConstruct
+  public void init() {
+    monitoringRegistry.register("hivemetastore", this::getStats);
+  }
+  
+  @PreDestroy
+  public void destroy() {
+    pool.invalidateAll();
+  }
+  
+  /**
+   * Get an idle client of a project user or open one with the given factory. Every call must be paired with a call to
+   * {@link #release(ThriftHiveMetastore.Client, boolean)}.
+   *
+   * @param projectName name of the project
+   * @param username username of the user
+   * @param factory opens a new client for the user
+   * @return an open client
+   * @throws E if the factory failed to open a client
+   */
+  public <E extends Exception> ThriftHiveMetastore.Client acquire(String projectName, String username,
+    ClientFactory<E> factory) throws E {
+    return pool.acquire(new HiveClientKey(projectName, username, null), factory::open);
+  }
+  
+  /**
+   * Give back a client acquired from the pool.
+   *
+   * @param client the client, may be null
+   * @param reusable false if the client might be in a broken state and should be closed
+   */
+  public void release(ThriftHiveMetastore.Client client, boolean reusable) {
+    pool.release(client, reusable, settings.getHiveMetastorePoolMaxSize());
+  }
+  
+  /**
+   * Close the idle clients of a project user, for example because the certificates of the user changed. Clients in
+   * use are closed when they are released.
+   *
+   * @param hdfsUsername the project specific username
+   */
+  public void invalidate(String hdfsUsername) {
+    pool.invalidate(key -> key.getHdfsUsername().equals(hdfsUsername));
+  }
+  
+  /**
+   * Close the idle clients of all the members of a project
+   *
+   * @param projectName name of the project
+   */
+  public void invalidateProject(String projectName) {
+    pool.invalidate(key -> key.getProjectName().equals(projectName));
+  }
+  
+  @Schedule(persistent = false, minute = "*", hour = "*")
+  public void evictIdle(Timer timer) {
+    pool.evictIdle(settings.getHiveMetastorePoolIdleTimeoutMs());
+  }
+  
+  public HiveClientPoolStats getStats() {
+    return new HiveClientPoolStats(pool.getKeys(), pool.getIdle(), pool.getLeased(), pool.getHits(), pool.getMisses(),
+      pool.getEvictions());
+  }
+  
+  private boolean isAlive(ThriftHiveMetastore.Client client) {
+    try {
+      client.getStatus();
+      return true;
+    } catch (TException e) {
+      return false;
+    }
+  }
+  
+  private void close(HiveClientKey key, ThriftHiveMetastore.Client client) {
+    try {
+      client.shutdown();
+    } catch (TException e) {
+      LOGGER.log(Level.FINE, "Error closing Metastore connection", e);
+    } finally {
+      client.getInputProtocol().getTransport().close();
+      certificateMaterializer.removeCertificatesLocal(key.getUsername(), key.getProjectName());
+    }
+  }
+}
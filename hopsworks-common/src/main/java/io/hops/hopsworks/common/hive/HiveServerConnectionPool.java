@@ -0,0 +1,159 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.hive;
+
+import io.hops.hopsworks.common.monitoring.MonitoringRegistry;
+import io.hops.hopsworks.common.security.CertificateMaterializer;
+import io.hops.hopsworks.common.util.KeyedPool;
+import io.hops.hopsworks.common.util.Settings;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.ejb.Timer;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps open JDBC connections to HiveServer2 per project user and database. Opening a connection materializes the
+ * certificates of the user and goes through a two-way TLS handshake and the opening of a Hive session, which is paid
+ * once per pooled connection instead of once per query.
+ * <p>
+ * The certificates materialized for a connection are removed when the connection is closed, either because it has
+ * been idle for longer than the configured timeout, it failed or the certificates of the user changed.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@DependsOn("Settings")
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class HiveServerConnectionPool {
+  
+  private static final Logger LOGGER = Logger.getLogger(HiveServerConnectionPool.class.getName());
+  // Idle connections older than this are validated before being handed out
+  private static final long VALIDATION_INTERVAL_MS = 30000L;
+  private static final int VALIDATION_TIMEOUT_S = 5;
+  
+  @EJB
+  private Settings settings;
+  @EJB
+  private MonitoringRegistry monitoringRegistry;
+  @EJB
+  private CertificateMaterializer certificateMaterializer;
+  
+  private final KeyedPool<HiveClientKey, Connection> pool =
+      new KeyedPool<>("HiveServer2 connection", VALIDATION_INTERVAL_MS, this::isValid, this::close);
+  
+  @FunctionalInterface
+  public interface ConnectionFactory<E extends Exception> {
+    /**
+     * Open a new connection, materializing the certificates of the user
+     */
+    Connection open() throws E;
+  }
+  
+  @PostConstruct
+  public void init() {
+    monitoringRegistry.register("hiveserver", this::getStats);
+  }
+  
+  @PreDestroy
+  public void destroy() {
+    pool.invalidateAll();
+  }
+  
+  /**
+   * Get an idle connection of a project user to a database or open one with the given factory. Every call must be
+   * paired with a call to {@link #release(Connection, boolean)}.
+   *
+   * @param projectName name of the project
+   * @param username username of the user
+   * @param databaseName the Hive database
+   * @param factory opens a new connection
+   * @return an open connection
+   * @throws E if the factory failed to open a connection
+   */
+  public <E extends Exception> Connection acquire(String projectName, String username, String databaseName,
+    ConnectionFactory<E> factory) throws E {
+    return pool.acquire(new HiveClientKey(projectName, username, databaseName), factory::open);
+  }
+  
+  /**
+   * Give back a connection acquired from the pool.
+   *
+   * @param connection the connection, may be null
+   * @param reusable false if the connection might be in a broken state and should be closed
+   */
+  public void release(Connection connection, boolean reusable) {
+    pool.release(connection, reusable, settings.getHiveServerPoolMaxSize());
+  }
+  
+  /**
+   * Close the idle connections of a project user, for example because the certificates of the user changed.
+   * Connections in use are closed when they are released.
+   *
+   * @param hdfsUsername the project specific username
+   */
+  public void invalidate(String hdfsUsername) {
+    pool.invalidate(key -> key.getHdfsUsername().equals(hdfsUsername));
+  }
+  
+  /**
+   * Close the idle connections of all the members of a project
+   *
+   * @param projectName name of the project
+   */
+  public void invalidateProject(String projectName) {
+    pool.invalidate(key -> key.getProjectName().equals(projectName));
+  }
+  
+  @Schedule(persistent = false, minute = "*", hour = "*")
+  public void evictIdle(Timer timer) {
+    pool.evictIdle(settings.getHiveServerPoolIdleTimeoutMs());
+  }
+  
+  public HiveClientPoolStats getStats() {
+    return new HiveClientPoolStats(pool.getKeys(), pool.getIdle(), pool.getLeased(), pool.getHits(), pool.getMisses(),
+      pool.getEvictions());
+  }
+  
+  private boolean isValid(Connection connection) {
+    try {
+      return connection.isValid(VALIDATION_TIMEOUT_S);
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+  
+  private void close(HiveClientKey key, Connection connection) {
+    try {
+      connection.close();
+    } catch (SQLException e) {
+      LOGGER.log(Level.WARNING, "Error closing Hive JDBC connection: " + e);
+    } finally {
+      certificateMaterializer.removeCertificatesLocal(key.getUsername(), key.getProjectName());
+    }
+  }
+}
@@ -0,0 +1,261 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.jobs;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.persistence.entity.jobs.history.Execution;
+import org.influxdb.InfluxDB;
+import org.influxdb.InfluxDBFactory;
+import org.influxdb.dto.Query;
+import org.influxdb.dto.QueryResult;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads the executors of YARN applications from the graphite database of InfluxDB. A single InfluxDB client is
+ * shared by all requests, the per-executor lookups are sent as one multi-statement query and only executors which
+ * have not been resolved in a previous refresh are looked up.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@DependsOn("Settings")
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class AppInfoController {
+  
+  private static final Logger LOGGER = Logger.getLogger(AppInfoController.class.getName());
+  private static final String GRAPHITE = "graphite";
+  
+  @EJB
+  private Settings settings;
+  
+  private InfluxDB influxDB;
+  private String influxDBKey;
+  // appId -> YARN container ids of the application
+  private Cache<String, List<String>> appContainers;
+  // YARN container id -> hostname. These never change once found.
+  private Cache<String, String> containerHosts;
+  // hostname -> vcores of the host
+  private Cache<String, String> hostVCores;
+  
+  @PostConstruct
+  public void init() {
+    appContainers = CacheBuilder.newBuilder()
+      .maximumSize(1000)
+      .expireAfterWrite(settings.getAppInfoCacheTtl(), TimeUnit.MILLISECONDS)
+      .build();
+    containerHosts = CacheBuilder.newBuilder()
+      .maximumSize(100000)
+      .expireAfterAccess(1, TimeUnit.HOURS)
+      .build();
+    hostVCores = CacheBuilder.newBuilder()
+      .maximumSize(10000)
+      .expireAfterWrite(10, TimeUnit.MINUTES)
+      .build();
+  }
+  
+  @PreDestroy
+  public synchronized void destroy() {
+    closeInfluxDB();
+  }
+  
+  public AppInfoDTO getAppInfo(String appId, Execution execution) {
+    long startTime = System.currentTimeMillis() - 60000;
+    long endTime = System.currentTimeMillis();
+    boolean running = true;
+    if (execution != null) {
+      startTime = execution.getSubmissionTime().getTime();
+      endTime = startTime + execution.getExecutionDuration();
+      running = !execution.getState().isFinalState();
+    }
+    
+    List<String> containers = appContainers.getIfPresent(appId);
+    if (containers == null) {
+      containers = getContainers(appId);
+      appContainers.put(appId, containers);
+    }
+    resolveContainers(containers);
+    
+    // Executor info is keyed by index and holds the YARN container id, the hostname and the vcores of the host
+    HashMap<Integer, List<String>> executorInfo = new HashMap<>();
+    for (int i = 0; i < containers.size(); i++) {
+      List<String> info = new ArrayList<>();
+      info.add(containers.get(i));
+      String host = containerHosts.getIfPresent(containers.get(i));
+      if (host != null) {
+        info.add(host);
+        String vCores = hostVCores.getIfPresent(host);
+        if (vCores != null) {
+          info.add(vCores);
+        }
+      }
+      executorInfo.put(i, info);
+    }
+    return new AppInfoDTO(appId, startTime, running, endTime, containers.size(), executorInfo);
+  }
+  
+  private List<String> getContainers(String appId) {
+    // Transform application_1493112123688_0001 to 1493112123688_0001
+    // application_ = 12 chars
+    String timestampAttempt = appId.substring(12);
+    QueryResult queryResult = query("show tag values from nodemanager with key=\"source\" where source =~ /^.*"
+      + timestampAttempt + ".*$/");
+    List<String> containers = new ArrayList<>();
+    if (queryResult != null && queryResult.getResults() != null) {
+      for (QueryResult.Result res : queryResult.getResults()) {
+        if (res.getSeries() != null) {
+          for (QueryResult.Series series : res.getSeries()) {
+            if (series.getValues() != null) {
+              for (List<Object> l : series.getValues()) {
+                containers.add(Objects.toString(l.get(1)));
+              }
+            }
+          }
+        }
+      }
+    }
+    return containers;
+  }
+  
+  /**
+   * Look up the hosts of the containers which have not been resolved yet, then the vcores of the hosts which are not
+   * cached. A host is kept even if its vcores cannot be read, they are looked up again in the next refresh.
+   */
+  private void resolveContainers(List<String> containers) {
+    List<String> unresolved = new ArrayList<>();
+    for (String container : containers) {
+      if (containerHosts.getIfPresent(container) == null) {
+        unresolved.add(container);
+      }
+    }
+    
+    if (!unresolved.isEmpty()) {
+      List<String> statements = new ArrayList<>();
+      for (String container : unresolved) {
+        statements.add("select MilliVcoreUsageAvgMilliVcores, hostname from nodemanager where source = '" + container
+          + "' limit 1");
+      }
+      List<QueryResult.Result> results = queryAll(statements);
+      for (int i = 0; i < unresolved.size() && i < results.size(); i++) {
+        List<Object> row = firstRow(results.get(i));
+        if (row != null) {
+          containerHosts.put(unresolved.get(i), Objects.toString(row.get(2)).split("=")[1]);
+        }
+      }
+    }
+    
+    Set<String> hosts = new LinkedHashSet<>();
+    for (String container : containers) {
+      String host = containerHosts.getIfPresent(container);
+      if (host != null && hostVCores.getIfPresent(host) == null) {
+        hosts.add(host);
+      }
+    }
+    if (!hosts.isEmpty()) {
+      List<String> lookedUp = new ArrayList<>(hosts);
+      List<String> statements = new ArrayList<>();
+      for (String host : lookedUp) {
+        statements.add("select AllocatedVCores+AvailableVCores from nodemanager where hostname =~ /.*" + host
+          + ".*/ limit 1");
+      }
+      List<QueryResult.Result> results = queryAll(statements);
+      for (int i = 0; i < lookedUp.size() && i < results.size(); i++) {
+        List<Object> row = firstRow(results.get(i));
+        if (row != null) {
+          hostVCores.put(lookedUp.get(i), Objects.toString(row.get(1)));
+        }
+      }
+    }
+  }
+  
+  private static List<Object> firstRow(QueryResult.Result result) {
+    if (result == null || result.getSeries() == null || result.getSeries().isEmpty()) {
+      return null;
+    }
+    List<List<Object>> values = result.getSeries().get(0).getValues();
+    return values == null || values.isEmpty() ? null : values.get(0);
+  }
+  
+  /**
+   * Run several statements in a single request, returning a result per statement
+   */
+  private List<QueryResult.Result> queryAll(List<String> statements) {
+    QueryResult queryResult = query(String.join(";", statements));
+    if (queryResult == null || queryResult.getResults() == null) {
+      return new ArrayList<>();
+    }
+    return queryResult.getResults();
+  }
+  
+  private QueryResult query(String command) {
+    InfluxDB client = getInfluxDB();
+    try {
+      return client.query(new Query(command, GRAPHITE), TimeUnit.MILLISECONDS);
+    } catch (RuntimeException e) {
+      // The client might be in a bad state, create a new one for the next query
+      resetInfluxDB(client);
+      throw e;
+    }
+  }
+  
+  private synchronized InfluxDB getInfluxDB() {
+    String key = settings.getInfluxDBAddress() + "|" + settings.getInfluxDBUser() + "|" + settings.getInfluxDBPW();
+    if (influxDB == null || !key.equals(influxDBKey)) {
+      closeInfluxDB();
+      influxDB = InfluxDBFactory.connect(settings.getInfluxDBAddress(), settings.getInfluxDBUser(),
+        settings.getInfluxDBPW());
+      influxDBKey = key;
+    }
+    return influxDB;
+  }
+  
+  private synchronized void resetInfluxDB(InfluxDB client) {
+    if (influxDB == client) {
+      closeInfluxDB();
+    }
+  }
+  
+  private void closeInfluxDB() {
+    if (influxDB != null) {
+      try {
+        influxDB.close();
+      } catch (RuntimeException e) {
+        LOGGER.log(Level.FINE, "Error closing InfluxDB client", e);
+      }
+      influxDB = null;
+      influxDBKey = null;
+    }
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.jobs;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The log written by the containers of a running execution since the cursor of the previous follow request
+ */
+@XmlRootElement
+public class JobLogFollowDTO {
+  
+  private List<ContainerLog> logs = new ArrayList<>();
+  // Passed back by the client to get the log written after this response
+  private String cursor;
+  // No more log will be written
+  private boolean finished;
+  
+  public JobLogFollowDTO() {
+  }
+  
+  public List<ContainerLog> getLogs() {
+    return logs;
+  }
+  
+  public void setLogs(List<ContainerLog> logs) {
+    this.logs = logs;
+  }
+  
+  public String getCursor() {
+    return cursor;
+  }
+  
+  public void setCursor(String cursor) {
+    this.cursor = cursor;
+  }
+  
+  public boolean isFinished() {
+    return finished;
+  }
+  
+  public void setFinished(boolean finished) {
+    this.finished = finished;
+  }
+  
+  @XmlRootElement
+  public static class ContainerLog {
+    
+    private String container;
+    private String log;
+    // Bytes written since the previous response which were left out to bound the size of this one
+    private long skipped;
+    
+    public ContainerLog() {
+    }
+    
+    public ContainerLog(String container, String log, long skipped) {
+      this.container = container;
+      this.log = log;
+      this.skipped = skipped;
+    }
+    
+    public String getContainer() {
+      return container;
+    }
+    
+    public void setContainer(String container) {
+      this.container = container;
+    }
+    
+    public String getLog() {
+      return log;
+    }
+    
+    public void setLog(String log) {
+      this.log = log;
+    }
+    
+    public long getSkipped() {
+      return skipped;
+    }
+    
+    public void setSkipped(long skipped) {
+      this.skipped = skipped;
+    }
+  }
+}
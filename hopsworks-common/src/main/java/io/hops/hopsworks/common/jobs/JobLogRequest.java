@@ -0,0 +1,76 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.jobs;
+
+/**
+ * Selects the part of an execution log to read. At most one of offset, tail and filter is expected; a filter is
+ * applied from offset onwards. Without any of them the whole log is read if it fits in a page, a larger log is not
+ * returned.
+ */
+public class JobLogRequest {
+  
+  // First byte to read
+  private Long offset;
+  // Maximum number of bytes to return, capped by the maximum page size
+  private Integer length;
+  // Number of lines to read from the end of the log
+  private Integer tail;
+  // Regular expression the returned lines must contain a match of
+  private String filter;
+  
+  public JobLogRequest() {
+  }
+  
+  public JobLogRequest(Long offset, Integer length, Integer tail, String filter) {
+    this.offset = offset;
+    this.length = length;
+    this.tail = tail;
+    this.filter = filter;
+  }
+  
+  public Long getOffset() {
+    return offset;
+  }
+  
+  public void setOffset(Long offset) {
+    this.offset = offset;
+  }
+  
+  public Integer getLength() {
+    return length;
+  }
+  
+  public void setLength(Integer length) {
+    this.length = length;
+  }
+  
+  public Integer getTail() {
+    return tail;
+  }
+  
+  public void setTail(Integer tail) {
+    this.tail = tail;
+  }
+  
+  public String getFilter() {
+    return filter;
+  }
+  
+  public void setFilter(String filter) {
+    this.filter = filter;
+  }
+}
@@ -29,11 +29,15 @@ import io.hops.hopsworks.common.hdfs.DistributedFsService;
 import io.hops.hopsworks.common.hdfs.HdfsUsersController;
 import io.hops.hopsworks.common.hdfs.Utils;
 import io.hops.hopsworks.common.hdfs.inode.InodeController;
+import io.hops.hopsworks.common.jobs.AppInfoController;
 import io.hops.hopsworks.common.jobs.AppInfoDTO;
 import io.hops.hopsworks.common.jobs.JobLogDTO;
+import io.hops.hopsworks.common.jobs.JobLogFollowDTO;
+import io.hops.hopsworks.common.jobs.JobLogRequest;
 import io.hops.hopsworks.common.jobs.flink.FlinkController;
 import io.hops.hopsworks.common.jobs.spark.SparkController;
 import io.hops.hopsworks.common.jobs.yarn.YarnExecutionFinalizer;
+import io.hops.hopsworks.common.jobs.yarn.YarnLogFollower;
 import io.hops.hopsworks.common.jobs.yarn.YarnLogUtil;
 import io.hops.hopsworks.common.jobs.yarn.YarnMonitor;
 import io.hops.hopsworks.common.util.Settings;
@@ -64,28 +68,21 @@ import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.yarn.api.records.ApplicationId;
 import org.apache.hadoop.yarn.exceptions.YarnException;
 import org.apache.hadoop.yarn.util.ConverterUtils;
-import org.influxdb.InfluxDB;
-import org.influxdb.InfluxDBFactory;
-import org.influxdb.dto.Query;
-import org.influxdb.dto.QueryResult;
 
 import javax.ejb.EJB;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import static java.util.logging.Level.FINE;
 
@@ -122,6 +119,10 @@ public abstract class AbstractExecutionController implements ExecutionController
   @EJB
   private YarnExecutionFinalizer yarnExecutionFinalizer;
   @EJB
+  private YarnLogFollower yarnLogFollower;
+  @EJB
+  private AppInfoController appInfoController;
+  @EJB
   private HostServicesFacade hostServicesFacade;
   
   @Override
@@ -255,9 +256,15 @@ public abstract class AbstractExecutionController implements ExecutionController
   //====================================================================================================================
   @Override
   public JobLogDTO getLog(Execution execution, JobLogDTO.LogType type) throws JobException {
+    return getLog(execution, type, new JobLogRequest());
+  }
+  
+  @Override
+  public JobLogDTO getLog(Execution execution, JobLogDTO.LogType type, JobLogRequest request) throws JobException {
     if (!execution.getState().isFinalState()) {
       throw new JobException(RESTCodes.JobErrorCode.JOB_EXECUTION_INVALID_STATE, Level.FINE, "Job still running.");
     }
+    Pattern filter = validate(request);
     
     JobLogDTO dto = new JobLogDTO(type);
     DistributedFileSystemOps dfso = null;
@@ -278,16 +285,26 @@ public abstract class AbstractExecutionController implements ExecutionController
         String stdDirPath = stdPath.substring(0, fileIndex);
         dto.setPath(Settings.DIR_ROOT + File.separator + project.getName() + stdDirPath + File.separator +  "std" +
           dto.getType().getName().toLowerCase() + ".log");
-        if (dfso.listStatus(new org.apache.hadoop.fs.Path(hdfsPath))[0].getLen() > settings.getJobLogsDisplaySize()) {
+        long size = dfso.listStatus(new org.apache.hadoop.fs.Path(hdfsPath))[0].getLen();
+        dto.setSize(size);
+        if (isWholeLog(request) && size > settings.getJobLogsDisplaySize()) {
+          // Without a range only a log which fits in a page is returned, larger ones are read by offset or tail
           dto.setLog("Log is too big to display in browser. Click on the download button to get the log file.");
-        } else {
-          try (InputStream input = dfso.open(hdfsPath)) {
-            message = IOUtils.toString(input, "UTF-8");
-          }
-          dto.setLog(message.isEmpty() ? "No information." : message);
-          if (message.isEmpty() && execution.getState().isFinalState() && execution.getAppId() != null && status) {
-            dto.setRetriable(retriable);
-          }
+          return dto;
+        }
+        ExecutionLogReader.Page page;
+        try (FSDataInputStream input = dfso.open(hdfsPath)) {
+          page = readLogPage(input, size, request, filter);
+        } catch (TimeoutException e) {
+          throw new JobException(RESTCodes.JobErrorCode.JOB_LOG, Level.FINE,
+            "Filter took too long to match, use a simpler expression", e.getMessage(), e);
+        }
+        message = page.getContent();
+        dto.setOffset(page.getOffset());
+        dto.setNextOffset(page.getNextOffset());
+        dto.setLog(message.isEmpty() && size == 0 ? "No information." : message);
+        if (size == 0 && execution.getState().isFinalState() && execution.getAppId() != null && status) {
+          dto.setRetriable(retriable);
         }
       } else {
         String logMsg = "No log available.";
@@ -311,6 +328,68 @@ public abstract class AbstractExecutionController implements ExecutionController
     return dto;
   }
   
+  private Pattern validate(JobLogRequest request) throws JobException {
+    if ((request.getOffset() != null && request.getOffset() < 0)
+        || (request.getLength() != null && request.getLength() <= 0)
+        || (request.getTail() != null && request.getTail() <= 0)) {
+      throw new JobException(RESTCodes.JobErrorCode.JOB_LOG, Level.FINE,
+        "Offset must not be negative, length and tail must be positive");
+    }
+    if (request.getTail() != null && (request.getOffset() != null || request.getFilter() != null)) {
+      throw new JobException(RESTCodes.JobErrorCode.JOB_LOG, Level.FINE,
+        "Tail cannot be combined with offset or filter");
+    }
+    if (Strings.isNullOrEmpty(request.getFilter())) {
+      return null;
+    }
+    try {
+      return Pattern.compile(request.getFilter());
+    } catch (PatternSyntaxException e) {
+      throw new JobException(RESTCodes.JobErrorCode.JOB_LOG, Level.FINE, "Invalid filter: " + e.getMessage());
+    }
+  }
+  
+  private boolean isWholeLog(JobLogRequest request) {
+    return request.getOffset() == null && request.getLength() == null && request.getTail() == null
+      && Strings.isNullOrEmpty(request.getFilter());
+  }
+  
+  private ExecutionLogReader.Page readLogPage(FSDataInputStream input, long size, JobLogRequest request,
+    Pattern filter) throws IOException, TimeoutException {
+    int maxLength = (int) settings.getJobLogsDisplaySize();
+    int length = request.getLength() == null ? maxLength : Math.min(request.getLength(), maxLength);
+    long offset = request.getOffset() == null ? 0 : request.getOffset();
+    if (filter != null) {
+      return ExecutionLogReader.filter(input, size, offset, filter, length);
+    } else if (request.getTail() != null) {
+      return ExecutionLogReader.tail(input, size, request.getTail(), length);
+    }
+    return ExecutionLogReader.readRange(input, size, offset, length);
+  }
+  
+  @Override
+  public CompletableFuture<JobLogFollowDTO> followLog(Execution execution, JobLogDTO.LogType type, String cursor)
+    throws JobException {
+    if (execution.getState().isFinalState()) {
+      throw new JobException(RESTCodes.JobErrorCode.JOB_EXECUTION_INVALID_STATE, Level.FINE,
+        "Job is not running, read its log instead.");
+    }
+    if (Strings.isNullOrEmpty(execution.getAppId())) {
+      throw new JobException(RESTCodes.JobErrorCode.JOB_EXECUTION_INVALID_STATE, Level.FINE,
+        "Job has not been submitted yet.");
+    }
+    CompletableFuture<JobLogFollowDTO> followed = new CompletableFuture<>();
+    yarnLogFollower.follow(execution.getAppId(), type, cursor).whenComplete((dto, error) -> {
+      if (error == null) {
+        followed.complete(dto);
+      } else {
+        followed.completeExceptionally(new JobException(RESTCodes.JobErrorCode.LOG_RETRIEVAL_ERROR, Level.WARNING,
+          error.getMessage(), null, error));
+      }
+    });
+    return followed;
+  }
+  
   @Override
   public JobLogDTO retryLogAggregation(Execution execution, JobLogDTO.LogType type) throws JobException {
     if (!execution.getState().isFinalState()) {
@@ -390,101 +469,7 @@ public abstract class AbstractExecutionController implements ExecutionController
   }
   
   public AppInfoDTO getExecutionAppInfo(Execution execution) {
-    
-    long startTime = System.currentTimeMillis() - 60000;
-    long endTime = System.currentTimeMillis();
-    boolean running = true;
-    if (execution != null) {
-      startTime = execution.getSubmissionTime().getTime();
-      endTime = startTime + execution.getExecutionDuration();
-      running = !execution.getState().isFinalState();
-    }
-    
-    InfluxDB influxDB = null;
-    int nbExecutors = 0;
-    HashMap<Integer, List<String>> executorInfo;
-    try {
-      influxDB = InfluxDBFactory.connect(settings.getInfluxDBAddress(),
-        settings.getInfluxDBUser(),
-        settings.getInfluxDBPW());
-      
-      // Transform application_1493112123688_0001 to 1493112123688_0001
-      // application_ = 12 chars
-      String timestamp_attempt = execution.getAppId().substring(12);
-      
-      Query query = new Query("show tag values from nodemanager with key=\"source\" " + "where source =~ /^.*"
-        + timestamp_attempt + ".*$/", "graphite");
-      QueryResult queryResult = influxDB.query(query, TimeUnit.MILLISECONDS);
-      
-      
-      executorInfo = new HashMap<>();
-      int index = 0;
-      if (queryResult != null && queryResult.getResults() != null) {
-        for (QueryResult.Result res : queryResult.getResults()) {
-          if (res.getSeries() != null) {
-            for (QueryResult.Series series : res.getSeries()) {
-              List<List<Object>> values = series.getValues();
-              if (values != null) {
-                nbExecutors += values.size();
-                for (List<Object> l : values) {
-                  executorInfo.put(index, Stream.of(Objects.toString(l.get(1))).collect(Collectors.toList()));
-                  index++;
-                }
-              }
-            }
-          }
-        }
-      }
-      
-      /*
-       * At this point executor info contains the keys and a list with a single value, the YARN container id
-       */
-      String vCoreTemp;
-      HashMap<String, String> hostnameVCoreCache = new HashMap<>();
-      
-      for (Map.Entry<Integer, List<String>> entry : executorInfo.entrySet()) {
-        query =
-          new Query("select MilliVcoreUsageAvgMilliVcores, hostname from nodemanager where source = \'" + entry.
-            getValue().get(0) + "\' limit 1", "graphite");
-        queryResult = influxDB.query(query, TimeUnit.MILLISECONDS);
-        
-        if (queryResult != null && queryResult.getResults() != null
-          && queryResult.getResults().get(0) != null && queryResult.
-          getResults().get(0).getSeries() != null) {
-          List<List<Object>> values = queryResult.getResults().get(0).getSeries().get(0).getValues();
-          String hostname = Objects.toString(values.get(0).get(2)).split("=")[1];
-          entry.getValue().add(hostname);
-          
-          if (!hostnameVCoreCache.containsKey(hostname)) {
-            // Not in cache, get the vcores of the host machine
-            query = new Query("select AllocatedVCores+AvailableVCores from nodemanager " + "where hostname =~ /.*"
-              + hostname + ".*/ limit 1", "graphite");
-            queryResult = influxDB.query(query, TimeUnit.MILLISECONDS);
-            
-            if (queryResult != null && queryResult.getResults() != null
-              && queryResult.getResults().get(0) != null && queryResult.
-              getResults().get(0).getSeries() != null) {
-              values = queryResult.getResults().get(0).getSeries().get(0).getValues();
-              vCoreTemp = Objects.toString(values.get(0).get(1));
-              entry.getValue().add(vCoreTemp);
-              hostnameVCoreCache.put(hostname, vCoreTemp); // cache it
-            }
-          } else {
-            // It's a hit, skip the database query
-            entry.getValue().add(hostnameVCoreCache.get(hostname));
-          }
-        }
-      }
-      
-    } finally {
-      if (influxDB != null) {
-        influxDB.close();
-        
-      }
-    }
-    
-    AppInfoDTO appInfo = new AppInfoDTO(execution.getAppId(), startTime, running, endTime, nbExecutors, executorInfo);
-    return appInfo;
+    return appInfoController.getAppInfo(execution.getAppId(), execution);
   }
   
   @Override
@@ -41,6 +41,8 @@ package io.hops.hopsworks.common.jobs.execution;
 
 import io.hops.hopsworks.common.dao.jobs.description.YarnAppUrlsDTO;
 import io.hops.hopsworks.common.jobs.JobLogDTO;
+import io.hops.hopsworks.common.jobs.JobLogFollowDTO;
+import io.hops.hopsworks.common.jobs.JobLogRequest;
 import io.hops.hopsworks.exceptions.GenericException;
 import io.hops.hopsworks.exceptions.JobException;
 import io.hops.hopsworks.exceptions.ProjectException;
@@ -51,6 +53,7 @@ import io.hops.hopsworks.persistence.entity.project.Project;
 import io.hops.hopsworks.persistence.entity.user.Users;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface ExecutionController {
   
@@ -69,6 +72,11 @@ public interface ExecutionController {
   
   JobLogDTO getLog(Execution execution, JobLogDTO.LogType type) throws JobException;
   
+  JobLogDTO getLog(Execution execution, JobLogDTO.LogType type, JobLogRequest request) throws JobException;
+  
+  CompletableFuture<JobLogFollowDTO> followLog(Execution execution, JobLogDTO.LogType type, String cursor)
+    throws JobException;
+  
   JobLogDTO retryLogAggregation(Execution execution, JobLogDTO.LogType type) throws JobException;
   
   void checkAccessRight(String appId, Project project) throws JobException;
@@ -0,0 +1,247 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.jobs.execution;
+
+import io.hops.hopsworks.common.util.IoUtils;
+import org.apache.hadoop.fs.FSDataInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+/**
+ * Reads parts of an execution log through seekable reads, so that memory use is bounded by the requested page and
+ * not by the size of the log.
+ */
+final class ExecutionLogReader {
+  
+  private static final int CHUNK_SIZE = 8192;
+  // A filtered page stops scanning after this many bytes even if it did not fill up, the caller continues from there
+  private static final long MAX_FILTER_SCAN_BYTES = 64L * 1024 * 1024;
+  // Time a filtered page may spend matching, bounds user expressions which backtrack catastrophically
+  private static final long MAX_FILTER_MATCH_MS = 5000;
+  
+  private ExecutionLogReader() {
+  }
+  
+  /**
+   * A part of a log file
+   */
+  static final class Page {
+    private final String content;
+    private final long offset;
+    private final long nextOffset;
+    
+    private Page(String content, long offset, long nextOffset) {
+      this.content = content;
+      this.offset = offset;
+      this.nextOffset = nextOffset;
+    }
+    
+    String getContent() {
+      return content;
+    }
+    
+    long getOffset() {
+      return offset;
+    }
+    
+    long getNextOffset() {
+      return nextOffset;
+    }
+  }
+  
+  /**
+   * Read length bytes starting at offset, or less if the file ends before. The page only holds whole UTF-8
+   * characters: the bytes of a character which started before offset are skipped and the bytes of a character which
+   * continues after the page are left to the next page, which starts at the next offset.
+   */
+  static Page readRange(FSDataInputStream in, long fileSize, long offset, int length) throws IOException {
+    long start = Math.min(Math.max(offset, 0), fileSize);
+    int toRead = (int) Math.min(length, fileSize - start);
+    byte[] buffer = new byte[toRead];
+    in.readFully(start, buffer);
+    int from = start == 0 ? 0 : IoUtils.utf8ContinuationPrefix(buffer, 0, toRead);
+    int to = start + toRead == fileSize ? toRead : toRead - IoUtils.incompleteUtf8Suffix(buffer, from, toRead);
+    if (to <= from) {
+      // A page shorter than a character, return it as is so that the caller makes progress
+      from = 0;
+      to = toRead;
+    }
+    return new Page(new String(buffer, from, to - from, StandardCharsets.UTF_8), start + from, start + to);
+  }
+  
+  /**
+   * Read the last lines of the file, at most maxLength bytes
+   */
+  static Page tail(FSDataInputStream in, long fileSize, int lines, int maxLength) throws IOException {
+    long limit = Math.max(fileSize - maxLength, 0);
+    long position = fileSize;
+    // A trailing line break does not start a new line
+    int newLines = -1;
+    byte[] chunk = new byte[CHUNK_SIZE];
+    long start = limit;
+    search:
+    while (position > limit) {
+      int toRead = (int) Math.min(CHUNK_SIZE, position - limit);
+      position -= toRead;
+      in.readFully(position, chunk, 0, toRead);
+      for (int i = toRead - 1; i >= 0; i--) {
+        if (chunk[i] == '\n' && ++newLines == lines) {
+          start = position + i + 1;
+          break search;
+        }
+      }
+    }
+    return readRange(in, fileSize, start, (int) (fileSize - start));
+  }
+  
+  /**
+   * Scan the file from offset and collect the lines matching the filter, until maxLength bytes were collected or
+   * the scan limit was reached. The next page starts at the first line that was not scanned.
+   */
+  static Page filter(FSDataInputStream in, long fileSize, long offset, Pattern filter, int maxLength)
+      throws IOException, TimeoutException {
+    return filter(in, fileSize, offset, filter, maxLength, MAX_FILTER_MATCH_MS);
+  }
+  
+  /**
+   * Filter with a time limit. A page which runs out of time ends before the line it was matching, so that the caller
+   * continues from there with a new limit. If the first line alone takes longer the filter is given up on.
+   *
+   * @throws TimeoutException if matching the first line took longer than the time limit
+   */
+  static Page filter(FSDataInputStream in, long fileSize, long offset, Pattern filter, int maxLength,
+      long timeoutMs) throws IOException, TimeoutException {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    long start = Math.min(Math.max(offset, 0), fileSize);
+    in.seek(start);
+    InputStream input = new BufferedInputStream(in, CHUNK_SIZE);
+    ByteArrayOutputStream matches = new ByteArrayOutputStream();
+    ByteArrayOutputStream line = new ByteArrayOutputStream();
+    long position = start;
+    long lineStart = start;
+    int b;
+    while (position - start < MAX_FILTER_SCAN_BYTES && (b = input.read()) != -1) {
+      position++;
+      if (b != '\n') {
+        // Lines longer than a page are matched on their beginning only
+        if (line.size() < maxLength) {
+          line.write(b);
+        }
+        continue;
+      }
+      boolean found;
+      try {
+        found = find(filter, line, deadline);
+      } catch (DeadlineExceededException e) {
+        return timedOut(matches, start, lineStart);
+      }
+      if (found) {
+        if (matches.size() + line.size() + 1 > maxLength && matches.size() > 0) {
+          // Page is full, the next one starts with this line
+          return new Page(matches.toString(StandardCharsets.UTF_8.name()), start, lineStart);
+        }
+        line.write('\n');
+        line.writeTo(matches);
+      }
+      line.reset();
+      lineStart = position;
+    }
+    boolean lastLineFound = false;
+    if (position >= fileSize && line.size() > 0) {
+      try {
+        lastLineFound = find(filter, line, deadline);
+      } catch (DeadlineExceededException e) {
+        return timedOut(matches, start, lineStart);
+      }
+    }
+    if (lastLineFound) {
+      // Last line of the file without a line break
+      line.writeTo(matches);
+      lineStart = position;
+    } else if (lineStart == start) {
+      // A single line longer than the scan limit, skip what was scanned of it
+      lineStart = position;
+    }
+    return new Page(matches.toString(StandardCharsets.UTF_8.name()), start, lineStart);
+  }
+  
+  private static boolean find(Pattern filter, ByteArrayOutputStream line, long deadline) {
+    String text = new String(line.toByteArray(), StandardCharsets.UTF_8);
+    return filter.matcher(new DeadlineCharSequence(text, deadline)).find();
+  }
+  
+  private static Page timedOut(ByteArrayOutputStream matches, long start, long lineStart)
+      throws IOException, TimeoutException {
+    if (lineStart == start) {
+      throw new TimeoutException("Filter did not match the line at offset " + start + " in time");
+    }
+    return new Page(matches.toString(StandardCharsets.UTF_8.name()), start, lineStart);
+  }
+  
+  private static class DeadlineExceededException extends RuntimeException {
+    private DeadlineExceededException() {
+      super(null, null, false, false);
+    }
+  }
+  
+  /**
+   * Text which fails the match reading it once the deadline passed. Matching only ever reads through charAt, the
+   * clock is checked every few thousand characters read.
+   */
+  private static final class DeadlineCharSequence implements CharSequence {
+    private static final int CHECK_INTERVAL = 4096;
+    
+    private final CharSequence text;
+    private final long deadline;
+    private int reads;
+    
+    private DeadlineCharSequence(CharSequence text, long deadline) {
+      this.text = text;
+      this.deadline = deadline;
+    }
+    
+    @Override
+    public char charAt(int index) {
+      if (++reads % CHECK_INTERVAL == 0 && System.nanoTime() - deadline > 0) {
+        throw new DeadlineExceededException();
+      }
+      return text.charAt(index);
+    }
+    
+    @Override
+    public int length() {
+      return text.length();
+    }
+    
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      return new DeadlineCharSequence(text.subSequence(start, end), deadline);
+    }
+    
+    @Override
+    public String toString() {
+      return text.toString();
+    }
+  }
+}
@@ -0,0 +1,274 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.jobs.yarn;
+
+import io.hops.hopsworks.common.monitoring.MonitoringRegistry;
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.common.yarn.YarnClientService;
+import io.hops.hopsworks.common.yarn.YarnClientWrapper;
+import org.apache.hadoop.yarn.api.records.ApplicationId;
+import org.apache.hadoop.yarn.api.records.ApplicationReport;
+import org.apache.hadoop.yarn.api.records.LogAggregationStatus;
+import org.apache.hadoop.yarn.client.api.YarnClient;
+import org.apache.hadoop.yarn.exceptions.ApplicationNotFoundException;
+import org.apache.hadoop.yarn.exceptions.YarnException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.ejb.Timer;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Waits for the log aggregation of finished applications. All pending applications are checked by a single timer,
+ * which only fetches the reports of the applications that are due, and the interval between two checks of the same
+ * application grows exponentially up to {@link Settings#getLogAggregationMaxBackoff()}.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@DependsOn("Settings")
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class LogAggregationWatcher {
+  
+  private static final Logger LOGGER = Logger.getLogger(LogAggregationWatcher.class.getName());
+  private static final long INITIAL_BACKOFF_MS = 1000;
+  // NOT_START is reported both for applications which failed very early and for applications whose log
+  // aggregation has not started yet
+  private static final int MAX_NOT_START_CHECKS = 5;
+  private static final int MAX_FAILED_CHECKS = 10;
+  
+  @EJB
+  private Settings settings;
+  @EJB
+  private MonitoringRegistry monitoringRegistry;
+  @EJB
+  private YarnClientService ycs;
+  
+  private final Map<ApplicationId, PendingApplication> pending = new HashMap<>();
+  // Guards the YARN client, checks must not hold the lock of the pending applications while talking to YARN
+  private final Object checkLock = new Object();
+  private YarnClientWrapper yarnClientWrapper;
+  private long checks;
+  private long completed;
+  private long timedOut;
+  private long failed;
+  
+  @PostConstruct
+  public void init() {
+    monitoringRegistry.register("logaggregation", this::getMetrics);
+  }
+  
+  @PreDestroy
+  public void destroy() {
+    synchronized (checkLock) {
+      closeYarnClient();
+    }
+    synchronized (this) {
+      pending.values().forEach(app -> app.future.cancel(false));
+      pending.clear();
+    }
+  }
+  
+  /**
+   * Start watching the log aggregation of a finished application
+   *
+   * @param appId the application id
+   * @return a future completed with the final log aggregation status of the application, or with null if the
+   * application is not known to the ResourceManager
+   */
+  public synchronized CompletableFuture<LogAggregationStatus> watch(ApplicationId appId) {
+    return pending.computeIfAbsent(appId, id -> new PendingApplication(System.currentTimeMillis())).future;
+  }
+  
+  @Schedule(persistent = false,
+      second = "*",
+      minute = "*",
+      hour = "*")
+  public void check(Timer timer) {
+    synchronized (checkLock) {
+      long now = System.currentTimeMillis();
+      Set<ApplicationId> due = getDue(now);
+      if (due.isEmpty()) {
+        if (isIdle()) {
+          closeYarnClient();
+        }
+        return;
+      }
+      Map<ApplicationId, ApplicationReport> reports = new HashMap<>();
+      Set<ApplicationId> unreachable = new HashSet<>();
+      fetchReports(due, reports, unreachable);
+      
+      List<Runnable> completions = new ArrayList<>();
+      synchronized (this) {
+        checks += due.size();
+        for (ApplicationId appId : due) {
+          PendingApplication app = pending.get(appId);
+          if (app == null) {
+            continue;
+          }
+          Runnable completion = unreachable.contains(appId) ? onFailedCheck(appId, app, now)
+            : onReport(app, reports.get(appId), now);
+          if (completion != null) {
+            pending.remove(appId);
+            completions.add(completion);
+          }
+        }
+      }
+      // Completing outside of the lock as dependent stages might run in this thread
+      completions.forEach(Runnable::run);
+    }
+  }
+  
+  public synchronized LogAggregationWatcherMetrics getMetrics() {
+    long now = System.currentTimeMillis();
+    LogAggregationWatcherMetrics metrics = new LogAggregationWatcherMetrics();
+    metrics.setChecks(checks);
+    metrics.setCompleted(completed);
+    metrics.setTimedOut(timedOut);
+    metrics.setFailed(failed);
+    for (Map.Entry<ApplicationId, PendingApplication> entry : pending.entrySet()) {
+      PendingApplication app = entry.getValue();
+      metrics.getPending().add(new LogAggregationWatcherMetrics.PendingLogAggregation(entry.getKey().toString(),
+        now - app.registered, app.checks, app.lastStatus == null ? null : app.lastStatus.name()));
+    }
+    return metrics;
+  }
+  
+  private synchronized Set<ApplicationId> getDue(long now) {
+    Set<ApplicationId> due = new HashSet<>();
+    for (Map.Entry<ApplicationId, PendingApplication> entry : pending.entrySet()) {
+      if (entry.getValue().nextCheck <= now) {
+        due.add(entry.getKey());
+      }
+    }
+    return due;
+  }
+  
+  private synchronized boolean isIdle() {
+    return pending.isEmpty();
+  }
+  
+  /**
+   * Fetch the reports of the due applications one by one. Listing the finished applications instead would transfer
+   * every application the ResourceManager retains on each check, while only a few are due thanks to the backoff.
+   */
+  private void fetchReports(Set<ApplicationId> appIds, Map<ApplicationId, ApplicationReport> reports,
+    Set<ApplicationId> unreachable) {
+    YarnClient yarnClient = getYarnClient();
+    boolean failures = false;
+    for (ApplicationId appId : appIds) {
+      try {
+        reports.put(appId, yarnClient.getApplicationReport(appId));
+      } catch (ApplicationNotFoundException ex) {
+        reports.put(appId, null);
+      } catch (IOException | YarnException ex) {
+        LOGGER.log(Level.FINE, "Failed to get application report for " + appId, ex);
+        unreachable.add(appId);
+        failures = true;
+      }
+    }
+    if (failures) {
+      // The client might be in a bad state, create a new one in the next check
+      closeYarnClient();
+    }
+  }
+  
+  private Runnable onReport(PendingApplication app, ApplicationReport report, long now) {
+    app.checks++;
+    if (report == null) {
+      completed++;
+      return () -> app.future.complete(null);
+    }
+    LogAggregationStatus status = report.getLogAggregationStatus();
+    app.lastStatus = status;
+    if (YarnLogUtil.isFinal(status)
+        || (status == LogAggregationStatus.NOT_START && ++app.notStartChecks > MAX_NOT_START_CHECKS)) {
+      completed++;
+      return () -> app.future.complete(status);
+    }
+    if (now - app.registered > settings.getLogAggregationTimeout()) {
+      LOGGER.log(Level.WARNING, "Log aggregation of " + report.getApplicationId() + " did not finish in "
+        + settings.getLogAggregationTimeout() + "ms, copying the available logs");
+      timedOut++;
+      return () -> app.future.complete(status);
+    }
+    app.scheduleNext(now, settings.getLogAggregationMaxBackoff());
+    return null;
+  }
+  
+  private Runnable onFailedCheck(ApplicationId appId, PendingApplication app, long now) {
+    app.checks++;
+    if (++app.failedChecks > MAX_FAILED_CHECKS) {
+      failed++;
+      IOException ex = new IOException("Could not get the log aggregation status of " + appId + " after "
+        + MAX_FAILED_CHECKS + " attempts");
+      return () -> app.future.completeExceptionally(ex);
+    }
+    app.scheduleNext(now, settings.getLogAggregationMaxBackoff());
+    return null;
+  }
+  
+  private YarnClient getYarnClient() {
+    if (yarnClientWrapper == null) {
+      yarnClientWrapper = ycs.getYarnClientSuper(settings.getConfiguration());
+    }
+    return yarnClientWrapper.getYarnClient();
+  }
+  
+  private void closeYarnClient() {
+    if (yarnClientWrapper != null) {
+      ycs.closeYarnClient(yarnClientWrapper);
+      yarnClientWrapper = null;
+    }
+  }
+  
+  private static class PendingApplication {
+    private final CompletableFuture<LogAggregationStatus> future = new CompletableFuture<>();
+    private final long registered;
+    private long nextCheck;
+    private int checks;
+    private int notStartChecks;
+    private int failedChecks;
+    private LogAggregationStatus lastStatus;
+    
+    PendingApplication(long registered) {
+      this.registered = registered;
+      this.nextCheck = registered;
+    }
+    
+    void scheduleNext(long now, long maxBackoff) {
+      long backoff = INITIAL_BACKOFF_MS << Math.min(checks - 1, 16);
+      nextCheck = now + Math.min(backoff, maxBackoff);
+    }
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.jobs.yarn;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pending log copies tracked by {@link LogAggregationWatcher}
+ */
+@XmlRootElement
+public class LogAggregationWatcherMetrics implements Serializable {
+  
+  private long checks;
+  private long completed;
+  private long timedOut;
+  private long failed;
+  private List<PendingLogAggregation> pending = new ArrayList<>();
+  
+  public LogAggregationWatcherMetrics() {
+  }
+  
+  public long getChecks() {
+    return checks;
+  }
+  
+  public void setChecks(long checks) {
+    this.checks = checks;
+  }
+  
+  public long getCompleted() {
+    return completed;
+  }
+  
+  public void setCompleted(long completed) {
+    this.completed = completed;
+  }
+  
+  public long getTimedOut() {
+    return timedOut;
+  }
+  
+  public void setTimedOut(long timedOut) {
+    this.timedOut = timedOut;
+  }
+  
+  public long getFailed() {
+    return failed;
+  }
+  
+  public void setFailed(long failed) {
+    this.failed = failed;
+  }
+  
+  public List<PendingLogAggregation> getPending() {
+    return pending;
+  }
+  
+  public void setPending(List<PendingLogAggregation> pending) {
+    this.pending = pending;
+  }
+  
+  public static class PendingLogAggregation implements Serializable {
+    
+    private String appId;
+    private long waitingMs;
+    private int checks;
+    private String lastStatus;
+    
+    public PendingLogAggregation() {
+    }
+    
+    public PendingLogAggregation(String appId, long waitingMs, int checks, String lastStatus) {
+      this.appId = appId;
+      this.waitingMs = waitingMs;
+      this.checks = checks;
+      this.lastStatus = lastStatus;
+    }
+    
+    public String getAppId() {
+      return appId;
+    }
+    
+    public void setAppId(String appId) {
+      this.appId = appId;
+    }
+    
+    public long getWaitingMs() {
+      return waitingMs;
+    }
+    
+    public void setWaitingMs(long waitingMs) {
+      this.waitingMs = waitingMs;
+    }
+    
+    public int getChecks() {
+      return checks;
+    }
+    
+    public void setChecks(int checks) {
+      this.checks = checks;
+    }
+    
+    public String getLastStatus() {
+      return lastStatus;
+    }
+    
+    public void setLastStatus(String lastStatus) {
+      this.lastStatus = lastStatus;
+    }
+  }
+}
@@ -49,13 +49,9 @@ import io.hops.hopsworks.common.hdfs.Utils;
 import io.hops.hopsworks.persistence.entity.jobs.configuration.JobType;
 import io.hops.hopsworks.persistence.entity.jobs.configuration.history.JobState;
 import io.hops.hopsworks.common.util.Settings;
-import io.hops.hopsworks.common.yarn.YarnClientService;
-import io.hops.hopsworks.common.yarn.YarnClientWrapper;
 import org.apache.hadoop.fs.Path;
-import org.apache.hadoop.yarn.api.records.ApplicationId;
-import org.apache.hadoop.yarn.exceptions.YarnException;
+import org.apache.hadoop.yarn.api.records.LogAggregationStatus;
 
-import javax.ejb.AsyncResult;
 import javax.ejb.Asynchronous;
 import javax.ejb.DependsOn;
 import javax.ejb.EJB;
@@ -67,7 +63,6 @@ import java.io.IOException;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -84,16 +79,17 @@ public class YarnExecutionFinalizer {
   private Settings settings;
   @EJB
   private DistributedFsService dfs;
-  @EJB
-  private YarnClientService ycs;
 
-  @Asynchronous
-  public Future<Execution> copyLogs(Execution exec) {
+  /**
+   * Copy the aggregated logs of an application to the project and finalize its execution. The log aggregation is
+   * awaited by {@link LogAggregationWatcher}, this method only does the copying.
+   *
+   * @param exec the execution
+   * @param logAggregationStatus the final log aggregation status of the application or null if it is not known
+   * @return the updated execution
+   */
+  public Execution copyLogs(Execution exec, LogAggregationStatus logAggregationStatus) {
     DistributedFileSystemOps udfso = dfs.getDfsOps(exec.getHdfsUser());
-    ApplicationId applicationId = ApplicationId.fromString(exec.getAppId());
-    YarnClientWrapper yarnClientWrapper = ycs.getYarnClientSuper(settings.getConfiguration());
-    YarnMonitor monitor = new YarnMonitor(applicationId, yarnClientWrapper, ycs);
-
     try {
       String stdOutPath = settings.getAggregatedLogPath(exec.getHdfsUser(), exec.getAppId());
       String[] logOutputPaths = Utils.getJobLogLocation(exec.getJob().getProject().getName(),
@@ -101,22 +97,17 @@ public class YarnExecutionFinalizer {
       String stdOutFinalDestination = logOutputPaths[0] + exec.getAppId() + File.separator + "stdout.log";
       String stdErrFinalDestination = logOutputPaths[1] + exec.getAppId() + File.separator + "stderr.log";
   
-      try {
-        String[] desiredOutLogTypes = {"out"};
-        YarnLogUtil.copyAggregatedYarnLogs(udfso, stdOutPath, stdOutFinalDestination,
-            desiredOutLogTypes, monitor);
-        String[] desiredErrLogTypes = {"err", ".log"};
-        YarnLogUtil.copyAggregatedYarnLogs(udfso, stdOutPath, stdErrFinalDestination,
-                desiredErrLogTypes, monitor);
-      } catch (IOException | InterruptedException | YarnException ex) {
-        LOGGER.log(Level.SEVERE,"error while aggregation logs" + ex.toString());
-      }
+      String[] desiredOutLogTypes = {"out"};
+      YarnLogUtil.copyAggregatedYarnLogs(udfso, stdOutPath, stdOutFinalDestination,
+          desiredOutLogTypes, logAggregationStatus);
+      String[] desiredErrLogTypes = {"err", ".log"};
+      YarnLogUtil.copyAggregatedYarnLogs(udfso, stdOutPath, stdErrFinalDestination,
+              desiredErrLogTypes, logAggregationStatus);
       Execution execution = updateExecutionSTDPaths(stdOutFinalDestination, stdErrFinalDestination, exec);
       finalize(exec, exec.getState());
-      return new AsyncResult<>(execution);
+      return execution;
     } finally {
       dfs.closeDfsClient(udfso);
-      monitor.close();
     }
   }
 
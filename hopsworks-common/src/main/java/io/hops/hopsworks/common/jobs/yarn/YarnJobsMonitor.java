@@ -40,6 +40,7 @@
 package io.hops.hopsworks.common.jobs.yarn;
 
 import io.hops.hopsworks.common.jobs.JobsMonitor;
+import io.hops.hopsworks.common.monitoring.MonitoringRegistry;
 import io.hops.hopsworks.persistence.entity.jobs.history.Execution;
 import io.hops.hopsworks.common.dao.jobhistory.ExecutionFacade;
 import io.hops.hopsworks.persistence.entity.jobs.configuration.history.JobFinalStatus;
@@ -47,13 +48,20 @@ import io.hops.hopsworks.persistence.entity.jobs.configuration.history.JobState;
 import io.hops.hopsworks.common.util.Settings;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
 import javax.ejb.DependsOn;
 import javax.ejb.EJB;
 import javax.ejb.Schedule;
@@ -61,41 +69,69 @@ import javax.ejb.Singleton;
 import javax.ejb.Timer;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
+import javax.enterprise.concurrent.ManagedExecutorService;
 
 import io.hops.hopsworks.common.yarn.YarnClientService;
 import io.hops.hopsworks.common.yarn.YarnClientWrapper;
 import org.apache.hadoop.yarn.api.records.ApplicationId;
-import org.apache.hadoop.yarn.api.records.FinalApplicationStatus;
+import org.apache.hadoop.yarn.api.records.ApplicationReport;
 import org.apache.hadoop.yarn.api.records.YarnApplicationState;
+import org.apache.hadoop.yarn.client.api.YarnClient;
 import org.apache.hadoop.yarn.exceptions.YarnException;
 
 @Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
 @DependsOn("Settings")
 @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
 public class YarnJobsMonitor implements JobsMonitor {
 
   private static final Logger LOGGER = Logger.getLogger(YarnJobsMonitor.class.getName());
+  // Must match the period of the @Schedule below
+  private static final long MONITOR_PERIOD_MS = TimeUnit.SECONDS.toMillis(5);
+  private static final EnumSet<YarnApplicationState> ACTIVE_STATES = EnumSet.of(YarnApplicationState.NEW,
+    YarnApplicationState.NEW_SAVING, YarnApplicationState.SUBMITTED, YarnApplicationState.ACCEPTED,
+    YarnApplicationState.RUNNING);
 
   @EJB
   private Settings settings;
   @EJB
+  private MonitoringRegistry monitoringRegistry;
+  @EJB
   private ExecutionFacade executionFacade;
   @EJB
   private YarnExecutionFinalizer execFinalizer;
   @EJB
   private YarnClientService ycs;
+  @EJB
+  private LogAggregationWatcher logAggregationWatcher;
+  @Resource(lookup = "concurrent/hopsExecutorService")
+  private ManagedExecutorService executorService;
 
   private int maxStatusPollRetry;
 
-  Map<String, YarnMonitor> monitors = new HashMap<>();
+  // A single super-user client is shared by all tracked applications
+  private YarnClientWrapper yarnClientWrapper;
   Map<String, Integer> failures = new HashMap<>();
   private final Map<ApplicationId, Future<Execution>> copyLogsFutures = new HashMap<>();
+  private final YarnJobsMonitorMetrics metrics = new YarnJobsMonitorMetrics();
+  private long lastTickStart = -1;
+
+  @PostConstruct
+  public void init() {
+    monitoringRegistry.register("jobs", this::getMetrics);
+  }
+  
+  @PreDestroy
+  public synchronized void destroy() {
+    closeYarnClient();
+  }
 
   @Schedule(persistent = false,
       second = "*/5",
       minute = "*",
       hour = "*")
   public synchronized void monitor(Timer timer) {
+    long tickStart = System.currentTimeMillis();
     try {
       Map<String, Execution> executions = new HashMap<>();
       List<Execution> execs = executionFacade.findNotFinished();
@@ -105,67 +141,96 @@ public class YarnJobsMonitor implements JobsMonitor {
             executions.put(exec.getAppId(), exec);
           }
         }
-        //Remove (Close) all monitors of deleted jobs
-        Iterator<Map.Entry<String, YarnMonitor>> monitorsIter = monitors.entrySet().iterator();
-        while (monitorsIter.hasNext()) {
-          Map.Entry<String, YarnMonitor> entry = monitorsIter.next();
-          // Check if Value associated with Key is 10
-          if (!executions.keySet().contains(entry.getKey())) {
-            // Remove the element
-            entry.getValue().close();
-            monitorsIter.remove();
-          }
-        }
+        // Forget the failures of executions which are not tracked anymore
+        failures.keySet().retainAll(executions.keySet());
         maxStatusPollRetry = settings.getMaxStatusPollRetry();
-        List<String> toRemove = new ArrayList<>();
+        
+        Map<String, ApplicationReport> reports = getApplicationReports(executions.keySet());
         for (Map.Entry<String, Execution> entry : executions.entrySet()) {
-          YarnMonitor monitor = monitors.get(entry.getKey());
-          if (monitor == null) {
-            ApplicationId appId = ApplicationId.fromString(entry.getKey());
-            YarnClientWrapper newYarnclientWrapper = ycs.getYarnClientSuper(settings
-              .getConfiguration());
-            monitor = new YarnMonitor(appId, newYarnclientWrapper, ycs);
-            monitors.put(entry.getKey(), monitor);
-          }
-          Execution exec = internalMonitor(executions.get(entry.getKey()), monitor);
+          Execution exec = internalMonitor(entry.getValue(), reports.get(entry.getKey()));
           if (exec == null) {
-            toRemove.add(entry.getKey());
-            monitor.close();
+            failures.remove(entry.getKey());
           }
         }
-        for (String appID : toRemove) {
-          failures.remove(appID);
-          monitors.remove(appID);
-        }
         // This is here to do bookkeeping. Remove from the map all the executions which have finished copying the logs
         copyLogsFutures.entrySet().removeIf(futureResult -> futureResult.getValue().isDone());
+      } else {
+        closeYarnClient();
       }
+      metrics.setTrackedApplications(executions.size());
     } catch (Exception ex) {
       LOGGER.log(Level.SEVERE, "Error while monitoring jobs", ex);
+    } finally {
+      recordTick(tickStart);
     }
   }
   
-  private Execution internalMonitor(Execution exec, YarnMonitor monitor) {
+  /**
+   * Fetch the reports of all tracked applications. The reports of the applications which are not finished yet are
+   * fetched with a single getApplications call filtered by state, so the call does not scale with the completed
+   * applications the ResourceManager keeps in memory. The reports of the tracked applications that are not returned,
+   * because they have just finished or have been evicted from the ResourceManager, are fetched one by one.
+   *
+   * @param trackedAppIds tracked application ids
+   * @return the reports that could be fetched, keyed by application id
+   */
+  private Map<String, ApplicationReport> getApplicationReports(Set<String> trackedAppIds) {
+    Map<String, ApplicationReport> reports = new HashMap<>();
+    YarnClient yarnClient;
     try {
-      YarnApplicationState appState = monitor.getApplicationState();
-      FinalApplicationStatus finalAppStatus = monitor.getFinalApplicationStatus();
-      float progress = monitor.getProgress();
-      exec = updateProgress(progress, exec);
-      exec = updateState(JobState.getJobState(appState), exec);
-      exec = updateFinalStatus(JobFinalStatus.getJobFinalStatus(finalAppStatus), exec);
+      yarnClient = getYarnClient();
+      for (ApplicationReport report : yarnClient.getApplications(ACTIVE_STATES)) {
+        String appId = report.getApplicationId().toString();
+        if (trackedAppIds.contains(appId)) {
+          reports.put(appId, report);
+        }
+      }
+    } catch (IOException | YarnException ex) {
+      LOGGER.log(Level.WARNING, "Failed to get application reports from the ResourceManager", ex);
+      // The client might be in a bad state, create a new one in the next tick
+      closeYarnClient();
+      return reports;
+    }
+    List<String> missing = new ArrayList<>();
+    for (String appId : trackedAppIds) {
+      if (!reports.containsKey(appId)) {
+        missing.add(appId);
+      }
+    }
+    for (String appId : missing) {
+      try {
+        reports.put(appId, yarnClient.getApplicationReport(ApplicationId.fromString(appId)));
+      } catch (IOException | YarnException ex) {
+        LOGGER.log(Level.FINE, "Failed to get application report for " + appId, ex);
+      }
+    }
+    return reports;
+  }
+  
+  private Execution internalMonitor(Execution exec, ApplicationReport report) {
+    if (report != null) {
+      YarnApplicationState appState = report.getYarnApplicationState();
+      exec = executionFacade.updateStatus(exec, JobState.getJobState(appState),
+        JobFinalStatus.getJobFinalStatus(report.getFinalApplicationStatus()), report.getProgress());
+      failures.remove(exec.getAppId());
       
       if ((appState == YarnApplicationState.FAILED
           || appState == YarnApplicationState.FINISHED
           || appState == YarnApplicationState.KILLED)
-          && !copyLogsFutures.containsKey(monitor.getApplicationId())) {
+          && !copyLogsFutures.containsKey(report.getApplicationId())) {
         
-        exec = executionFacade.updateState(exec, JobState.AGGREGATING_LOGS);
-        // Async call
-        Future<Execution> futureResult = execFinalizer.copyLogs(exec);
-        copyLogsFutures.put(monitor.getApplicationId(), futureResult);
+        Execution aggregating = executionFacade.updateState(exec, JobState.AGGREGATING_LOGS);
+        // Logs are copied in the executor once the watcher has seen the log aggregation finish
+        Future<Execution> futureResult = logAggregationWatcher.watch(report.getApplicationId())
+          .exceptionally(ex -> {
+            LOGGER.log(Level.SEVERE, "Error while waiting for the log aggregation of " + aggregating.getAppId(), ex);
+            return null;
+          })
+          .thenApplyAsync(status -> execFinalizer.copyLogs(aggregating, status), executorService);
+        copyLogsFutures.put(report.getApplicationId(), futureResult);
         return null;
       }
-    } catch (IOException | YarnException ex) {
+    } else {
       Integer failure = failures.get(exec.getAppId());
       if (failure == null) {
         failure = 1;
@@ -173,13 +238,13 @@ public class YarnJobsMonitor implements JobsMonitor {
         failure++;
       }
       failures.put(exec.getAppId(), failure);
-      LOGGER.log(Level.WARNING, "Failed to get application state for execution " + exec + ". Tried " + failures
-          + " time(s).", ex);
+      LOGGER.log(Level.WARNING, "Failed to get application state for execution " + exec + ". Tried " + failure
+          + " time(s).");
     }
     if (failures.get(exec.getAppId()) != null && failures.get(exec.getAppId()) > maxStatusPollRetry) {
       try {
         LOGGER.log(Level.SEVERE, "Killing application, {0}, because unable to poll for status.", exec);
-        monitor.cancelJob(monitor.getApplicationId().toString());
+        getYarnClient().killApplication(ApplicationId.fromString(exec.getAppId()));
         exec = updateFinalStatus(JobFinalStatus.KILLED, exec);
         exec = updateProgress(0, exec);
         execFinalizer.finalize(exec, JobState.KILLED);
@@ -192,6 +257,36 @@ public class YarnJobsMonitor implements JobsMonitor {
     return exec;
   }
   
+  private YarnClient getYarnClient() {
+    if (yarnClientWrapper == null) {
+      yarnClientWrapper = ycs.getYarnClientSuper(settings.getConfiguration());
+    }
+    return yarnClientWrapper.getYarnClient();
+  }
+  
+  private void closeYarnClient() {
+    if (yarnClientWrapper != null) {
+      ycs.closeYarnClient(yarnClientWrapper);
+      yarnClientWrapper = null;
+    }
+  }
+  
+  private void recordTick(long tickStart) {
+    long duration = System.currentTimeMillis() - tickStart;
+    // Lag is how late this tick started compared to when it was expected to start
+    long lag = lastTickStart < 0 ? 0 : Math.max(0, tickStart - lastTickStart - MONITOR_PERIOD_MS);
+    lastTickStart = tickStart;
+    metrics.tick(tickStart, duration, lag, duration > MONITOR_PERIOD_MS);
+    if (duration > MONITOR_PERIOD_MS) {
+      LOGGER.log(Level.WARNING, "Monitoring " + metrics.getTrackedApplications() + " applications took " + duration
+        + "ms, longer than the monitoring period of " + MONITOR_PERIOD_MS + "ms");
+    }
+  }
+  
+  public YarnJobsMonitorMetrics getMetrics() {
+    return metrics.copy();
+  }
+  
   @Override
   public Execution updateProgress(float progress, Execution execution) {
     return executionFacade.updateProgress(execution, progress);
@@ -205,4 +300,4 @@ public class YarnJobsMonitor implements JobsMonitor {
   private Execution updateFinalStatus(JobFinalStatus finalStatus, Execution execution) {
     return executionFacade.updateFinalStatus(execution, finalStatus);
   }
-}
\ No newline at end of file
+}
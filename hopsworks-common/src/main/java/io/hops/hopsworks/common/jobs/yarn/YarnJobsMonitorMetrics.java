@@ -0,0 +1,128 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.jobs.yarn;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import java.io.Serializable;
+
+/**
+ * Timing of the monitoring ticks of {@link YarnJobsMonitor}
+ */
+@XmlRootElement
+public class YarnJobsMonitorMetrics implements Serializable {
+  
+  private long ticks;
+  private long slowTicks;
+  private long lastTickStart;
+  private long lastTickDurationMs;
+  private long maxTickDurationMs;
+  private long lastTickLagMs;
+  private long maxTickLagMs;
+  private int trackedApplications;
+  
+  public YarnJobsMonitorMetrics() {
+  }
+  
+  synchronized void tick(long start, long durationMs, long lagMs, boolean slow) {
+    ticks++;
+    if (slow) {
+      slowTicks++;
+    }
+    lastTickStart = start;
+    lastTickDurationMs = durationMs;
+    maxTickDurationMs = Math.max(maxTickDurationMs, durationMs);
+    lastTickLagMs = lagMs;
+    maxTickLagMs = Math.max(maxTickLagMs, lagMs);
+  }
+  
+  synchronized YarnJobsMonitorMetrics copy() {
+    YarnJobsMonitorMetrics copy = new YarnJobsMonitorMetrics();
+    copy.ticks = ticks;
+    copy.slowTicks = slowTicks;
+    copy.lastTickStart = lastTickStart;
+    copy.lastTickDurationMs = lastTickDurationMs;
+    copy.maxTickDurationMs = maxTickDurationMs;
+    copy.lastTickLagMs = lastTickLagMs;
+    copy.maxTickLagMs = maxTickLagMs;
+    copy.trackedApplications = trackedApplications;
+    return copy;
+  }
+  
+  public synchronized long getTicks() {
+    return ticks;
+  }
+  
+  public synchronized void setTicks(long ticks) {
+    this.ticks = ticks;
+  }
+  
+  public synchronized long getSlowTicks() {
+    return slowTicks;
+  }
+  
+  public synchronized void setSlowTicks(long slowTicks) {
+    this.slowTicks = slowTicks;
+  }
+  
+  public synchronized long getLastTickStart() {
+    return lastTickStart;
+  }
+  
+  public synchronized void setLastTickStart(long lastTickStart) {
+    this.lastTickStart = lastTickStart;
+  }
+  
+  public synchronized long getLastTickDurationMs() {
+    return lastTickDurationMs;
+  }
+  
+  public synchronized void setLastTickDurationMs(long lastTickDurationMs) {
+    this.lastTickDurationMs = lastTickDurationMs;
+  }
+  
+  public synchronized long getMaxTickDurationMs() {
+    return maxTickDurationMs;
+  }
+  
+  public synchronized void setMaxTickDurationMs(long maxTickDurationMs) {
+    this.maxTickDurationMs = maxTickDurationMs;
+  }
+  
+  public synchronized long getLastTickLagMs() {
+    return lastTickLagMs;
+  }
+  
+  public synchronized void setLastTickLagMs(long lastTickLagMs) {
+    this.lastTickLagMs = lastTickLagMs;
+  }
+  
+  public synchronized long getMaxTickLagMs() {
+    return maxTickLagMs;
+  }
+  
+  public synchronized void setMaxTickLagMs(long maxTickLagMs) {
+    this.maxTickLagMs = maxTickLagMs;
+  }
+  
+  public synchronized int getTrackedApplications() {
+    return trackedApplications;
+  }
+  
+  public synchronized void setTrackedApplications(int trackedApplications) {
+    this.trackedApplications = trackedApplications;
+  }
+}
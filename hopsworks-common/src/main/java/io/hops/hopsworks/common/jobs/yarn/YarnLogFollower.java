@@ -0,0 +1,392 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.jobs.yarn;
+
+import io.hops.hopsworks.common.jobs.JobLogDTO;
+import io.hops.hopsworks.common.jobs.JobLogFollowDTO;
+import io.hops.hopsworks.common.proxies.client.HttpClient;
+import io.hops.hopsworks.common.util.IoUtils;
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.common.yarn.YarnClientService;
+import io.hops.hopsworks.common.yarn.YarnClientWrapper;
+import org.apache.commons.io.IOUtils;
+import org.apache.hadoop.ipc.RemoteException;
+import org.apache.hadoop.yarn.api.records.ApplicationAttemptId;
+import org.apache.hadoop.yarn.api.records.ApplicationId;
+import org.apache.hadoop.yarn.api.records.ApplicationReport;
+import org.apache.hadoop.yarn.api.records.ContainerReport;
+import org.apache.hadoop.yarn.api.records.YarnApplicationState;
+import org.apache.hadoop.yarn.client.api.YarnClient;
+import org.apache.hadoop.yarn.conf.YarnConfiguration;
+import org.apache.hadoop.yarn.exceptions.ApplicationNotFoundException;
+import org.apache.hadoop.yarn.exceptions.YarnException;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Follows the logs of the containers of a running YARN application through the web services of the NodeManagers.
+ * A follow request does not hold a thread while it waits: the logs are polled on the managed scheduler until there
+ * is new log, the application finishes or the request times out. Every poll only transfers the bytes written since
+ * the cursor of the client, at most MAX_POLL_BYTES per container.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@DependsOn("Settings")
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class YarnLogFollower {
+  
+  private static final Logger LOGGER = Logger.getLogger(YarnLogFollower.class.getName());
+  private static final String CONTAINERS_PATH = "/ws/v1/node/containers/";
+  private static final String CONTAINER_LOGS_PATH = "/ws/v1/node/containerlogs/";
+  private static final int MAX_POLL_BYTES = 1024 * 1024;
+  // Longest header the NodeManager writes before the content of a log
+  private static final int MAX_HEADER_BYTES = 4096;
+  private static final String LOG_LENGTH_HEADER = "LogLength:";
+  private static final String LOG_CONTENTS_HEADER = "LogContents:";
+  
+  @EJB
+  private YarnClientService ycs;
+  @EJB
+  private HttpClient httpClient;
+  @EJB
+  private Settings settings;
+  @Resource
+  private ManagedScheduledExecutorService scheduler;
+  
+  // A single super-user client is shared by all followers
+  private YarnClientWrapper yarnClientWrapper;
+  
+  @PreDestroy
+  public synchronized void destroy() {
+    closeYarnClient();
+  }
+  
+  /**
+   * Waits for the log the containers of the application write after the cursor
+   *
+   * @param appId the YARN application to follow
+   * @param type the log to follow
+   * @param cursor returned by the previous follow request of the client, null to start from the beginning
+   * @return completes with the new log, or with no log if nothing was written before the follow timeout. An
+   * application the ResourceManager does not know any longer is reported as finished
+   */
+  public CompletableFuture<JobLogFollowDTO> follow(String appId, JobLogDTO.LogType type, String cursor) {
+    Poll poll = new Poll(ApplicationId.fromString(appId), "std" + type.getName(), parseCursor(cursor),
+      System.currentTimeMillis() + settings.getJobLogFollowTimeout());
+    scheduler.execute(poll);
+    return poll.result;
+  }
+  
+  private class Poll implements Runnable {
+    private final CompletableFuture<JobLogFollowDTO> result = new CompletableFuture<>();
+    private final ApplicationId applicationId;
+    private final String logFile;
+    private final String scheme;
+    private final Map<String, Long> offsets;
+    private final long deadline;
+    
+    private Poll(ApplicationId applicationId, String logFile, Map<String, Long> offsets, long deadline) {
+      this.applicationId = applicationId;
+      this.logFile = logFile;
+      this.scheme = YarnConfiguration.useHttps(settings.getConfiguration()) ? "https" : "http";
+      this.offsets = offsets;
+      this.deadline = deadline;
+    }
+    
+    @Override
+    public void run() {
+      try {
+        JobLogFollowDTO followed = new JobLogFollowDTO();
+        YarnClient yarnClient = getYarnClient();
+        try {
+          ApplicationReport report = yarnClient.getApplicationReport(applicationId);
+          followed.setFinished(isFinal(report.getYarnApplicationState()));
+          ApplicationAttemptId attemptId = report.getCurrentApplicationAttemptId();
+          if (attemptId != null) {
+            for (ContainerReport container : yarnClient.getContainers(attemptId)) {
+              JobLogFollowDTO.ContainerLog log = followContainer(container);
+              if (log != null) {
+                followed.getLogs().add(log);
+              }
+            }
+          }
+        } catch (ApplicationNotFoundException e) {
+          // The ResourceManager no longer knows the application, there is nothing left to follow
+          followed.setFinished(true);
+        } catch (IOException e) {
+          // The ResourceManager answered with an error, the connection itself is fine
+          if (!(e instanceof RemoteException)) {
+            closeYarnClient(yarnClient);
+          }
+          throw e;
+        }
+        if (followed.getLogs().isEmpty() && !followed.isFinished() && System.currentTimeMillis() < deadline) {
+          scheduler.schedule(this, settings.getJobLogFollowInterval(), TimeUnit.MILLISECONDS);
+          return;
+        }
+        followed.setCursor(formatCursor(offsets));
+        result.complete(followed);
+      } catch (Exception e) {
+        result.completeExceptionally(e);
+      }
+    }
+    
+    private JobLogFollowDTO.ContainerLog followContainer(ContainerReport container) {
+      String nodeAddress = container.getNodeHttpAddress();
+      if (nodeAddress == null || nodeAddress.isEmpty()) {
+        return null;
+      }
+      if (!nodeAddress.contains("://")) {
+        nodeAddress = scheme + "://" + nodeAddress;
+      }
+      HttpHost node = HttpHost.create(nodeAddress);
+      String containerId = container.getContainerId().toString();
+      long offset = offsets.getOrDefault(containerId, 0L);
+      try {
+        long size = getLogSize(node, containerId);
+        if (size <= offset) {
+          return null;
+        }
+        int length = (int) Math.min(size - offset, MAX_POLL_BYTES);
+        // Only the tail of a log can be requested from the NodeManager, the new bytes are the tail of this length
+        HttpGet request = new HttpGet(CONTAINER_LOGS_PATH + containerId + "/" + logFile + "?size=-" + length);
+        Tail tail = httpClient.execute(node, request, response -> {
+          if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK || response.getEntity() == null) {
+            return null;
+          }
+          try (InputStream content = response.getEntity().getContent()) {
+            return readTail(content, size, length);
+          }
+        });
+        if (tail == null) {
+          return null;
+        }
+        // The log may have grown since its size was read, the bytes between the cursor and the tail are skipped
+        long tailStart = tail.end - tail.content.length;
+        int from = (int) Math.max(offset - tailStart, 0);
+        from += IoUtils.utf8ContinuationPrefix(tail.content, from, tail.content.length);
+        int to = tail.content.length - IoUtils.incompleteUtf8Suffix(tail.content, from, tail.content.length);
+        if (to <= from) {
+          return null;
+        }
+        offsets.put(containerId, tailStart + to);
+        return new JobLogFollowDTO.ContainerLog(containerId,
+          new String(tail.content, from, to - from, StandardCharsets.UTF_8), tailStart + from - offset);
+      } catch (IOException e) {
+        // The NodeManager may be gone or the container logs may have been aggregated already
+        LOGGER.log(Level.FINE, "Could not read the log of container " + containerId, e);
+        return null;
+      }
+    }
+    
+    private long getLogSize(HttpHost node, String containerId) throws IOException {
+      HttpGet request = new HttpGet(CONTAINERS_PATH + containerId + "/logs");
+      request.setHeader(HttpHeaders.ACCEPT, "application/json");
+      Long size = httpClient.execute(node, request, response -> {
+        if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK || response.getEntity() == null) {
+          return null;
+        }
+        try {
+          return findLogSize(new JSONObject(EntityUtils.toString(response.getEntity())), logFile);
+        } catch (JSONException e) {
+          throw new IOException("Could not parse the logs of container " + containerId, e);
+        }
+      });
+      return size == null ? -1 : size;
+    }
+  }
+  
+  /**
+   * The response of the NodeManager starts with a header which holds the length of the log when it was opened, the
+   * content is the tail of the log up to that length
+   */
+  private Tail readTail(InputStream content, long size, int length) throws IOException {
+    BufferedInputStream in = new BufferedInputStream(content);
+    long end = size;
+    in.mark(MAX_HEADER_BYTES);
+    String line;
+    int headerBytes = 0;
+    boolean header = false;
+    while (headerBytes < MAX_HEADER_BYTES && (line = readLine(in, MAX_HEADER_BYTES - headerBytes)) != null) {
+      headerBytes += line.getBytes(StandardCharsets.UTF_8).length + 1;
+      if (line.startsWith(LOG_LENGTH_HEADER)) {
+        try {
+          end = Long.parseLong(line.substring(LOG_LENGTH_HEADER.length()).trim());
+        } catch (NumberFormatException e) {
+          break;
+        }
+      } else if (line.startsWith(LOG_CONTENTS_HEADER)) {
+        header = true;
+        break;
+      }
+    }
+    if (!header) {
+      end = size;
+      in.reset();
+    }
+    int toRead = (int) Math.min(length, end);
+    byte[] buffer = new byte[toRead];
+    int read = IOUtils.read(in, buffer);
+    if (read < toRead) {
+      byte[] truncated = new byte[read];
+      System.arraycopy(buffer, 0, truncated, 0, read);
+      buffer = truncated;
+      end = end - toRead + read;
+    }
+    return new Tail(buffer, end);
+  }
+  
+  private String readLine(InputStream in, int maxBytes) throws IOException {
+    ByteArrayOutputStream line = new ByteArrayOutputStream();
+    int b = 0;
+    while (line.size() < maxBytes && (b = in.read()) != -1 && b != '\n') {
+      line.write(b);
+    }
+    if (b == -1 && line.size() == 0) {
+      return null;
+    }
+    return new String(line.toByteArray(), StandardCharsets.UTF_8);
+  }
+  
+  /**
+   * @return the largest size of the log file in the log listing of a container, or null if it is not listed
+   */
+  static Long findLogSize(Object node, String logFile) {
+    Long size = null;
+    if (node instanceof JSONObject) {
+      JSONObject object = (JSONObject) node;
+      if (logFile.equals(object.optString("fileName")) && object.has("fileSize")) {
+        size = object.optLong("fileSize", -1);
+      }
+      Iterator<?> keys = object.keys();
+      while (keys.hasNext()) {
+        size = max(size, findLogSize(object.get((String) keys.next()), logFile));
+      }
+    } else if (node instanceof JSONArray) {
+      JSONArray array = (JSONArray) node;
+      for (int i = 0; i < array.length(); i++) {
+        size = max(size, findLogSize(array.get(i), logFile));
+      }
+    }
+    return size;
+  }
+  
+  private static Long max(Long a, Long b) {
+    if (a == null) {
+      return b;
+    }
+    return b == null ? a : Math.max(a, b);
+  }
+  
+  static Map<String, Long> parseCursor(String cursor) {
+    Map<String, Long> offsets = new HashMap<>();
+    if (cursor == null || cursor.isEmpty()) {
+      return offsets;
+    }
+    for (String entry : cursor.split(",")) {
+      int separator = entry.lastIndexOf(':');
+      if (separator <= 0) {
+        continue;
+      }
+      try {
+        offsets.put(entry.substring(0, separator), Math.max(Long.parseLong(entry.substring(separator + 1)), 0));
+      } catch (NumberFormatException e) {
+        // A malformed entry follows that container from the beginning
+      }
+    }
+    return offsets;
+  }
+  
+  static String formatCursor(Map<String, Long> offsets) {
+    StringBuilder cursor = new StringBuilder();
+    for (Map.Entry<String, Long> offset : offsets.entrySet()) {
+      if (cursor.length() > 0) {
+        cursor.append(',');
+      }
+      cursor.append(offset.getKey()).append(':').append(offset.getValue());
+    }
+    return cursor.toString();
+  }
+  
+  private synchronized YarnClient getYarnClient() {
+    if (yarnClientWrapper == null) {
+      yarnClientWrapper = ycs.getYarnClientSuper(settings.getConfiguration());
+    }
+    return yarnClientWrapper.getYarnClient();
+  }
+  
+  private synchronized void closeYarnClient() {
+    if (yarnClientWrapper != null) {
+      ycs.closeYarnClient(yarnClientWrapper);
+      yarnClientWrapper = null;
+    }
+  }
+  
+  /**
+   * Close the shared client after it failed to reach the ResourceManager, unless another poll already replaced it
+   */
+  private synchronized void closeYarnClient(YarnClient failed) {
+    if (yarnClientWrapper != null && yarnClientWrapper.getYarnClient() == failed) {
+      closeYarnClient();
+    }
+  }
+  
+  private boolean isFinal(YarnApplicationState state) {
+    return state == YarnApplicationState.FINISHED || state == YarnApplicationState.FAILED
+        || state == YarnApplicationState.KILLED;
+  }
+  
+  private static class Tail {
+    // The last bytes of the log, up to end
+    private final byte[] content;
+    private final long end;
+    
+    private Tail(byte[] content, long end) {
+      this.content = content;
+      this.end = end;
+    }
+  }
+}
@@ -107,6 +107,21 @@ public class YarnLogUtil {
   
     LogAggregationStatus logAggregationStatus = waitForLogAggregation(monitor.getYarnClient(),
         monitor.getApplicationId());
+    copyAggregatedYarnLogs(dfs, src, dst, desiredLogTypes, logAggregationStatus);
+  }
+  
+  /**
+   * Given aggregated yarn log path and destination path copies the desired log
+   * type (stdout/stderr) of an application whose log aggregation has already finished
+   *
+   * @param dfs
+   * @param src aggregated yarn log path
+   * @param dst destination path to copy to
+   * @param desiredLogTypes stderr or stdout or stdlog
+   * @param logAggregationStatus the final log aggregation status of the application
+   */
+  public static void copyAggregatedYarnLogs(DistributedFileSystemOps dfs, String src, String dst,
+      String[] desiredLogTypes, LogAggregationStatus logAggregationStatus) {
     if (logAggregationStatus == null) {
       // ServiceStatus might be null if there were issues starting the application
       // most likely on the yarn side.
@@ -175,7 +190,7 @@ public class YarnLogUtil {
     return logAggregationStatus;
   }
 
-  private static boolean isFinal(LogAggregationStatus status){
+  static boolean isFinal(LogAggregationStatus status){
     if (status == null) {
       // ServiceStatus might be null if there were issues starting the application
       // most likely on the yarn side.
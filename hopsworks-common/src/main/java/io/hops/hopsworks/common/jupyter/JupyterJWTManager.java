@@ -30,6 +30,7 @@ import io.hops.hopsworks.common.dao.project.ProjectFacade;
 import io.hops.hopsworks.common.dao.user.UserFacade;
 import io.hops.hopsworks.persistence.entity.user.Users;
 import io.hops.hopsworks.common.hdfs.HdfsUsersController;
+import io.hops.hopsworks.common.jwt.ServiceJWTRegistry;
 import io.hops.hopsworks.common.user.UsersController;
 import io.hops.hopsworks.common.util.DateUtils;
 import io.hops.hopsworks.common.util.Settings;
@@ -56,6 +57,7 @@ import javax.ejb.TimerConfig;
 import javax.ejb.TimerService;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
+import javax.enterprise.concurrent.ManagedExecutorService;
 import javax.inject.Inject;
 import java.io.IOException;
 import java.nio.file.Path;
@@ -64,15 +66,10 @@ import java.security.GeneralSecurityException;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
-import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -87,23 +84,9 @@ public class JupyterJWTManager {
   private static final Logger LOG = Logger.getLogger(JupyterJWTManager.class.getName());
   public static final String TOKEN_FILE_NAME = "token.jwt";
   
-  private final TreeSet<JupyterJWT> jupyterJWTs = new TreeSet<>(new Comparator<JupyterJWT>() {
-    @Override
-    public int compare(JupyterJWT t0, JupyterJWT t1) {
-      if (t0.equals(t1)) {
-        return 0;
-      } else {
-        if (t0.expiration.isBefore(t1.expiration)) {
-          return -1;
-        } else if (t0.expiration.isAfter(t1.expiration)) {
-          return 1;
-        }
-        return 0;
-      }
-    }
-  });
-  
-  private final HashMap<CidAndPort, JupyterJWT> pidAndPortToJWT = new HashMap<>();
+  private final ServiceJWTRegistry<CidAndPort, JupyterJWT> jupyterJWTs = new ServiceJWTRegistry<>();
+  // a sweep still renewing when the timer fires again is not overlapped
+  private final AtomicBoolean renewing = new AtomicBoolean(false);
 
   @EJB
   private Settings settings;
@@ -129,6 +112,8 @@ public class JupyterJWTManager {
   private JupyterJWTTokenWriter jwtTokenWriter;
   @Resource
   private TimerService timerService;
+  @Resource(lookup = "concurrent/hopsExecutorService")
+  private ManagedExecutorService executorService;
   
   @PostConstruct
   @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
@@ -143,13 +128,12 @@ public class JupyterJWTManager {
   }
 
   private void addToken(JupyterJWT jupyterJWT) {
-    jupyterJWTs.add(jupyterJWT);
-    pidAndPortToJWT.put(jupyterJWT.pidAndPort, jupyterJWT);
-  }
-
-  private void removeToken(CidAndPort pidAndPort) {
-    JupyterJWT jupyterJWT = pidAndPortToJWT.remove(pidAndPort);
-    jupyterJWTs.remove(jupyterJWT);
+    jupyterJWTs.lock(jupyterJWT.pidAndPort);
+    try {
+      jupyterJWTs.put(jupyterJWT.pidAndPort, jupyterJWT, jupyterJWT.expiration);
+    } finally {
+      jupyterJWTs.unlock(jupyterJWT.pidAndPort);
+    }
   }
   
   protected void recover() {
@@ -255,119 +239,140 @@ public class JupyterJWTManager {
     return Paths.get(settings.getStagingDir(), Settings.PRIVATE_DIRS, jupyterSettings.getSecret(), TOKEN_FILE_NAME);
   }
   
-  @Lock(LockType.WRITE)
+  @Lock(LockType.READ)
   @AccessTimeout(value = 2000)
   public void materializeJWT(Users user, Project project, JupyterSettings jupyterSettings, String cid,
       Integer port, String[] audience) throws ServiceException {
     MaterializedJWTID materialID = new MaterializedJWTID(project.getId(), user.getUid(),
       MaterializedJWTID.USAGE.JUPYTER);
-    if (!materializedJWTFacade.exists(materialID)) {
-      LocalDateTime expirationDate = LocalDateTime.now().plus(settings.getJWTLifetimeMs(), ChronoUnit.MILLIS);
-      JupyterJWT jupyterJWT = new JupyterJWT(project, user, expirationDate, new CidAndPort(cid, port));
-      try {
-        String[] roles = usersController.getUserRoles(user).toArray(new String[1]);
-        MaterializedJWT materializedJWT = new MaterializedJWT(materialID);
-        materializedJWTFacade.persist(materializedJWT);
-        
-        Map<String, Object> claims = new HashMap<>(3);
-        claims.put(Constants.RENEWABLE, false);
-        claims.put(Constants.EXPIRY_LEEWAY, settings.getJWTExpLeewaySec());
-        claims.put(Constants.ROLES, roles);
-        String token = jwtController.createToken(settings.getJWTSigningKeyName(), false, settings.getJWTIssuer(),
-            audience, DateUtils.localDateTime2Date(expirationDate), DateUtils.localDateTime2Date(DateUtils.getNow()),
-            user.getUsername(), claims, SignatureAlgorithm.valueOf(settings.getJWTSignatureAlg()));
-        
-        jupyterJWT.tokenFile = constructTokenFilePath(jupyterSettings);
-        
-        jupyterJWT.token = token;
-        jwtTokenWriter.writeToken(settings, jupyterJWT);
-        
-        addToken(jupyterJWT);
-      } catch (GeneralSecurityException | JWTException ex) {
-        LOG.log(Level.SEVERE, "Error generating Jupyter JWT for " + jupyterJWT, ex);
-        materializedJWTFacade.delete(materialID);
-        throw new ServiceException(RESTCodes.ServiceErrorCode.JUPYTER_START_ERROR, Level.SEVERE,
-          "Could not generate Jupyter JWT", ex.getMessage(), ex);
-      } catch (IOException ex) {
-        LOG.log(Level.SEVERE, "Error writing Jupyter JWT to file for " + jupyterJWT, ex);
-        materializedJWTFacade.delete(materialID);
+    CidAndPort pidAndPort = new CidAndPort(cid, port);
+    // a user has one server per project, so the lock of the server also guards the material of the user
+    jupyterJWTs.lock(pidAndPort);
+    try {
+      if (!materializedJWTFacade.exists(materialID)) {
+        LocalDateTime expirationDate = LocalDateTime.now().plus(settings.getJWTLifetimeMs(), ChronoUnit.MILLIS);
+        JupyterJWT jupyterJWT = new JupyterJWT(project, user, expirationDate, pidAndPort);
         try {
-          jwtController.invalidate(jupyterJWT.token);
-        } catch (InvalidationException invEx) {
-          LOG.log(Level.FINE, "Could not invalidate Jupyter JWT after failure to write to file", ex);
+          String[] roles = usersController.getUserRoles(user).toArray(new String[1]);
+          MaterializedJWT materializedJWT = new MaterializedJWT(materialID);
+          materializedJWTFacade.persist(materializedJWT);
+          
+          Map<String, Object> claims = new HashMap<>(3);
+          claims.put(Constants.RENEWABLE, false);
+          claims.put(Constants.EXPIRY_LEEWAY, settings.getJWTExpLeewaySec());
+          claims.put(Constants.ROLES, roles);
+          String token = jwtController.createToken(settings.getJWTSigningKeyName(), false, settings.getJWTIssuer(),
+              audience, DateUtils.localDateTime2Date(expirationDate), DateUtils.localDateTime2Date(DateUtils.getNow()),
+              user.getUsername(), claims, SignatureAlgorithm.valueOf(settings.getJWTSignatureAlg()));
+          
+          jupyterJWT.tokenFile = constructTokenFilePath(jupyterSettings);
+          
+          jupyterJWT.token = token;
+          jwtTokenWriter.writeToken(settings, jupyterJWT);
+          
+          jupyterJWTs.put(pidAndPort, jupyterJWT, expirationDate);
+        } catch (GeneralSecurityException | JWTException ex) {
+          LOG.log(Level.SEVERE, "Error generating Jupyter JWT for " + jupyterJWT, ex);
+          materializedJWTFacade.delete(materialID);
+          throw new ServiceException(RESTCodes.ServiceErrorCode.JUPYTER_START_ERROR, Level.SEVERE,
+            "Could not generate Jupyter JWT", ex.getMessage(), ex);
+        } catch (IOException ex) {
+          LOG.log(Level.SEVERE, "Error writing Jupyter JWT to file for " + jupyterJWT, ex);
+          materializedJWTFacade.delete(materialID);
+          try {
+            jwtController.invalidate(jupyterJWT.token);
+          } catch (InvalidationException invEx) {
+            LOG.log(Level.FINE, "Could not invalidate Jupyter JWT after failure to write to file", ex);
+          }
+          throw new ServiceException(RESTCodes.ServiceErrorCode.JUPYTER_START_ERROR, Level.SEVERE,
+            "Could not write Jupyter JWT to file", ex.getMessage(), ex);
         }
-        throw new ServiceException(RESTCodes.ServiceErrorCode.JUPYTER_START_ERROR, Level.SEVERE,
-          "Could not write Jupyter JWT to file", ex.getMessage(), ex);
       }
+    } finally {
+      jupyterJWTs.unlock(pidAndPort);
     }
   }
   
-  @Lock(LockType.WRITE)
-  @AccessTimeout(value = 500)
+  @Lock(LockType.READ)
   @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
   @Timeout
   public void monitorJWT() {
-    // Renew the rest of them
-    Set<JupyterJWT> renewedJWTs = new HashSet<>(this.jupyterJWTs.size());
-    Iterator<JupyterJWT> jupyterJWTs = this.jupyterJWTs.iterator();
-    LocalDateTime now = DateUtils.getNow();
+    if (!renewing.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      // Only the tokens that expired are visited, renewed in parallel batches each holding the lock of its token
+      LocalDateTime now = DateUtils.getNow();
+      jupyterJWTs.renewExpired(executorService, settings.getJWTRenewalConcurrency(), key -> renewJWT(key, now));
+    } catch (Exception e) {
+      LOG.log(Level.SEVERE, "Got an exception while renewing jupyter jwt token" , e);
+    } finally {
+      renewing.set(false);
+    }
+  }
+  
+  private void renewJWT(CidAndPort pidAndPort, LocalDateTime now) {
+    jupyterJWTs.lock(pidAndPort);
     try {
+      JupyterJWT element = jupyterJWTs.get(pidAndPort);
+      // cleaned or renewed meanwhile
+      if (element == null || !element.maybeRenew(now)) {
+        return;
+      }
+      LocalDateTime newExpirationDate = now.plus(settings.getJWTLifetimeMs(), ChronoUnit.MILLIS);
+      String newToken = null;
+      try {
+        newToken = jwtController.renewToken(element.token, DateUtils.localDateTime2Date(newExpirationDate),
+            DateUtils.localDateTime2Date(now), true, new HashMap<>(3));
 
-      while (jupyterJWTs.hasNext()) {
-        JupyterJWT element = jupyterJWTs.next();
-        // Elements are sorted by their expiration date.
-        // If element N does not need to be renewed neither does N+1
-        if (element.maybeRenew(now)) {
-          LocalDateTime newExpirationDate = now.plus(settings.getJWTLifetimeMs(), ChronoUnit.MILLIS);
-          String newToken = null;
+        JupyterJWT renewedJWT = new JupyterJWT(element.project, element.user, newExpirationDate,
+          element.pidAndPort);
+        renewedJWT.tokenFile = element.tokenFile;
+        renewedJWT.token = newToken;
+        jwtTokenWriter.writeToken(settings, renewedJWT);
+        jupyterJWTs.put(pidAndPort, renewedJWT, newExpirationDate);
+      } catch (JWTException ex) {
+        LOG.log(Level.WARNING, "Could not renew Jupyter JWT for " + element, ex);
+        jupyterJWTs.reschedule(pidAndPort);
+      } catch (IOException ex) {
+        LOG.log(Level.WARNING, "Could not write renewed Jupyter JWT to file for " + element, ex);
+        if (newToken != null) {
           try {
-            newToken = jwtController.renewToken(element.token, DateUtils.localDateTime2Date(newExpirationDate),
-                DateUtils.localDateTime2Date(now), true, new HashMap<>(3));
-
-            JupyterJWT renewedJWT = new JupyterJWT(element.project, element.user, newExpirationDate,
-              element.pidAndPort);
-            renewedJWT.tokenFile = element.tokenFile;
-            renewedJWT.token = newToken;
-            jwtTokenWriter.writeToken(settings, renewedJWT);
-            renewedJWTs.add(renewedJWT);
-          } catch (JWTException ex) {
-            LOG.log(Level.WARNING, "Could not renew Jupyter JWT for " + element, ex);
-          } catch (IOException ex) {
-            LOG.log(Level.WARNING, "Could not write renewed Jupyter JWT to file for " + element, ex);
-            if (newToken != null) {
-              try {
-                jwtController.invalidate(newToken);
-              } catch (InvalidationException invEx) {
-                LOG.log(Level.FINE, "Could not invalidate failed token", invEx);
-              }
-            }
-          } catch (Exception ex) {
-            LOG.log(Level.SEVERE, "Generic error renewing Jupyter JWT for " + element, ex);
+            jwtController.invalidate(newToken);
+          } catch (InvalidationException invEx) {
+            LOG.log(Level.FINE, "Could not invalidate failed token", invEx);
           }
-        } else {
-          break;
         }
+        jupyterJWTs.reschedule(pidAndPort);
+      } catch (Exception ex) {
+        LOG.log(Level.SEVERE, "Generic error renewing Jupyter JWT for " + element, ex);
+        jupyterJWTs.reschedule(pidAndPort);
       }
-      renewedJWTs.forEach(t -> {
-        removeToken(t.pidAndPort);
-        addToken(t);
-      });
-    } catch (Exception e) {
-      LOG.log(Level.SEVERE, "Got an exception while renewing jupyter jwt token" , e);
+    } finally {
+      jupyterJWTs.unlock(pidAndPort);
     }
   }
 
-  @Lock(LockType.WRITE)
+  @Lock(LockType.READ)
   @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
   public void cleanJWT(String cid, Integer port) {
-    Optional<JupyterJWT> optional = Optional.ofNullable(pidAndPortToJWT.get(new CidAndPort(cid, port)));
+    CidAndPort pidAndPort = new CidAndPort(cid, port);
+    jupyterJWTs.lock(pidAndPort);
+    try {
+      cleanJWT(pidAndPort);
+    } finally {
+      jupyterJWTs.unlock(pidAndPort);
+    }
+  }
+  
+  private void cleanJWT(CidAndPort pidAndPort) {
+    JupyterJWT element = jupyterJWTs.get(pidAndPort);
 
-    if (!optional.isPresent()) {
-      LOG.log(WARNING, "JupyterJWT not found for cid " + cid + " and port " + port);
+    if (element == null) {
+      LOG.log(WARNING, "JupyterJWT not found for cid " + pidAndPort.cid + " and port " + pidAndPort.port);
       return;
     }
 
-    JupyterJWT element = optional.get();
     try {
       MaterializedJWTID materializedJWTID = new MaterializedJWTID(element.project.getId(), element.user.getUid(),
         MaterializedJWTID.USAGE.JUPYTER);
@@ -376,7 +381,7 @@ public class JupyterJWTManager {
       if (material != null) {
         materializedJWTFacade.delete(materializedJWTID);
       }
-      removeToken(element.pidAndPort);
+      jupyterJWTs.remove(element.pidAndPort);
       jwtController.invalidate(element.token);
     } catch (Exception ex) {
       // Catch everything and do not fail. If we failed to determine the status of Jupyter, we renew the token
@@ -0,0 +1,94 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.jupyter;
+
+import io.hops.hopsworks.common.monitoring.MonitoringRegistry;
+
+import javax.annotation.PostConstruct;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import java.util.Arrays;
+
+/**
+ * Latency of the last Jupyter server starts, split in the start of the server process and the materialization of
+ * the certificates and JWT of the user, as seen by the user waiting on the start request.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class JupyterStartTracker {
+  
+  private static final int WINDOW = 1000;
+  
+  private final long[] serverStartMs = new long[WINDOW];
+  private final long[] materializationMs = new long[WINDOW];
+  private final long[] totalMs = new long[WINDOW];
+  private long started = 0;
+  private long failed = 0;
+  
+  @EJB
+  private MonitoringRegistry monitoringRegistry;
+  
+  @PostConstruct
+  public void init() {
+    monitoringRegistry.register("jupyter", this::getMetrics);
+  }
+  
+  public synchronized void started(long serverStart, long materialization, long total) {
+    int i = (int) (started % WINDOW);
+    serverStartMs[i] = serverStart;
+    materializationMs[i] = materialization;
+    totalMs[i] = total;
+    started++;
+  }
+  
+  public synchronized void failed() {
+    failed++;
+  }
+  
+  public synchronized JupyterStartTrackerMetrics getMetrics() {
+    JupyterStartTrackerMetrics metrics = new JupyterStartTrackerMetrics();
+    metrics.setStarted(started);
+    metrics.setFailed(failed);
+    int samples = (int) Math.min(started, WINDOW);
+    metrics.setSamples(samples);
+    metrics.setServerStart(percentiles(serverStartMs, samples));
+    metrics.setMaterialization(percentiles(materializationMs, samples));
+    metrics.setTotal(percentiles(totalMs, samples));
+    return metrics;
+  }
+  
+  private static JupyterStartTrackerMetrics.Percentiles percentiles(long[] window, int samples) {
+    if (samples == 0) {
+      return new JupyterStartTrackerMetrics.Percentiles();
+    }
+    long[] sorted = Arrays.copyOf(window, samples);
+    Arrays.sort(sorted);
+    return new JupyterStartTrackerMetrics.Percentiles(percentile(sorted, 50), percentile(sorted, 90),
+      percentile(sorted, 99), sorted[sorted.length - 1]);
+  }
+  
+  // nearest rank
+  static long percentile(long[] sorted, int p) {
+    int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+    return sorted[Math.max(0, rank - 1)];
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.jupyter;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import java.io.Serializable;
+
+/**
+ * Start latency of Jupyter servers in milliseconds, see {@link JupyterStartTracker}
+ */
+@XmlRootElement
+public class JupyterStartTrackerMetrics implements Serializable {
+  
+  private long started;
+  private long failed;
+  private int samples;
+  private Percentiles serverStart;
+  private Percentiles materialization;
+  private Percentiles total;
+  
+  public JupyterStartTrackerMetrics() {
+  }
+  
+  public long getStarted() {
+    return started;
+  }
+  
+  public void setStarted(long started) {
+    this.started = started;
+  }
+  
+  public long getFailed() {
+    return failed;
+  }
+  
+  public void setFailed(long failed) {
+    this.failed = failed;
+  }
+  
+  public int getSamples() {
+    return samples;
+  }
+  
+  public void setSamples(int samples) {
+    this.samples = samples;
+  }
+  
+  public Percentiles getServerStart() {
+    return serverStart;
+  }
+  
+  public void setServerStart(Percentiles serverStart) {
+    this.serverStart = serverStart;
+  }
+  
+  public Percentiles getMaterialization() {
+    return materialization;
+  }
+  
+  public void setMaterialization(Percentiles materialization) {
+    this.materialization = materialization;
+  }
+  
+  public Percentiles getTotal() {
+    return total;
+  }
+  
+  public void setTotal(Percentiles total) {
+    this.total = total;
+  }
+  
+  public static class Percentiles implements Serializable {
+    
+    private long p50;
+    private long p90;
+    private long p99;
+    private long max;
+    
+    public Percentiles() {
+    }
+    
+    public Percentiles(long p50, long p90, long p99, long max) {
+      this.p50 = p50;
+      this.p90 = p90;
+      this.p99 = p99;
+      this.max = max;
+    }
+    
+    public long getP50() {
+      return p50;
+    }
+    
+    public void setP50(long p50) {
+      this.p50 = p50;
+    }
+    
+    public long getP90() {
+      return p90;
+    }
+    
+    public void setP90(long p90) {
+      this.p90 = p90;
+    }
+    
+    public long getP99() {
+      return p99;
+    }
+    
+    public void setP99(long p99) {
+      this.p99 = p99;
+    }
+    
+    public long getMax() {
+      return max;
+    }
+    
+    public void setMax(long max) {
+      this.max = max;
+    }
+  }
+}
@@ -0,0 +1,216 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.jwt;
+
+import com.google.common.util.concurrent.Striped;
+import io.hops.hopsworks.common.util.DateUtils;
+import io.hops.hopsworks.common.util.FutureTasks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tokens materialized for a service and renewed while in use. Tokens are looked up, added and removed without a
+ * global lock, a token is changed holding the lock of its key, and a delay queue orders the tokens by expiration so
+ * a renewal sweep only visits the tokens that are due.
+ *
+ * @param <K> key of a token, one token per key
+ * @param <T> token
+ */
+public class ServiceJWTRegistry<K, T> {
+  
+  private static final Logger LOG = Logger.getLogger(ServiceJWTRegistry.class.getName());
+  private static final int LOCK_STRIPES = 64;
+  
+  private final ConcurrentMap<K, Registered<T>> tokens = new ConcurrentHashMap<>();
+  private final DelayQueue<Expiration<K>> expirations = new DelayQueue<>();
+  private final Striped<Lock> locks = Striped.lock(LOCK_STRIPES);
+  
+  /**
+   * Lock the token of a key, to be released by the caller with {@link #unlock(Object)} once done with it
+   *
+   * @param key
+   */
+  public void lock(K key) {
+    locks.get(key).lock();
+  }
+  
+  public void unlock(K key) {
+    locks.get(key).unlock();
+  }
+  
+  /**
+   * Add or replace the token of a key, to be called holding the lock of the key
+   *
+   * @param key
+   * @param token
+   * @param expiration
+   */
+  public void put(K key, T token, LocalDateTime expiration) {
+    tokens.put(key, new Registered<>(token, expiration));
+    expirations.add(new Expiration<>(key, expiration));
+  }
+  
+  public T get(K key) {
+    Registered<T> registered = tokens.get(key);
+    return registered == null ? null : registered.token;
+  }
+  
+  /**
+   * Remove the token of a key, to be called holding the lock of the key. Its expiration is dropped once it is due.
+   *
+   * @param key
+   * @return the token removed, null if there was none
+   */
+  public T remove(K key) {
+    Registered<T> registered = tokens.remove(key);
+    return registered == null ? null : registered.token;
+  }
+  
+  public List<K> keys() {
+    return new ArrayList<>(tokens.keySet());
+  }
+  
+  public int size() {
+    return tokens.size();
+  }
+  
+  /**
+   * Take the keys whose tokens are expired. A key taken is not returned again unless its token is put again or
+   * it is rescheduled.
+   *
+   * @return
+   */
+  public List<K> pollExpired() {
+    List<K> expired = new ArrayList<>();
+    Expiration<K> expiration;
+    while ((expiration = expirations.poll()) != null) {
+      Registered<T> registered = tokens.get(expiration.key);
+      // entries of removed or renewed tokens are stale
+      if (registered != null && registered.expiration.equals(expiration.expiration)) {
+        expired.add(expiration.key);
+      }
+    }
+    return expired;
+  }
+  
+  /**
+   * Renew the expired tokens, split in batches renewed in parallel. The calling thread renews one of the batches
+   * and the batches the executor did not start.
+   *
+   * @param executor
+   * @param concurrency number of batches
+   * @param renewal renews the token of a key, taking its lock
+   */
+  public void renewExpired(Executor executor, int concurrency, Consumer<K> renewal) {
+    List<K> expired = pollExpired();
+    if (expired.isEmpty()) {
+      return;
+    }
+    int batches = Math.max(1, Math.min(concurrency, expired.size()));
+    List<FutureTask<Void>> tasks = new ArrayList<>(batches);
+    for (int b = 0; b < batches; b++) {
+      List<K> batch = new ArrayList<>();
+      for (int i = b; i < expired.size(); i += batches) {
+        batch.add(expired.get(i));
+      }
+      tasks.add(new FutureTask<>(() -> {
+        batch.forEach(renewal);
+        return null;
+      }));
+    }
+    for (int b = 1; b < batches; b++) {
+      FutureTasks.execute(executor, tasks.get(b));
+    }
+    boolean interrupted = false;
+    for (FutureTask<Void> task : tasks) {
+      while (true) {
+        try {
+          FutureTasks.await(task);
+          break;
+        } catch (InterruptedException ex) {
+          // the sweep must finish, otherwise the keys taken are not renewed
+          interrupted = true;
+        } catch (ExecutionException ex) {
+          LOG.log(Level.SEVERE, "Error renewing a batch of JWTs", ex.getCause());
+          break;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+  
+  /**
+   * Return a key taken with {@link #pollExpired()} to the queue, for a token that could not be renewed and should
+   * be tried again in the next sweep
+   *
+   * @param key
+   */
+  public void reschedule(K key) {
+    Registered<T> registered = tokens.get(key);
+    if (registered != null) {
+      expirations.add(new Expiration<>(key, registered.expiration));
+    }
+  }
+  
+  private static class Registered<T> {
+    private final T token;
+    private final LocalDateTime expiration;
+    
+    private Registered(T token, LocalDateTime expiration) {
+      this.token = token;
+      this.expiration = expiration;
+    }
+  }
+  
+  private static class Expiration<K> implements Delayed {
+    private final K key;
+    private final LocalDateTime expiration;
+    private final long expirationMs;
+    
+    private Expiration(K key, LocalDateTime expiration) {
+      this.key = key;
+      this.expiration = expiration;
+      this.expirationMs = DateUtils.localDateTime2Date(expiration).getTime();
+    }
+    
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(expirationMs - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    @Override
+    public int compareTo(Delayed o) {
+      return Long.compare(getDelay(TimeUnit.MILLISECONDS), o.getDelay(TimeUnit.MILLISECONDS));
+    }
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.monitoring;
+
+import io.hops.hopsworks.persistence.entity.util.SharedCacheEntityStats;
+import io.hops.hopsworks.persistence.entity.util.SharedCacheProfiler;
+
+import javax.annotation.PostConstruct;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.ws.rs.core.GenericEntity;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+/**
+ * Named sources of the internal metrics shown to admins under /admin/monitoring. Components register a snapshot
+ * supplier once they are created, so a pool or monitor which has not been used since the deployment is not listed.
+ * Snapshots must be JAXB serializable objects, collections are wrapped in a {@link GenericEntity}.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class MonitoringRegistry {
+  
+  private final Map<String, Supplier<?>> sources = new ConcurrentSkipListMap<>();
+  
+  @PostConstruct
+  public void init() {
+    // The profiler is created by EclipseLink, outside of the container
+    register("sharedcache",
+      () -> new GenericEntity<List<SharedCacheEntityStats>>(SharedCacheProfiler.getStatistics()) { });
+  }
+  
+  /**
+   * @param name the name of the source, part of the monitoring path
+   * @param source supplier of a snapshot of the metrics of the source
+   */
+  public void register(String name, Supplier<?> source) {
+    sources.put(name, source);
+  }
+  
+  /**
+   * @return the names of the registered sources, sorted
+   */
+  public List<String> getNames() {
+    return new ArrayList<>(sources.keySet());
+  }
+  
+  /**
+   * @param name the name of the source
+   * @return a snapshot of the metrics of the source, or null if no source is registered with this name
+   */
+  public Object getSnapshot(String name) {
+    Supplier<?> source = sources.get(name);
+    return source == null ? null : source.get();
+  }
+}
@@ -56,6 +56,7 @@ import io.hops.hopsworks.common.dao.kafka.TopicAclsFacade;
 import io.hops.hopsworks.common.dao.log.operation.OperationsLogFacade;
 import io.hops.hopsworks.common.dao.project.ProjectFacade;
 import io.hops.hopsworks.common.dao.project.service.ProjectServiceFacade;
+import io.hops.hopsworks.common.dao.project.team.ProjectRoleCache;
 import io.hops.hopsworks.common.dao.project.team.ProjectTeamFacade;
 import io.hops.hopsworks.common.dao.user.UserFacade;
 import io.hops.hopsworks.common.dao.user.activity.ActivityFacade;
@@ -202,6 +203,8 @@ public class ProjectController {
   @EJB
   private ProjectTeamFacade projectTeamFacade;
   @EJB
+  private ProjectRoleCache projectRoleCache;
+  @EJB
   private YarnProjectsQuotaFacade yarnProjectsQuotaFacade;
   @EJB
   private UserFacade userFacade;
@@ -1285,6 +1288,7 @@ public class ProjectController {
           cleanupLogger.logError("Error when removing root Project dir during project cleanup");
           cleanupLogger.logError(ex.getMessage());
         }
+        projectRoleCache.invalidateProject(project.getId());
 
         // Run custom handler for project deletion
         for (ProjectHandler projectHandler : projectHandlers) {
@@ -1613,6 +1617,7 @@ public class ProjectController {
         List<HdfsUsers> usersToClean = getUsersToClean(project);
         List<HdfsGroups> groupsToClean = getGroupsToClean(project);
         removeProjectInt(project, usersToClean, groupsToClean, projectCreationFutures, decreaseCreatedProj, owner);
+        projectRoleCache.invalidateProject(project.getId());
         removeCertificatesFromMaterializer(project);
         //Delete online featurestore database
         onlineFeaturestoreController.removeOnlineFeatureStore(project);
@@ -17,18 +17,30 @@ package io.hops.hopsworks.common.provenance.core.elastic;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.hops.hopsworks.common.elastic.ElasticClient;
 import io.hops.hopsworks.exceptions.ElasticException;
+import io.hops.hopsworks.restutils.RESTCodes;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.indices.GetIndexRequest;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
 import javax.ejb.ConcurrencyManagement;
 import javax.ejb.ConcurrencyManagementType;
 import javax.ejb.EJB;
+import javax.ejb.Lock;
+import javax.ejb.LockType;
 import javax.ejb.Singleton;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 @Singleton
@@ -40,8 +52,14 @@ public class ElasticCache {
   
   @EJB
   private ProvElasticController client;
+  @EJB
+  private ElasticClient elasticClient;
+  @Resource(lookup = "concurrent/hopsExecutorService")
+  private ManagedExecutorService executorService;
   
   private Cache<String, Map<String, String>> indexMappings;
+  //only indices found are kept, refreshed in the background so searches do not wait on the check
+  private LoadingCache<String, Boolean> indexExists;
   
   @PostConstruct
   private void initClient() {
@@ -49,6 +67,52 @@ public class ElasticCache {
       .expireAfterWrite(1, TimeUnit.HOURS)
       .maximumSize(50)
       .build();
+    indexExists = Caffeine.newBuilder()
+      .refreshAfterWrite(1, TimeUnit.MINUTES)
+      .expireAfterWrite(10, TimeUnit.MINUTES)
+      .maximumSize(50)
+      .executor(executorService)
+      .build(this::fetchIndexExists);
+  }
+  
+  /**
+   * @param index
+   * @return true if the index exists, checked against elastic at most once a minute once it has been found
+   * @throws ElasticException
+   */
+  @Lock(LockType.READ)
+  public boolean indexExists(String index) throws ElasticException {
+    Boolean exists;
+    try {
+      exists = indexExists.get(index);
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof ElasticException) {
+        throw (ElasticException) e.getCause();
+      }
+      throw e;
+    }
+    if (exists == null || !exists) {
+      //check again on the next call, the index might be created meanwhile
+      indexExists.invalidate(index);
+      return false;
+    }
+    return true;
+  }
+  
+  @Lock(LockType.READ)
+  public void clearIndexExists(String index) {
+    indexExists.invalidate(index);
+  }
+  
+  private Boolean fetchIndexExists(String index) throws ElasticException {
+    try {
+      boolean exists = elasticClient.getClient().indices().exists(new GetIndexRequest(index), RequestOptions.DEFAULT);
+      LOG.log(Level.FINE, "Elastic index:{0} exists:{1}", new Object[]{index, exists});
+      return exists;
+    } catch (IOException e) {
+      throw new ElasticException(RESTCodes.ElasticErrorCode.ELASTIC_INTERNAL_REQ_ERROR,
+        Level.INFO, "Error while checking index existence", e.getMessage(), e);
+    }
   }
   
   public void cacheMapping(String index, Map<String, String> mapping) {
@@ -39,6 +39,11 @@
 package io.hops.hopsworks.common.security;
 
 import io.hops.hopsworks.common.dao.certificates.CertsFacade;
+import io.hops.hopsworks.common.hdfs.DistributedFsClientPool;
+import io.hops.hopsworks.common.hive.HiveMetastoreClientPool;
+import io.hops.hopsworks.common.hive.HiveServerConnectionPool;
+import io.hops.hopsworks.common.serving.inference.logger.KafkaInferenceLogger;
+import io.hops.hopsworks.common.serving.inference.logger.KafkaInferenceProducerCache;
 import io.hops.hopsworks.persistence.entity.certificates.UserCerts;
 import io.hops.hopsworks.persistence.entity.project.Project;
 import io.hops.hopsworks.persistence.entity.project.team.ProjectTeam;
@@ -119,6 +124,14 @@ public class CertificatesController {
   private Instance<CertificateHandler> certificateHandlers;
   @EJB
   private CAProxy caProxy;
+  @EJB
+  private DistributedFsClientPool distributedFsClientPool;
+  @EJB
+  private HiveMetastoreClientPool hiveMetastoreClientPool;
+  @EJB
+  private HiveServerConnectionPool hiveServerConnectionPool;
+  @EJB
+  private KafkaInferenceProducerCache kafkaInferenceProducerCache;
 
   private KeyPairGenerator keyPairGenerator = null;
   private CertificateFactory certificateFactory = null;
@@ -173,6 +186,13 @@ public class CertificatesController {
       convertKeystoreToByteArray(userKeystores.getValue0(), userKeyPwd),
       convertKeystoreToByteArray(userKeystores.getValue1(), userKeyPwd),
       encryptedKey);
+    // Pooled HDFS and Hive clients of a previous membership use the old certificates
+    distributedFsClientPool.invalidate(project.getName() + Settings.HOPS_USERNAME_SEPARATOR + user.getUsername());
+    hiveMetastoreClientPool.invalidate(project.getName() + Settings.HOPS_USERNAME_SEPARATOR + user.getUsername());
+    hiveServerConnectionPool.invalidate(project.getName() + Settings.HOPS_USERNAME_SEPARATOR + user.getUsername());
+    if (KafkaInferenceLogger.SERVING_MANAGER_USERNAME.equals(user.getUsername())) {
+      kafkaInferenceProducerCache.invalidate(project.getName());
+    }
 
     // Run custom certificateHandlers
     for (CertificateHandler certificateHandler : certificateHandlers) {
@@ -210,6 +230,10 @@ public class CertificatesController {
         certificateHandler.revoke(project, user2delete);
       }
     }
+    distributedFsClientPool.invalidateProject(projectName);
+    hiveMetastoreClientPool.invalidateProject(projectName);
+    hiveServerConnectionPool.invalidateProject(projectName);
+    kafkaInferenceProducerCache.invalidate(projectName);
   }
 
   public void revokeUserSpecificCertificates(Project project, Users user)
@@ -220,6 +244,12 @@ public class CertificatesController {
     // *First* revoke and *then* delete the certificate
     certsFacade.removeUserProjectCerts(project.getName(), user.getUsername());
     revokeCertificate(certificateIdentifier, Endpoint.PROJECT);
+    distributedFsClientPool.invalidate(certificateIdentifier);
+    hiveMetastoreClientPool.invalidate(certificateIdentifier);
+    hiveServerConnectionPool.invalidate(certificateIdentifier);
+    if (KafkaInferenceLogger.SERVING_MANAGER_USERNAME.equals(user.getUsername())) {
+      kafkaInferenceProducerCache.invalidate(project.getName());
+    }
 
     // Run custom handlers
     for (CertificateHandler certificateHandler : certificateHandlers) {
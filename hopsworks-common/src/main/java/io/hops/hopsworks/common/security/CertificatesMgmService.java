@@ -104,6 +104,8 @@ public class CertificatesMgmService {
   private SystemCommandFacade systemCommandFacade;
   @EJB
   private HostsFacade hostsFacade;
+  @EJB
+  private SymmetricKeyCache symmetricKeyCache;
   @Inject
   @Any
   private Instance<MasterPasswordHandler> handlers;
@@ -258,6 +260,8 @@ public class CertificatesMgmService {
       sendUnsuccessfulMessage(errorMsg + "\n" + ex.getMessage(), userRequested);
     } finally {
       handlersResult.clear();
+      // Keys derived from the old password are of no use anymore
+      symmetricKeyCache.invalidateAll();
     }
   }
   
@@ -43,12 +43,14 @@ import io.hops.hopsworks.persistence.entity.certificates.UserCerts;
 import io.hops.hopsworks.common.dao.user.UserFacade;
 import io.hops.hopsworks.persistence.entity.user.Users;
 import io.hops.hopsworks.common.hdfs.HdfsUsersController;
+import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.exceptions.EncryptionMasterPasswordException;
 
 import javax.ejb.EJB;
 import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -64,6 +66,8 @@ public class PSUserCertsMasterPasswordHandler implements MasterPasswordHandler {
   private UserFacade userFacade;
   @EJB
   private CertsFacade certsFacade;
+  @EJB
+  private Settings settings;
   
   
   @Override
@@ -77,8 +81,11 @@ public class PSUserCertsMasterPasswordHandler implements MasterPasswordHandler {
     
     Map<String, String> oldPasswords4Rollback = new HashMap<>();
     List<UserCerts> allPSCerts = certsFacade.findAllUserCerts();
-    String mapKey = null, oldPassword, newEncCertPassword;
-    Users user;
+    String mapKey = null, oldPassword, newEncCertPassword, userPassword;
+    // A user has one certificate per project, look up each user only once
+    Map<String, String> userPasswords = new HashMap<>();
+    int batchSize = settings.getMasterPasswordChangeBatchSize();
+    List<UserCerts> batch = new ArrayList<>(batchSize);
     
     try {
       LOGGER.log(Level.INFO, "Updating PSU certs with new Hopsworks master encryption password");
@@ -87,16 +94,23 @@ public class PSUserCertsMasterPasswordHandler implements MasterPasswordHandler {
             + psCert.getUserCertsPK().getUsername();
         oldPassword = psCert.getUserKeyPwd();
         oldPasswords4Rollback.putIfAbsent(mapKey, oldPassword);
-        user = userFacade.findByUsername(psCert.getUserCertsPK().getUsername());
-        if (user == null) {
+        userPassword = userPasswords.computeIfAbsent(psCert.getUserCertsPK().getUsername(), username -> {
+          Users user = userFacade.findByUsername(username);
+          return user != null ? user.getPassword() : null;
+        });
+        if (userPassword == null) {
           throw new Exception("Could not find Hopsworks user for certificate " + mapKey);
         }
-        newEncCertPassword = getNewUserPassword(user.getPassword(), oldPassword, oldMasterPassword,
-            newMasterPassword);
+        newEncCertPassword = getNewUserPassword(userPassword, oldPassword, oldMasterPassword, newMasterPassword);
         psCert.setUserKeyPwd(newEncCertPassword);
-        certsFacade.update(psCert);
+        batch.add(psCert);
+        if (batch.size() >= batchSize) {
+          certsFacade.updateAll(batch);
+          batch.clear();
+        }
         successLog.append("Updated certificate: ").append(mapKey).append("\n");
       }
+      certsFacade.updateAll(batch);
       return new MasterPasswordChangeResult<>(successLog, oldPasswords4Rollback, null);
     } catch (Exception ex) {
       String errorMsg = "Something went wrong while updating master encryption password for Project Specific User " +
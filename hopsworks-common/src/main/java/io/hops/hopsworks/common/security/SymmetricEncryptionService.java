@@ -26,6 +26,7 @@ import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.SecretKeySpec;
+import javax.ejb.EJB;
 import javax.ejb.Stateless;
 import java.security.GeneralSecurityException;
 import java.security.NoSuchAlgorithmException;
@@ -58,6 +59,9 @@ public class SymmetricEncryptionService {
   
   SecureRandom rand;
   
+  @EJB
+  private SymmetricKeyCache keyCache;
+  
   @PostConstruct
   public void init() {
     try {
@@ -76,6 +80,9 @@ public class SymmetricEncryptionService {
    * Salt and IV should be stored along with the ciphertext in order to decrypt it. IV should be
    * absolutely unique for each message encrypted with the same key!
    *
+   * Keys derived from a supplied salt are cached, keys derived from a freshly generated salt are not, as they are
+   * only ever reused when the message is decrypted.
+   *
    * @param descriptor Descriptor containing the message to be encrypted and crypto primitives
    * @return Descriptor containing the output of encryption and the crypto primitives used
    * @throws GeneralSecurityException
@@ -83,11 +90,14 @@ public class SymmetricEncryptionService {
   public SymmetricEncryptionDescriptor encrypt(SymmetricEncryptionDescriptor descriptor)
       throws GeneralSecurityException {
     byte[] salt, iv;
+    boolean cacheKey;
     if (descriptor.getSalt() != null) {
       salt = descriptor.getSalt();
+      cacheKey = true;
     } else {
       salt = new byte[SALT_LENGTH];
       generateRandom(salt);
+      cacheKey = false;
     }
     if (descriptor.getIv() != null) {
       iv = descriptor.getIv();
@@ -96,7 +106,9 @@ public class SymmetricEncryptionService {
       generateRandom(iv);
     }
     
-    Pair<KeySpec, SecretKey> keyMaterial = buildSecretKey(descriptor.getPassword(), salt);
+    Pair<KeySpec, SecretKey> keyMaterial = cacheKey
+        ? getSecretKey(descriptor.getPassword(), salt)
+        : buildSecretKey(descriptor.getPassword(), salt);
     
     Cipher cipher = getCipher();
     cipher.init(Cipher.ENCRYPT_MODE, keyMaterial.getRight(), getGCMSpec(iv));
@@ -125,7 +137,7 @@ public class SymmetricEncryptionService {
     if (descriptor.getSalt() == null || descriptor.getIv() == null || descriptor.getPassword() == null) {
       throw new IllegalArgumentException("Cryptographic primitives are empty");
     }
-    Pair<KeySpec, SecretKey> keyMaterial = buildSecretKey(descriptor.getPassword(), descriptor.getSalt());
+    Pair<KeySpec, SecretKey> keyMaterial = getSecretKey(descriptor.getPassword(), descriptor.getSalt());
     
     Cipher cipher = getCipher();
     cipher.init(Cipher.DECRYPT_MODE, keyMaterial.getRight(), getGCMSpec(descriptor.getIv()));
@@ -189,6 +201,24 @@ public class SymmetricEncryptionService {
     descriptor.clearPassword();
   }
   
+  /**
+   * Get the secret key for password and salt from the key cache, deriving it on a miss. The key specification of a
+   * cached key is not returned as there is no password left to clear in it.
+   *
+   * @param password Password to use
+   * @param salt Salt for the key derivation function
+   * @return A pair of the key specification, if the key was derived, and the key itself
+   * @throws GeneralSecurityException
+   */
+  private Pair<KeySpec, SecretKey> getSecretKey(char[] password, byte[] salt) throws GeneralSecurityException {
+    SecretKey key = keyCache.get(password, salt, () -> {
+      Pair<KeySpec, SecretKey> keyMaterial = buildSecretKey(password, salt);
+      ((PBEKeySpec) keyMaterial.getLeft()).clearPassword();
+      return keyMaterial.getRight();
+    });
+    return Pair.of(null, key);
+  }
+  
   /**
    * Generate a secret key using @KEY_DERIVATION_ALGORITHM algorithm
    *
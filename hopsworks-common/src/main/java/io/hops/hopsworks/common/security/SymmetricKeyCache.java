@@ -0,0 +1,112 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.security;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.hops.hopsworks.common.util.Settings;
+
+import javax.annotation.PostConstruct;
+import javax.crypto.SecretKey;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Bounded cache of the AES keys derived by {@link SymmetricEncryptionService}. Key derivation is deliberately slow,
+ * so a key is derived once per (password, salt) pair and reused until it is evicted or the master encryption
+ * password changes.
+ * <p>
+ * Entries are keyed by a SHA-256 digest of the password and the salt, so neither is kept in memory in clear.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@DependsOn("Settings")
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class SymmetricKeyCache {
+  
+  private static final String DIGEST_ALGORITHM = "SHA-256";
+  
+  @EJB
+  private Settings settings;
+  
+  private Cache<String, SecretKey> keys;
+  
+  @PostConstruct
+  public void init() {
+    keys = CacheBuilder.newBuilder()
+        .maximumSize(settings.getEncryptionKeyCacheSize())
+        .build();
+  }
+  
+  /**
+   * Get the key derived from password and salt, deriving it with loader on a miss
+   *
+   * @param password Password the key is derived from
+   * @param salt Salt the key is derived with
+   * @param loader Derives the key on a cache miss
+   * @return The derived key
+   * @throws GeneralSecurityException
+   */
+  public SecretKey get(char[] password, byte[] salt, Callable<SecretKey> loader) throws GeneralSecurityException {
+    try {
+      return keys.get(cacheKey(password, salt), loader);
+    } catch (ExecutionException | UncheckedExecutionException ex) {
+      if (ex.getCause() instanceof GeneralSecurityException) {
+        throw (GeneralSecurityException) ex.getCause();
+      }
+      throw new GeneralSecurityException(ex.getCause());
+    }
+  }
+  
+  /**
+   * Drop every derived key. Called when the master encryption password changes.
+   */
+  public void invalidateAll() {
+    keys.invalidateAll();
+  }
+  
+  public long size() {
+    return keys.size();
+  }
+  
+  private String cacheKey(char[] password, byte[] salt) throws NoSuchAlgorithmException {
+    MessageDigest digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+    ByteBuffer passwordBytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(password));
+    digest.update(passwordBytes);
+    if (passwordBytes.hasArray()) {
+      Arrays.fill(passwordBytes.array(), (byte) 0);
+    }
+    digest.update(salt);
+    return Base64.getEncoder().encodeToString(digest.digest());
+  }
+}
@@ -187,6 +187,16 @@ public class SecretsController {
     return secretsFacade.findAll();
   }
   
+  /**
+   * Gets a page of the Secrets of all users in encrypted form, ordered by their identifier
+   * @param offset Position of the first Secret of the page
+   * @param limit Maximum number of Secrets in the page
+   * @return A page of encrypted Secrets
+   */
+  public List<Secret> getAllCiphered(int offset, int limit) {
+    return secretsFacade.findAll(offset, limit);
+  }
+  
   /**
    * Gets a decrypted Secret
    * @param user The user associated with the secret
@@ -23,15 +23,24 @@ import io.hops.hopsworks.common.security.MasterPasswordChangeResult;
 import io.hops.hopsworks.common.security.MasterPasswordHandler;
 import io.hops.hopsworks.common.security.SymmetricEncryptionDescriptor;
 import io.hops.hopsworks.common.security.SymmetricEncryptionService;
+import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.exceptions.EncryptionMasterPasswordException;
 
+import javax.annotation.Resource;
 import javax.ejb.EJB;
 import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import java.security.GeneralSecurityException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -39,6 +48,8 @@ import java.util.logging.Logger;
 @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
 public class SecretsPasswordHandler implements MasterPasswordHandler {
   private final Logger LOGGER = Logger.getLogger(SecretsPasswordHandler.class.getName());
+  // Pages which are read and being re-encrypted but not persisted yet
+  private static final int MAX_BATCHES_IN_FLIGHT = 4;
   
   @EJB
   private SecretsController secretsController;
@@ -46,70 +57,111 @@ public class SecretsPasswordHandler implements MasterPasswordHandler {
   private SymmetricEncryptionService symmetricEncryptionService;
   @EJB
   private SecretsFacade secretsFacade;
+  @EJB
+  private Settings settings;
+  @Resource(lookup = "concurrent/hopsExecutorService")
+  private ManagedExecutorService executorService;
   
   @Override
   public void pre() {
   }
   
+  /**
+   * Secrets are read in pages of the configured batch size. Every page is re-encrypted by a worker of the managed
+   * executor and persisted in a single transaction once the worker is done. At most
+   * {@link #MAX_BATCHES_IN_FLIGHT} pages are read ahead of the oldest page which is not persisted yet.
+   */
   @Override
   public MasterPasswordChangeResult perform(String oldPassword, String newPassword) {
     Map<SecretId, byte[]> secrets2Rollback = new HashMap<>();
     StringBuilder successLog = new StringBuilder();
     successLog.append("Performing change of master password for Secrets\n");
-    SecretId secretId;
-    Secret newSecret;
-    SymmetricEncryptionDescriptor inDescriptor;
-    SymmetricEncryptionDescriptor outDescriptor;
+    Deque<Future<List<Secret>>> batches = new ArrayDeque<>();
     
     try {
       LOGGER.log(Level.INFO, "Updating Secrets with new Hopsworks master encryption password");
-      List<Secret> cipheredSecrets = secretsController.getAllCiphered();
-      
-      for (Secret cipheredSecret : cipheredSecrets) {
-        secretId = cipheredSecret.getId();
-        secrets2Rollback.put(secretId, cipheredSecret.getSecret());
-        
-        // First decrypt with the old password
-        byte[][] cryptoPrimitives = symmetricEncryptionService
-            .splitPayloadFromCryptoPrimitives(cipheredSecret.getSecret());
-        inDescriptor = new SymmetricEncryptionDescriptor.Builder()
-            .setPassword(oldPassword)
-            .setSalt(cryptoPrimitives[0])
-            .setIV(cryptoPrimitives[1])
-            .setInput(cryptoPrimitives[2])
-            .build();
-        outDescriptor = symmetricEncryptionService.decrypt(inDescriptor);
-        inDescriptor.clearPassword();
-        
-        // Then encrypt plaintext secret with the new password
-        inDescriptor = new SymmetricEncryptionDescriptor.Builder()
-            .setInput(outDescriptor.getOutput())
-            .setPassword(newPassword)
-            .build();
-        outDescriptor = symmetricEncryptionService.encrypt(inDescriptor);
-        inDescriptor.clearPassword();
-        byte[] newCipheredSecret = symmetricEncryptionService.mergePayloadWithCryptoPrimitives(outDescriptor.getSalt(),
-            outDescriptor.getIv(), outDescriptor.getOutput());
-        
-        // Store new API key
-        newSecret = new Secret(secretId, newCipheredSecret, cipheredSecret.getAddedOn());
-        newSecret.setVisibilityType(cipheredSecret.getVisibilityType());
-        if (cipheredSecret.getProjectIdScope() != null) {
-          newSecret.setProjectIdScope(cipheredSecret.getProjectIdScope());
+      int batchSize = settings.getMasterPasswordChangeBatchSize();
+      int offset = 0;
+      List<Secret> cipheredSecrets;
+      do {
+        cipheredSecrets = secretsController.getAllCiphered(offset, batchSize);
+        if (cipheredSecrets.isEmpty()) {
+          break;
+        }
+        for (Secret cipheredSecret : cipheredSecrets) {
+          secrets2Rollback.put(cipheredSecret.getId(), cipheredSecret.getSecret());
         }
-        secretsFacade.update(newSecret);
-        successLog.append("Updated Secret <").append(newSecret.getId().getUid()).append(",")
-            .append(newSecret.getId().getName()).append(">\n");
+        List<Secret> batch = cipheredSecrets;
+        batches.addLast(executorService.submit(() -> reencrypt(batch, oldPassword, newPassword)));
+        offset += cipheredSecrets.size();
+        if (batches.size() >= MAX_BATCHES_IN_FLIGHT) {
+          persist(batches.removeFirst(), successLog);
+        }
+      } while (cipheredSecrets.size() == batchSize);
+      
+      while (!batches.isEmpty()) {
+        persist(batches.removeFirst(), successLog);
       }
       
       return new MasterPasswordChangeResult<>(successLog, secrets2Rollback, null);
     } catch (Exception ex) {
+      for (Future<List<Secret>> batch : batches) {
+        batch.cancel(true);
+      }
       String errorMsg = "Error while updating master encryption password for Secrets";
       LOGGER.log(Level.SEVERE, errorMsg, ex);
       return new MasterPasswordChangeResult<>(secrets2Rollback, new EncryptionMasterPasswordException(errorMsg, ex));
     }
   }
   
+  private void persist(Future<List<Secret>> batch, StringBuilder successLog)
+      throws InterruptedException, ExecutionException {
+    List<Secret> newSecrets = batch.get();
+    secretsFacade.updateAll(newSecrets);
+    for (Secret newSecret : newSecrets) {
+      successLog.append("Updated Secret <").append(newSecret.getId().getUid()).append(",")
+          .append(newSecret.getId().getName()).append(">\n");
+    }
+  }
+  
+  private List<Secret> reencrypt(List<Secret> cipheredSecrets, String oldPassword, String newPassword)
+      throws GeneralSecurityException {
+    List<Secret> newSecrets = new ArrayList<>(cipheredSecrets.size());
+    SymmetricEncryptionDescriptor inDescriptor;
+    SymmetricEncryptionDescriptor outDescriptor;
+    for (Secret cipheredSecret : cipheredSecrets) {
+      // First decrypt with the old password
+      byte[][] cryptoPrimitives = symmetricEncryptionService
+          .splitPayloadFromCryptoPrimitives(cipheredSecret.getSecret());
+      inDescriptor = new SymmetricEncryptionDescriptor.Builder()
+          .setPassword(oldPassword)
+          .setSalt(cryptoPrimitives[0])
+          .setIV(cryptoPrimitives[1])
+          .setInput(cryptoPrimitives[2])
+          .build();
+      outDescriptor = symmetricEncryptionService.decrypt(inDescriptor);
+      inDescriptor.clearPassword();
+      
+      // Then encrypt plaintext secret with the new password
+      inDescriptor = new SymmetricEncryptionDescriptor.Builder()
+          .setInput(outDescriptor.getOutput())
+          .setPassword(newPassword)
+          .build();
+      outDescriptor = symmetricEncryptionService.encrypt(inDescriptor);
+      inDescriptor.clearPassword();
+      byte[] newCipheredSecret = symmetricEncryptionService.mergePayloadWithCryptoPrimitives(outDescriptor.getSalt(),
+          outDescriptor.getIv(), outDescriptor.getOutput());
+      
+      Secret newSecret = new Secret(cipheredSecret.getId(), newCipheredSecret, cipheredSecret.getAddedOn());
+      newSecret.setVisibilityType(cipheredSecret.getVisibilityType());
+      if (cipheredSecret.getProjectIdScope() != null) {
+        newSecret.setProjectIdScope(cipheredSecret.getProjectIdScope());
+      }
+      newSecrets.add(newSecret);
+    }
+    return newSecrets;
+  }
+  
   @Override
   @SuppressWarnings("unchecked")
   public void rollback(MasterPasswordChangeResult result) {
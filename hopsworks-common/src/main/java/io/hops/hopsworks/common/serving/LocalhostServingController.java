@@ -22,6 +22,7 @@ import io.hops.hopsworks.common.dao.serving.ServingFacade;
 import io.hops.hopsworks.persistence.entity.serving.ServingType;
 import io.hops.hopsworks.persistence.entity.user.Users;
 import io.hops.hopsworks.common.integrations.LocalhostStereotype;
+import io.hops.hopsworks.common.serving.inference.ServingEndpointCache;
 import io.hops.hopsworks.common.serving.sklearn.LocalhostSkLearnServingController;
 import io.hops.hopsworks.common.serving.tf.LocalhostTfServingController;
 import io.hops.hopsworks.common.serving.util.KafkaServingHelper;
@@ -64,6 +65,8 @@ public class LocalhostServingController implements ServingController {
   private LocalhostSkLearnServingController skLearnServingController;
   @EJB
   private LocalhostTfServingController tfServingController;
+  @EJB
+  private ServingEndpointCache servingEndpointCache;
   
   /**
    * Gets a list of available servings for a project
@@ -122,6 +125,7 @@ public class LocalhostServingController implements ServingController {
       }
       servingFacade.delete(serving);
     }
+    servingEndpointCache.invalidateProject(project);
   }
   
   /**
@@ -142,6 +146,7 @@ public class LocalhostServingController implements ServingController {
       killServingInstance(project, serving, false);
     }
     servingFacade.delete(serving);
+    servingEndpointCache.invalidate(project, serving.getName());
   }
 
   @Override
@@ -214,6 +219,7 @@ public class LocalhostServingController implements ServingController {
         ServingStatusEnum.STARTED.toString() : ServingStatusEnum.STOPPED.toString());
       throw new ServingException(RESTCodes.ServingErrorCode.LIFECYCLEERROR, Level.FINE, userMsg);
     }
+    servingEndpointCache.invalidate(project, serving.getName());
   }
   
   /**
@@ -278,6 +284,8 @@ public class LocalhostServingController implements ServingController {
         // The instance is not running, nothing else to do. Just release the lock.
         servingFacade.releaseLock(project, serving.getId());
       }
+      // The serving may have been renamed
+      servingEndpointCache.invalidateProject(project);
     }
   }
   
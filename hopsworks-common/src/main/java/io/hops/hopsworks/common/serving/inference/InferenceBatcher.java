@@ -0,0 +1,272 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.serving.inference;
+
+import io.hops.common.Pair;
+import io.hops.hopsworks.common.util.Settings;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Merges concurrent predict requests to the same model version into a single request with one batch of instances.
+ * A batch is sent when the configured time window since its first request has passed or when it holds the maximum
+ * number of instances, whichever comes first. The predictions are then split back to the requests in order.
+ * <p>
+ * Only requests in the row format, i.e. with an instances list and optionally a signature name, are merged. If the
+ * model server does not answer a merged batch with one prediction per instance, for example because it rejects a
+ * malformed request of the batch, every request of the batch is sent again on its own. A request never receives a
+ * response which holds the predictions of the requests it was merged with.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@DependsOn("Settings")
+@TransactionAttribute(TransactionAttributeType.NEVER)
+public class InferenceBatcher {
+  
+  private static final Logger LOGGER = Logger.getLogger(InferenceBatcher.class.getName());
+  
+  private static final String INSTANCES = "instances";
+  private static final String SIGNATURE_NAME = "signature_name";
+  private static final String PREDICTIONS = "predictions";
+  
+  @EJB
+  private Settings settings;
+  @Resource
+  private ManagedScheduledExecutorService scheduler;
+  
+  private final Map<String, PendingBatch> batches = new HashMap<>();
+  
+  /**
+   * Sends a request to a model server, returning a future of the tuple of (statusCode, responseStr)
+   */
+  public interface BatchSender {
+    CompletableFuture<Pair<Integer, String>> send(String requestJson);
+  }
+  
+  public boolean isEnabled() {
+    return settings.getServingBatchingWindow() > 0;
+  }
+  
+  /**
+   * Adds a predict request to the pending batch of the model version, or sends it on its own if it cannot be merged
+   *
+   * @param modelKey identifies the model version the request is for
+   * @param requestJson the JSON payload of the predict request
+   * @param sender sends the merged batch to the model server
+   * @return a future of the tuple of (statusCode, responseStr) for this request only
+   */
+  public CompletableFuture<Pair<Integer, String>> predict(String modelKey, String requestJson, BatchSender sender) {
+    long window = settings.getServingBatchingWindow();
+    Pending pending = parse(requestJson);
+    if (window <= 0 || pending == null) {
+      return sender.send(requestJson);
+    }
+    
+    String batchKey = modelKey + ":" + (pending.signatureName == null ? "" : pending.signatureName);
+    PendingBatch full = null;
+    synchronized (batches) {
+      PendingBatch batch = batches.get(batchKey);
+      if (batch == null) {
+        batch = new PendingBatch(sender, pending.signatureName);
+        batches.put(batchKey, batch);
+        PendingBatch scheduled = batch;
+        scheduler.schedule(() -> flush(batchKey, scheduled), window, TimeUnit.MILLISECONDS);
+      }
+      batch.add(pending);
+      if (batch.size >= settings.getServingBatchingMaxSize()) {
+        batches.remove(batchKey);
+        full = batch;
+      }
+    }
+    if (full != null) {
+      send(full);
+    }
+    return pending.result;
+  }
+  
+  private void flush(String batchKey, PendingBatch batch) {
+    synchronized (batches) {
+      // The batch may have been sent already because it was full
+      if (!batches.remove(batchKey, batch)) {
+        return;
+      }
+    }
+    send(batch);
+  }
+  
+  private void send(PendingBatch batch) {
+    if (batch.requests.size() == 1) {
+      Pending pending = batch.requests.get(0);
+      pipe(batch.sender.send(pending.requestJson), pending.result);
+      return;
+    }
+    
+    JSONArray instances = new JSONArray();
+    for (Pending pending : batch.requests) {
+      for (int i = 0; i < pending.instances.length(); i++) {
+        instances.put(pending.instances.get(i));
+      }
+    }
+    JSONObject request = new JSONObject().put(INSTANCES, instances);
+    if (batch.signatureName != null) {
+      request.put(SIGNATURE_NAME, batch.signatureName);
+    }
+    
+    batch.sender.send(request.toString()).whenComplete((response, error) -> {
+      if (error != null) {
+        for (Pending pending : batch.requests) {
+          pending.result.completeExceptionally(error);
+        }
+        return;
+      }
+      List<String> ownResponses = null;
+      if (response.getL() == 200) {
+        List<Integer> instanceCounts = new ArrayList<>(batch.requests.size());
+        for (Pending pending : batch.requests) {
+          instanceCounts.add(pending.instances.length());
+        }
+        ownResponses = split(response.getR(), instanceCounts);
+      }
+      if (ownResponses == null) {
+        // The response cannot be split back to the requests and it must not be handed to requests whose instances
+        // it also covers, so every request is sent again on its own
+        for (Pending pending : batch.requests) {
+          pipe(batch.sender.send(pending.requestJson), pending.result);
+        }
+        return;
+      }
+      for (int i = 0; i < batch.requests.size(); i++) {
+        batch.requests.get(i).result.complete(new Pair<>(response.getL(), ownResponses.get(i)));
+      }
+    });
+  }
+  
+  /**
+   * Split the response of a merged predict request back to the requests it was merged from.
+   *
+   * @param responseJson the response of the model server to the merged request
+   * @param instanceCounts the number of instances of each merged request, in the order they were merged
+   * @return the response of each request, in the same order, or null if the response does not hold exactly one
+   * prediction per instance
+   */
+  static List<String> split(String responseJson, List<Integer> instanceCounts) {
+    JSONArray predictions;
+    try {
+      predictions = new JSONObject(responseJson).optJSONArray(PREDICTIONS);
+    } catch (JSONException e) {
+      LOGGER.log(Level.FINE, "Could not parse the response of a batched predict request", e);
+      return null;
+    }
+    int total = 0;
+    for (Integer count : instanceCounts) {
+      total += count;
+    }
+    if (predictions == null || predictions.length() != total) {
+      return null;
+    }
+    
+    List<String> ownResponses = new ArrayList<>(instanceCounts.size());
+    int offset = 0;
+    for (Integer count : instanceCounts) {
+      JSONArray ownPredictions = new JSONArray();
+      for (int i = 0; i < count; i++) {
+        ownPredictions.put(predictions.get(offset + i));
+      }
+      offset += count;
+      ownResponses.add(new JSONObject().put(PREDICTIONS, ownPredictions).toString());
+    }
+    return ownResponses;
+  }
+  
+  private void pipe(CompletableFuture<Pair<Integer, String>> from, CompletableFuture<Pair<Integer, String>> to) {
+    from.whenComplete((response, error) -> {
+      if (error != null) {
+        to.completeExceptionally(error);
+      } else {
+        to.complete(response);
+      }
+    });
+  }
+  
+  private Pending parse(String requestJson) {
+    try {
+      JSONObject request = new JSONObject(requestJson);
+      JSONArray instances = request.optJSONArray(INSTANCES);
+      if (instances == null || instances.length() == 0) {
+        return null;
+      }
+      String signatureName = request.optString(SIGNATURE_NAME, null);
+      int expectedKeys = signatureName == null ? 1 : 2;
+      if (request.length() != expectedKeys) {
+        return null;
+      }
+      return new Pending(requestJson, instances, signatureName);
+    } catch (JSONException e) {
+      // Let the model server report the malformed request
+      return null;
+    }
+  }
+  
+  private static class Pending {
+    private final String requestJson;
+    private final JSONArray instances;
+    private final String signatureName;
+    private final CompletableFuture<Pair<Integer, String>> result = new CompletableFuture<>();
+    
+    private Pending(String requestJson, JSONArray instances, String signatureName) {
+      this.requestJson = requestJson;
+      this.instances = instances;
+      this.signatureName = signatureName;
+    }
+  }
+  
+  private static class PendingBatch {
+    private final BatchSender sender;
+    private final String signatureName;
+    private final List<Pending> requests = new ArrayList<>();
+    private int size = 0;
+    
+    private PendingBatch(BatchSender sender, String signatureName) {
+      this.sender = sender;
+      this.signatureName = signatureName;
+    }
+    
+    private void add(Pending pending) {
+      requests.add(pending);
+      size += pending.instances.length();
+    }
+  }
+}
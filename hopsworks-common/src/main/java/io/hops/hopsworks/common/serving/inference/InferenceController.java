@@ -20,19 +20,22 @@ import com.google.common.base.Strings;
 import io.hops.common.Pair;
 import io.hops.hopsworks.persistence.entity.project.Project;
 import io.hops.hopsworks.persistence.entity.serving.Serving;
-import io.hops.hopsworks.common.dao.serving.ServingFacade;
 import io.hops.hopsworks.persistence.entity.serving.ServingType;
 import io.hops.hopsworks.common.serving.inference.logger.InferenceLogger;
 import io.hops.hopsworks.exceptions.InferenceException;
 import io.hops.hopsworks.restutils.RESTCodes;
 
+import javax.annotation.Resource;
 import javax.ejb.EJB;
 import javax.ejb.Stateless;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
+import javax.enterprise.concurrent.ManagedExecutorService;
 import javax.enterprise.inject.Any;
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -47,7 +50,9 @@ public class InferenceController {
   private static final Logger logger = Logger.getLogger(InferenceLogger.class.getName());
 
   @EJB
-  private ServingFacade servingFacade;
+  private ServingEndpointCache servingEndpointCache;
+  @Resource(lookup = "concurrent/hopsExecutorService")
+  private ManagedExecutorService executorService;
 
   @Inject
   private TfInferenceController tfInferenceController;
@@ -59,38 +64,65 @@ public class InferenceController {
   
   
   /**
-   * Makes an inference request to a running serving instance
+   * Makes an inference request to a running serving instance without blocking the calling thread. The response of
+   * the serving instance is logged and checked on the managed executor.
    *
    * @param project the project where the serving is running
    * @param modelName the name of the serving
    * @param modelVersion the version of the serving
    * @param verb the predictiont type (predict, regress, or classify)
    * @param inferenceRequestJson the user-provided JSON payload for the inference request
-   * @return a string representation of the inference result
-   * @throws InferenceException
+   * @return a future of the string representation of the inference result, completed exceptionally with an
+   * InferenceException
+   * @throws InferenceException if the serving does not exist or the request is malformed
    */
-  public String infer(Project project, String modelName, Integer modelVersion,
-                      String verb, String inferenceRequestJson) throws InferenceException {
+  public CompletableFuture<String> inferAsync(Project project, String modelName, Integer modelVersion,
+                                              String verb, String inferenceRequestJson) throws InferenceException {
 
-    Serving serving = servingFacade.findByProjectAndName(project, modelName);
+    Serving serving = getServing(project, modelName, verb);
+
+    CompletableFuture<Pair<Integer, String>> inferenceResult;
+    if (serving.getServingType() == ServingType.TENSORFLOW) {
+      inferenceResult = tfInferenceController.inferAsync(serving, modelVersion, verb, inferenceRequestJson);
+    } else {
+      inferenceResult = skLearnInferenceController.inferAsync(serving, modelVersion, verb, inferenceRequestJson);
+    }
+
+    CompletableFuture<String> response = new CompletableFuture<>();
+    inferenceResult.whenCompleteAsync((result, error) -> {
+      if (error != null) {
+        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+        if (cause instanceof InferenceException && ((InferenceException) cause).getErrorCode()
+            == RESTCodes.InferenceErrorCode.REQUEST_ERROR) {
+          // The serving may have been restarted on a different port
+          servingEndpointCache.invalidate(project, modelName);
+        }
+        response.completeExceptionally(cause);
+        return;
+      }
+      try {
+        response.complete(handleInferenceResult(serving, inferenceRequestJson, result));
+      } catch (InferenceException e) {
+        response.completeExceptionally(e);
+      }
+    }, executorService);
+    return response;
+  }
+
+  private Serving getServing(Project project, String modelName, String verb) throws InferenceException {
+    Serving serving = servingEndpointCache.find(project, modelName);
     if (serving == null) {
       throw new InferenceException(RESTCodes.InferenceErrorCode.SERVING_NOT_FOUND, Level.FINE, "name: " + modelName);
     }
-  
+
     if (Strings.isNullOrEmpty(verb)) {
       throw new InferenceException(RESTCodes.InferenceErrorCode.MISSING_VERB, Level.FINE);
     }
+    return serving;
+  }
 
-    Pair<Integer, String> inferenceResult = null;
-    if(serving.getServingType() == ServingType.TENSORFLOW){
-      inferenceResult =
-          tfInferenceController.infer(serving, modelVersion, verb, inferenceRequestJson);
-    }
-    if(serving.getServingType() == ServingType.SKLEARN){
-      inferenceResult =
-          skLearnInferenceController.infer(serving, modelVersion, verb, inferenceRequestJson);
-    }
-
+  private String handleInferenceResult(Serving serving, String inferenceRequestJson,
+                                       Pair<Integer, String> inferenceResult) throws InferenceException {
     // Log the inference
     for (InferenceLogger inferenceLogger : inferenceLoggers) {
       try {
@@ -21,11 +21,21 @@ import io.hops.hopsworks.common.util.Settings;
 import io.hops.hopsworks.exceptions.InferenceException;
 import io.hops.hopsworks.restutils.RESTCodes;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.concurrent.FutureCallback;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
 import org.apache.http.protocol.HttpContext;
 import org.apache.http.util.EntityUtils;
 
@@ -38,6 +48,7 @@ import javax.ejb.Singleton;
 import javax.ejb.TransactionAttribute;
 import javax.ejb.TransactionAttributeType;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -59,6 +70,7 @@ public class InferenceHttpClient {
   
   private CloseableHttpClient httpClient = null;
   private PoolingHttpClientConnectionManager cm = null;
+  private CloseableHttpAsyncClient asyncHttpClient = null;
   
   /**
    * Initialize the HTTP connection pool configuration
@@ -72,9 +84,35 @@ public class InferenceHttpClient {
     cm.setDefaultMaxPerRoute(maxRouteConnections);
     logger.log(Level.FINE, "Creating connection pool for Model Serving of size " +
       poolSize + " and max connections per route " + maxRouteConnections);
+    int connectTimeout = (int) settings.getServingConnectTimeout();
+    int requestTimeout = (int) settings.getServingRequestTimeout();
+    RequestConfig requestConfig = RequestConfig.custom()
+      .setConnectionRequestTimeout(connectTimeout)
+      .setConnectTimeout(connectTimeout)
+      .setSocketTimeout(requestTimeout)
+      .build();
     httpClient = HttpClients.custom()
       .setConnectionManager(cm)
+      .setDefaultRequestConfig(requestConfig)
       .build();
+    
+    try {
+      IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+        .setConnectTimeout(connectTimeout)
+        .setSoTimeout(requestTimeout)
+        .build();
+      PoolingNHttpClientConnectionManager asyncCm =
+        new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(ioReactorConfig));
+      asyncCm.setMaxTotal(poolSize);
+      asyncCm.setDefaultMaxPerRoute(maxRouteConnections);
+      asyncHttpClient = HttpAsyncClients.custom()
+        .setConnectionManager(asyncCm)
+        .setDefaultRequestConfig(requestConfig)
+        .build();
+      asyncHttpClient.start();
+    } catch (IOReactorException e) {
+      throw new IllegalStateException("Could not create the non-blocking HTTP client for Model Serving", e);
+    }
   }
   
   
@@ -94,6 +132,40 @@ public class InferenceHttpClient {
     }
   }
   
+  /**
+   * Sends an inference HTTP request without blocking the calling thread. The response is parsed into a tuple of
+   * (statusCode, responseStr) on the I/O thread of the client, callers should move any further work to an executor.
+   *
+   * @param request the request to send, containing stuff such as URI, headers etc.
+   * @return a future of the tuple of (statusCode, responseStr), completed exceptionally with an InferenceException
+   */
+  public CompletableFuture<Pair<Integer, String>> executeAsync(HttpPost request) {
+    CompletableFuture<Pair<Integer, String>> result = new CompletableFuture<>();
+    asyncHttpClient.execute(request, HttpClientContext.create(), new FutureCallback<HttpResponse>() {
+      @Override
+      public void completed(HttpResponse response) {
+        try {
+          result.complete(readInferenceResponse(response));
+        } catch (InferenceException e) {
+          result.completeExceptionally(e);
+        }
+      }
+  
+      @Override
+      public void failed(Exception e) {
+        result.completeExceptionally(
+          new InferenceException(RESTCodes.InferenceErrorCode.REQUEST_ERROR, Level.INFO, null, e.getMessage(), e));
+      }
+  
+      @Override
+      public void cancelled() {
+        result.completeExceptionally(new InferenceException(RESTCodes.InferenceErrorCode.REQUEST_ERROR, Level.INFO,
+          null, "Inference request was cancelled"));
+      }
+    });
+    return result;
+  }
+  
   /**
    * Handles a HTTP response to an inference request. Parses the response into a tuple of (statusCode, responseStr)
    *
@@ -103,22 +175,7 @@ public class InferenceHttpClient {
    */
   public Pair<Integer, String> handleInferenceResponse(CloseableHttpResponse response) throws InferenceException {
     try {
-      if (response == null) {
-        throw new InferenceException(RESTCodes.InferenceErrorCode.EMPTY_RESPONSE, Level.INFO, "Received null response");
-      }
-      HttpEntity httpEntity = response.getEntity();
-      if (httpEntity == null) {
-        throw new InferenceException(RESTCodes.InferenceErrorCode.EMPTY_RESPONSE, Level.INFO, "Received null response");
-      }
-      try {
-        // Return prediction
-        String responseStr = EntityUtils.toString(httpEntity);
-        EntityUtils.consume(httpEntity);
-        return new Pair<>(response.getStatusLine().getStatusCode(), responseStr);
-      } catch (IOException e) {
-        throw new InferenceException(RESTCodes.InferenceErrorCode.ERROR_READING_RESPONSE, Level.INFO,
-          "", e.getMessage(), e);
-      }
+      return readInferenceResponse(response);
     } finally {
       try {
         if(response != null) {
@@ -130,6 +187,25 @@ public class InferenceHttpClient {
     }
   }
   
+  private Pair<Integer, String> readInferenceResponse(HttpResponse response) throws InferenceException {
+    if (response == null) {
+      throw new InferenceException(RESTCodes.InferenceErrorCode.EMPTY_RESPONSE, Level.INFO, "Received null response");
+    }
+    HttpEntity httpEntity = response.getEntity();
+    if (httpEntity == null) {
+      throw new InferenceException(RESTCodes.InferenceErrorCode.EMPTY_RESPONSE, Level.INFO, "Received null response");
+    }
+    try {
+      // Return prediction
+      String responseStr = EntityUtils.toString(httpEntity);
+      EntityUtils.consume(httpEntity);
+      return new Pair<>(response.getStatusLine().getStatusCode(), responseStr);
+    } catch (IOException e) {
+      throw new InferenceException(RESTCodes.InferenceErrorCode.ERROR_READING_RESPONSE, Level.INFO,
+        "", e.getMessage(), e);
+    }
+  }
+  
   /**
    * Cleanup the http client
    */
@@ -138,6 +214,13 @@ public class InferenceHttpClient {
     if(cm != null) {
       cm.close();
     }
+    if (asyncHttpClient != null) {
+      try {
+        asyncHttpClient.close();
+      } catch (IOException e) {
+        logger.log(Level.FINE, "Error closing non-blocking HTTP client", e);
+      }
+    }
   }
   
 }
@@ -37,6 +37,7 @@ import javax.ejb.TransactionAttributeType;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 
 import static io.hops.hopsworks.common.serving.LocalhostServingController.CID_STOPPED;
@@ -67,6 +68,36 @@ public class LocalhostSkLearnInferenceController implements SkLearnInferenceCont
   public Pair<Integer, String> infer(Serving serving, Integer modelVersion,
                                      String verb, String inferenceRequestJson) throws InferenceException {
 
+    HttpPost request = buildRequest(serving, verb, inferenceRequestJson);
+    HttpContext context = HttpClientContext.create();
+    CloseableHttpResponse response = inferenceHttpClient.execute(request, context);
+    return inferenceHttpClient.handleInferenceResponse(response);
+  }
+
+  /**
+   * Non-blocking SkLearn inference. Sends a JSON request to a flask server that serves a SkLearn model
+   *
+   * @param serving the sklearn serving instance to send the request to
+   * @param modelVersion the version of the serving
+   * @param verb the type of inference request (predict, regress, classify)
+   * @param inferenceRequestJson the JSON payload of the inference request
+   * @return a future of the inference result returned by the serving server
+   */
+  @Override
+  public CompletableFuture<Pair<Integer, String>> inferAsync(Serving serving, Integer modelVersion,
+                                                             String verb, String inferenceRequestJson) {
+    try {
+      return inferenceHttpClient.executeAsync(buildRequest(serving, verb, inferenceRequestJson));
+    } catch (InferenceException e) {
+      CompletableFuture<Pair<Integer, String>> result = new CompletableFuture<>();
+      result.completeExceptionally(e);
+      return result;
+    }
+  }
+
+  private HttpPost buildRequest(Serving serving, String verb, String inferenceRequestJson)
+      throws InferenceException {
+
     if (serving.getCid().equals(CID_STOPPED)) {
       throw new InferenceException(RESTCodes.InferenceErrorCode.SERVING_NOT_RUNNING, Level.FINE);
     }
@@ -84,9 +115,7 @@ public class LocalhostSkLearnInferenceController implements SkLearnInferenceCont
       HttpPost request = new HttpPost(uri);
       request.addHeader("content-type", "application/json; charset=utf-8");
       request.setEntity(new StringEntity(inferenceRequestJson));
-      HttpContext context = HttpClientContext.create();
-      CloseableHttpResponse response = inferenceHttpClient.execute(request, context);
-      return inferenceHttpClient.handleInferenceResponse(response);
+      return request;
     } catch (URISyntaxException e) {
       throw new InferenceException(RESTCodes.InferenceErrorCode.REQUEST_ERROR, Level.SEVERE, null, e.getMessage(), e);
     } catch (IOException e) {
@@ -37,6 +37,7 @@ import javax.ejb.TransactionAttributeType;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 
 import static io.hops.hopsworks.common.serving.LocalhostServingController.CID_STOPPED;
@@ -52,8 +53,12 @@ import static io.hops.hopsworks.common.serving.LocalhostServingController.CID_ST
 @ConcurrencyManagement(ConcurrencyManagementType.BEAN)
 public class LocalhostTfInferenceController implements TfInferenceController {
   
+  private static final String PREDICT = ":predict";
+  
   @EJB
   private InferenceHttpClient inferenceHttpClient;
+  @EJB
+  private InferenceBatcher inferenceBatcher;
   
   /**
    * Tensorflow inference. Sends a JSON request to the REST API of a tensorflow serving server
@@ -68,6 +73,48 @@ public class LocalhostTfInferenceController implements TfInferenceController {
   public Pair<Integer, String> infer(Serving serving, Integer modelVersion,
     String verb, String inferenceRequestJson) throws InferenceException {
     
+    HttpPost request = buildRequest(serving, modelVersion, verb, inferenceRequestJson);
+    HttpContext context = HttpClientContext.create();
+    CloseableHttpResponse response = inferenceHttpClient.execute(request, context);
+    return inferenceHttpClient.handleInferenceResponse(response);
+  }
+  
+  /**
+   * Non-blocking tensorflow inference. If batching is enabled, predict requests are merged with concurrent
+   * predict requests to the same model version before being sent to the serving server
+   *
+   * @param serving the tensorflow serving instance to send the request to
+   * @param modelVersion the version of the serving
+   * @param verb the type of inference request (predict, regress, classify)
+   * @param inferenceRequestJson the JSON payload of the inference request
+   * @return a future of the inference result returned by the serving server
+   */
+  @Override
+  public CompletableFuture<Pair<Integer, String>> inferAsync(Serving serving, Integer modelVersion,
+    String verb, String inferenceRequestJson) {
+    
+    if (PREDICT.equals(verb) && inferenceBatcher.isEnabled()) {
+      String modelKey = serving.getId() + ":" + modelVersion;
+      return inferenceBatcher.predict(modelKey, inferenceRequestJson,
+        batchJson -> send(serving, modelVersion, verb, batchJson));
+    }
+    return send(serving, modelVersion, verb, inferenceRequestJson);
+  }
+  
+  private CompletableFuture<Pair<Integer, String>> send(Serving serving, Integer modelVersion,
+    String verb, String inferenceRequestJson) {
+    try {
+      return inferenceHttpClient.executeAsync(buildRequest(serving, modelVersion, verb, inferenceRequestJson));
+    } catch (InferenceException e) {
+      CompletableFuture<Pair<Integer, String>> result = new CompletableFuture<>();
+      result.completeExceptionally(e);
+      return result;
+    }
+  }
+  
+  private HttpPost buildRequest(Serving serving, Integer modelVersion,
+    String verb, String inferenceRequestJson) throws InferenceException {
+    
     if (serving.getCid().equals(CID_STOPPED)) {
       throw new InferenceException(RESTCodes.InferenceErrorCode.SERVING_NOT_RUNNING, Level.FINE);
     }
@@ -84,7 +131,6 @@ public class LocalhostTfInferenceController implements TfInferenceController {
     
     pathBuilder.append(verb);
     
-    // Send request
     try {
       URI uri = new URIBuilder()
         .setScheme("http")
@@ -96,9 +142,7 @@ public class LocalhostTfInferenceController implements TfInferenceController {
       HttpPost request = new HttpPost(uri);
       request.addHeader("content-type", "application/json; charset=utf-8");
       request.setEntity(new StringEntity(inferenceRequestJson));
-      HttpContext context = HttpClientContext.create();
-      CloseableHttpResponse response = inferenceHttpClient.execute(request, context);
-      return inferenceHttpClient.handleInferenceResponse(response);
+      return request;
     } catch (URISyntaxException e) {
       throw new InferenceException(RESTCodes.InferenceErrorCode.REQUEST_ERROR, Level.SEVERE, null, e.getMessage(), e);
     } catch (IOException e) {
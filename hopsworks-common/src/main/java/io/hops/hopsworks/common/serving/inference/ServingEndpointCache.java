@@ -0,0 +1,95 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.serving.inference;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.hops.hopsworks.common.dao.serving.ServingFacade;
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.persistence.entity.project.Project;
+import io.hops.hopsworks.persistence.entity.serving.Serving;
+
+import javax.annotation.PostConstruct;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import java.util.concurrent.TimeUnit;
+
+import static io.hops.hopsworks.common.serving.LocalhostServingController.CID_STOPPED;
+
+/**
+ * Caches the servings looked up by name for inference requests. Entries expire after the configured time so that
+ * changes made by other Hopsworks instances are picked up, changes made by this instance invalidate them right away.
+ * A serving which was cached as stopped is always looked up again, as it may have been started in the meantime.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@DependsOn("Settings")
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class ServingEndpointCache {
+  
+  private static final String KEY_DELIMITER = ":";
+  
+  @EJB
+  private Settings settings;
+  @EJB
+  private ServingFacade servingFacade;
+  
+  private Cache<String, Serving> servings;
+  
+  @PostConstruct
+  public void init() {
+    servings = Caffeine.newBuilder()
+      .expireAfterWrite(settings.getServingEndpointCacheTTL(), TimeUnit.MILLISECONDS)
+      .maximumSize(10000)
+      .build();
+  }
+  
+  /**
+   * @return the serving of the project with the given name, null if there is none
+   */
+  public Serving find(Project project, String servingName) {
+    String key = key(project, servingName);
+    Serving serving = servings.getIfPresent(key);
+    if (serving == null || CID_STOPPED.equals(serving.getCid())) {
+      serving = servingFacade.findByProjectAndName(project, servingName);
+      if (serving != null) {
+        servings.put(key, serving);
+      } else {
+        servings.invalidate(key);
+      }
+    }
+    return serving;
+  }
+  
+  public void invalidate(Project project, String servingName) {
+    servings.invalidate(key(project, servingName));
+  }
+  
+  public void invalidateProject(Project project) {
+    String prefix = project.getId() + KEY_DELIMITER;
+    servings.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+  }
+  
+  private String key(Project project, String servingName) {
+    return project.getId() + KEY_DELIMITER + servingName;
+  }
+}
@@ -20,6 +20,8 @@ import io.hops.common.Pair;
 import io.hops.hopsworks.persistence.entity.serving.Serving;
 import io.hops.hopsworks.exceptions.InferenceException;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Interface for sending inference requests to tfserving serving instances. Different type of tf serving
  * controllers e.g (localhost or Kubernetes) should implement this interface.
@@ -27,4 +29,18 @@ import io.hops.hopsworks.exceptions.InferenceException;
 public interface TfInferenceController {
   Pair<Integer, String> infer(Serving serving, Integer modelVersion,
                               String verb, String inferenceRequestJson) throws InferenceException;
+  
+  /**
+   * Non-blocking variant of infer. Controllers without a non-blocking client fall back to the blocking call.
+   */
+  default CompletableFuture<Pair<Integer, String>> inferAsync(Serving serving, Integer modelVersion,
+                                                              String verb, String inferenceRequestJson) {
+    CompletableFuture<Pair<Integer, String>> result = new CompletableFuture<>();
+    try {
+      result.complete(infer(serving, modelVersion, verb, inferenceRequestJson));
+    } catch (InferenceException e) {
+      result.completeExceptionally(e);
+    }
+    return result;
+  }
 }
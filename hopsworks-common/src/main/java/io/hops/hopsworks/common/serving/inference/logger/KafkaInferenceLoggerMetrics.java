@@ -0,0 +1,82 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.serving.inference.logger;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import java.io.Serializable;
+
+@XmlRootElement
+public class KafkaInferenceLoggerMetrics implements Serializable {
+  
+  private int producers;
+  private long sent;
+  private long dropped;
+  private double avgSendLatencyMs;
+  private double maxSendLatencyMs;
+  
+  public KafkaInferenceLoggerMetrics() {
+  }
+  
+  public KafkaInferenceLoggerMetrics(int producers, long sent, long dropped, double avgSendLatencyMs,
+    double maxSendLatencyMs) {
+    this.producers = producers;
+    this.sent = sent;
+    this.dropped = dropped;
+    this.avgSendLatencyMs = avgSendLatencyMs;
+    this.maxSendLatencyMs = maxSendLatencyMs;
+  }
+  
+  public int getProducers() {
+    return producers;
+  }
+  
+  public void setProducers(int producers) {
+    this.producers = producers;
+  }
+  
+  public long getSent() {
+    return sent;
+  }
+  
+  public void setSent(long sent) {
+    this.sent = sent;
+  }
+  
+  public long getDropped() {
+    return dropped;
+  }
+  
+  public void setDropped(long dropped) {
+    this.dropped = dropped;
+  }
+  
+  public double getAvgSendLatencyMs() {
+    return avgSendLatencyMs;
+  }
+  
+  public void setAvgSendLatencyMs(double avgSendLatencyMs) {
+    this.avgSendLatencyMs = avgSendLatencyMs;
+  }
+  
+  public double getMaxSendLatencyMs() {
+    return maxSendLatencyMs;
+  }
+  
+  public void setMaxSendLatencyMs(double maxSendLatencyMs) {
+    this.maxSendLatencyMs = maxSendLatencyMs;
+  }
+}
@@ -0,0 +1,344 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.serving.inference.logger;
+
+import io.hops.hopsworks.common.dao.kafka.KafkaConst;
+import io.hops.hopsworks.common.kafka.KafkaBrokers;
+import io.hops.hopsworks.common.monitoring.MonitoringRegistry;
+import io.hops.hopsworks.common.security.CertificateMaterializer;
+import io.hops.hopsworks.common.util.HopsUtils;
+import io.hops.hopsworks.common.util.Settings;
+import io.hops.hopsworks.exceptions.CryptoPasswordNotFoundException;
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.config.SslConfigs;
+import org.apache.kafka.common.errors.AuthenticationException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.ejb.Timer;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps one long-lived Kafka producer per project for inference logging. The inference request only queues the record
+ * in a bounded per-project queue. A sender task on the executor, at most one per project, creates the producer when
+ * needed and hands the queued records to it, so that neither the setup of a producer nor the fetching of topic
+ * metadata delays the request or makes the first records of a new producer time out. Records are then batched by the
+ * producer for up to the configured linger time. Records which do not fit in the queue are dropped.
+ * <p>
+ * A producer keeps the certificates of the serving manager of the project materialized until it is closed, because it
+ * has been idle for longer than the configured timeout, the certificates of the project changed or the brokers
+ * rejected them.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@DependsOn("Settings")
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class KafkaInferenceProducerCache {
+  
+  private static final Logger LOGGER = Logger.getLogger(KafkaInferenceProducerCache.class.getName());
+  // How long the sender of a project may block waiting for metadata or buffer space before a record is dropped
+  private static final long MAX_BLOCK_MS = 10000L;
+  // Records of a project waiting for its sender, more are dropped
+  private static final int MAX_PENDING_RECORDS = 1000;
+  private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(5);
+  
+  @EJB
+  private Settings settings;
+  @EJB
+  private MonitoringRegistry monitoringRegistry;
+  @EJB
+  private CertificateMaterializer certificateMaterializer;
+  @EJB
+  private KafkaBrokers kafkaBrokers;
+  @Resource(lookup = "concurrent/hopsExecutorService")
+  private ManagedExecutorService executorService;
+  
+  private final Map<String, CachedProducer> producers = new ConcurrentHashMap<>();
+  private final Map<String, PendingRecords> pending = new ConcurrentHashMap<>();
+  
+  private final AtomicLong sent = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicLong sendLatencyNanos = new AtomicLong();
+  private final AtomicLong maxSendLatencyNanos = new AtomicLong();
+  
+  @PostConstruct
+  public void init() {
+    monitoringRegistry.register("inferencelogger", this::getMetrics);
+  }
+  
+  @PreDestroy
+  public void destroy() {
+    for (String projectName : producers.keySet()) {
+      invalidate(projectName);
+    }
+  }
+  
+  /**
+   * Queue a record for the producer of the project without waiting for the producer or the brokers.
+   *
+   * @param projectName name of the project owning the topic
+   * @param record the record to send
+   */
+  public void send(String projectName, ProducerRecord<String, byte[]> record) {
+    PendingRecords records = pending.computeIfAbsent(projectName, k -> new PendingRecords());
+    if (!records.offer(record)) {
+      dropped.incrementAndGet();
+      return;
+    }
+    if (records.startSender()) {
+      try {
+        executorService.execute(() -> sendPending(projectName, records));
+      } catch (RejectedExecutionException e) {
+        dropped.addAndGet(records.clear());
+        LOGGER.log(Level.FINE, "Executor busy, dropping the inference logs of project " + projectName, e);
+      }
+    }
+  }
+  
+  // Runs on the executor, never more than one at a time for the same records
+  private void sendPending(String projectName, PendingRecords records) {
+    ProducerRecord<String, byte[]> record;
+    while ((record = records.poll()) != null) {
+      CachedProducer cached;
+      try {
+        cached = getProducer(projectName);
+      } catch (IOException | CryptoPasswordNotFoundException | KafkaException e) {
+        dropped.addAndGet(1 + records.clear());
+        LOGGER.log(Level.FINE, "Failed to setup the producer for the project: " + projectName, e);
+        return;
+      }
+      send(projectName, cached, record);
+    }
+  }
+  
+  private void send(String projectName, CachedProducer cached, ProducerRecord<String, byte[]> record) {
+    cached.lastUsed = System.currentTimeMillis();
+    long start = System.nanoTime();
+    try {
+      cached.producer.send(record, (metadata, exception) -> {
+        if (exception != null) {
+          dropped.incrementAndGet();
+          LOGGER.log(Level.FINE, "Cannot write to topic: " + record.topic(), exception);
+          if (exception instanceof AuthenticationException) {
+            // The callback runs on the I/O thread of the producer, which close() waits for
+            executorService.submit(() -> invalidate(projectName, cached));
+          }
+        } else {
+          sent.incrementAndGet();
+          long latency = System.nanoTime() - start;
+          sendLatencyNanos.addAndGet(latency);
+          maxSendLatencyNanos.accumulateAndGet(latency, Math::max);
+        }
+      });
+    } catch (Exception e) {
+      // KafkaException or IllegalStateException if the producer has just been closed
+      dropped.incrementAndGet();
+      LOGGER.log(Level.FINE, "Cannot write to topic: " + record.topic(), e);
+    }
+  }
+  
+  /**
+   * Close the producer of a project, for example because the certificates of the project changed. Records which are
+   * still buffered are sent before closing.
+   *
+   * @param projectName name of the project
+   */
+  public void invalidate(String projectName) {
+    CachedProducer cached = producers.remove(projectName);
+    if (cached != null) {
+      close(projectName, cached);
+    }
+  }
+  
+  private void invalidate(String projectName, CachedProducer cached) {
+    if (producers.remove(projectName, cached)) {
+      close(projectName, cached);
+    }
+  }
+  
+  @Schedule(persistent = false, minute = "*/5", hour = "*")
+  public void evictIdle(Timer timer) {
+    long idleSince = System.currentTimeMillis() - settings.getInferenceLoggerIdleTimeoutMs();
+    for (Map.Entry<String, CachedProducer> entry : producers.entrySet()) {
+      if (entry.getValue().lastUsed < idleSince) {
+        invalidate(entry.getKey(), entry.getValue());
+      }
+    }
+    pending.values().removeIf(PendingRecords::isIdle);
+  }
+  
+  public KafkaInferenceLoggerMetrics getMetrics() {
+    long sentRecords = sent.get();
+    double avgLatencyMs = sentRecords == 0 ? 0 : sendLatencyNanos.get() / 1e6 / sentRecords;
+    return new KafkaInferenceLoggerMetrics(producers.size(), sentRecords, dropped.get(), avgLatencyMs,
+      maxSendLatencyNanos.get() / 1e6);
+  }
+  
+  private CachedProducer getProducer(String projectName) throws IOException, CryptoPasswordNotFoundException {
+    CachedProducer cached = producers.get(projectName);
+    if (cached != null) {
+      return cached;
+    }
+    // Only the sender of the project gets here, unless its queue was evicted while the sender was running
+    cached = new CachedProducer(setupProducer(projectName));
+    CachedProducer existing = producers.putIfAbsent(projectName, cached);
+    if (existing != null) {
+      close(projectName, cached);
+      return existing;
+    }
+    return cached;
+  }
+  
+  private KafkaProducer<String, byte[]> setupProducer(String projectName) throws IOException,
+    CryptoPasswordNotFoundException {
+    String username = KafkaInferenceLogger.SERVING_MANAGER_USERNAME;
+    certificateMaterializer.materializeCertificatesLocal(username, projectName);
+    try {
+      CertificateMaterializer.CryptoMaterial cryptoMaterial =
+          certificateMaterializer.getUserMaterial(username, projectName);
+      String password = String.valueOf(cryptoMaterial.getPassword());
+  
+      Properties props = new Properties();
+      props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, kafkaBrokers.getKafkaBrokersString());
+      props.put(ProducerConfig.CLIENT_ID_CONFIG, "KafkaServing-" + projectName);
+      props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+      props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
+      props.put(ProducerConfig.LINGER_MS_CONFIG, settings.getInferenceLoggerLingerMs());
+      props.put(ProducerConfig.BUFFER_MEMORY_CONFIG, settings.getInferenceLoggerBufferMemory());
+      props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, MAX_BLOCK_MS);
+  
+      // Configure TLS for this producer
+      props.setProperty(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG, KafkaConst.KAFKA_SECURITY_PROTOCOL);
+      props.setProperty(SslConfigs.SSL_ENDPOINT_IDENTIFICATION_ALGORITHM_CONFIG,
+        KafkaConst.KAFKA_ENDPOINT_IDENTIFICATION_ALGORITHM);
+      props.setProperty(SslConfigs.SSL_TRUSTSTORE_LOCATION_CONFIG,
+          settings.getHopsworksTmpCertDir() + File.separator + HopsUtils.getProjectTruststoreName(projectName,
+              username));
+      props.setProperty(SslConfigs.SSL_TRUSTSTORE_PASSWORD_CONFIG, password);
+      props.setProperty(SslConfigs.SSL_KEYSTORE_LOCATION_CONFIG,
+          settings.getHopsworksTmpCertDir() + File.separator + HopsUtils.getProjectKeystoreName(projectName,
+              username));
+      props.setProperty(SslConfigs.SSL_KEYSTORE_PASSWORD_CONFIG, password);
+      props.setProperty(SslConfigs.SSL_KEY_PASSWORD_CONFIG, password);
+  
+      return new KafkaProducer<>(props);
+    } catch (CryptoPasswordNotFoundException | RuntimeException e) {
+      certificateMaterializer.removeCertificatesLocal(username, projectName);
+      throw e;
+    }
+  }
+  
+  private void close(String projectName, CachedProducer cached) {
+    try {
+      cached.producer.close(CLOSE_TIMEOUT);
+    } catch (Exception e) {
+      LOGGER.log(Level.WARNING, "Error closing the inference logger producer of project " + projectName, e);
+    } finally {
+      certificateMaterializer.removeCertificatesLocal(KafkaInferenceLogger.SERVING_MANAGER_USERNAME, projectName);
+    }
+  }
+  
+  private static class PendingRecords {
+    private final Deque<ProducerRecord<String, byte[]>> records = new ArrayDeque<>();
+    private boolean sending = false;
+    
+    /**
+     * @return false if the queue is full
+     */
+    private synchronized boolean offer(ProducerRecord<String, byte[]> record) {
+      if (records.size() >= MAX_PENDING_RECORDS) {
+        return false;
+      }
+      records.addLast(record);
+      return true;
+    }
+    
+    /**
+     * @return true if no sender is running, in which case the caller must start one
+     */
+    private synchronized boolean startSender() {
+      if (sending) {
+        return false;
+      }
+      sending = true;
+      return true;
+    }
+    
+    /**
+     * @return the next record, or null after which the sender must stop
+     */
+    private synchronized ProducerRecord<String, byte[]> poll() {
+      ProducerRecord<String, byte[]> next = records.pollFirst();
+      if (next == null) {
+        sending = false;
+      }
+      return next;
+    }
+    
+    /**
+     * Drop the queued records and stop the sender
+     *
+     * @return the number of dropped records
+     */
+    private synchronized int clear() {
+      int size = records.size();
+      records.clear();
+      sending = false;
+      return size;
+    }
+    
+    private synchronized boolean isIdle() {
+      return !sending && records.isEmpty();
+    }
+  }
+  
+  private static class CachedProducer {
+    private final KafkaProducer<String, byte[]> producer;
+    private volatile long lastUsed = System.currentTimeMillis();
+    
+    private CachedProducer(KafkaProducer<String, byte[]> producer) {
+      this.producer = producer;
+    }
+  }
+}
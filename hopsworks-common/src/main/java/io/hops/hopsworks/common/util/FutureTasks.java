@@ -0,0 +1,81 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs tasks on a shared executor without depending on a free thread of it. A task which no worker has started by
+ * the time its result is needed is run by the waiting thread, so that callers which are themselves running on the
+ * executor never wait for a thread which cannot become free.
+ */
+public final class FutureTasks {
+
+  private static final Logger LOGGER = Logger.getLogger(FutureTasks.class.getName());
+
+  private FutureTasks() {
+  }
+
+  /**
+   * Hand the task to the executor. If the executor rejects it the task is run by {@link #await(FutureTask)}.
+   */
+  public static void execute(Executor executor, FutureTask<?> task) {
+    try {
+      executor.execute(task);
+    } catch (RejectedExecutionException e) {
+      LOGGER.log(Level.FINE, "Executor busy, the task is run by the thread waiting for it", e);
+    }
+  }
+
+  /**
+   * Wait for the result of the task, running it in the calling thread if no worker has started it yet
+   *
+   * @throws ExecutionException with the failure of the task
+   */
+  public static <T> T await(FutureTask<T> task) throws InterruptedException, ExecutionException {
+    task.run();
+    return task.get();
+  }
+
+  /**
+   * Like {@link #await(FutureTask)} for tasks doing I/O
+   *
+   * @param task the task to wait for
+   * @param description what the task does, for the exception thrown if the wait is interrupted
+   * @throws IOException the failure of the task, wrapped if it is not an IOException
+   */
+  public static <T> T awaitIO(FutureTask<T> task, String description) throws IOException {
+    try {
+      return await(task);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while " + description);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+}
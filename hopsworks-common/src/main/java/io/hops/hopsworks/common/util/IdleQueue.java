@@ -0,0 +1,103 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Idle clients of a single pool key, the most recently used first so that the least used ones time out. It also
+ * counts the clients of the key which are in use, so that the key can be dropped once it is unused.
+ *
+ * @see KeyedPool
+ *
+ * @param <T> the pooled client
+ */
+public class IdleQueue<T> {
+  
+  public static class Idle<T> {
+    public final T client;
+    public final long since;
+    
+    private Idle(T client, long since) {
+      this.client = client;
+      this.since = since;
+    }
+  }
+  
+  private final Deque<Idle<T>> idle = new ArrayDeque<>();
+  private int leased = 0;
+  
+  /**
+   * @return the most recently used idle client, which is now counted as leased, or null
+   */
+  public synchronized Idle<T> poll() {
+    Idle<T> next = idle.pollFirst();
+    if (next != null) {
+      leased++;
+    }
+    return next;
+  }
+  
+  public synchronized void lease() {
+    leased++;
+  }
+  
+  public synchronized void giveBack() {
+    leased--;
+  }
+  
+  public synchronized boolean isUnused() {
+    return leased == 0 && idle.isEmpty();
+  }
+  
+  /**
+   * @return false if the queue is full and the client should be closed
+   */
+  public synchronized boolean offer(T client, int maxSize) {
+    if (idle.size() >= maxSize) {
+      return false;
+    }
+    idle.addFirst(new Idle<>(client, System.currentTimeMillis()));
+    return true;
+  }
+  
+  public synchronized List<T> drainIdleSince(long timestamp) {
+    List<T> drained = new ArrayList<>();
+    Iterator<Idle<T>> it = idle.descendingIterator();
+    while (it.hasNext()) {
+      Idle<T> next = it.next();
+      if (next.since > timestamp) {
+        break;
+      }
+      it.remove();
+      drained.add(next.client);
+    }
+    return drained;
+  }
+  
+  public synchronized List<T> drain() {
+    return drainIdleSince(Long.MAX_VALUE);
+  }
+  
+  public synchronized int size() {
+    return idle.size();
+  }
+}
@@ -86,4 +86,49 @@ public class IoUtils {
     URL fileUrl = new URL(url);
     return Resources.toString(fileUrl, Charsets.UTF_8);
   }
+  
+  /**
+   * @return the number of UTF-8 continuation bytes at the beginning of buffer[from, to), i.e. the bytes of a
+   * character which started before from
+   */
+  public static int utf8ContinuationPrefix(byte[] buffer, int from, int to) {
+    int count = 0;
+    while (count < 3 && from + count < to && isUtf8Continuation(buffer[from + count])) {
+      count++;
+    }
+    return count;
+  }
+  
+  /**
+   * @return the number of bytes at the end of buffer[from, to) which belong to a character that continues after to
+   */
+  public static int incompleteUtf8Suffix(byte[] buffer, int from, int to) {
+    int lead = to - 1;
+    while (lead >= from && to - lead < 4 && isUtf8Continuation(buffer[lead])) {
+      lead--;
+    }
+    if (lead < from) {
+      return 0;
+    }
+    int b = buffer[lead] & 0xFF;
+    int expected;
+    if (b < 0x80) {
+      expected = 1;
+    } else if ((b & 0xE0) == 0xC0) {
+      expected = 2;
+    } else if ((b & 0xF0) == 0xE0) {
+      expected = 3;
+    } else if ((b & 0xF8) == 0xF0) {
+      expected = 4;
+    } else {
+      // Not a lead byte, leave the malformed input to the decoder
+      return 0;
+    }
+    int present = to - lead;
+    return present < expected ? present : 0;
+  }
+  
+  private static boolean isUtf8Continuation(byte b) {
+    return (b & 0xC0) == 0x80;
+  }
 }
@@ -0,0 +1,226 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.util;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded pools of idle clients, one {@link IdleQueue} per key, handing out a client to one caller at a time. Idle
+ * clients are validated before being handed out once they have been idle for longer than the validation interval.
+ * The client and connection pools built on it only provide how their clients are validated and closed, and open new
+ * clients through the factory passed to {@link #acquire(Object, Opener)}.
+ *
+ * @param <K> the pool key
+ * @param <C> the pooled client
+ */
+public class KeyedPool<K, C> {
+  
+  private static final Logger LOGGER = Logger.getLogger(KeyedPool.class.getName());
+  
+  @FunctionalInterface
+  public interface Opener<C, E extends Exception> {
+    C open() throws E;
+  }
+  
+  @FunctionalInterface
+  public interface Validator<C> {
+    boolean isValid(C client);
+  }
+  
+  @FunctionalInterface
+  public interface Closer<K, C> {
+    void close(K key, C client);
+  }
+  
+  private final String name;
+  private final long validationIntervalMs;
+  private final Validator<C> validator;
+  private final Closer<K, C> closer;
+  
+  private final Map<K, IdleQueue<Pooled<K, C>>> pools = new ConcurrentHashMap<>();
+  private final Map<C, Pooled<K, C>> leased = new ConcurrentHashMap<>();
+  
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+  
+  /**
+   * @param name what the clients are, used in log messages
+   * @param validationIntervalMs idle clients older than this are validated before being handed out
+   * @param validator health check of an idle client
+   * @param closer closes a client which is not pooled any longer
+   */
+  public KeyedPool(String name, long validationIntervalMs, Validator<C> validator, Closer<K, C> closer) {
+    this.name = name;
+    this.validationIntervalMs = validationIntervalMs;
+    this.validator = validator;
+    this.closer = closer;
+  }
+  
+  /**
+   * Get an idle client of the key or open one with the given opener. Every call must be paired with a call to
+   * {@link #release(Object, boolean, int)}.
+   *
+   * @param key the pool key
+   * @param opener opens a new client for the key
+   * @return an open client
+   * @throws E if the opener failed to open a client
+   */
+  public <E extends Exception> C acquire(K key, Opener<C, E> opener) throws E {
+    IdleQueue<Pooled<K, C>> queue = pools.computeIfAbsent(key, k -> new IdleQueue<>());
+    IdleQueue.Idle<Pooled<K, C>> idle;
+    while ((idle = queue.poll()) != null) {
+      Pooled<K, C> pooled = idle.client;
+      if (System.currentTimeMillis() - idle.since < validationIntervalMs || validator.isValid(pooled.client)) {
+        hits.incrementAndGet();
+        leased.put(pooled.client, pooled);
+        return pooled.client;
+      }
+      queue.giveBack();
+      evictions.incrementAndGet();
+      close(pooled);
+    }
+  
+    misses.incrementAndGet();
+    C client = opener.open();
+    queue.lease();
+    leased.put(client, new Pooled<>(key, queue, client));
+    return client;
+  }
+  
+  /**
+   * Give back a client acquired from the pool.
+   *
+   * @param client the client, may be null
+   * @param reusable false if the client might be in a broken state and should be closed
+   * @param maxIdle the maximum number of idle clients kept per key
+   */
+  public void release(C client, boolean reusable, int maxIdle) {
+    if (client == null) {
+      return;
+    }
+    Pooled<K, C> pooled = leased.remove(client);
+    if (pooled == null) {
+      LOGGER.log(Level.WARNING, "Released a " + name + " which is not managed by the pool");
+      return;
+    }
+    pooled.queue.giveBack();
+    // The queue is replaced when the key is invalidated
+    if (!reusable || pools.get(pooled.key) != pooled.queue || !pooled.queue.offer(pooled, maxIdle)) {
+      close(pooled);
+    }
+  }
+  
+  /**
+   * Close the idle clients of the matching keys. Clients in use are closed when they are released.
+   *
+   * @param keys selects the keys to invalidate
+   */
+  public void invalidate(Predicate<K> keys) {
+    for (K key : pools.keySet()) {
+      if (keys.test(key)) {
+        IdleQueue<Pooled<K, C>> queue = pools.remove(key);
+        if (queue != null) {
+          closeAll(queue.drain());
+        }
+      }
+    }
+  }
+  
+  public void invalidateAll() {
+    invalidate(key -> true);
+  }
+  
+  /**
+   * Close the clients which have been idle for longer than the timeout and drop the keys which are not used any
+   * longer.
+   *
+   * @param idleTimeoutMs idle timeout
+   */
+  public void evictIdle(long idleTimeoutMs) {
+    long idleSince = System.currentTimeMillis() - idleTimeoutMs;
+    for (Map.Entry<K, IdleQueue<Pooled<K, C>>> entry : pools.entrySet()) {
+      IdleQueue<Pooled<K, C>> queue = entry.getValue();
+      List<Pooled<K, C>> idle = queue.drainIdleSince(idleSince);
+      evictions.addAndGet(idle.size());
+      closeAll(idle);
+      if (queue.isUnused()) {
+        pools.remove(entry.getKey(), queue);
+      }
+    }
+  }
+  
+  public int getKeys() {
+    return pools.size();
+  }
+  
+  public int getIdle() {
+    int idle = 0;
+    for (IdleQueue<Pooled<K, C>> queue : pools.values()) {
+      idle += queue.size();
+    }
+    return idle;
+  }
+  
+  public int getLeased() {
+    return leased.size();
+  }
+  
+  public long getHits() {
+    return hits.get();
+  }
+  
+  public long getMisses() {
+    return misses.get();
+  }
+  
+  public long getEvictions() {
+    return evictions.get();
+  }
+  
+  private void closeAll(List<Pooled<K, C>> clients) {
+    for (Pooled<K, C> pooled : clients) {
+      close(pooled);
+    }
+  }
+  
+  private void close(Pooled<K, C> pooled) {
+    try {
+      closer.close(pooled.key, pooled.client);
+    } catch (RuntimeException e) {
+      LOGGER.log(Level.WARNING, "Error closing " + name, e);
+    }
+  }
+  
+  private static class Pooled<K, C> {
+    private final K key;
+    private final IdleQueue<Pooled<K, C>> queue;
+    private final C client;
+  
+    private Pooled(K key, IdleQueue<Pooled<K, C>> queue, C client) {
+      this.key = key;
+      this.queue = queue;
+      this.client = client;
+    }
+  }
+}
@@ -55,7 +55,6 @@ import io.hops.hopsworks.common.provenance.core.dto.ProvTypeDTO;
 import io.hops.hopsworks.exceptions.ProvenanceException;
 import io.hops.hopsworks.persistence.entity.util.VariablesVisibility;
 import io.hops.hopsworks.restutils.RESTLogLevel;
-import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.yarn.conf.YarnConfiguration;
@@ -78,6 +77,7 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -166,6 +166,8 @@ public class Settings implements Serializable {
   private static final String VARIABLE_HDFS_DEFAULT_QUOTA = "hdfs_default_quota";
   private static final String VARIABLE_HDFS_BASE_STORAGE_POLICY = "hdfs_base_storage_policy";
   private static final String VARIABLE_HDFS_LOG_STORAGE_POLICY = "hdfs_log_storage_policy";
+  private static final String VARIABLE_DFS_CLIENT_POOL_MAX_SIZE = "dfs_client_pool_max_size";
+  private static final String VARIABLE_DFS_CLIENT_POOL_IDLE_TIMEOUT = "dfs_client_pool_idle_timeout";
   private static final String VARIABLE_MAX_NUM_PROJ_PER_USER
       = "max_num_proj_per_user";
   private static final String VARIABLE_RESERVED_PROJECT_NAMES = "reserved_project_names";
@@ -189,6 +191,9 @@ public class Settings implements Serializable {
   private static final String VARIABLE_KAFKA_DIR = "kafka_dir";
   private static final String VARIABLE_KAFKA_USER = "kafka_user";
   private static final String VARIABLE_KAFKA_MAX_NUM_TOPICS = "kafka_max_num_topics";
+  private static final String VARIABLE_INFERENCE_LOGGER_LINGER_MS = "inference_logger_linger_ms";
+  private static final String VARIABLE_INFERENCE_LOGGER_BUFFER_MEMORY = "inference_logger_buffer_memory";
+  private static final String VARIABLE_INFERENCE_LOGGER_IDLE_TIMEOUT = "inference_logger_idle_timeout";
   private static final String VARIABLE_ZK_DIR = "zk_dir";
   private static final String VARIABLE_ZK_USER = "zk_user";
   private static final String VARIABLE_FILE_PREVIEW_IMAGE_SIZE
@@ -202,6 +207,8 @@ public class Settings implements Serializable {
       = "kafka_num_partitions";
   private static final String VARIABLE_KAFKA_NUM_REPLICAS = "kafka_num_replicas";
   private static final String VARIABLE_HOPSWORKS_SSL_MASTER_PASSWORD = "hopsworks_master_password";
+  private static final String VARIABLE_ENCRYPTION_KEY_CACHE_SIZE = "encryption_key_cache_size";
+  private static final String VARIABLE_MASTER_PASSWORD_CHANGE_BATCH_SIZE = "master_password_change_batch_size";
   private static final String VARIABLE_ANACONDA_USER = "anaconda_user";
   private static final String VARIABLE_ANACONDA_DIR = "anaconda_dir";
   private static final String VARIABLE_ANACONDA_ENABLED = "anaconda_enabled";
@@ -261,6 +268,11 @@ public class Settings implements Serializable {
   private static final String VARIABLE_SERVING_MONITOR_INT = "serving_monitor_int";
   private static final String VARIABLE_SERVING_CONNECTION_POOL_SIZE = "serving_connection_pool_size";
   private static final String VARIABLE_SERVING_MAX_ROUTE_CONNECTIONS = "serving_max_route_connections";
+  private static final String VARIABLE_SERVING_ENDPOINT_CACHE_TTL = "serving_endpoint_cache_ttl";
+  private static final String VARIABLE_SERVING_BATCHING_WINDOW = "serving_batching_window";
+  private static final String VARIABLE_SERVING_BATCHING_MAX_SIZE = "serving_batching_max_size";
+  private static final String VARIABLE_SERVING_CONNECT_TIMEOUT = "serving_connect_timeout";
+  private static final String VARIABLE_SERVING_REQUEST_TIMEOUT = "serving_request_timeout";
 
   /*
    * -------------------- TensorBoard ---------------
@@ -315,9 +327,17 @@ public class Settings implements Serializable {
   private static final String VARIABLE_FEATURESTORE_JDBC_URL = "featurestore_jdbc_url";
   private static final String VARIABLE_ONLINE_FEATURESTORE = "featurestore_online_enabled";
   private static final String VARIABLE_FG_PREVIEW_LIMIT = "fg_preview_limit";
+  private static final String VARIABLE_FG_PREVIEW_STREAM_LIMIT = "fg_preview_stream_limit";
+  private static final String VARIABLE_FG_PREVIEW_FETCH_SIZE = "fg_preview_fetch_size";
   private static final String VARIABLE_ONLINE_FEATURESTORE_TS = "featurestore_online_tablespace";
+  private static final String VARIABLE_ONLINE_FEATURESTORE_POOL_MAX_SIZE = "featurestore_online_pool_max_size";
+  private static final String VARIABLE_ONLINE_FEATURESTORE_POOL_IDLE_TIMEOUT = "featurestore_online_pool_idle_timeout";
 
   private static final String VARIABLE_HIVE_CONF_PATH = "hive_conf_path";
+  private static final String VARIABLE_HIVE_METASTORE_POOL_MAX_SIZE = "hive_metastore_pool_max_size";
+  private static final String VARIABLE_HIVE_METASTORE_POOL_IDLE_TIMEOUT = "hive_metastore_pool_idle_timeout";
+  private static final String VARIABLE_HIVE_SERVER_POOL_MAX_SIZE = "hive_server_pool_max_size";
+  private static final String VARIABLE_HIVE_SERVER_POOL_IDLE_TIMEOUT = "hive_server_pool_idle_timeout";
 
   //Elastic OpenDistro
   private static final String VARIABLE_ELASTIC_OPENDISTRO_SECURITY_ENABLED = "elastic_opendistro_security_enabled";
@@ -342,6 +362,19 @@ public class Settings implements Serializable {
   private final static String VARIABLE_DOCKER_BASE_IMAGE_PYTHON_NAME = "docker_base_image_python_name";
   private final static String VARIABLE_DOCKER_BASE_IMAGE_PYTHON_VERSION = "docker_base_image_python_version";
   private final static String VARIABLE_YARN_APP_UID = "yarn_app_uid";
+  private static final String VARIABLE_JOB_LOG_FOLLOW_INTERVAL = "job_log_follow_interval";
+  private static final String VARIABLE_JOB_LOG_FOLLOW_TIMEOUT = "job_log_follow_timeout";
+  private static final String VARIABLE_LOG_AGGREGATION_MAX_BACKOFF = "log_aggregation_max_backoff";
+  private static final String VARIABLE_LOG_AGGREGATION_TIMEOUT = "log_aggregation_timeout";
+  private static final String VARIABLE_CLUSTER_METRICS_SAMPLE_INTERVAL = "cluster_metrics_sample_interval";
+  private static final String VARIABLE_APP_INFO_CACHE_TTL = "app_info_cache_ttl";
+  private static final String VARIABLE_INODE_TREE_WALK_CONCURRENCY = "inode_tree_walk_concurrency";
+  private static final String VARIABLE_INODE_TREE_WALK_PAGE_SIZE = "inode_tree_walk_page_size";
+  private static final String VARIABLE_ARCHIVE_ENTRY_CONCURRENCY = "archive_entry_concurrency";
+  private static final String VARIABLE_DOWNLOAD_PREFETCH_SEGMENTS = "download_prefetch_segments";
+  private static final String VARIABLE_FEATUREGROUP_SCHEMA_CACHE_TTL = "featuregroup_schema_cache_ttl";
+  private static final String VARIABLE_WEBSOCKET_SEND_QUEUE_SIZE = "websocket_send_queue_size";
+  private static final String VARIABLE_JWT_RENEWAL_CONCURRENCY = "jwt_renewal_concurrency";
 
   /*----------------------Yarn Nodemanager status------------*/
   private static final String VARIABLE_CHECK_NODEMANAGERS_STATUS = "check_nodemanagers_status";
@@ -498,11 +531,6 @@ public class Settings implements Serializable {
     return setStringHashSetLowerCase(value, separator, false);
   }
 
-  private Set<String> setStringHashSetLowerCase(String varName, String defaultValue, String separator) {
-    RESERVED_PROJECT_NAMES_STR = setStrVar(varName, defaultValue);
-    return setStringHashSetLowerCase(RESERVED_PROJECT_NAMES_STR, separator, true);
-  }
-
   private Set<String> setStringHashSetLowerCase(String values, String separator, boolean toLowerCase) {
     StringTokenizer tokenizer = new StringTokenizer(values, separator);
     HashSet<String> tokens = new HashSet<>(tokenizer.countTokens());
@@ -512,271 +540,609 @@ public class Settings implements Serializable {
     return tokens;
   }
 
-  private boolean cached = false;
-
-  private void populateCache() {
-    if (!cached) {
-      ADMIN_EMAIL = setVar(VARIABLE_ADMIN_EMAIL, ADMIN_EMAIL);
-      LOCALHOST = setBoolVar(VARIABLE_LOCALHOST, LOCALHOST);
-      CLOUD = setStrVar(VARIABLE_CLOUD, CLOUD);
-      IAM_ROLE_CONFIGURED = setBoolVar(VARIABLE_AWS_INSTANCE_ROLE, IAM_ROLE_CONFIGURED);
-      REQUESTS_VERIFY = setBoolVar(VARIABLE_REQUESTS_VERIFY, REQUESTS_VERIFY);
-      PYTHON_KERNEL = setBoolVar(VARIABLE_PYTHON_KERNEL, PYTHON_KERNEL);
-      JAVA_HOME = setVar(VARIABLE_JAVA_HOME, JAVA_HOME);
-      TWOFACTOR_AUTH = setVar(VARIABLE_TWOFACTOR_AUTH, TWOFACTOR_AUTH);
-      TWOFACTOR_EXCLUDE = setVar(VARIABLE_TWOFACTOR_EXCLUD, TWOFACTOR_EXCLUDE);
-      HOPSWORKS_USER = setVar(VARIABLE_HOPSWORKS_USER, HOPSWORKS_USER);
-      JUPYTER_USER = setVar(VARIABLE_JUPYTER_USER, JUPYTER_USER);
-      JUPYTER_GROUP = setVar(VARIABLE_JUPYTER_GROUP, JUPYTER_GROUP);
-      JUPYTER_ORIGIN_SCHEME = setVar(VARIABLE_JUPYTER_ORIGIN_SCHEME, JUPYTER_ORIGIN_SCHEME);
-      AIRFLOW_USER = setVar(VARIABLE_AIRFLOW_USER, AIRFLOW_USER);
-      HDFS_SUPERUSER = setVar(VARIABLE_HDFS_SUPERUSER, HDFS_SUPERUSER);
-      YARN_SUPERUSER = setVar(VARIABLE_YARN_SUPERUSER, YARN_SUPERUSER);
-      SPARK_USER = setVar(VARIABLE_SPARK_USER, SPARK_USER);
-      SPARK_DIR = setDirVar(VARIABLE_SPARK_DIR, SPARK_DIR);
-      FLINK_USER = setVar(VARIABLE_FLINK_USER, FLINK_USER);
-      FLINK_DIR = setDirVar(VARIABLE_FLINK_DIR, FLINK_DIR);
-      STAGING_DIR = setDirVar(VARIABLE_STAGING_DIR, STAGING_DIR);
-      HOPS_EXAMPLES_VERSION = setVar(VARIABLE_HOPSEXAMPLES_VERSION, HOPS_EXAMPLES_VERSION);
-      HIVE_SUPERUSER = setStrVar(VARIABLE_HIVE_SUPERUSER, HIVE_SUPERUSER);
-      HIVE_WAREHOUSE = setStrVar(VARIABLE_HIVE_WAREHOUSE, HIVE_WAREHOUSE);
-      HIVE_LLAP_SLIDER_DIR = setStrVar(VARIABLE_HIVE_LLAP_SLIDER_DIR, HIVE_LLAP_SLIDER_DIR);
-      HIVE_LLAP_LOCAL_FS_DIR = setStrVar(VARIABLE_HIVE_LLAP_LOCAL_DIR, HIVE_LLAP_LOCAL_FS_DIR);
-      HIVE_SCRATCHDIR = setStrVar(VARIABLE_HIVE_SCRATCHDIR, HIVE_SCRATCHDIR);
-      HIVE_SCRATCHDIR_DELAY = setStrVar(VARIABLE_HIVE_SCRATCHDIR_DELAY, HIVE_SCRATCHDIR_DELAY);
-      HIVE_SCRATCHDIR_CLEANER_INTERVAL = setStrVar(VARIABLE_HIVE_SCRATCHDIR_CLEANER_INTERVAL,
-          HIVE_SCRATCHDIR_CLEANER_INTERVAL);
-      HIVE_DB_DEFAULT_QUOTA = setStrVar(VARIABLE_HIVE_DEFAULT_QUOTA, HIVE_DB_DEFAULT_QUOTA);
-      ALERT_EMAIL_ADDRS = setStrVar(VARIABLE_ALERT_EMAIL_ADDRS, "");
-      HADOOP_VERSION = setVar(VARIABLE_HADOOP_VERSION, HADOOP_VERSION);
-      JUPYTER_DIR = setDirVar(VARIABLE_JUPYTER_DIR, JUPYTER_DIR);
-      JUPYTER_WS_PING_INTERVAL_MS = setMillisecondVar(VARIABLE_JUPYTER_WS_PING_INTERVAL, JUPYTER_WS_PING_INTERVAL_MS);
-      MYSQL_DIR = setDirVar(VARIABLE_MYSQL_DIR, MYSQL_DIR);
-      MYSQL_USER = setStrVar(VARIABLE_MYSQL_USER, MYSQL_USER);
-      HADOOP_DIR = setDirVar(VARIABLE_HADOOP_DIR, HADOOP_DIR);
-      HOPSWORKS_INSTALL_DIR = setDirVar(VARIABLE_HOPSWORKS_DIR, HOPSWORKS_INSTALL_DIR);
-      CERTS_DIR = setDirVar(VARIABLE_CERTS_DIRS, CERTS_DIR);
-      SUDOERS_DIR = setDirVar(VARIABLE_SUDOERS_DIR, SUDOERS_DIR);
-      CERTIFICATE_USER_VALID_DAYS = setStrVar(VARIABLE_CERTIFICATE_USER_VALID_DAYS, CERTIFICATE_USER_VALID_DAYS);
-      SERVICE_DISCOVERY_DOMAIN = setStrVar(VARIABLE_SERVICE_DISCOVERY_DOMAIN, SERVICE_DISCOVERY_DOMAIN);
-      NDB_DIR = setDirVar(VARIABLE_NDB_DIR, NDB_DIR);
-      AIRFLOW_DIR = setDirVar(VARIABLE_AIRFLOW_DIR, AIRFLOW_DIR);
-      String elasticIps = setStrVar(VARIABLE_ELASTIC_IP,
-          ElasticSettings.ELASTIC_IP_DEFAULT);
-      int elasticPort = setIntVar(VARIABLE_ELASTIC_PORT, ElasticSettings.ELASTIC_PORT_DEFAULT);
-      int elasticRestPort = setIntVar(VARIABLE_ELASTIC_REST_PORT,
-          ElasticSettings.ELASTIC_REST_PORT_DEFAULT);
-      boolean elasticOpenDistroEnabled =
-          setBoolVar(VARIABLE_ELASTIC_OPENDISTRO_SECURITY_ENABLED,
-              ElasticSettings.ELASTIC_OPENDISTRO_SECURTIY_ENABLED_DEFAULT);
-      boolean elasticHttpsEnabled = setBoolVar(VARIABLE_ELASTIC_HTTPS_ENABLED
-          , ElasticSettings.ELASTIC_HTTPS_ENABLED_DEFAULT);
-      String elasticAdminUser = setStrVar(VARIABLE_ELASTIC_ADMIN_USER,
-          ElasticSettings.ELASTIC_ADMIN_USER_DEFAULT);
-      String elasticAdminPassword = setStrVar(VARIABLE_ELASTIC_ADMIN_PASSWORD,
-          ElasticSettings.ELASTIC_ADMIN_PASSWORD_DEFAULT);
-      boolean elasticJWTEnabled =  setBoolVar(VARIABLE_ELASTIC_JWT_ENABLED
-          , ElasticSettings.ELASTIC_JWT_ENABLED_DEFAULT);
-      String elasticJWTUrlParameter = setStrVar(VARIABLE_ELASTIC_JWT_URL_PARAMETER,
-          ElasticSettings.ELASTIC_JWT_URL_PARAMETER_DEFAULT);
-      long elasticJWTEXPMS = setLongVar(VARIABLE_ELASTIC_JWT_EXP_MS,
-          ElasticSettings.ELASTIC_JWT_EXP_MS_DEFAULT);
-      ELASTIC_SETTINGS = new ElasticSettings(elasticIps, elasticPort,
-          elasticRestPort, elasticOpenDistroEnabled, elasticHttpsEnabled,
-          elasticAdminUser, elasticAdminPassword, elasticJWTEnabled,
-          elasticJWTUrlParameter, elasticJWTEXPMS);
-      ELASTIC_LOGS_INDEX_EXPIRATION = setLongVar(VARIABLE_ELASTIC_LOGS_INDEX_EXPIRATION, ELASTIC_LOGS_INDEX_EXPIRATION);
-      HOPSWORKS_IP = setIpVar(VARIABLE_HOPSWORKS_IP, HOPSWORKS_IP);
-      JHS_IP = setIpVar(VARIABLE_JHS_IP, JHS_IP);
-      ZK_USER = setVar(VARIABLE_ZK_USER, ZK_USER);
-      ZK_DIR = setDirVar(VARIABLE_ZK_DIR, ZK_DIR);
-      KIBANA_IP = setIpVar(VARIABLE_KIBANA_IP, KIBANA_IP);
-      KAFKA_MAX_NUM_TOPICS = setIntVar(VARIABLE_KAFKA_MAX_NUM_TOPICS, KAFKA_MAX_NUM_TOPICS);
-      HOPSWORKS_DEFAULT_SSL_MASTER_PASSWORD = setVar(VARIABLE_HOPSWORKS_SSL_MASTER_PASSWORD,
-          HOPSWORKS_DEFAULT_SSL_MASTER_PASSWORD);
-      KAFKA_USER = setVar(VARIABLE_KAFKA_USER, KAFKA_USER);
-      KAFKA_DIR = setDirVar(VARIABLE_KAFKA_DIR, KAFKA_DIR);
-      KAFKA_DEFAULT_NUM_PARTITIONS = setIntVar(VARIABLE_KAFKA_NUM_PARTITIONS,
-          KAFKA_DEFAULT_NUM_PARTITIONS);
-      KAFKA_DEFAULT_NUM_REPLICAS = setIntVar(VARIABLE_KAFKA_NUM_REPLICAS,
-          KAFKA_DEFAULT_NUM_REPLICAS);
-      YARN_DEFAULT_QUOTA = setIntVar(VARIABLE_YARN_DEFAULT_QUOTA,
-          YARN_DEFAULT_QUOTA);
-      HDFS_DEFAULT_QUOTA_MBs = setDirVar(VARIABLE_HDFS_DEFAULT_QUOTA,
-          HDFS_DEFAULT_QUOTA_MBs);
-      HDFS_BASE_STORAGE_POLICY = setHdfsStoragePolicy(VARIABLE_HDFS_BASE_STORAGE_POLICY, HDFS_BASE_STORAGE_POLICY);
-      HDFS_LOG_STORAGE_POLICY = setHdfsStoragePolicy(VARIABLE_HDFS_LOG_STORAGE_POLICY, HDFS_LOG_STORAGE_POLICY);
-      MAX_NUM_PROJ_PER_USER = setIntVar(VARIABLE_MAX_NUM_PROJ_PER_USER, MAX_NUM_PROJ_PER_USER);
-      CLUSTER_CERT = setVar(VARIABLE_CLUSTER_CERT, CLUSTER_CERT);
-      FILE_PREVIEW_IMAGE_SIZE = setIntVar(VARIABLE_FILE_PREVIEW_IMAGE_SIZE, 10000000);
-      FILE_PREVIEW_TXT_SIZE = setIntVar(VARIABLE_FILE_PREVIEW_TXT_SIZE, 100);
-      ANACONDA_USER = setStrVar(VARIABLE_ANACONDA_USER, ANACONDA_USER);
-      ANACONDA_DIR = setDirVar(VARIABLE_ANACONDA_DIR, ANACONDA_DIR);
-      ANACONDA_DEFAULT_REPO = setStrVar(VARIABLE_ANACONDA_DEFAULT_REPO, ANACONDA_DEFAULT_REPO);
-      ANACONDA_ENABLED = Boolean.parseBoolean(setStrVar(
-          VARIABLE_ANACONDA_ENABLED, ANACONDA_ENABLED.toString()));
-      KAGENT_USER = setStrVar(VARIABLE_KAGENT_USER, KAGENT_USER);
-      KAGENT_LIVENESS_MONITOR_ENABLED = setBoolVar(VARIABLE_KAGENT_LIVENESS_MONITOR_ENABLED,
-          KAGENT_LIVENESS_MONITOR_ENABLED);
-      KAGENT_LIVENESS_THRESHOLD = setStrVar(VARIABLE_KAGENT_LIVENESS_THRESHOLD, KAGENT_LIVENESS_THRESHOLD);
-      DOWNLOAD_ALLOWED = Boolean.parseBoolean(setStrVar(VARIABLE_DOWNLOAD_ALLOWED, DOWNLOAD_ALLOWED.toString()));
-      INFLUXDB_IP = setStrVar(VARIABLE_INFLUXDB_IP, INFLUXDB_IP);
-      INFLUXDB_PORT = setStrVar(VARIABLE_INFLUXDB_PORT, INFLUXDB_PORT);
-      INFLUXDB_USER = setStrVar(VARIABLE_INFLUXDB_USER, INFLUXDB_USER);
-      INFLUXDB_PW = setStrVar(VARIABLE_INFLUXDB_PW, INFLUXDB_PW);
-      SUPPORT_EMAIL_ADDR = setStrVar(VARIABLE_SUPPORT_EMAIL_ADDR, SUPPORT_EMAIL_ADDR);
-      UserAccountsEmailMessages.HOPSWORKS_SUPPORT_EMAIL = SUPPORT_EMAIL_ADDR;
-      RESOURCE_DIRS = setStrVar(VARIABLE_RESOURCE_DIRS, RESOURCE_DIRS);
-      MAX_STATUS_POLL_RETRY = setIntVar(VARIABLE_MAX_STATUS_POLL_RETRY, MAX_STATUS_POLL_RETRY);
-      HOPS_RPC_TLS = setStrVar(VARIABLE_HOPS_RPC_TLS, HOPS_RPC_TLS);
-      CERTIFICATE_MATERIALIZER_DELAY = setStrVar(VARIABLE_CERT_MATER_DELAY,
-          CERTIFICATE_MATERIALIZER_DELAY);
-      WHITELIST_USERS_LOGIN = setStrVar(VARIABLE_WHITELIST_USERS_LOGIN,
-          WHITELIST_USERS_LOGIN);
-      FIRST_TIME_LOGIN = setStrVar(VARIABLE_FIRST_TIME_LOGIN, FIRST_TIME_LOGIN);
-      VERIFICATION_PATH = setStrVar(VARIABLE_VERIFICATION_PATH, VERIFICATION_PATH);
-      serviceKeyRotationEnabled = setBoolVar(SERVICE_KEY_ROTATION_ENABLED_KEY, serviceKeyRotationEnabled);
-      serviceKeyRotationInterval = setStrVar(SERVICE_KEY_ROTATION_INTERVAL_KEY, serviceKeyRotationInterval);
-      tensorBoardMaxLastAccessed = setIntVar(TENSORBOARD_MAX_LAST_ACCESSED, tensorBoardMaxLastAccessed);
-      sparkUILogsOffset = setIntVar(SPARK_UI_LOGS_OFFSET, sparkUILogsOffset);
-      jupyterShutdownTimerInterval = setStrVar(JUPYTER_SHUTDOWN_TIMER_INTERVAL, jupyterShutdownTimerInterval);
-      checkNodemanagersStatus = setBoolVar(VARIABLE_CHECK_NODEMANAGERS_STATUS, checkNodemanagersStatus);
-
-      populateDelaCache();
-      populateLDAPCache();
-
-      ZOOKEEPER_VERSION = setStrVar(VARIABLE_ZOOKEEPER_VERSION, ZOOKEEPER_VERSION);
-      INFLUXDB_VERSION = setStrVar(VARIABLE_INFLUXDB_VERSION, INFLUXDB_VERSION);
-      GRAFANA_VERSION = setStrVar(VARIABLE_GRAFANA_VERSION, GRAFANA_VERSION);
-      TELEGRAF_VERSION = setStrVar(VARIABLE_TELEGRAF_VERSION, TELEGRAF_VERSION);
-      KAPACITOR_VERSION = setStrVar(VARIABLE_KAPACITOR_VERSION, KAPACITOR_VERSION);
-      LOGSTASH_VERSION = setStrVar(VARIABLE_LOGSTASH_VERSION, LOGSTASH_VERSION);
-      KIBANA_VERSION = setStrVar(VARIABLE_KIBANA_VERSION, KIBANA_VERSION);
-      FILEBEAT_VERSION = setStrVar(VARIABLE_FILEBEAT_VERSION, FILEBEAT_VERSION);
-      NDB_VERSION = setStrVar(VARIABLE_NDB_VERSION, NDB_VERSION);
-      LIVY_VERSION = setStrVar(VARIABLE_LIVY_VERSION, LIVY_VERSION);
-      HIVE2_VERSION = setStrVar(VARIABLE_HIVE2_VERSION, HIVE2_VERSION);
-      TEZ_VERSION = setStrVar(VARIABLE_TEZ_VERSION, TEZ_VERSION);
-      SLIDER_VERSION = setStrVar(VARIABLE_SLIDER_VERSION, SLIDER_VERSION);
-      SPARK_VERSION = setStrVar(VARIABLE_SPARK_VERSION, SPARK_VERSION);
-      FLINK_VERSION = setStrVar(VARIABLE_FLINK_VERSION, FLINK_VERSION);
-      EPIPE_VERSION = setStrVar(VARIABLE_EPIPE_VERSION, EPIPE_VERSION);
-      DELA_VERSION = setStrVar(VARIABLE_DELA_VERSION, DELA_VERSION);
-      KAFKA_VERSION = setStrVar(VARIABLE_KAFKA_VERSION, KAFKA_VERSION);
-      ELASTIC_VERSION = setStrVar(VARIABLE_ELASTIC_VERSION, ELASTIC_VERSION);
-      TENSORFLOW_VERSION = setStrVar(VARIABLE_TENSORFLOW_VERSION, TENSORFLOW_VERSION);
-      HOPSWORKS_VERSION = setStrVar(VARIABLE_HOPSWORKS_VERSION, HOPSWORKS_VERSION);
-      HOPSWORKS_REST_LOG_LEVEL = setLogLevelVar(VARIABLE_HOPSWORKS_REST_LOG_LEVEL, HOPSWORKS_REST_LOG_LEVEL);
-      HOPS_VERIFICATION_VERSION = setStrVar(VARIABLE_HOPS_VERIFICATION_VERSION, HOPS_VERIFICATION_VERSION);
-
-      PYPI_REST_ENDPOINT = setStrVar(VARIABLE_PYPI_REST_ENDPOINT, PYPI_REST_ENDPOINT);
-      IMMUTABLE_PYTHON_LIBRARY_NAMES = toSetFromCsv(
-          setStrVar(VARIABLE_IMMUTABLE_PYTHON_LIBRARY_NAMES, DEFAULT_IMMUTABLE_PYTHON_LIBRARY_NAMES),
-          ",");
-
-      SERVING_MONITOR_INT = setStrVar(VARIABLE_SERVING_MONITOR_INT, SERVING_MONITOR_INT);
-      SERVING_CONNECTION_POOL_SIZE = setIntVar(VARIABLE_SERVING_CONNECTION_POOL_SIZE,
-        SERVING_CONNECTION_POOL_SIZE);
-      SERVING_MAX_ROUTE_CONNECTIONS = setIntVar(VARIABLE_SERVING_MAX_ROUTE_CONNECTIONS,
-        SERVING_MAX_ROUTE_CONNECTIONS);
-
-      TENSORBOARD_MAX_RELOAD_THREADS = setIntVar(VARIABLE_TENSORBOARD_MAX_RELOAD_THREADS,
-          TENSORBOARD_MAX_RELOAD_THREADS);
-
-      KUBE_USER = setStrVar(VARIABLE_KUBE_USER, KUBE_USER);
-      KUBE_HOPSWORKS_USER = setStrVar(VARIABLE_KUBE_HOPSWORKS_USER, KUBE_HOPSWORKS_USER);
-      KUBEMASTER_URL = setStrVar(VARIABLE_KUBEMASTER_URL, KUBEMASTER_URL);
-      KUBE_CA_CERTFILE = setStrVar(VARIABLE_KUBE_CA_CERTFILE, KUBE_CA_CERTFILE);
-      KUBE_CLIENT_KEYFILE = setStrVar(VARIABLE_KUBE_CLIENT_KEYFILE, KUBE_CLIENT_KEYFILE);
-      KUBE_CLIENT_CERTFILE = setStrVar(VARIABLE_KUBE_CLIENT_CERTFILE, KUBE_CLIENT_CERTFILE);
-      KUBE_CLIENT_KEYPASS = setStrVar(VARIABLE_KUBE_CLIENT_KEYPASS, KUBE_CLIENT_KEYPASS);
-      KUBE_TRUSTSTORE_PATH = setStrVar(VARIABLE_KUBE_TRUSTSTORE_PATH, KUBE_TRUSTSTORE_PATH);
-      KUBE_TRUSTSTORE_KEY = setStrVar(VARIABLE_KUBE_TRUSTSTORE_KEY, KUBE_TRUSTSTORE_KEY);
-      KUBE_KEYSTORE_PATH = setStrVar(VARIABLE_KUBE_KEYSTORE_PATH, KUBE_KEYSTORE_PATH);
-      KUBE_KEYSTORE_KEY = setStrVar(VARIABLE_KUBE_KEYSTORE_KEY, KUBE_KEYSTORE_KEY);
-      KUBE_REGISTRY = setStrVar(VARIABLE_KUBE_REGISTRY, KUBE_REGISTRY);
-      KUBE_MAX_SERVING_INSTANCES = setIntVar(VARIABLE_KUBE_MAX_SERVING, KUBE_MAX_SERVING_INSTANCES);
-      KUBE_API_MAX_ATTEMPTS = setIntVar(VARIABLE_KUBE_API_MAX_ATTEMPTS, KUBE_API_MAX_ATTEMPTS);
-      KUBE_DOCKER_MAX_MEMORY_ALLOCATION = setIntVar(VARIABLE_KUBE_DOCKER_MAX_MEMORY_ALLOCATION,
-          KUBE_DOCKER_MAX_MEMORY_ALLOCATION);
-      KUBE_DOCKER_MAX_CORES_ALLOCATION = setIntVar(VARIABLE_KUBE_DOCKER_MAX_CORES_ALLOCATION,
-        KUBE_DOCKER_MAX_CORES_ALLOCATION);
-      KUBE_DOCKER_CORES_FRACTION = setDoubleVar(VARIABLE_KUBE_DOCKER_CORES_FRACTION, KUBE_DOCKER_CORES_FRACTION);
-      KUBE_INSTALLED = setBoolVar(VARIABLE_KUBE_INSTALLED, KUBE_INSTALLED);
-      HOPSWORKS_ENTERPRISE = setBoolVar(VARIABLE_HOPSWORKS_ENTERPRISE, HOPSWORKS_ENTERPRISE);
-
-      JUPYTER_HOST = setStrVar(VARIABLE_JUPYTER_HOST, JUPYTER_HOST);
-
-      JWT_SIGNATURE_ALGORITHM = setStrVar(VARIABLE_JWT_SIGNATURE_ALGORITHM, JWT_SIGNATURE_ALGORITHM);
-      JWT_LIFETIME_MS = setLongVar(VARIABLE_JWT_LIFETIME_MS, JWT_LIFETIME_MS);
-      JWT_EXP_LEEWAY_SEC = setIntVar(VARIABLE_JWT_EXP_LEEWAY_SEC, JWT_EXP_LEEWAY_SEC);
-      JWT_SIGNING_KEY_NAME = setStrVar(VARIABLE_JWT_SIGNING_KEY_NAME, JWT_SIGNING_KEY_NAME);
-      JWT_ISSUER = setStrVar(VARIABLE_JWT_ISSUER_KEY, JWT_ISSUER);
-
-      SERVICE_JWT_LIFETIME_MS = setLongVar(VARIABLE_SERVICE_JWT_LIFETIME_MS, SERVICE_JWT_LIFETIME_MS);
-      SERVICE_JWT_EXP_LEEWAY_SEC = setIntVar(VARIABLE_SERVICE_JWT_EXP_LEEWAY_SEC, SERVICE_JWT_EXP_LEEWAY_SEC);
-
-      populateServiceJWTCache();
-
-      CONNECTION_KEEPALIVE_TIMEOUT = setIntVar(VARIABLE_CONNECTION_KEEPALIVE_TIMEOUT, CONNECTION_KEEPALIVE_TIMEOUT);
-
-      FEATURESTORE_DB_DEFAULT_QUOTA = setStrVar(VARIABLE_FEATURESTORE_DEFAULT_QUOTA, FEATURESTORE_DB_DEFAULT_QUOTA);
-      FEATURESTORE_DB_DEFAULT_STORAGE_FORMAT =
-          setStrVar(VARIABLE_FEATURESTORE_DEFAULT_STORAGE_FORMAT, FEATURESTORE_DB_DEFAULT_STORAGE_FORMAT);
-      FEATURESTORE_JDBC_URL = setStrVar(VARIABLE_FEATURESTORE_JDBC_URL, FEATURESTORE_JDBC_URL);
-      ONLINE_FEATURESTORE = setBoolVar(VARIABLE_ONLINE_FEATURESTORE, ONLINE_FEATURESTORE);
-      ONLINE_FEATURESTORE_TS = setStrVar(VARIABLE_ONLINE_FEATURESTORE_TS, ONLINE_FEATURESTORE_TS);
-
-      KIBANA_HTTPS_ENABELED = setBoolVar(VARIABLE_KIBANA_HTTPS_ENABLED,
-          KIBANA_HTTPS_ENABELED);
-  
-      KIBANA_MULTI_TENANCY_ENABELED = setBoolVar(VARIABLE_KIBANA_MULTI_TENANCY_ENABLED,
-          KIBANA_MULTI_TENANCY_ENABELED);
-
-      RESERVED_PROJECT_NAMES =
-        setStringHashSetLowerCase(VARIABLE_RESERVED_PROJECT_NAMES, DEFAULT_RESERVED_PROJECT_NAMES, ",");
-  
-      CLOUD_EVENTS_ENDPOINT = setStrVar(VARIABLE_CLOUD_EVENTS_ENDPOINT,
-          CLOUD_EVENTS_ENDPOINT);
-  
-      CLOUD_EVENTS_ENDPOINT_API_KEY =
-          setStrVar(VARIABLE_CLOUD_EVENTS_ENDPOINT_API_KEY, CLOUD_EVENTS_ENDPOINT_API_KEY);
-
-      FG_PREVIEW_LIMIT = setIntVar(VARIABLE_FG_PREVIEW_LIMIT, FG_PREVIEW_LIMIT);
-      HIVE_CONF_PATH = setStrVar(VARIABLE_HIVE_CONF_PATH, HIVE_CONF_PATH);
-      
-
-      YARN_RUNTIME = setStrVar(VARIABLE_YARN_RUNTIME, YARN_RUNTIME);
-      DOCKER_MOUNTS = setStrVar(VARIABLE_DOCKER_MOUNTS, DOCKER_MOUNTS);
-      DOCKER_BASE_IMAGE_PYTHON_NAME = setStrVar(VARIABLE_DOCKER_BASE_IMAGE_PYTHON_NAME, DOCKER_BASE_IMAGE_PYTHON_NAME);
-      DOCKER_BASE_IMAGE_PYTHON_VERSION = setStrVar(VARIABLE_DOCKER_BASE_IMAGE_PYTHON_VERSION,
-          DOCKER_BASE_IMAGE_PYTHON_VERSION);
-      YARN_APP_UID = setLongVar(VARIABLE_YARN_APP_UID, YARN_APP_UID);
-      populateProvenanceCache();
-
-      KUBE_TYPE = KubeType.fromString(setStrVar(VARIABLE_KUBE_TYPE, KUBE_TYPE.name));
-      DOCKER_NAMESPACE = setStrVar(VARIABLE_DOCKER_NAMESPACE, DOCKER_NAMESPACE);
-      MANAGED_DOCKER_REGISTRY = setBoolVar(VARIABLE_MANAGED_DOCKER_REGISTRY,
-          MANAGED_DOCKER_REGISTRY);
-
-      MAX_ENV_YML_BYTE_SIZE = setIntVar(VARIABLE_MAX_ENV_YML_BYTE_SIZE, MAX_ENV_YML_BYTE_SIZE);
-      SPARK_EXECUTOR_MIN_MEMORY = setIntVar(VARIABLE_SPARK_EXECUTOR_MIN_MEMORY, SPARK_EXECUTOR_MIN_MEMORY);
-
-      CLOUD_TYPE = setStrVar(VARIABLE_CLOUD_TYPE, CLOUD_TYPE);
-
-      cached = true;
+  /**
+   * Values of all the variables read from the database. A new instance is built on every refresh and published
+   * through a volatile reference, so readers never block and always see a consistent set of values. An instance
+   * must not be modified once it has been published, updates work on a copy.
+   */
+  private static final class Snapshot implements Cloneable {
+    private String TWOFACTOR_AUTH = "false";
+    private String TWOFACTOR_EXCLUDE = "AGENT;CLUSTER_AGENT";
+    private String HOPS_RPC_TLS = "false";
+    private String SPARK_DIR = "/srv/hops/spark";
+    private String STAGING_DIR = "/srv/hops/domains/domain1/staging";
+    private String FLINK_DIR = "/srv/hops/flink";
+    private String MYSQL_DIR = "/usr/local/mysql";
+    private String MYSQL_USER = "mysql";
+    private String NDB_DIR = "/var/lib/mysql-cluster";
+    private String AIRFLOW_DIR = "/srv/hops/airflow";
+    private String AIRFLOW_USER = "airflow";
+    private String HADOOP_DIR = "/srv/hops/hadoop";
+    private String HIVE_SUPERUSER = "hive";
+    private String ANACONDA_DEFAULT_REPO = "defaults";
+    private String HIVE_WAREHOUSE = "/apps/hive/warehouse";
+    private String HIVE_LLAP_SLIDER_DIR = "/home/hive/.slider";
+    private String HIVE_LLAP_LOCAL_FS_DIR = "/srv/hops/apache-hive/bin/llap";
+    private String HIVE_SCRATCHDIR = "/tmp/hive";
+    private String HIVE_SCRATCHDIR_DELAY = "7d";
+    private String HIVE_SCRATCHDIR_CLEANER_INTERVAL = "24h";
+    private String HIVE_DB_DEFAULT_QUOTA = "50000";
+    private String HOPSWORKS_IP = "127.0.0.1";
+    private String CERTS_DIR = "/srv/hops/certs-dir";
+    private String HOPSWORKS_INSTALL_DIR = "/srv/hops/domains/domain1";
+    private String SUDOERS_DIR = "/srv/hops/sbin";
+    private String YARN_SUPERUSER = "yarn";
+    private String HOPSWORKS_USER = "glassfish";
+    private String HDFS_SUPERUSER = "hdfs";
+    private String SPARK_USER = "spark";
+    private String JAVA_HOME = "/usr/lib/jvm/default-java";
+    private String FLINK_USER = "flink";
+    private Integer YARN_DEFAULT_QUOTA = 60000;
+    private String HDFS_DEFAULT_QUOTA_MBs = "200000";
+    private DistributedFileSystemOps.StoragePolicy HDFS_BASE_STORAGE_POLICY
+      = DistributedFileSystemOps.StoragePolicy.SMALL_FILES;
+    private DistributedFileSystemOps.StoragePolicy HDFS_LOG_STORAGE_POLICY
+        = DistributedFileSystemOps.StoragePolicy.DEFAULT;
+    private int DFS_CLIENT_POOL_MAX_SIZE = 256;
+    private long DFS_CLIENT_POOL_IDLE_TIMEOUT_MS = 300000L;
+    private Integer MAX_NUM_PROJ_PER_USER = 5;
+    private String HADOOP_VERSION = "2.8.2";
+    // Spark executor min memory
+    private int SPARK_EXECUTOR_MIN_MEMORY = 1024;
+    private Set<String> RESERVED_PROJECT_NAMES;
+    private String RESERVED_PROJECT_NAMES_STR;
+    private ElasticSettings ELASTIC_SETTINGS;
+    private long ELASTIC_LOGS_INDEX_EXPIRATION = 7 * 24 * 60 * 60 * 1000;
+    private String CERTIFICATE_MATERIALIZER_DELAY = "1m";
+    private String CERTIFICATE_USER_VALID_DAYS = "12";
+    private String SERVICE_DISCOVERY_DOMAIN = "consul";
+    private String JHS_IP = "127.0.0.1";
+    private String KIBANA_IP = "10.0.2.15";
+    private String ZK_USER = "zk";
+    private String WHITELIST_USERS_LOGIN = "agent@hops.io";
+    private String JUPYTER_DIR = "/srv/hops/jupyter";
+    private String JUPYTER_USER = "jupyter";
+    private String JUPYTER_GROUP = "jupyter";
+    private String JUPYTER_ORIGIN_SCHEME = "https";
+    private long JUPYTER_WS_PING_INTERVAL_MS = 10000L;
+    private String jupyterShutdownTimerInterval = "30m";
+    private String KAFKA_USER = "kafka";
+    private String KAFKA_DIR = "/srv/kafka";
+    private String ANACONDA_USER = "anaconda";
+    private String ANACONDA_DIR = "/srv/hops/anaconda";
+    private Boolean ANACONDA_ENABLED = true;
+    private Boolean DOWNLOAD_ALLOWED = true;
+    private String KAGENT_USER = "kagent";
+    private boolean KAGENT_LIVENESS_MONITOR_ENABLED = false;
+    private String KAGENT_LIVENESS_THRESHOLD = "10s";
+    private RESTLogLevel HOPSWORKS_REST_LOG_LEVEL = RESTLogLevel.PROD;
+    private String SUPPORT_EMAIL_ADDR = "support@hops.io";
+    private String FIRST_TIME_LOGIN = "0";
+    private String ADMIN_EMAIL = "admin@hopsworks.ai";
+    private String HOPSWORKS_DEFAULT_SSL_MASTER_PASSWORD = "adminpw";
+    private int ENCRYPTION_KEY_CACHE_SIZE = 10000;
+    private int MASTER_PASSWORD_CHANGE_BATCH_SIZE = 500;
+    private Integer KAFKA_DEFAULT_NUM_PARTITIONS = 2;
+    private Integer KAFKA_DEFAULT_NUM_REPLICAS = 1;
+    private String ZK_DIR = "/srv/zookeeper";
+    private String CLUSTER_CERT = "asdasxasx8as6dx8a7sx7asdta8dtasxa8";
+    private int FILE_PREVIEW_IMAGE_SIZE = 10000000;
+    private int FILE_PREVIEW_TXT_SIZE = 100;
+    private String INFLUXDB_IP = "localhost";
+    private String INFLUXDB_PORT = "8086";
+    private String INFLUXDB_USER = "hopsworks";
+    private String INFLUXDB_PW = "hopsworks";
+    private String RESOURCE_DIRS = ".sparkStaging;spark-warehouse";
+    private String ALERT_EMAIL_ADDRS = "";
+    private int KAFKA_MAX_NUM_TOPICS = 10;
+    private int INFERENCE_LOGGER_LINGER_MS = 50;
+    private long INFERENCE_LOGGER_BUFFER_MEMORY = 4194304L;
+    private long INFERENCE_LOGGER_IDLE_TIMEOUT_MS = 600000L;
+    private int MAX_STATUS_POLL_RETRY = 5;
+    private boolean PYTHON_KERNEL = true;
+    private String PYPI_REST_ENDPOINT = "https://pypi.org/pypi/{package}/json";
+    private String HOPS_EXAMPLES_VERSION = "0.3.0";
+    private String VERIFICATION_PATH = "/hopsworks-admin/security/validate_account.xhtml";
+    private String HOPSSITE_HOST = "hops.site";
+    private String HOPSSITE = "http://hops.site:5081/hops-site/api";
+    private Boolean DELA_ENABLED = false; // set to false if not found in variables table
+    private DelaClientType DELA_CLIENT_TYPE = DelaClientType.FULL_CLIENT;
+    private long HOPSSITE_HEARTBEAT_INTERVAL = 10 * 60 * 1000l;//10min
+    private String DELA_TRANSFER_IP = "localhost";
+    private String DELA_TRANSFER_HTTP_PORT = "42000";
+    private String DELA_PUBLIC_HOPSWORK_PORT = "8080";
+    private String PUBLIC_HTTPS_PORT = "8181";
+    //set on registration after Dela is contacted to detect public port
+    private String DELA_SEARCH_ENDPOINT = "";
+    private String DELA_TRANSFER_ENDPOINT = "";
+    //set on cluster registration
+    private String DELA_CLUSTER_ID = null;
+    private String HOPSSITE_CLUSTER_NAME = null;
+    private String HOPSSITE_CLUSTER_PSWD = null;
+    private String HOPSSITE_CLUSTER_PSWD_AUX = "1234";
+    private String KRB_AUTH = "false";
+    private String LDAP_AUTH = "false";
+    private boolean IS_KRB_ENABLED = false;
+    private boolean IS_LDAP_ENABLED = false;
+    private String LDAP_GROUP_MAPPING = "";
+    private String LDAP_USER_ID = "uid"; //login name
+    private String LDAP_USER_GIVEN_NAME = "givenName";
+    private String LDAP_USER_SURNAME = "sn";
+    private String LDAP_USER_EMAIL = "mail";
+    private String LDAP_USER_SEARCH_FILTER = "uid=%s";
+    private String LDAP_GROUP_SEARCH_FILTER = "member=%d";
+    private String LDAP_KRB_USER_SEARCH_FILTER = "krbPrincipalName=%s";
+    private String LDAP_ATTR_BINARY = "java.naming.ldap.attributes.binary";
+    private String LDAP_GROUP_TARGET = "cn";
+    private String LDAP_DYNAMIC_GROUP_TARGET = "memberOf";
+    private String LDAP_USER_DN = LDAP_USER_DN_DEFAULT;
+    private String LDAP_GROUP_DN = LDAP_GROUP_DN_DEFAULT;
+    private String LDAP_GROUPS_TARGET = "distinguishedName";
+    private String LDAP_GROUPS_SEARCH_FILTER = "(&(objectCategory=group)(cn=%c))";
+    private String LDAP_GROUP_MEMBERS_SEARCH_FILTER = "(&(objectCategory=user)(memberOf=%d))";
+    private int LDAP_ACCOUNT_STATUS = 1;
+    private String OAUTH_ENABLED = "false";
+    private boolean IS_OAUTH_ENABLED = false;
+    private String OAUTH_GROUP_MAPPING = "";
+    private String OAUTH_REDIRECT_URI = "hopsworks/callback";
+    private int OAUTH_ACCOUNT_STATUS = 1;
+    private long LDAP_GROUP_MAPPING_SYNC_INTERVAL = 0;
+    private boolean DISABLE_PASSWORD_LOGIN = false;
+    private boolean DISABLE_REGISTRATION = false;
+    private boolean serviceKeyRotationEnabled = false;
+    private String serviceKeyRotationInterval = "3d";
+    private int tensorBoardMaxLastAccessed = 1140000;
+    private int sparkUILogsOffset = 512000;
+    private Set<String> IMMUTABLE_PYTHON_LIBRARY_NAMES;
+    private String HOPSWORKS_VERSION;
+    private String TENSORFLOW_VERSION;
+    private String ELASTIC_VERSION;
+    private String KAFKA_VERSION;
+    private String DELA_VERSION;
+    private String EPIPE_VERSION;
+    private String FLINK_VERSION;
+    private String SPARK_VERSION;
+    private String SLIDER_VERSION;
+    private String TEZ_VERSION;
+    private String HIVE2_VERSION;
+    private String LIVY_VERSION;
+    private String NDB_VERSION;
+    private String FILEBEAT_VERSION;
+    private String KIBANA_VERSION;
+    private String LOGSTASH_VERSION;
+    private String KAPACITOR_VERSION;
+    private String TELEGRAF_VERSION;
+    private String GRAFANA_VERSION;
+    private String INFLUXDB_VERSION;
+    private String ZOOKEEPER_VERSION;
+    private String KUBE_USER = "kubernetes";
+    private String KUBE_HOPSWORKS_USER = "hopsworks";
+    private String KUBEMASTER_URL = "https://192.168.68.102:6443";
+    private String KUBE_CA_CERTFILE = "/srv/hops/certs-dir/certs/ca.cert.pem";
+    private String KUBE_CLIENT_KEYFILE = "/srv/hops/certs-dir/kube/hopsworks/hopsworks.key.pem";
+    private String KUBE_CLIENT_CERTFILE = "/srv/hops/certs-dir/kube/hopsworks/hopsworks.cert.pem";
+    private String KUBE_CLIENT_KEYPASS = "adminpw";
+    private String KUBE_TRUSTSTORE_PATH = "/srv/hops/certs-dir/kube/hopsworks/hopsworks__tstore.jks";
+    private String KUBE_TRUSTSTORE_KEY = "adminpw";
+    private String KUBE_KEYSTORE_PATH = "/srv/hops/certs-dir/kube/hopsworks/hopsworks__kstore.jks";
+    private String KUBE_KEYSTORE_KEY = "adminpw";
+    private String KUBE_REGISTRY = "registry.docker-registry.svc.cluster.local";
+    private Integer KUBE_MAX_SERVING_INSTANCES = 10;
+    private Integer KUBE_API_MAX_ATTEMPTS = 12;
+    private Boolean ONLINE_FEATURESTORE = false;
+    private String ONLINE_FEATURESTORE_TS = "";
+    private int ONLINE_FEATURESTORE_POOL_MAX_SIZE = 4;
+    private long ONLINE_FEATURESTORE_POOL_IDLE_TIMEOUT_MS = 300000L;
+    private Integer KUBE_DOCKER_MAX_MEMORY_ALLOCATION = 8192;
+    private Integer KUBE_DOCKER_MAX_CORES_ALLOCATION = 4;
+    private Double KUBE_DOCKER_CORES_FRACTION = 1.0;
+    private Boolean KUBE_INSTALLED = false;
+    private Boolean HOPSWORKS_ENTERPRISE = false;
+    private String SERVING_MONITOR_INT = "30s";
+    private int SERVING_CONNECTION_POOL_SIZE = 40;
+    private int SERVING_MAX_ROUTE_CONNECTIONS = 10;
+    private long SERVING_ENDPOINT_CACHE_TTL_MS = 5000L;
+    private long SERVING_BATCHING_WINDOW_MS = 0L;
+    private int SERVING_BATCHING_MAX_SIZE = 64;
+    private long SERVING_CONNECT_TIMEOUT_MS = 5000L;
+    private long SERVING_REQUEST_TIMEOUT_MS = 60000L;
+    private int TENSORBOARD_MAX_RELOAD_THREADS = 1;
+    private String JUPYTER_HOST = "localhost";
+    private String HOPS_VERIFICATION_VERSION = "1.0.0-SNAPSHOT";
+    private String JWT_SIGNATURE_ALGORITHM = "HS512";
+    private String JWT_SIGNING_KEY_NAME = "apiKey";
+    private String JWT_ISSUER = "hopsworks@logicalclocks.com";
+    private long JWT_LIFETIME_MS = 1800000l;
+    private int JWT_EXP_LEEWAY_SEC = 900;
+    private long SERVICE_JWT_LIFETIME_MS = 86400000l;
+    private int SERVICE_JWT_EXP_LEEWAY_SEC = 43200;
+    private String SERVICE_MASTER_JWT = "";
+    private String[] RENEW_TOKENS = new String[0];
+    private int CONNECTION_KEEPALIVE_TIMEOUT = 30;
+    private String HIVE_CONF_PATH = "/srv/hops/apache-hive/conf/hive-site.xml";
+    private int HIVE_METASTORE_POOL_MAX_SIZE = 2;
+    private long HIVE_METASTORE_POOL_IDLE_TIMEOUT_MS = 120000L;
+    private int HIVE_SERVER_POOL_MAX_SIZE = 2;
+    private long HIVE_SERVER_POOL_IDLE_TIMEOUT_MS = 120000L;
+    private String FEATURESTORE_DB_DEFAULT_QUOTA = "50000";
+    private String FEATURESTORE_DB_DEFAULT_STORAGE_FORMAT = "ORC";
+    private Boolean LOCALHOST = false;
+    private String CLOUD = "";
+    private boolean IAM_ROLE_CONFIGURED = false;
+    private String CLOUD_TYPE = CLOUD_TYPES.NONE.name();
+    private String FEATURESTORE_JDBC_URL = "jdbc:mysql://" + HOPSWORKS_IP + ":3306/";
+    private Boolean REQUESTS_VERIFY = false;
+    private  Boolean KIBANA_HTTPS_ENABELED = false;
+    private  Boolean KIBANA_MULTI_TENANCY_ENABELED = false;
+    private Provenance.Type PROVENANCE_TYPE = Provenance.Type.MIN;
+    private String PROVENANCE_TYPE_S = PROVENANCE_TYPE.name();
+    private Integer PROVENANCE_CLEANUP_SIZE = 5;
+    private Integer PROVENANCE_ARCHIVE_SIZE = 100;
+    private Long PROVENANCE_CLEANER_PERIOD = 3600L; //1h in s
+    private Long PROVENANCE_ARCHIVE_DELAY = 0l;
+    private String CLOUD_EVENTS_ENDPOINT = "";
+    private String CLOUD_EVENTS_ENDPOINT_API_KEY = "";
+    private int FG_PREVIEW_LIMIT = 100;
+    private int FG_PREVIEW_STREAM_LIMIT = 10000;
+    private int FG_PREVIEW_FETCH_SIZE = 500;
+    private String YARN_RUNTIME = "docker";
+    private boolean checkNodemanagersStatus = false;
+    private String DOCKER_MOUNTS = 
+        "/srv/hops/hadoop/etc/hadoop,/srv/hops/spark,/srv/hops/flink";
+    private String DOCKER_BASE_IMAGE_PYTHON_NAME = "python37";
+    private String DOCKER_BASE_IMAGE_PYTHON_VERSION = "3.7";
+    private long YARN_APP_UID = 1235L;
+    private long JOB_LOG_FOLLOW_INTERVAL_MS = 2000L;
+    private long JOB_LOG_FOLLOW_TIMEOUT_MS = 30000L;
+    private long LOG_AGGREGATION_MAX_BACKOFF_MS = 30000L;
+    private long LOG_AGGREGATION_TIMEOUT_MS = 1800000L;
+    private long CLUSTER_METRICS_SAMPLE_INTERVAL_MS = 5000L;
+    private long APP_INFO_CACHE_TTL_MS = 5000L;
+    private int INODE_TREE_WALK_CONCURRENCY = 8;
+    private int INODE_TREE_WALK_PAGE_SIZE = 1000;
+    private int ARCHIVE_ENTRY_CONCURRENCY = 4;
+    private int DOWNLOAD_PREFETCH_SEGMENTS = 2;
+    private long FEATUREGROUP_SCHEMA_CACHE_TTL_MS = 600000L;
+    private int WEBSOCKET_SEND_QUEUE_SIZE = 128;
+    private int JWT_RENEWAL_CONCURRENCY = 4;
+    private KubeType KUBE_TYPE = KubeType.Local;
+    private String DOCKER_NAMESPACE = "";
+    private Boolean MANAGED_DOCKER_REGISTRY = false;
+    private int MAX_ENV_YML_BYTE_SIZE = 20000;
+
+    private Snapshot copy() {
+      try {
+        return (Snapshot) super.clone();
+      } catch (CloneNotSupportedException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+
+  private Snapshot loadSnapshot() {
+    Snapshot s = new Snapshot();
+    s.ADMIN_EMAIL = setVar(VARIABLE_ADMIN_EMAIL, s.ADMIN_EMAIL);
+    s.LOCALHOST = setBoolVar(VARIABLE_LOCALHOST, s.LOCALHOST);
+    s.CLOUD = setStrVar(VARIABLE_CLOUD, s.CLOUD);
+    s.IAM_ROLE_CONFIGURED = setBoolVar(VARIABLE_AWS_INSTANCE_ROLE, s.IAM_ROLE_CONFIGURED);
+    s.REQUESTS_VERIFY = setBoolVar(VARIABLE_REQUESTS_VERIFY, s.REQUESTS_VERIFY);
+    s.PYTHON_KERNEL = setBoolVar(VARIABLE_PYTHON_KERNEL, s.PYTHON_KERNEL);
+    s.JAVA_HOME = setVar(VARIABLE_JAVA_HOME, s.JAVA_HOME);
+    s.TWOFACTOR_AUTH = setVar(VARIABLE_TWOFACTOR_AUTH, s.TWOFACTOR_AUTH);
+    s.TWOFACTOR_EXCLUDE = setVar(VARIABLE_TWOFACTOR_EXCLUD, s.TWOFACTOR_EXCLUDE);
+    s.HOPSWORKS_USER = setVar(VARIABLE_HOPSWORKS_USER, s.HOPSWORKS_USER);
+    s.JUPYTER_USER = setVar(VARIABLE_JUPYTER_USER, s.JUPYTER_USER);
+    s.JUPYTER_GROUP = setVar(VARIABLE_JUPYTER_GROUP, s.JUPYTER_GROUP);
+    s.JUPYTER_ORIGIN_SCHEME = setVar(VARIABLE_JUPYTER_ORIGIN_SCHEME, s.JUPYTER_ORIGIN_SCHEME);
+    s.AIRFLOW_USER = setVar(VARIABLE_AIRFLOW_USER, s.AIRFLOW_USER);
+    s.HDFS_SUPERUSER = setVar(VARIABLE_HDFS_SUPERUSER, s.HDFS_SUPERUSER);
+    s.YARN_SUPERUSER = setVar(VARIABLE_YARN_SUPERUSER, s.YARN_SUPERUSER);
+    s.SPARK_USER = setVar(VARIABLE_SPARK_USER, s.SPARK_USER);
+    s.SPARK_DIR = setDirVar(VARIABLE_SPARK_DIR, s.SPARK_DIR);
+    s.FLINK_USER = setVar(VARIABLE_FLINK_USER, s.FLINK_USER);
+    s.FLINK_DIR = setDirVar(VARIABLE_FLINK_DIR, s.FLINK_DIR);
+    s.STAGING_DIR = setDirVar(VARIABLE_STAGING_DIR, s.STAGING_DIR);
+    s.HOPS_EXAMPLES_VERSION = setVar(VARIABLE_HOPSEXAMPLES_VERSION, s.HOPS_EXAMPLES_VERSION);
+    s.HIVE_SUPERUSER = setStrVar(VARIABLE_HIVE_SUPERUSER, s.HIVE_SUPERUSER);
+    s.HIVE_WAREHOUSE = setStrVar(VARIABLE_HIVE_WAREHOUSE, s.HIVE_WAREHOUSE);
+    s.HIVE_LLAP_SLIDER_DIR = setStrVar(VARIABLE_HIVE_LLAP_SLIDER_DIR, s.HIVE_LLAP_SLIDER_DIR);
+    s.HIVE_LLAP_LOCAL_FS_DIR = setStrVar(VARIABLE_HIVE_LLAP_LOCAL_DIR, s.HIVE_LLAP_LOCAL_FS_DIR);
+    s.HIVE_SCRATCHDIR = setStrVar(VARIABLE_HIVE_SCRATCHDIR, s.HIVE_SCRATCHDIR);
+    s.HIVE_SCRATCHDIR_DELAY = setStrVar(VARIABLE_HIVE_SCRATCHDIR_DELAY, s.HIVE_SCRATCHDIR_DELAY);
+    s.HIVE_SCRATCHDIR_CLEANER_INTERVAL = setStrVar(VARIABLE_HIVE_SCRATCHDIR_CLEANER_INTERVAL,
+        s.HIVE_SCRATCHDIR_CLEANER_INTERVAL);
+    s.HIVE_DB_DEFAULT_QUOTA = setStrVar(VARIABLE_HIVE_DEFAULT_QUOTA, s.HIVE_DB_DEFAULT_QUOTA);
+    s.ALERT_EMAIL_ADDRS = setStrVar(VARIABLE_ALERT_EMAIL_ADDRS, "");
+    s.HADOOP_VERSION = setVar(VARIABLE_HADOOP_VERSION, s.HADOOP_VERSION);
+    s.JUPYTER_DIR = setDirVar(VARIABLE_JUPYTER_DIR, s.JUPYTER_DIR);
+    s.JUPYTER_WS_PING_INTERVAL_MS = setMillisecondVar(VARIABLE_JUPYTER_WS_PING_INTERVAL, s.JUPYTER_WS_PING_INTERVAL_MS);
+    s.MYSQL_DIR = setDirVar(VARIABLE_MYSQL_DIR, s.MYSQL_DIR);
+    s.MYSQL_USER = setStrVar(VARIABLE_MYSQL_USER, s.MYSQL_USER);
+    s.HADOOP_DIR = setDirVar(VARIABLE_HADOOP_DIR, s.HADOOP_DIR);
+    s.HOPSWORKS_INSTALL_DIR = setDirVar(VARIABLE_HOPSWORKS_DIR, s.HOPSWORKS_INSTALL_DIR);
+    s.CERTS_DIR = setDirVar(VARIABLE_CERTS_DIRS, s.CERTS_DIR);
+    s.SUDOERS_DIR = setDirVar(VARIABLE_SUDOERS_DIR, s.SUDOERS_DIR);
+    s.CERTIFICATE_USER_VALID_DAYS = setStrVar(VARIABLE_CERTIFICATE_USER_VALID_DAYS, s.CERTIFICATE_USER_VALID_DAYS);
+    s.SERVICE_DISCOVERY_DOMAIN = setStrVar(VARIABLE_SERVICE_DISCOVERY_DOMAIN, s.SERVICE_DISCOVERY_DOMAIN);
+    s.NDB_DIR = setDirVar(VARIABLE_NDB_DIR, s.NDB_DIR);
+    s.AIRFLOW_DIR = setDirVar(VARIABLE_AIRFLOW_DIR, s.AIRFLOW_DIR);
+    String elasticIps = setStrVar(VARIABLE_ELASTIC_IP,
+        ElasticSettings.ELASTIC_IP_DEFAULT);
+    int elasticPort = setIntVar(VARIABLE_ELASTIC_PORT, ElasticSettings.ELASTIC_PORT_DEFAULT);
+    int elasticRestPort = setIntVar(VARIABLE_ELASTIC_REST_PORT,
+        ElasticSettings.ELASTIC_REST_PORT_DEFAULT);
+    boolean elasticOpenDistroEnabled =
+        setBoolVar(VARIABLE_ELASTIC_OPENDISTRO_SECURITY_ENABLED,
+            ElasticSettings.ELASTIC_OPENDISTRO_SECURTIY_ENABLED_DEFAULT);
+    boolean elasticHttpsEnabled = setBoolVar(VARIABLE_ELASTIC_HTTPS_ENABLED
+        , ElasticSettings.ELASTIC_HTTPS_ENABLED_DEFAULT);
+    String elasticAdminUser = setStrVar(VARIABLE_ELASTIC_ADMIN_USER,
+        ElasticSettings.ELASTIC_ADMIN_USER_DEFAULT);
+    String elasticAdminPassword = setStrVar(VARIABLE_ELASTIC_ADMIN_PASSWORD,
+        ElasticSettings.ELASTIC_ADMIN_PASSWORD_DEFAULT);
+    boolean elasticJWTEnabled =  setBoolVar(VARIABLE_ELASTIC_JWT_ENABLED
+        , ElasticSettings.ELASTIC_JWT_ENABLED_DEFAULT);
+    String elasticJWTUrlParameter = setStrVar(VARIABLE_ELASTIC_JWT_URL_PARAMETER,
+        ElasticSettings.ELASTIC_JWT_URL_PARAMETER_DEFAULT);
+    long elasticJWTEXPMS = setLongVar(VARIABLE_ELASTIC_JWT_EXP_MS,
+        ElasticSettings.ELASTIC_JWT_EXP_MS_DEFAULT);
+    s.ELASTIC_SETTINGS = new ElasticSettings(elasticIps, elasticPort,
+        elasticRestPort, elasticOpenDistroEnabled, elasticHttpsEnabled,
+        elasticAdminUser, elasticAdminPassword, elasticJWTEnabled,
+        elasticJWTUrlParameter, elasticJWTEXPMS);
+    s.ELASTIC_LOGS_INDEX_EXPIRATION = setLongVar(VARIABLE_ELASTIC_LOGS_INDEX_EXPIRATION,
+        s.ELASTIC_LOGS_INDEX_EXPIRATION);
+    s.HOPSWORKS_IP = setIpVar(VARIABLE_HOPSWORKS_IP, s.HOPSWORKS_IP);
+    s.JHS_IP = setIpVar(VARIABLE_JHS_IP, s.JHS_IP);
+    s.ZK_USER = setVar(VARIABLE_ZK_USER, s.ZK_USER);
+    s.ZK_DIR = setDirVar(VARIABLE_ZK_DIR, s.ZK_DIR);
+    s.KIBANA_IP = setIpVar(VARIABLE_KIBANA_IP, s.KIBANA_IP);
+    s.KAFKA_MAX_NUM_TOPICS = setIntVar(VARIABLE_KAFKA_MAX_NUM_TOPICS, s.KAFKA_MAX_NUM_TOPICS);
+    s.INFERENCE_LOGGER_LINGER_MS = setIntVar(VARIABLE_INFERENCE_LOGGER_LINGER_MS, s.INFERENCE_LOGGER_LINGER_MS);
+    s.INFERENCE_LOGGER_BUFFER_MEMORY = setLongVar(VARIABLE_INFERENCE_LOGGER_BUFFER_MEMORY,
+        s.INFERENCE_LOGGER_BUFFER_MEMORY);
+    s.INFERENCE_LOGGER_IDLE_TIMEOUT_MS = setMillisecondVar(VARIABLE_INFERENCE_LOGGER_IDLE_TIMEOUT,
+        s.INFERENCE_LOGGER_IDLE_TIMEOUT_MS);
+    s.HOPSWORKS_DEFAULT_SSL_MASTER_PASSWORD = setVar(VARIABLE_HOPSWORKS_SSL_MASTER_PASSWORD,
+        s.HOPSWORKS_DEFAULT_SSL_MASTER_PASSWORD);
+    s.ENCRYPTION_KEY_CACHE_SIZE = setIntVar(VARIABLE_ENCRYPTION_KEY_CACHE_SIZE, s.ENCRYPTION_KEY_CACHE_SIZE);
+    s.MASTER_PASSWORD_CHANGE_BATCH_SIZE = setIntVar(VARIABLE_MASTER_PASSWORD_CHANGE_BATCH_SIZE,
+        s.MASTER_PASSWORD_CHANGE_BATCH_SIZE);
+    s.KAFKA_USER = setVar(VARIABLE_KAFKA_USER, s.KAFKA_USER);
+    s.KAFKA_DIR = setDirVar(VARIABLE_KAFKA_DIR, s.KAFKA_DIR);
+    s.KAFKA_DEFAULT_NUM_PARTITIONS = setIntVar(VARIABLE_KAFKA_NUM_PARTITIONS,
+        s.KAFKA_DEFAULT_NUM_PARTITIONS);
+    s.KAFKA_DEFAULT_NUM_REPLICAS = setIntVar(VARIABLE_KAFKA_NUM_REPLICAS,
+        s.KAFKA_DEFAULT_NUM_REPLICAS);
+    s.YARN_DEFAULT_QUOTA = setIntVar(VARIABLE_YARN_DEFAULT_QUOTA,
+        s.YARN_DEFAULT_QUOTA);
+    s.HDFS_DEFAULT_QUOTA_MBs = setDirVar(VARIABLE_HDFS_DEFAULT_QUOTA,
+        s.HDFS_DEFAULT_QUOTA_MBs);
+    s.HDFS_BASE_STORAGE_POLICY = setHdfsStoragePolicy(VARIABLE_HDFS_BASE_STORAGE_POLICY, s.HDFS_BASE_STORAGE_POLICY);
+    s.HDFS_LOG_STORAGE_POLICY = setHdfsStoragePolicy(VARIABLE_HDFS_LOG_STORAGE_POLICY, s.HDFS_LOG_STORAGE_POLICY);
+    s.DFS_CLIENT_POOL_MAX_SIZE = setIntVar(VARIABLE_DFS_CLIENT_POOL_MAX_SIZE, s.DFS_CLIENT_POOL_MAX_SIZE);
+    s.DFS_CLIENT_POOL_IDLE_TIMEOUT_MS = setMillisecondVar(VARIABLE_DFS_CLIENT_POOL_IDLE_TIMEOUT,
+        s.DFS_CLIENT_POOL_IDLE_TIMEOUT_MS);
+    s.MAX_NUM_PROJ_PER_USER = setIntVar(VARIABLE_MAX_NUM_PROJ_PER_USER, s.MAX_NUM_PROJ_PER_USER);
+    s.CLUSTER_CERT = setVar(VARIABLE_CLUSTER_CERT, s.CLUSTER_CERT);
+    s.FILE_PREVIEW_IMAGE_SIZE = setIntVar(VARIABLE_FILE_PREVIEW_IMAGE_SIZE, 10000000);
+    s.FILE_PREVIEW_TXT_SIZE = setIntVar(VARIABLE_FILE_PREVIEW_TXT_SIZE, 100);
+    s.ANACONDA_USER = setStrVar(VARIABLE_ANACONDA_USER, s.ANACONDA_USER);
+    s.ANACONDA_DIR = setDirVar(VARIABLE_ANACONDA_DIR, s.ANACONDA_DIR);
+    s.ANACONDA_DEFAULT_REPO = setStrVar(VARIABLE_ANACONDA_DEFAULT_REPO, s.ANACONDA_DEFAULT_REPO);
+    s.ANACONDA_ENABLED = Boolean.parseBoolean(setStrVar(
+        VARIABLE_ANACONDA_ENABLED, s.ANACONDA_ENABLED.toString()));
+    s.KAGENT_USER = setStrVar(VARIABLE_KAGENT_USER, s.KAGENT_USER);
+    s.KAGENT_LIVENESS_MONITOR_ENABLED = setBoolVar(VARIABLE_KAGENT_LIVENESS_MONITOR_ENABLED,
+        s.KAGENT_LIVENESS_MONITOR_ENABLED);
+    s.KAGENT_LIVENESS_THRESHOLD = setStrVar(VARIABLE_KAGENT_LIVENESS_THRESHOLD, s.KAGENT_LIVENESS_THRESHOLD);
+    s.DOWNLOAD_ALLOWED = Boolean.parseBoolean(setStrVar(VARIABLE_DOWNLOAD_ALLOWED, s.DOWNLOAD_ALLOWED.toString()));
+    s.INFLUXDB_IP = setStrVar(VARIABLE_INFLUXDB_IP, s.INFLUXDB_IP);
+    s.INFLUXDB_PORT = setStrVar(VARIABLE_INFLUXDB_PORT, s.INFLUXDB_PORT);
+    s.INFLUXDB_USER = setStrVar(VARIABLE_INFLUXDB_USER, s.INFLUXDB_USER);
+    s.INFLUXDB_PW = setStrVar(VARIABLE_INFLUXDB_PW, s.INFLUXDB_PW);
+    s.SUPPORT_EMAIL_ADDR = setStrVar(VARIABLE_SUPPORT_EMAIL_ADDR, s.SUPPORT_EMAIL_ADDR);
+    UserAccountsEmailMessages.HOPSWORKS_SUPPORT_EMAIL = s.SUPPORT_EMAIL_ADDR;
+    s.RESOURCE_DIRS = setStrVar(VARIABLE_RESOURCE_DIRS, s.RESOURCE_DIRS);
+    s.MAX_STATUS_POLL_RETRY = setIntVar(VARIABLE_MAX_STATUS_POLL_RETRY, s.MAX_STATUS_POLL_RETRY);
+    s.HOPS_RPC_TLS = setStrVar(VARIABLE_HOPS_RPC_TLS, s.HOPS_RPC_TLS);
+    s.CERTIFICATE_MATERIALIZER_DELAY = setStrVar(VARIABLE_CERT_MATER_DELAY,
+        s.CERTIFICATE_MATERIALIZER_DELAY);
+    s.WHITELIST_USERS_LOGIN = setStrVar(VARIABLE_WHITELIST_USERS_LOGIN,
+        s.WHITELIST_USERS_LOGIN);
+    s.FIRST_TIME_LOGIN = setStrVar(VARIABLE_FIRST_TIME_LOGIN, s.FIRST_TIME_LOGIN);
+    s.VERIFICATION_PATH = setStrVar(VARIABLE_VERIFICATION_PATH, s.VERIFICATION_PATH);
+    s.serviceKeyRotationEnabled = setBoolVar(SERVICE_KEY_ROTATION_ENABLED_KEY, s.serviceKeyRotationEnabled);
+    s.serviceKeyRotationInterval = setStrVar(SERVICE_KEY_ROTATION_INTERVAL_KEY, s.serviceKeyRotationInterval);
+    s.tensorBoardMaxLastAccessed = setIntVar(TENSORBOARD_MAX_LAST_ACCESSED, s.tensorBoardMaxLastAccessed);
+    s.sparkUILogsOffset = setIntVar(SPARK_UI_LOGS_OFFSET, s.sparkUILogsOffset);
+    s.jupyterShutdownTimerInterval = setStrVar(JUPYTER_SHUTDOWN_TIMER_INTERVAL, s.jupyterShutdownTimerInterval);
+    s.checkNodemanagersStatus = setBoolVar(VARIABLE_CHECK_NODEMANAGERS_STATUS, s.checkNodemanagersStatus);
+
+    populateDelaCache(s);
+    populateLDAPCache(s);
+
+    s.ZOOKEEPER_VERSION = setStrVar(VARIABLE_ZOOKEEPER_VERSION, s.ZOOKEEPER_VERSION);
+    s.INFLUXDB_VERSION = setStrVar(VARIABLE_INFLUXDB_VERSION, s.INFLUXDB_VERSION);
+    s.GRAFANA_VERSION = setStrVar(VARIABLE_GRAFANA_VERSION, s.GRAFANA_VERSION);
+    s.TELEGRAF_VERSION = setStrVar(VARIABLE_TELEGRAF_VERSION, s.TELEGRAF_VERSION);
+    s.KAPACITOR_VERSION = setStrVar(VARIABLE_KAPACITOR_VERSION, s.KAPACITOR_VERSION);
+    s.LOGSTASH_VERSION = setStrVar(VARIABLE_LOGSTASH_VERSION, s.LOGSTASH_VERSION);
+    s.KIBANA_VERSION = setStrVar(VARIABLE_KIBANA_VERSION, s.KIBANA_VERSION);
+    s.FILEBEAT_VERSION = setStrVar(VARIABLE_FILEBEAT_VERSION, s.FILEBEAT_VERSION);
+    s.NDB_VERSION = setStrVar(VARIABLE_NDB_VERSION, s.NDB_VERSION);
+    s.LIVY_VERSION = setStrVar(VARIABLE_LIVY_VERSION, s.LIVY_VERSION);
+    s.HIVE2_VERSION = setStrVar(VARIABLE_HIVE2_VERSION, s.HIVE2_VERSION);
+    s.TEZ_VERSION = setStrVar(VARIABLE_TEZ_VERSION, s.TEZ_VERSION);
+    s.SLIDER_VERSION = setStrVar(VARIABLE_SLIDER_VERSION, s.SLIDER_VERSION);
+    s.SPARK_VERSION = setStrVar(VARIABLE_SPARK_VERSION, s.SPARK_VERSION);
+    s.FLINK_VERSION = setStrVar(VARIABLE_FLINK_VERSION, s.FLINK_VERSION);
+    s.EPIPE_VERSION = setStrVar(VARIABLE_EPIPE_VERSION, s.EPIPE_VERSION);
+    s.DELA_VERSION = setStrVar(VARIABLE_DELA_VERSION, s.DELA_VERSION);
+    s.KAFKA_VERSION = setStrVar(VARIABLE_KAFKA_VERSION, s.KAFKA_VERSION);
+    s.ELASTIC_VERSION = setStrVar(VARIABLE_ELASTIC_VERSION, s.ELASTIC_VERSION);
+    s.TENSORFLOW_VERSION = setStrVar(VARIABLE_TENSORFLOW_VERSION, s.TENSORFLOW_VERSION);
+    s.HOPSWORKS_VERSION = setStrVar(VARIABLE_HOPSWORKS_VERSION, s.HOPSWORKS_VERSION);
+    s.HOPSWORKS_REST_LOG_LEVEL = setLogLevelVar(VARIABLE_HOPSWORKS_REST_LOG_LEVEL, s.HOPSWORKS_REST_LOG_LEVEL);
+    s.HOPS_VERIFICATION_VERSION = setStrVar(VARIABLE_HOPS_VERIFICATION_VERSION, s.HOPS_VERIFICATION_VERSION);
+
+    s.PYPI_REST_ENDPOINT = setStrVar(VARIABLE_PYPI_REST_ENDPOINT, s.PYPI_REST_ENDPOINT);
+    s.IMMUTABLE_PYTHON_LIBRARY_NAMES = toSetFromCsv(
+        setStrVar(VARIABLE_IMMUTABLE_PYTHON_LIBRARY_NAMES, DEFAULT_IMMUTABLE_PYTHON_LIBRARY_NAMES),
+        ",");
+
+    s.SERVING_MONITOR_INT = setStrVar(VARIABLE_SERVING_MONITOR_INT, s.SERVING_MONITOR_INT);
+    s.SERVING_CONNECTION_POOL_SIZE = setIntVar(VARIABLE_SERVING_CONNECTION_POOL_SIZE,
+      s.SERVING_CONNECTION_POOL_SIZE);
+    s.SERVING_MAX_ROUTE_CONNECTIONS = setIntVar(VARIABLE_SERVING_MAX_ROUTE_CONNECTIONS,
+      s.SERVING_MAX_ROUTE_CONNECTIONS);
+    s.SERVING_ENDPOINT_CACHE_TTL_MS = setMillisecondVar(VARIABLE_SERVING_ENDPOINT_CACHE_TTL,
+      s.SERVING_ENDPOINT_CACHE_TTL_MS);
+    s.SERVING_BATCHING_WINDOW_MS = setMillisecondVar(VARIABLE_SERVING_BATCHING_WINDOW, s.SERVING_BATCHING_WINDOW_MS);
+    s.SERVING_BATCHING_MAX_SIZE = setIntVar(VARIABLE_SERVING_BATCHING_MAX_SIZE, s.SERVING_BATCHING_MAX_SIZE);
+    s.SERVING_CONNECT_TIMEOUT_MS = setMillisecondVar(VARIABLE_SERVING_CONNECT_TIMEOUT, s.SERVING_CONNECT_TIMEOUT_MS);
+    s.SERVING_REQUEST_TIMEOUT_MS = setMillisecondVar(VARIABLE_SERVING_REQUEST_TIMEOUT, s.SERVING_REQUEST_TIMEOUT_MS);
+
+    s.TENSORBOARD_MAX_RELOAD_THREADS = setIntVar(VARIABLE_TENSORBOARD_MAX_RELOAD_THREADS,
+        s.TENSORBOARD_MAX_RELOAD_THREADS);
+
+    s.KUBE_USER = setStrVar(VARIABLE_KUBE_USER, s.KUBE_USER);
+    s.KUBE_HOPSWORKS_USER = setStrVar(VARIABLE_KUBE_HOPSWORKS_USER, s.KUBE_HOPSWORKS_USER);
+    s.KUBEMASTER_URL = setStrVar(VARIABLE_KUBEMASTER_URL, s.KUBEMASTER_URL);
+    s.KUBE_CA_CERTFILE = setStrVar(VARIABLE_KUBE_CA_CERTFILE, s.KUBE_CA_CERTFILE);
+    s.KUBE_CLIENT_KEYFILE = setStrVar(VARIABLE_KUBE_CLIENT_KEYFILE, s.KUBE_CLIENT_KEYFILE);
+    s.KUBE_CLIENT_CERTFILE = setStrVar(VARIABLE_KUBE_CLIENT_CERTFILE, s.KUBE_CLIENT_CERTFILE);
+    s.KUBE_CLIENT_KEYPASS = setStrVar(VARIABLE_KUBE_CLIENT_KEYPASS, s.KUBE_CLIENT_KEYPASS);
+    s.KUBE_TRUSTSTORE_PATH = setStrVar(VARIABLE_KUBE_TRUSTSTORE_PATH, s.KUBE_TRUSTSTORE_PATH);
+    s.KUBE_TRUSTSTORE_KEY = setStrVar(VARIABLE_KUBE_TRUSTSTORE_KEY, s.KUBE_TRUSTSTORE_KEY);
+    s.KUBE_KEYSTORE_PATH = setStrVar(VARIABLE_KUBE_KEYSTORE_PATH, s.KUBE_KEYSTORE_PATH);
+    s.KUBE_KEYSTORE_KEY = setStrVar(VARIABLE_KUBE_KEYSTORE_KEY, s.KUBE_KEYSTORE_KEY);
+    s.KUBE_REGISTRY = setStrVar(VARIABLE_KUBE_REGISTRY, s.KUBE_REGISTRY);
+    s.KUBE_MAX_SERVING_INSTANCES = setIntVar(VARIABLE_KUBE_MAX_SERVING, s.KUBE_MAX_SERVING_INSTANCES);
+    s.KUBE_API_MAX_ATTEMPTS = setIntVar(VARIABLE_KUBE_API_MAX_ATTEMPTS, s.KUBE_API_MAX_ATTEMPTS);
+    s.KUBE_DOCKER_MAX_MEMORY_ALLOCATION = setIntVar(VARIABLE_KUBE_DOCKER_MAX_MEMORY_ALLOCATION,
+        s.KUBE_DOCKER_MAX_MEMORY_ALLOCATION);
+    s.KUBE_DOCKER_MAX_CORES_ALLOCATION = setIntVar(VARIABLE_KUBE_DOCKER_MAX_CORES_ALLOCATION,
+      s.KUBE_DOCKER_MAX_CORES_ALLOCATION);
+    s.KUBE_DOCKER_CORES_FRACTION = setDoubleVar(VARIABLE_KUBE_DOCKER_CORES_FRACTION, s.KUBE_DOCKER_CORES_FRACTION);
+    s.KUBE_INSTALLED = setBoolVar(VARIABLE_KUBE_INSTALLED, s.KUBE_INSTALLED);
+    s.HOPSWORKS_ENTERPRISE = setBoolVar(VARIABLE_HOPSWORKS_ENTERPRISE, s.HOPSWORKS_ENTERPRISE);
+
+    s.JUPYTER_HOST = setStrVar(VARIABLE_JUPYTER_HOST, s.JUPYTER_HOST);
+
+    s.JWT_SIGNATURE_ALGORITHM = setStrVar(VARIABLE_JWT_SIGNATURE_ALGORITHM, s.JWT_SIGNATURE_ALGORITHM);
+    s.JWT_LIFETIME_MS = setLongVar(VARIABLE_JWT_LIFETIME_MS, s.JWT_LIFETIME_MS);
+    s.JWT_EXP_LEEWAY_SEC = setIntVar(VARIABLE_JWT_EXP_LEEWAY_SEC, s.JWT_EXP_LEEWAY_SEC);
+    s.JWT_SIGNING_KEY_NAME = setStrVar(VARIABLE_JWT_SIGNING_KEY_NAME, s.JWT_SIGNING_KEY_NAME);
+    s.JWT_ISSUER = setStrVar(VARIABLE_JWT_ISSUER_KEY, s.JWT_ISSUER);
+
+    s.SERVICE_JWT_LIFETIME_MS = setLongVar(VARIABLE_SERVICE_JWT_LIFETIME_MS, s.SERVICE_JWT_LIFETIME_MS);
+    s.SERVICE_JWT_EXP_LEEWAY_SEC = setIntVar(VARIABLE_SERVICE_JWT_EXP_LEEWAY_SEC, s.SERVICE_JWT_EXP_LEEWAY_SEC);
+
+    populateServiceJWTCache(s);
+
+    s.CONNECTION_KEEPALIVE_TIMEOUT = setIntVar(VARIABLE_CONNECTION_KEEPALIVE_TIMEOUT, s.CONNECTION_KEEPALIVE_TIMEOUT);
+
+    s.FEATURESTORE_DB_DEFAULT_QUOTA = setStrVar(VARIABLE_FEATURESTORE_DEFAULT_QUOTA, s.FEATURESTORE_DB_DEFAULT_QUOTA);
+    s.FEATURESTORE_DB_DEFAULT_STORAGE_FORMAT =
+        setStrVar(VARIABLE_FEATURESTORE_DEFAULT_STORAGE_FORMAT, s.FEATURESTORE_DB_DEFAULT_STORAGE_FORMAT);
+    s.FEATURESTORE_JDBC_URL = setStrVar(VARIABLE_FEATURESTORE_JDBC_URL, s.FEATURESTORE_JDBC_URL);
+    s.ONLINE_FEATURESTORE = setBoolVar(VARIABLE_ONLINE_FEATURESTORE, s.ONLINE_FEATURESTORE);
+    s.ONLINE_FEATURESTORE_TS = setStrVar(VARIABLE_ONLINE_FEATURESTORE_TS, s.ONLINE_FEATURESTORE_TS);
+    s.ONLINE_FEATURESTORE_POOL_MAX_SIZE = setIntVar(VARIABLE_ONLINE_FEATURESTORE_POOL_MAX_SIZE,
+        s.ONLINE_FEATURESTORE_POOL_MAX_SIZE);
+    s.ONLINE_FEATURESTORE_POOL_IDLE_TIMEOUT_MS = setMillisecondVar(VARIABLE_ONLINE_FEATURESTORE_POOL_IDLE_TIMEOUT,
+        s.ONLINE_FEATURESTORE_POOL_IDLE_TIMEOUT_MS);
+
+    s.KIBANA_HTTPS_ENABELED = setBoolVar(VARIABLE_KIBANA_HTTPS_ENABLED,
+        s.KIBANA_HTTPS_ENABELED);
+  
+    s.KIBANA_MULTI_TENANCY_ENABELED = setBoolVar(VARIABLE_KIBANA_MULTI_TENANCY_ENABLED,
+        s.KIBANA_MULTI_TENANCY_ENABELED);
+
+    s.RESERVED_PROJECT_NAMES_STR = setStrVar(VARIABLE_RESERVED_PROJECT_NAMES, DEFAULT_RESERVED_PROJECT_NAMES);
+    Set<String> reservedProjectNames = setStringHashSetLowerCase(s.RESERVED_PROJECT_NAMES_STR, ",", true);
+    reservedProjectNames.addAll(getReservedHiveNames());
+    s.RESERVED_PROJECT_NAMES = Collections.unmodifiableSet(reservedProjectNames);
+  
+    s.CLOUD_EVENTS_ENDPOINT = setStrVar(VARIABLE_CLOUD_EVENTS_ENDPOINT,
+        s.CLOUD_EVENTS_ENDPOINT);
+  
+    s.CLOUD_EVENTS_ENDPOINT_API_KEY =
+        setStrVar(VARIABLE_CLOUD_EVENTS_ENDPOINT_API_KEY, s.CLOUD_EVENTS_ENDPOINT_API_KEY);
+
+    s.FG_PREVIEW_LIMIT = setIntVar(VARIABLE_FG_PREVIEW_LIMIT, s.FG_PREVIEW_LIMIT);
+    s.FG_PREVIEW_STREAM_LIMIT = setIntVar(VARIABLE_FG_PREVIEW_STREAM_LIMIT, s.FG_PREVIEW_STREAM_LIMIT);
+    s.FG_PREVIEW_FETCH_SIZE = setIntVar(VARIABLE_FG_PREVIEW_FETCH_SIZE, s.FG_PREVIEW_FETCH_SIZE);
+    s.HIVE_CONF_PATH = setStrVar(VARIABLE_HIVE_CONF_PATH, s.HIVE_CONF_PATH);
+    s.HIVE_METASTORE_POOL_MAX_SIZE = setIntVar(VARIABLE_HIVE_METASTORE_POOL_MAX_SIZE, s.HIVE_METASTORE_POOL_MAX_SIZE);
+    s.HIVE_METASTORE_POOL_IDLE_TIMEOUT_MS = setMillisecondVar(VARIABLE_HIVE_METASTORE_POOL_IDLE_TIMEOUT,
+        s.HIVE_METASTORE_POOL_IDLE_TIMEOUT_MS);
+    s.HIVE_SERVER_POOL_MAX_SIZE = setIntVar(VARIABLE_HIVE_SERVER_POOL_MAX_SIZE, s.HIVE_SERVER_POOL_MAX_SIZE);
+    s.HIVE_SERVER_POOL_IDLE_TIMEOUT_MS = setMillisecondVar(VARIABLE_HIVE_SERVER_POOL_IDLE_TIMEOUT,
+        s.HIVE_SERVER_POOL_IDLE_TIMEOUT_MS);
+    
+
+    s.YARN_RUNTIME = setStrVar(VARIABLE_YARN_RUNTIME, s.YARN_RUNTIME);
+    s.DOCKER_MOUNTS = setStrVar(VARIABLE_DOCKER_MOUNTS, s.DOCKER_MOUNTS);
+    s.DOCKER_BASE_IMAGE_PYTHON_NAME = setStrVar(VARIABLE_DOCKER_BASE_IMAGE_PYTHON_NAME,
+        s.DOCKER_BASE_IMAGE_PYTHON_NAME);
+    s.DOCKER_BASE_IMAGE_PYTHON_VERSION = setStrVar(VARIABLE_DOCKER_BASE_IMAGE_PYTHON_VERSION,
+        s.DOCKER_BASE_IMAGE_PYTHON_VERSION);
+    s.YARN_APP_UID = setLongVar(VARIABLE_YARN_APP_UID, s.YARN_APP_UID);
+    s.JOB_LOG_FOLLOW_INTERVAL_MS = setMillisecondVar(VARIABLE_JOB_LOG_FOLLOW_INTERVAL, s.JOB_LOG_FOLLOW_INTERVAL_MS);
+    s.JOB_LOG_FOLLOW_TIMEOUT_MS = setMillisecondVar(VARIABLE_JOB_LOG_FOLLOW_TIMEOUT, s.JOB_LOG_FOLLOW_TIMEOUT_MS);
+    s.LOG_AGGREGATION_MAX_BACKOFF_MS = setMillisecondVar(VARIABLE_LOG_AGGREGATION_MAX_BACKOFF,
+        s.LOG_AGGREGATION_MAX_BACKOFF_MS);
+    s.LOG_AGGREGATION_TIMEOUT_MS = setMillisecondVar(VARIABLE_LOG_AGGREGATION_TIMEOUT, s.LOG_AGGREGATION_TIMEOUT_MS);
+    s.CLUSTER_METRICS_SAMPLE_INTERVAL_MS = setMillisecondVar(VARIABLE_CLUSTER_METRICS_SAMPLE_INTERVAL,
+        s.CLUSTER_METRICS_SAMPLE_INTERVAL_MS);
+    s.APP_INFO_CACHE_TTL_MS = setMillisecondVar(VARIABLE_APP_INFO_CACHE_TTL, s.APP_INFO_CACHE_TTL_MS);
+    s.INODE_TREE_WALK_CONCURRENCY = setIntVar(VARIABLE_INODE_TREE_WALK_CONCURRENCY, s.INODE_TREE_WALK_CONCURRENCY);
+    s.INODE_TREE_WALK_PAGE_SIZE = setIntVar(VARIABLE_INODE_TREE_WALK_PAGE_SIZE, s.INODE_TREE_WALK_PAGE_SIZE);
+    s.ARCHIVE_ENTRY_CONCURRENCY = setIntVar(VARIABLE_ARCHIVE_ENTRY_CONCURRENCY, s.ARCHIVE_ENTRY_CONCURRENCY);
+    s.DOWNLOAD_PREFETCH_SEGMENTS = setIntVar(VARIABLE_DOWNLOAD_PREFETCH_SEGMENTS, s.DOWNLOAD_PREFETCH_SEGMENTS);
+    s.FEATUREGROUP_SCHEMA_CACHE_TTL_MS = setMillisecondVar(VARIABLE_FEATUREGROUP_SCHEMA_CACHE_TTL,
+        s.FEATUREGROUP_SCHEMA_CACHE_TTL_MS);
+    s.WEBSOCKET_SEND_QUEUE_SIZE = setIntVar(VARIABLE_WEBSOCKET_SEND_QUEUE_SIZE, s.WEBSOCKET_SEND_QUEUE_SIZE);
+    s.JWT_RENEWAL_CONCURRENCY = setIntVar(VARIABLE_JWT_RENEWAL_CONCURRENCY, s.JWT_RENEWAL_CONCURRENCY);
+    populateProvenanceCache(s);
+
+    s.KUBE_TYPE = KubeType.fromString(setStrVar(VARIABLE_KUBE_TYPE, s.KUBE_TYPE.name));
+    s.DOCKER_NAMESPACE = setStrVar(VARIABLE_DOCKER_NAMESPACE, s.DOCKER_NAMESPACE);
+    s.MANAGED_DOCKER_REGISTRY = setBoolVar(VARIABLE_MANAGED_DOCKER_REGISTRY,
+        s.MANAGED_DOCKER_REGISTRY);
+
+    s.MAX_ENV_YML_BYTE_SIZE = setIntVar(VARIABLE_MAX_ENV_YML_BYTE_SIZE, s.MAX_ENV_YML_BYTE_SIZE);
+    s.SPARK_EXECUTOR_MIN_MEMORY = setIntVar(VARIABLE_SPARK_EXECUTOR_MIN_MEMORY, s.SPARK_EXECUTOR_MIN_MEMORY);
+
+    s.CLOUD_TYPE = setStrVar(VARIABLE_CLOUD_TYPE, s.CLOUD_TYPE);
+    return s;
+  }
+
+  private volatile Snapshot snapshot;
+
+  private Snapshot getSnapshot() {
+    Snapshot current = snapshot;
+    if (current == null) {
+      current = loadSnapshotIfMissing();
     }
+    return current;
   }
 
-  private void checkCache() {
-    if (!cached) {
-      populateCache();
+  private synchronized Snapshot loadSnapshotIfMissing() {
+    if (snapshot == null) {
+      snapshot = loadSnapshot();
     }
+    return snapshot;
   }
 
+  /**
+   * Reads all the variables from the database and atomically replaces the current snapshot. Readers keep using the
+   * previous snapshot until the new one is published.
+   */
   public synchronized void refreshCache() {
-    cached = false;
-    populateCache();
+    snapshot = loadSnapshot();
   }
 
   public synchronized void updateVariable(String variableName, String variableValue, VariablesVisibility visibility) {
@@ -794,7 +1160,7 @@ public class Settings implements Serializable {
    * trigger a read of all variables from the database.
    */
   public synchronized void invalidateCache() {
-    cached = false;
+    snapshot = null;
   }
 
   /**
@@ -802,21 +1168,16 @@ public class Settings implements Serializable {
    */
   private static final String GLASSFISH_DIR = "/srv/hops/glassfish";
 
-  public synchronized String getGlassfishDir() {
+  public String getGlassfishDir() {
     return GLASSFISH_DIR;
   }
 
-  private String TWOFACTOR_AUTH = "false";
-  private String TWOFACTOR_EXCLUDE = "AGENT;CLUSTER_AGENT";
-
-  public synchronized String getTwoFactorAuth() {
-    checkCache();
-    return TWOFACTOR_AUTH;
+  public String getTwoFactorAuth() {
+    return getSnapshot().TWOFACTOR_AUTH;
   }
 
-  public synchronized String getTwoFactorExclude() {
-    checkCache();
-    return TWOFACTOR_EXCLUDE;
+  public String getTwoFactorExclude() {
+    return getSnapshot().TWOFACTOR_EXCLUDE;
   }
 
   public enum TwoFactorMode {
@@ -840,17 +1201,13 @@ public class Settings implements Serializable {
     }
   }
 
-  private String HOPS_RPC_TLS = "false";
-
-  public synchronized boolean getHopsRpcTls() {
-    checkCache();
-    return HOPS_RPC_TLS.toLowerCase().equals("true");
+  public boolean getHopsRpcTls() {
+    return getSnapshot().HOPS_RPC_TLS.toLowerCase().equals("true");
   }
 
   //Spark executor minimum memory
-  public synchronized int getSparkExecutorMinMemory() {
-    checkCache();
-    return SPARK_EXECUTOR_MIN_MEMORY;
+  public int getSparkExecutorMinMemory() {
+    return getSnapshot().SPARK_EXECUTOR_MIN_MEMORY;
   }
 
   /**
@@ -862,7 +1219,6 @@ public class Settings implements Serializable {
 
   public static final String TENSORBOARD_DIRS = "/tensorboard/";
 
-  private String SPARK_DIR = "/srv/hops/spark";
   public static final String SPARK_EXAMPLES_DIR = "/examples/jars";
   
   public static final String CONVERSION_DIR = "/ipython_conversions/";
@@ -986,41 +1342,33 @@ public class Settings implements Serializable {
   //Hive config
   public static final String HIVE_SITE = "hive-site.xml";
 
-  public synchronized String getSparkDir() {
-    checkCache();
-    return SPARK_DIR;
+  public String getSparkDir() {
+    return getSnapshot().SPARK_DIR;
   }
 
-  public synchronized String getSparkConfDir() {
+  public String getSparkConfDir() {
     return getSparkDir() + "/conf";
   }
 
-  public synchronized String getSparkExampleDir() {
-    checkCache();
+  public String getSparkExampleDir() {
     return SPARK_EXAMPLES_DIR;
   }
 
   private final String SPARK_CONF_FILE = "/spark-defaults.conf";
 
-  public synchronized String getSparkConfFile() {
+  public String getSparkConfFile() {
     return getSparkConfDir() + SPARK_CONF_FILE;
   }
 
   // "/tmp" by default
-  private String STAGING_DIR = "/srv/hops/domains/domain1/staging";
-
-  public synchronized String getStagingDir() {
-    checkCache();
-    return STAGING_DIR;
+  public String getStagingDir() {
+    return getSnapshot().STAGING_DIR;
   }
 
   private final String FLINK_CONF_DIR = "conf";
   // Remember to change this in docker-images as well
-  private String FLINK_DIR = "/srv/hops/flink";
-
-  public synchronized String getFlinkDir() {
-    checkCache();
-    return FLINK_DIR;
+  public String getFlinkDir() {
+    return getSnapshot().FLINK_DIR;
   }
 
   public String getFlinkConfDir() {
@@ -1041,207 +1389,139 @@ public class Settings implements Serializable {
     return getFlinkConfDir() + File.separator + FLINK_CONF_FILE;
   }
 
-  private String MYSQL_DIR = "/usr/local/mysql";
-  public synchronized String getMySqlDir() {
-    checkCache();
-    return MYSQL_DIR;
+  public String getMySqlDir() {
+    return getSnapshot().MYSQL_DIR;
   }
 
-  private String MYSQL_USER = "mysql";
-  public synchronized String getMysqlUser() {
-    checkCache();
-    return MYSQL_USER;
+  public String getMysqlUser() {
+    return getSnapshot().MYSQL_USER;
   }
 
-  private String NDB_DIR = "/var/lib/mysql-cluster";
-  public synchronized String getNdbDir() {
-    checkCache();
-    return NDB_DIR;
+  public String getNdbDir() {
+    return getSnapshot().NDB_DIR;
   }
 
-  private String AIRFLOW_DIR = "/srv/hops/airflow";
-  public synchronized String getAirflowDir() {
-    checkCache();
-    return AIRFLOW_DIR;
+  public String getAirflowDir() {
+    return getSnapshot().AIRFLOW_DIR;
   }
 
-  private String AIRFLOW_USER = "airflow";
-  public synchronized String getAirflowUser() {
-    checkCache();
-    return AIRFLOW_USER;
+  public String getAirflowUser() {
+    return getSnapshot().AIRFLOW_USER;
   }
 
-  private String HADOOP_DIR = "/srv/hops/hadoop";
-
   // This returns the unversioned base installation directory for hops-hadoop
   // For example, "/srv/hops/hadoop" - it does not return "/srv/hops/hadoop-2.8.2"
-  public synchronized String getHadoopSymbolicLinkDir() {
-    checkCache();
-    return HADOOP_DIR;
+  public String getHadoopSymbolicLinkDir() {
+    return getSnapshot().HADOOP_DIR;
   }
 
-  public synchronized String getHadoopVersionedDir() {
-    checkCache();
-    return HADOOP_DIR + "-" + getHadoopVersion();
+  public String getHadoopVersionedDir() {
+    return getSnapshot().HADOOP_DIR + "-" + getHadoopVersion();
   }
 
-  private String HIVE_SUPERUSER = "hive";
-
-  public synchronized String getHiveSuperUser() {
-    checkCache();
-    return HIVE_SUPERUSER;
+  public String getHiveSuperUser() {
+    return getSnapshot().HIVE_SUPERUSER;
   }
 
-  private String ANACONDA_DEFAULT_REPO = "defaults";
-
-  public synchronized String getCondaDefaultRepo() {
-    checkCache();
-    return ANACONDA_DEFAULT_REPO;
+  public String getCondaDefaultRepo() {
+    return getSnapshot().ANACONDA_DEFAULT_REPO;
   }
 
-  private String HIVE_WAREHOUSE = "/apps/hive/warehouse";
-
-  public synchronized String getHiveWarehouse() {
-    checkCache();
-    return HIVE_WAREHOUSE;
+  public String getHiveWarehouse() {
+    return getSnapshot().HIVE_WAREHOUSE;
   }
 
-  private String HIVE_LLAP_SLIDER_DIR = "/home/hive/.slider";
-
-  public synchronized String getHiveLlapSliderDir() {
-    checkCache();
-    return HIVE_LLAP_SLIDER_DIR;
+  public String getHiveLlapSliderDir() {
+    return getSnapshot().HIVE_LLAP_SLIDER_DIR;
   }
 
-  private String HIVE_LLAP_LOCAL_FS_DIR = "/srv/hops/apache-hive/bin/llap";
-
-  public synchronized String getHiveLlapLocalDir() {
-    checkCache();
-    return HIVE_LLAP_LOCAL_FS_DIR;
+  public String getHiveLlapLocalDir() {
+    return getSnapshot().HIVE_LLAP_LOCAL_FS_DIR;
   }
 
-  private String HIVE_SCRATCHDIR = "/tmp/hive";
-
-  public synchronized String getHiveScratchdir() {
-    checkCache();
-    return HIVE_SCRATCHDIR;
+  public String getHiveScratchdir() {
+    return getSnapshot().HIVE_SCRATCHDIR;
   }
 
-  private String HIVE_SCRATCHDIR_DELAY = "7d";
-
-  public synchronized String getHiveScratchdirDelay() {
-    checkCache();
-    return HIVE_SCRATCHDIR_DELAY;
+  public String getHiveScratchdirDelay() {
+    return getSnapshot().HIVE_SCRATCHDIR_DELAY;
   }
 
-  private String HIVE_SCRATCHDIR_CLEANER_INTERVAL = "24h";
-
-  public synchronized String getHiveScratchdirCleanerInterval() {
-    checkCache();
-    return HIVE_SCRATCHDIR_CLEANER_INTERVAL;
+  public String getHiveScratchdirCleanerInterval() {
+    return getSnapshot().HIVE_SCRATCHDIR_CLEANER_INTERVAL;
   }
 
-  private String HIVE_DB_DEFAULT_QUOTA = "50000";
-
-  public synchronized Long getHiveDbDefaultQuota() {
-    checkCache();
-    return Long.parseLong(HIVE_DB_DEFAULT_QUOTA);
+  public Long getHiveDbDefaultQuota() {
+    return Long.parseLong(getSnapshot().HIVE_DB_DEFAULT_QUOTA);
   }
 
-  private String HOPSWORKS_IP = "127.0.0.1";
-
-  public synchronized String getHopsworksIp() {
-    checkCache();
-    return HOPSWORKS_IP;
+  public String getHopsworksIp() {
+    return getSnapshot().HOPSWORKS_IP;
   }
 
-  private String CERTS_DIR = "/srv/hops/certs-dir";
-
-  public synchronized String getCertsDir() {
-    checkCache();
-    return CERTS_DIR;
+  public String getCertsDir() {
+    return getSnapshot().CERTS_DIR;
   }
 
-  public synchronized String getHopsworksMasterEncPasswordFile() {
-    checkCache();
+  public String getHopsworksMasterEncPasswordFile() {
     return getCertsDir() + File.separator + "encryption_master_password";
   }
 
-  private String HOPSWORKS_INSTALL_DIR = "/srv/hops/domains/domain1";
-
-  public synchronized String getHopsworksDomainDir() {
-    checkCache();
-    return HOPSWORKS_INSTALL_DIR;
+  // Maximum number of derived AES keys kept by SymmetricKeyCache
+  public int getEncryptionKeyCacheSize() {
+    return getSnapshot().ENCRYPTION_KEY_CACHE_SIZE;
   }
 
-  private String SUDOERS_DIR = "/srv/hops/sbin";
-  public synchronized String getSudoersDir() {
-    checkCache();
-    return SUDOERS_DIR;
+  // Number of items each worker re-encrypts in one go when the master encryption password changes
+  public int getMasterPasswordChangeBatchSize() {
+    return getSnapshot().MASTER_PASSWORD_CHANGE_BATCH_SIZE;
   }
 
-  //User under which yarn is run
-  private String YARN_SUPERUSER = "yarn";
-
-  public synchronized String getYarnSuperUser() {
-    checkCache();
-    return YARN_SUPERUSER;
+  public String getHopsworksDomainDir() {
+    return getSnapshot().HOPSWORKS_INSTALL_DIR;
   }
-  private String HOPSWORKS_USER = "glassfish";
 
-  public synchronized String getHopsworksUser() {
-    checkCache();
-    return HOPSWORKS_USER;
+  public String getSudoersDir() {
+    return getSnapshot().SUDOERS_DIR;
   }
-  private String HDFS_SUPERUSER = "hdfs";
 
-  public synchronized String getHdfsSuperUser() {
-    checkCache();
-    return HDFS_SUPERUSER;
+  //User under which yarn is run
+  public String getYarnSuperUser() {
+    return getSnapshot().YARN_SUPERUSER;
   }
-  private String SPARK_USER = "spark";
 
-  public synchronized String getSparkUser() {
-    checkCache();
-    return SPARK_USER;
+  public String getHopsworksUser() {
+    return getSnapshot().HOPSWORKS_USER;
   }
 
-  public String JAVA_HOME = "/usr/lib/jvm/default-java";
-
-  public synchronized String getJavaHome() {
-    checkCache();
-    return JAVA_HOME;
+  public String getHdfsSuperUser() {
+    return getSnapshot().HDFS_SUPERUSER;
   }
 
-  private String FLINK_USER = "flink";
-
-  public synchronized String getFlinkUser() {
-    checkCache();
-    return FLINK_USER;
+  public String getSparkUser() {
+    return getSnapshot().SPARK_USER;
   }
 
-  private Integer YARN_DEFAULT_QUOTA = 60000;
+  public String getJavaHome() {
+    return getSnapshot().JAVA_HOME;
+  }
 
-  public synchronized Integer getYarnDefaultQuota() {
-    checkCache();
-    return YARN_DEFAULT_QUOTA;
+  public String getFlinkUser() {
+    return getSnapshot().FLINK_USER;
   }
 
+  public Integer getYarnDefaultQuota() {
+    return getSnapshot().YARN_DEFAULT_QUOTA;
+  }
 
-  private String HDFS_DEFAULT_QUOTA_MBs = "200000";
 
-  public synchronized long getHdfsDefaultQuotaInMBs() {
-    checkCache();
-    return Long.parseLong(HDFS_DEFAULT_QUOTA_MBs);
+  public long getHdfsDefaultQuotaInMBs() {
+    return Long.parseLong(getSnapshot().HDFS_DEFAULT_QUOTA_MBs);
   }
 
   // Set the DIR_ROOT (/Projects) to have DB storage policy, i.e. - small files stored on db
-  private DistributedFileSystemOps.StoragePolicy HDFS_BASE_STORAGE_POLICY
-    = DistributedFileSystemOps.StoragePolicy.SMALL_FILES;
   // To not fill the SSDs with Logs files that nobody access frequently
   // We set the StoragePolicy for the LOGS dir to be DEFAULT
-  private DistributedFileSystemOps.StoragePolicy HDFS_LOG_STORAGE_POLICY
-      = DistributedFileSystemOps.StoragePolicy.DEFAULT;
 
   private DistributedFileSystemOps.StoragePolicy setHdfsStoragePolicy(String policyName,
     DistributedFileSystemOps.StoragePolicy defaultPolicy) {
@@ -1264,39 +1544,40 @@ public class Settings implements Serializable {
     }
   }
 
-  public synchronized DistributedFileSystemOps.StoragePolicy getHdfsBaseStoragePolicy() {
-    checkCache();
-    return HDFS_BASE_STORAGE_POLICY;
+  public DistributedFileSystemOps.StoragePolicy getHdfsBaseStoragePolicy() {
+    return getSnapshot().HDFS_BASE_STORAGE_POLICY;
+  }
+
+  public DistributedFileSystemOps.StoragePolicy getHdfsLogStoragePolicy() {
+    return getSnapshot().HDFS_LOG_STORAGE_POLICY;
   }
 
-  public synchronized DistributedFileSystemOps.StoragePolicy getHdfsLogStoragePolicy() {
-    checkCache();
-    return HDFS_LOG_STORAGE_POLICY;
+  // Maximum number of per-user HDFS clients kept open by DistributedFsService
+  public int getDfsClientPoolMaxSize() {
+    return getSnapshot().DFS_CLIENT_POOL_MAX_SIZE;
+  }
+
+  public long getDfsClientPoolIdleTimeoutMs() {
+    return getSnapshot().DFS_CLIENT_POOL_IDLE_TIMEOUT_MS;
   }
 
   private String AIRFLOW_WEB_UI_IP = "127.0.0.1";
   private int AIRFLOW_WEB_UI_PORT = 12358;
 
-  public synchronized String getAirflowWebUIAddress() {
-    checkCache();
+  public String getAirflowWebUIAddress() {
     return AIRFLOW_WEB_UI_IP + ":" + AIRFLOW_WEB_UI_PORT + "/hopsworks-api/airflow";
   }
 
-  private Integer MAX_NUM_PROJ_PER_USER = 5;
-  public synchronized Integer getMaxNumProjPerUser() {
-    checkCache();
-    return MAX_NUM_PROJ_PER_USER;
+  public Integer getMaxNumProjPerUser() {
+    return getSnapshot().MAX_NUM_PROJ_PER_USER;
   }
 
-  private String HADOOP_VERSION = "2.8.2";
-
-  public synchronized String getHadoopVersion() {
-    checkCache();
-    return HADOOP_VERSION;
+  public String getHadoopVersion() {
+    return getSnapshot().HADOOP_VERSION;
   }
 
   //Hadoop locations
-  public synchronized String getHadoopConfDir() {
+  public String getHadoopConfDir() {
     return hadoopConfDir(getHadoopSymbolicLinkDir());
   }
 
@@ -1308,7 +1589,7 @@ public class Settings implements Serializable {
     return hadoopConfDir(hadoopDir);
   }
 
-  public synchronized String getYarnConfDir() {
+  public String getYarnConfDir() {
     return getHadoopConfDir();
   }
 
@@ -1366,8 +1647,6 @@ public class Settings implements Serializable {
   public static final int SPARK_MIN_EXECS = 1;
   public static final int SPARK_MAX_EXECS = 2;
   public static final String SPARK_HADOOP_FS_PERMISSIONS_UMASK_DEFAULT = "0007";
-  // Spark executor min memory
-  private int SPARK_EXECUTOR_MIN_MEMORY = 1024;
 
   //Flink constants
   public static final String FLINK_LOCRSC_FLINK_JAR = "flink.jar";
@@ -1401,11 +1680,11 @@ public class Settings implements Serializable {
   public static final Set<String> KAFKA_SUBJECT_BLACKLIST =
     new HashSet<>(Arrays.asList(INFERENCE_SCHEMANAME, PROJECT_COMPATIBILITY_SUBJECT));
 
-  public synchronized String getLocalFlinkJarPath() {
+  public String getLocalFlinkJarPath() {
     return getFlinkDir() + "/flink.jar";
   }
 
-  public synchronized String getFlinkJarPath() {
+  public String getFlinkJarPath() {
     return hdfsFlinkJarPath(getFlinkUser());
   }
 
@@ -1413,7 +1692,7 @@ public class Settings implements Serializable {
     return "hdfs:///user/" + flinkUser + "/flink.jar";
   }
 
-  public synchronized String getFlinkDefaultClasspath() {
+  public String getFlinkDefaultClasspath() {
     return flinkDefaultClasspath(getFlinkDir());
   }
 
@@ -1433,7 +1712,7 @@ public class Settings implements Serializable {
     return "hdfs:///user/" + getSparkUser() + "/metrics.properties";
   }
 
-  public synchronized String getSparkDefaultClasspath() {
+  public String getSparkDefaultClasspath() {
     return sparkDefaultClasspath(getSparkDir());
   }
 
@@ -1502,108 +1781,83 @@ public class Settings implements Serializable {
     "REGEXP, RLIKE, ROLLBACK, START, CACHE, CONSTRAINT, FOREIGN, PRIMARY, REFERENCES, DAYOFWEEK, EXTRACT, FLOOR, " +
     "INTEGER, PRECISION, VIEWS, TIME, NUMERIC, SYNC";
 
-  private Set<String> RESERVED_PROJECT_NAMES;
-  private String RESERVED_PROJECT_NAMES_STR;
-  
-  public synchronized Set<String> getReservedProjectNames() {
-    checkCache();
-    RESERVED_PROJECT_NAMES = RESERVED_PROJECT_NAMES != null ? RESERVED_PROJECT_NAMES : new HashSet<>();
-    RESERVED_PROJECT_NAMES.addAll(getReservedHiveNames());
-    return RESERVED_PROJECT_NAMES;
+  public Set<String> getReservedProjectNames() {
+    return getSnapshot().RESERVED_PROJECT_NAMES;
   }
 
-  public synchronized Set<String> getReservedHiveNames() {
+  public Set<String> getReservedHiveNames() {
     return setStringHashSetLowerCase(DEFAULT_RESERVED_HIVE_NAMES, ",", true);
   }
 
-  public synchronized String getProjectNameReservedWords() {
-    checkCache();
-    return (RESERVED_PROJECT_NAMES_STR + ", " + DEFAULT_RESERVED_HIVE_NAMES).toLowerCase();
+  public String getProjectNameReservedWords() {
+    return (getSnapshot().RESERVED_PROJECT_NAMES_STR + ", " + DEFAULT_RESERVED_HIVE_NAMES).toLowerCase();
   }
 
   //Only for unit test
-  public synchronized String getProjectNameReservedWordsTest() {
+  public String getProjectNameReservedWordsTest() {
     return (DEFAULT_RESERVED_PROJECT_NAMES + ", " + DEFAULT_RESERVED_HIVE_NAMES).toLowerCase();
   }
   
   // Elasticsearch
-  ElasticSettings ELASTIC_SETTINGS;
   
-  public synchronized List<String> getElasticIps(){
-    checkCache();
-    return ELASTIC_SETTINGS.getElasticIps();
+  public List<String> getElasticIps(){
+    return getSnapshot().ELASTIC_SETTINGS.getElasticIps();
   }
   
-  public synchronized int getElasticPort() {
-    checkCache();
-    return ELASTIC_SETTINGS.getElasticPort();
+  public int getElasticPort() {
+    return getSnapshot().ELASTIC_SETTINGS.getElasticPort();
   }
   
-  public synchronized int getElasticRESTPort() {
-    checkCache();
-    return ELASTIC_SETTINGS.getElasticRESTPort();
+  public int getElasticRESTPort() {
+    return getSnapshot().ELASTIC_SETTINGS.getElasticRESTPort();
   }
   
-  public synchronized String getElasticEndpoint() {
-    checkCache();
-    return ELASTIC_SETTINGS.getElasticEndpoint();
+  public String getElasticEndpoint() {
+    return getSnapshot().ELASTIC_SETTINGS.getElasticEndpoint();
   }
 
-  public synchronized String getElasticRESTEndpoint() {
-    checkCache();
-    return ELASTIC_SETTINGS.getElasticRESTEndpoint();
+  public String getElasticRESTEndpoint() {
+    return getSnapshot().ELASTIC_SETTINGS.getElasticRESTEndpoint();
   }
   
-  public synchronized boolean isElasticOpenDistroSecurityEnabled() {
-    checkCache();
-    return ELASTIC_SETTINGS.isOpenDistroSecurityEnabled();
+  public boolean isElasticOpenDistroSecurityEnabled() {
+    return getSnapshot().ELASTIC_SETTINGS.isOpenDistroSecurityEnabled();
   }
   
-  public synchronized boolean isElasticHTTPSEnabled() {
-    checkCache();
-    return ELASTIC_SETTINGS.isHttpsEnabled();
+  public boolean isElasticHTTPSEnabled() {
+    return getSnapshot().ELASTIC_SETTINGS.isHttpsEnabled();
   }
   
-  public synchronized String getElasticAdminUser() {
-    checkCache();
-    return ELASTIC_SETTINGS.getAdminUser();
+  public String getElasticAdminUser() {
+    return getSnapshot().ELASTIC_SETTINGS.getAdminUser();
   }
   
-  public synchronized String getElasticAdminPassword() {
-    checkCache();
-    return ELASTIC_SETTINGS.getAdminPassword();
+  public String getElasticAdminPassword() {
+    return getSnapshot().ELASTIC_SETTINGS.getAdminPassword();
   }
   
-  public synchronized boolean isElasticJWTEnabled() {
-    checkCache();
-    return ELASTIC_SETTINGS.isElasticJWTEnabled();
+  public boolean isElasticJWTEnabled() {
+    return getSnapshot().ELASTIC_SETTINGS.isElasticJWTEnabled();
   }
   
-  public synchronized String getElasticJwtUrlParameter() {
-    checkCache();
-    return ELASTIC_SETTINGS.getElasticJWTURLParameter();
+  public String getElasticJwtUrlParameter() {
+    return getSnapshot().ELASTIC_SETTINGS.getElasticJWTURLParameter();
   }
   
-  public synchronized long getElasicJwtExpMs() {
-    checkCache();
-    return ELASTIC_SETTINGS.getElasticJWTExpMs();
+  public long getElasicJwtExpMs() {
+    return getSnapshot().ELASTIC_SETTINGS.getElasticJWTExpMs();
   }
   
-  public synchronized Integer getElasticDefaultScrollPageSize() {
-    checkCache();
-    return ELASTIC_SETTINGS.getDefaultScrollPageSize();
+  public Integer getElasticDefaultScrollPageSize() {
+    return getSnapshot().ELASTIC_SETTINGS.getDefaultScrollPageSize();
   }
   
-  public synchronized Integer getElasticMaxScrollPageSize() {
-    checkCache();
-    return ELASTIC_SETTINGS.getMaxScrollPageSize();
+  public Integer getElasticMaxScrollPageSize() {
+    return getSnapshot().ELASTIC_SETTINGS.getMaxScrollPageSize();
   }
 
-  private long ELASTIC_LOGS_INDEX_EXPIRATION = 7 * 24 * 60 * 60 * 1000;
-
-  public synchronized long getElasticLogsIndexExpiration() {
-    checkCache();
-    return ELASTIC_LOGS_INDEX_EXPIRATION;
+  public long getElasticLogsIndexExpiration() {
+    return getSnapshot().ELASTIC_LOGS_INDEX_EXPIRATION;
   }
 
   private static final int JOB_LOGS_EXPIRATION = 604800;
@@ -1623,6 +1877,71 @@ public class Settings implements Serializable {
     return JOB_LOGS_DISPLAY_SIZE;
   }
 
+  // How often the container logs of a running application are polled when following them
+  public long getJobLogFollowInterval() {
+    return getSnapshot().JOB_LOG_FOLLOW_INTERVAL_MS;
+  }
+
+  // For how long a follow request waits for new container logs before it returns empty handed
+  public long getJobLogFollowTimeout() {
+    return getSnapshot().JOB_LOG_FOLLOW_TIMEOUT_MS;
+  }
+
+  // Upper bound of the interval between two log aggregation status checks of the same application
+  public long getLogAggregationMaxBackoff() {
+    return getSnapshot().LOG_AGGREGATION_MAX_BACKOFF_MS;
+  }
+
+  // For how long to wait for the log aggregation of a finished application before copying what is available
+  public long getLogAggregationTimeout() {
+    return getSnapshot().LOG_AGGREGATION_TIMEOUT_MS;
+  }
+
+  // How often the ResourceManager cluster metrics are sampled while there are clients reading them
+  public long getClusterMetricsSampleInterval() {
+    return getSnapshot().CLUSTER_METRICS_SAMPLE_INTERVAL_MS;
+  }
+
+  // For how long the executors of an application read from InfluxDB are reused before being refreshed
+  public long getAppInfoCacheTtl() {
+    return getSnapshot().APP_INFO_CACHE_TTL_MS;
+  }
+
+  // Maximum number of workers changing the ownership and permissions of a sub-tree in parallel
+  public int getInodeTreeWalkConcurrency() {
+    return getSnapshot().INODE_TREE_WALK_CONCURRENCY;
+  }
+
+  // Number of children of a directory read from the database at once while walking a sub-tree
+  public int getInodeTreeWalkPageSize() {
+    return getSnapshot().INODE_TREE_WALK_PAGE_SIZE;
+  }
+
+  // Number of small entries of a zip archive read or written in parallel while zipping or unzipping
+  public int getArchiveEntryConcurrency() {
+    return getSnapshot().ARCHIVE_ENTRY_CONCURRENCY;
+  }
+
+  // Number of segments of a download read ahead in parallel while the current one is sent, 0 to read sequentially
+  public int getDownloadPrefetchSegments() {
+    return getSnapshot().DOWNLOAD_PREFETCH_SEGMENTS;
+  }
+
+  // For how long the schema of a feature group is served from memory if no change is seen by this instance
+  public long getFeaturegroupSchemaCacheTtl() {
+    return getSnapshot().FEATUREGROUP_SCHEMA_CACHE_TTL_MS;
+  }
+
+  // Messages waiting to be sent to a metadata websocket session before the session is closed as too slow
+  public int getWebsocketSendQueueSize() {
+    return getSnapshot().WEBSOCKET_SEND_QUEUE_SIZE;
+  }
+
+  // Number of batches of expired Jupyter and Airflow JWTs renewed in parallel by a renewal sweep
+  public int getJWTRenewalConcurrency() {
+    return getSnapshot().JWT_RENEWAL_CONCURRENCY;
+  }
+
   private static final String JOB_LOGS_ID_FIELD = "jobid";
 
   public String getJobLogsIdField() {
@@ -1638,72 +1957,55 @@ public class Settings implements Serializable {
   // m: minutes (default)
   // h: hours
   // d: days
-  private String CERTIFICATE_MATERIALIZER_DELAY = "1m";
-
-  public synchronized String getCertificateMaterializerDelay() {
-    checkCache();
-    return CERTIFICATE_MATERIALIZER_DELAY;
+  public String getCertificateMaterializerDelay() {
+    return getSnapshot().CERTIFICATE_MATERIALIZER_DELAY;
   }
 
-  private String CERTIFICATE_USER_VALID_DAYS = "12";
-
-  public synchronized String getCertificateUserValidDays() {
-    checkCache();
-    return CERTIFICATE_USER_VALID_DAYS;
+  public String getCertificateUserValidDays() {
+    return getSnapshot().CERTIFICATE_USER_VALID_DAYS;
   }
 
   
-  private String SERVICE_DISCOVERY_DOMAIN = "consul";
-  public synchronized String getServiceDiscoveryDomain() {
-    checkCache();
-    return SERVICE_DISCOVERY_DOMAIN;
+  public String getServiceDiscoveryDomain() {
+    return getSnapshot().SERVICE_DISCOVERY_DOMAIN;
   }
 
 
   // MapReduce Job History Server
-  private String JHS_IP = "127.0.0.1";
 
-  public synchronized String getJhsIp() {
-    checkCache();
-    return JHS_IP;
+  public String getJhsIp() {
+    return getSnapshot().JHS_IP;
   }
 
   // Livy Server`
   private final String LIVY_YARN_MODE = "yarn";
 
-  public synchronized String getLivyYarnMode() {
-    checkCache();
+  public String getLivyYarnMode() {
     return LIVY_YARN_MODE;
   }
 
   // Kibana
   public static final String KIBANA_INDEX_PREFIX = ".kibana";
   
-  private String KIBANA_IP = "10.0.2.15";
   private static final int KIBANA_PORT = 5601;
 
-  public synchronized String getKibanaUri() {
-    checkCache();
-    return (KIBANA_HTTPS_ENABELED ? "https" : "http") + "://" + KIBANA_IP +
+  public String getKibanaUri() {
+    Snapshot s = getSnapshot();
+    return (s.KIBANA_HTTPS_ENABELED ? "https" : "http") + "://" + s.KIBANA_IP +
         ":" + KIBANA_PORT;
   }
   
-  public synchronized String getKibanaAppUri() {
-    checkCache();
+  public String getKibanaAppUri() {
     return "/hopsworks-api/kibana/app/kibana?";
   }
   
-  public synchronized String getKibanaAppUri(String jwtToken) {
-    checkCache();
-    return  getKibanaAppUri() + ELASTIC_SETTINGS.getElasticJWTURLParameter()
+  public String getKibanaAppUri(String jwtToken) {
+    return  getKibanaAppUri() + getSnapshot().ELASTIC_SETTINGS.getElasticJWTURLParameter()
         + "=" + jwtToken + "&";
   }
 
-  private String ZK_USER = "zk";
-
-  public synchronized String getZkUser() {
-    checkCache();
-    return ZK_USER;
+  public String getZkUser() {
+    return getSnapshot().ZK_USER;
   }
 
   /*
@@ -1711,85 +2013,54 @@ public class Settings implements Serializable {
    * userlogins table for auditing.
    * kagent -> agent@hops.io
    */
-  private String WHITELIST_USERS_LOGIN = "agent@hops.io";
-
-  public synchronized String getWhitelistUsersLogin() {
-    checkCache();
-    return WHITELIST_USERS_LOGIN;
+  public String getWhitelistUsersLogin() {
+    return getSnapshot().WHITELIST_USERS_LOGIN;
   }
 
   // Jupyter
-  private String JUPYTER_DIR = "/srv/hops/jupyter";
 
-  public synchronized String getJupyterDir() {
-    checkCache();
-    return JUPYTER_DIR;
+  public String getJupyterDir() {
+    return getSnapshot().JUPYTER_DIR;
   }
 
-  private String JUPYTER_USER = "jupyter";
-
-  public synchronized String getJupyterUser() {
-    checkCache();
-    return JUPYTER_USER;
+  public String getJupyterUser() {
+    return getSnapshot().JUPYTER_USER;
   }
 
-  private String JUPYTER_GROUP = "jupyter";
-
-  public synchronized String getJupyterGroup() {
-    checkCache();
-    return JUPYTER_GROUP;
+  public String getJupyterGroup() {
+    return getSnapshot().JUPYTER_GROUP;
   }
 
-  private String JUPYTER_ORIGIN_SCHEME = "https";
-
-  public synchronized String getJupyterOriginScheme() {
-    checkCache();
-    return JUPYTER_ORIGIN_SCHEME;
+  public String getJupyterOriginScheme() {
+    return getSnapshot().JUPYTER_ORIGIN_SCHEME;
   }
 
-  private long JUPYTER_WS_PING_INTERVAL_MS = 10000L;
-
-  public synchronized long getJupyterWSPingInterval() {
-    checkCache();
-    return JUPYTER_WS_PING_INTERVAL_MS;
+  public long getJupyterWSPingInterval() {
+    return getSnapshot().JUPYTER_WS_PING_INTERVAL_MS;
 
   }
 
   // Service key rotation interval
   private static final String JUPYTER_SHUTDOWN_TIMER_INTERVAL = "jupyter_shutdown_timer_interval";
-  private String jupyterShutdownTimerInterval = "30m";
 
-  public synchronized String getJupyterShutdownTimerInterval() {
-    checkCache();
-    return jupyterShutdownTimerInterval;
+  public String getJupyterShutdownTimerInterval() {
+    return getSnapshot().jupyterShutdownTimerInterval;
   }
 
-  private String KAFKA_USER = "kafka";
-
-  public synchronized String getKafkaUser() {
-    checkCache();
-    return KAFKA_USER;
+  public String getKafkaUser() {
+    return getSnapshot().KAFKA_USER;
   }
 
-  private String KAFKA_DIR = "/srv/kafka";
-
-  public synchronized String getKafkaDir() {
-    checkCache();
-    return KAFKA_DIR;
+  public String getKafkaDir() {
+    return getSnapshot().KAFKA_DIR;
   }
 
-  private String ANACONDA_USER = "anaconda";
-
-  public synchronized String getAnacondaUser() {
-    checkCache();
-    return ANACONDA_USER;
+  public String getAnacondaUser() {
+    return getSnapshot().ANACONDA_USER;
   }
 
-  private String ANACONDA_DIR = "/srv/hops/anaconda";
-
-  public synchronized String getAnacondaDir() {
-    checkCache();
-    return ANACONDA_DIR;
+  public String getAnacondaDir() {
+    return getSnapshot().ANACONDA_DIR;
   }
 
   private String condaEnvName = "theenv";
@@ -1807,79 +2078,55 @@ public class Settings implements Serializable {
     return condaEnvName;
   }
   
-  private Boolean ANACONDA_ENABLED = true;
-
-  public synchronized Boolean isAnacondaEnabled() {
-    checkCache();
-    return ANACONDA_ENABLED;
+  public Boolean isAnacondaEnabled() {
+    return getSnapshot().ANACONDA_ENABLED;
   }
 
-  private Boolean DOWNLOAD_ALLOWED = true;
-  public synchronized Boolean isDownloadAllowed() {
-    checkCache();
-    return DOWNLOAD_ALLOWED;
+  public Boolean isDownloadAllowed() {
+    return getSnapshot().DOWNLOAD_ALLOWED;
   }
 
 //  private String CONDA_CHANNEL_URL = "https://repo.continuum.io/pkgs/free/linux-64/";
   private String CONDA_CHANNEL_URL = "default";
 
-  public synchronized String getCondaChannelUrl() {
-    checkCache();
+  public String getCondaChannelUrl() {
     return CONDA_CHANNEL_URL;
   }
 
   /**
    * kagent liveness monitor settings
    */
-  private String KAGENT_USER = "kagent";
-  public synchronized String getKagentUser() {
-    checkCache();
-    return KAGENT_USER;
+  public String getKagentUser() {
+    return getSnapshot().KAGENT_USER;
   }
 
-  private boolean KAGENT_LIVENESS_MONITOR_ENABLED = false;
-  public synchronized boolean isKagentLivenessMonitorEnabled() {
-    checkCache();
-    return KAGENT_LIVENESS_MONITOR_ENABLED;
+  public boolean isKagentLivenessMonitorEnabled() {
+    return getSnapshot().KAGENT_LIVENESS_MONITOR_ENABLED;
   }
 
-  private String KAGENT_LIVENESS_THRESHOLD = "10s";
-  public synchronized String getKagentLivenessThreshold() {
-    checkCache();
-    return KAGENT_LIVENESS_THRESHOLD;
+  public String getKagentLivenessThreshold() {
+    return getSnapshot().KAGENT_LIVENESS_THRESHOLD;
   }
 
-  private RESTLogLevel HOPSWORKS_REST_LOG_LEVEL = RESTLogLevel.PROD;
-
-  public synchronized RESTLogLevel getHopsworksRESTLogLevel() {
-    checkCache();
-    return HOPSWORKS_REST_LOG_LEVEL;
+  public RESTLogLevel getHopsworksRESTLogLevel() {
+    return getSnapshot().HOPSWORKS_REST_LOG_LEVEL;
   }
 
-  private String SUPPORT_EMAIL_ADDR = "support@hops.io";
-
-  public synchronized String getSupportEmailAddr() {
-    checkCache();
-    return SUPPORT_EMAIL_ADDR;
+  public String getSupportEmailAddr() {
+    return getSnapshot().SUPPORT_EMAIL_ADDR;
   }
 
-  private String FIRST_TIME_LOGIN = "0";
-
-  public synchronized String getFirstTimeLogin() {
-    checkCache();
-    return FIRST_TIME_LOGIN;
+  public String getFirstTimeLogin() {
+    return getSnapshot().FIRST_TIME_LOGIN;
   }
 
 
-  private String ADMIN_EMAIL = "admin@hopsworks.ai";
-
-  public synchronized String getAdminEmail() {
-    checkCache();
-    return ADMIN_EMAIL;
+  public String getAdminEmail() {
+    return getSnapshot().ADMIN_EMAIL;
   }
   
-  public synchronized boolean isDefaultAdminPasswordChanged() {
-    Users user = userFacade.findByEmail(ADMIN_EMAIL);
+  public boolean isDefaultAdminPasswordChanged() {
+    Users user = userFacade.findByEmail(getSnapshot().ADMIN_EMAIL);
     if (user != null) {
       String DEFAULT_ADMIN_PWD = "12fa520ec8f65d3a6feacfa97a705e622e1fea95b80b521ec016e43874dfed5a";
       return !DEFAULT_ADMIN_PWD.equals(user.getPassword());
@@ -1887,38 +2134,24 @@ public class Settings implements Serializable {
     return false;
   }
 
-  private String HOPSWORKS_DEFAULT_SSL_MASTER_PASSWORD = "adminpw";
-
-  public synchronized String getHopsworksMasterPasswordSsl() {
-    checkCache();
-    return HOPSWORKS_DEFAULT_SSL_MASTER_PASSWORD;
+  public String getHopsworksMasterPasswordSsl() {
+    return getSnapshot().HOPSWORKS_DEFAULT_SSL_MASTER_PASSWORD;
   }
 
-  private Integer KAFKA_DEFAULT_NUM_PARTITIONS = 2;
-  private Integer KAFKA_DEFAULT_NUM_REPLICAS = 1;
-
-  public synchronized Integer getKafkaDefaultNumPartitions() {
-    checkCache();
-    return KAFKA_DEFAULT_NUM_PARTITIONS;
+  public Integer getKafkaDefaultNumPartitions() {
+    return getSnapshot().KAFKA_DEFAULT_NUM_PARTITIONS;
   }
 
-  public synchronized Integer getKafkaDefaultNumReplicas() {
-    checkCache();
-    return KAFKA_DEFAULT_NUM_REPLICAS;
+  public Integer getKafkaDefaultNumReplicas() {
+    return getSnapshot().KAFKA_DEFAULT_NUM_REPLICAS;
   }
 
-  private String ZK_DIR = "/srv/zookeeper";
-
-  public synchronized String getZkDir() {
-    checkCache();
-    return ZK_DIR;
+  public String getZkDir() {
+    return getSnapshot().ZK_DIR;
   }
 
-  private String CLUSTER_CERT = "asdasxasx8as6dx8a7sx7asdta8dtasxa8";
-
-  public synchronized String getCLUSTER_CERT() {
-    checkCache();
-    return CLUSTER_CERT;
+  public String getCLUSTER_CERT() {
+    return getSnapshot().CLUSTER_CERT;
   }
 
   // Hopsworks
@@ -2003,8 +2236,6 @@ public class Settings implements Serializable {
   public static final String HOPSWORKS_ELASTIC_ENDPOINT_PROPERTY = "hopsworks.elastic.endpoint";
   public static final String HOPSWORKS_DOMAIN_CA_TRUSTSTORE_PROPERTY = "hopsworks.domain.truststore";
 
-  private int FILE_PREVIEW_IMAGE_SIZE = 10000000;
-  private int FILE_PREVIEW_TXT_SIZE = 100;
   public static final int FILE_PREVIEW_TXT_SIZE_BYTES = 1024 * 384;
   public static final String README_TEMPLATE = "*This is an auto-generated README.md"
       + " file for your Dataset!*\n"
@@ -2062,9 +2293,8 @@ public class Settings implements Serializable {
    *
    * @return file size
    */
-  public synchronized int getFilePreviewImageSize() {
-    checkCache();
-    return FILE_PREVIEW_IMAGE_SIZE;
+  public int getFilePreviewImageSize() {
+    return getSnapshot().FILE_PREVIEW_IMAGE_SIZE;
   }
 
   /**
@@ -2072,29 +2302,21 @@ public class Settings implements Serializable {
    *
    * @return file size
    */
-  public synchronized int getFilePreviewTxtSize() {
-    checkCache();
-    return FILE_PREVIEW_TXT_SIZE;
+  public int getFilePreviewTxtSize() {
+    return getSnapshot().FILE_PREVIEW_TXT_SIZE;
   }
 
-  private String INFLUXDB_IP = "localhost";
-  private String INFLUXDB_PORT = "8086";
-  private String INFLUXDB_USER = "hopsworks";
-  private String INFLUXDB_PW = "hopsworks";
-
-  public synchronized String getInfluxDBAddress() {
-    checkCache();
-    return "http://" + INFLUXDB_IP + ":" + INFLUXDB_PORT;
+  public String getInfluxDBAddress() {
+    Snapshot s = getSnapshot();
+    return "http://" + s.INFLUXDB_IP + ":" + s.INFLUXDB_PORT;
   }
 
-  public synchronized String getInfluxDBUser() {
-    checkCache();
-    return INFLUXDB_USER;
+  public String getInfluxDBUser() {
+    return getSnapshot().INFLUXDB_USER;
   }
 
-  public synchronized String getInfluxDBPW() {
-    checkCache();
-    return INFLUXDB_PW;
+  public String getInfluxDBPW() {
+    return getSnapshot().INFLUXDB_PW;
   }
 
   //Project creation: default datasets
@@ -2148,11 +2370,9 @@ public class Settings implements Serializable {
   }
 
   public static final String JUPYTER_PIDS = "/tmp/jupyterNotebookServer.pids";
-  private String RESOURCE_DIRS = ".sparkStaging;spark-warehouse";
 
-  public synchronized String getResourceDirs() {
-    checkCache();
-    return RESOURCE_DIRS;
+  public String getResourceDirs() {
+    return getSnapshot().RESOURCE_DIRS;
   }
 
   private static final String FEATURESTORE_IMPORT_PARENT_DIR = "featurestore_import";
@@ -2167,8 +2387,7 @@ public class Settings implements Serializable {
 
   public static final String REDSHIFT_JDBC_NAME = "RedshiftJDBC42-no-awssdk.jar";
 
-  public synchronized String getFeaturestoreImportJobPath() {
-    checkCache();
+  public String getFeaturestoreImportJobPath() {
     return "hdfs:///user" + Path.SEPARATOR + getSparkUser() + Path.SEPARATOR + FEATURESTORE_IMPORT_JOB_NAME;
   }
   
@@ -2182,8 +2401,7 @@ public class Settings implements Serializable {
       Settings.FEATURESTORE_TRAININGDATASET_JOB_PARENT_DIR + Path.SEPARATOR;
   }
   
-  public synchronized String getFeaturestoreTrainingDatasetJobPath(String sql_query) {
-    checkCache();
+  public String getFeaturestoreTrainingDatasetJobPath(String sql_query) {
     if (sql_query != null) {
       return "hdfs:///user" + Path.SEPARATOR + getSparkUser() + Path.SEPARATOR +
         FEATURESTORE_TRAININGDATASET_SQL_JOB_NAME;
@@ -2195,11 +2413,8 @@ public class Settings implements Serializable {
   public Settings() {
   }
 
-  private String ALERT_EMAIL_ADDRS = "";
-
-  public synchronized String getAlertEmailAddrs() {
-    checkCache();
-    return ALERT_EMAIL_ADDRS;
+  public String getAlertEmailAddrs() {
+    return getSnapshot().ALERT_EMAIL_ADDRS;
   }
 
   /**
@@ -2321,18 +2536,25 @@ public class Settings implements Serializable {
     }
   }
 
-  private int KAFKA_MAX_NUM_TOPICS = 10;
+  public int getKafkaMaxNumTopics() {
+    return getSnapshot().KAFKA_MAX_NUM_TOPICS;
+  }
+
+  // Producer settings of the per-project Kafka producers used for inference logging
+  public int getInferenceLoggerLingerMs() {
+    return getSnapshot().INFERENCE_LOGGER_LINGER_MS;
+  }
 
-  public synchronized int getKafkaMaxNumTopics() {
-    checkCache();
-    return KAFKA_MAX_NUM_TOPICS;
+  public long getInferenceLoggerBufferMemory() {
+    return getSnapshot().INFERENCE_LOGGER_BUFFER_MEMORY;
   }
 
-  private int MAX_STATUS_POLL_RETRY = 5;
+  public long getInferenceLoggerIdleTimeoutMs() {
+    return getSnapshot().INFERENCE_LOGGER_IDLE_TIMEOUT_MS;
+  }
 
-  public synchronized int getMaxStatusPollRetry() {
-    checkCache();
-    return MAX_STATUS_POLL_RETRY;
+  public int getMaxStatusPollRetry() {
+    return getSnapshot().MAX_STATUS_POLL_RETRY;
   }
 
   /**
@@ -2362,112 +2584,32 @@ public class Settings implements Serializable {
     return aggregatedLogPath;
   }
 
-  // For performance reasons, we have an in-memory cache of files being unzipped
-  // Lazily remove them from the cache, when we check the FS and they aren't there.
-  private Set<String> zippingFiles = new HashSet<>();
-
-  public synchronized void addZippingState(String hdfsPath) {
-    zippingFiles.add(hdfsPath);
-  }
-  private Set<String> unzippingFiles = new HashSet<>();
-
-  public synchronized void addUnzippingState(String hdfsPath) {
-    unzippingFiles.add(hdfsPath);
-  }
-
-  public synchronized String getZipState(String hdfsPath) {
-
-    boolean zipOperation = false;
-    boolean unzipOperation = false;
-
-    if (zippingFiles.contains(hdfsPath)) {
-      zipOperation = true;
-    } else if (unzippingFiles.contains(hdfsPath)) {
-      unzipOperation = true;
-    } else {
-      return "NONE";
-    }
-
-    String hashedPath = DigestUtils.sha256Hex(hdfsPath);
-    String fsmPath = getStagingDir() + File.separator + hashedPath + "/fsm.txt";
-    String state = "NOT_FOUND";
-    try {
-      state = new String(java.nio.file.Files.readAllBytes(Paths.get(fsmPath)));
-      state = state.trim();
-    } catch (IOException ex) {
-
-      String stagingDir = getStagingDir() + File.separator + hashedPath;
-      if (!java.nio.file.Files.exists(Paths.get(stagingDir))) {
-        state = "NONE";
-        // lazily remove the file, probably because it has finished zipping/unzipping
-        if (zipOperation) {
-          zippingFiles.remove(hdfsPath);
-        } else if (unzipOperation) {
-          unzippingFiles.remove(hdfsPath);
-        }
-      }
-    }
-    // If a terminal state has been reached, removed the entry and the file.
-    if (state.isEmpty() || state.compareTo("FAILED") == 0 || state.compareTo("SUCCESS") == 0) {
-      try {
-        if (zipOperation) {
-          zippingFiles.remove(hdfsPath);
-        } else if (unzipOperation) {
-          unzippingFiles.remove(hdfsPath);
-        }
-        java.nio.file.Files.deleteIfExists(Paths.get(fsmPath));
-      } catch (IOException ex) {
-        Logger.getLogger(Settings.class.getName()).log(Level.SEVERE, null, ex);
-      }
-    }
-    if (state.isEmpty()) {
-      state = "NOT_FOUND";
-    }
-
-    return state;
-  }
-
-  private boolean PYTHON_KERNEL = true;
-
-  public synchronized boolean isPythonKernelEnabled() {
-    checkCache();
-    return PYTHON_KERNEL;
+  public boolean isPythonKernelEnabled() {
+    return getSnapshot().PYTHON_KERNEL;
   }
 
-  private String PYPI_REST_ENDPOINT = "https://pypi.org/pypi/{package}/json";
-
-  public synchronized String getPyPiRESTEndpoint() {
-    checkCache();
-    return PYPI_REST_ENDPOINT;
+  public String getPyPiRESTEndpoint() {
+    return getSnapshot().PYPI_REST_ENDPOINT;
   }
 
-  private String HOPS_EXAMPLES_VERSION = "0.3.0";
-
-  public synchronized String getHopsExamplesSparkFilename() {
-    checkCache();
-    return "hops-examples-spark-" + HOPS_EXAMPLES_VERSION + ".jar";
+  public String getHopsExamplesSparkFilename() {
+    return "hops-examples-spark-" + getSnapshot().HOPS_EXAMPLES_VERSION + ".jar";
   }
 
-  public synchronized String getHopsExamplesFeaturestoreTourFilename() {
-    checkCache();
-    return "hops-examples-featurestore-tour-" + HOPS_EXAMPLES_VERSION + ".jar";
+  public String getHopsExamplesFeaturestoreTourFilename() {
+    return "hops-examples-featurestore-tour-" + getSnapshot().HOPS_EXAMPLES_VERSION + ".jar";
   }
 
-  public synchronized String getHopsExamplesFeaturestoreUtil4JFilename() {
-    checkCache();
-    return "hops-examples-featurestore-util4j-" + HOPS_EXAMPLES_VERSION + ".jar";
+  public String getHopsExamplesFeaturestoreUtil4JFilename() {
+    return "hops-examples-featurestore-util4j-" + getSnapshot().HOPS_EXAMPLES_VERSION + ".jar";
   }
 
-  public synchronized String getHopsExamplesFeaturestoreUtilPythonFilename() {
-    checkCache();
+  public String getHopsExamplesFeaturestoreUtilPythonFilename() {
     return "featurestore_util.py";
   }
 
-  private String VERIFICATION_PATH = "/hopsworks-admin/security/validate_account.xhtml";
-
-  public synchronized String getEmailVerificationEndpoint() {
-    checkCache();
-    return VERIFICATION_PATH;
+  public String getEmailVerificationEndpoint() {
+    return getSnapshot().VERIFICATION_PATH;
   }
 
   //Dela START
@@ -2487,131 +2629,107 @@ public class Settings implements Serializable {
   private static final String VARIABLE_DELA_TRANSFER_ENDPOINT = "dela_transfer_endpoint";
 
   public static final Level DELA_DEBUG = Level.INFO;
-  private String HOPSSITE_HOST = "hops.site";
-  private String HOPSSITE = "http://hops.site:5081/hops-site/api";
-  private Boolean DELA_ENABLED = false; // set to false if not found in variables table
-  private DelaClientType DELA_CLIENT_TYPE = DelaClientType.FULL_CLIENT;
 
   private long HOPSSITE_HEARTBEAT_RETRY = 10 * 1000l; //10s
-  private long HOPSSITE_HEARTBEAT_INTERVAL = 10 * 60 * 1000l;//10min
-
-  private String DELA_TRANSFER_IP = "localhost";
-  private String DELA_TRANSFER_HTTP_PORT = "42000";
-  private String DELA_PUBLIC_HOPSWORK_PORT = "8080";
-  private String PUBLIC_HTTPS_PORT = "8181";
-
-  //set on registration after Dela is contacted to detect public port
-  private String DELA_SEARCH_ENDPOINT = "";
-  private String DELA_TRANSFER_ENDPOINT = "";
-  //set on cluster registration
-  private String DELA_CLUSTER_ID = null;
+
   //
-  private AddressJSON DELA_PUBLIC_ENDPOINT = null;
+  private volatile AddressJSON DELA_PUBLIC_ENDPOINT = null;
   //
   public static final String MANIFEST_FILE = "manifest.json";
   public static final String README_FILE = "README.md";
 
-  private void populateDelaCache() {
-    DELA_ENABLED = setBoolVar(VARIABLE_DELA_ENABLED, DELA_ENABLED);
-    DELA_CLIENT_TYPE = DelaClientType.from(setVar(VARIABLE_DELA_CLIENT_TYPE, DELA_CLIENT_TYPE.type));
-    HOPSSITE_CLUSTER_NAME = setVar(VARIABLE_HOPSSITE_CLUSTER_NAME, HOPSSITE_CLUSTER_NAME);
-    HOPSSITE_CLUSTER_PSWD = setVar(VARIABLE_HOPSSITE_CLUSTER_PSWD, HOPSSITE_CLUSTER_PSWD);
-    HOPSSITE_CLUSTER_PSWD_AUX = setVar(VARIABLE_HOPSSITE_CLUSTER_PSWD_AUX, HOPSSITE_CLUSTER_PSWD_AUX);
-    HOPSSITE_HOST = setVar(VARIABLE_HOPSSITE_BASE_URI_HOST, HOPSSITE_HOST);
-    HOPSSITE = setVar(VARIABLE_HOPSSITE_BASE_URI, HOPSSITE);
-    HOPSSITE_HEARTBEAT_INTERVAL = setLongVar(VARIABLE_HOPSSITE_HEARTBEAT_INTERVAL, HOPSSITE_HEARTBEAT_INTERVAL);
-
-    DELA_TRANSFER_IP = setStrVar(VARIABLE_DELA_CLUSTER_IP, DELA_TRANSFER_IP);
-    DELA_TRANSFER_HTTP_PORT = setStrVar(VARIABLE_DELA_CLUSTER_HTTP_PORT, DELA_TRANSFER_HTTP_PORT);
-    DELA_SEARCH_ENDPOINT = setStrVar(VARIABLE_DELA_SEARCH_ENDPOINT, DELA_SEARCH_ENDPOINT);
-    DELA_TRANSFER_ENDPOINT = setStrVar(VARIABLE_DELA_TRANSFER_ENDPOINT, DELA_TRANSFER_ENDPOINT);
-    DELA_PUBLIC_HOPSWORK_PORT = setStrVar(VARIABLE_DELA_PUBLIC_HOPSWORKS_PORT, DELA_PUBLIC_HOPSWORK_PORT);
-    PUBLIC_HTTPS_PORT = setStrVar(VARIABLE_PUBLIC_HTTPS_PORT, PUBLIC_HTTPS_PORT);
-    DELA_CLUSTER_ID = setStrVar(VARIABLE_DELA_CLUSTER_ID, DELA_CLUSTER_ID);
-  }
-
-  private void populateServiceJWTCache() {
-    SERVICE_MASTER_JWT = setStrVar(VARIABLE_SERVICE_MASTER_JWT, SERVICE_MASTER_JWT);
-    RENEW_TOKENS = new String[NUM_OF_SERVICE_RENEW_TOKENS];
+  private void populateDelaCache(Snapshot s) {
+    s.DELA_ENABLED = setBoolVar(VARIABLE_DELA_ENABLED, s.DELA_ENABLED);
+    s.DELA_CLIENT_TYPE = DelaClientType.from(setVar(VARIABLE_DELA_CLIENT_TYPE, s.DELA_CLIENT_TYPE.type));
+    s.HOPSSITE_CLUSTER_NAME = setVar(VARIABLE_HOPSSITE_CLUSTER_NAME, s.HOPSSITE_CLUSTER_NAME);
+    s.HOPSSITE_CLUSTER_PSWD = setVar(VARIABLE_HOPSSITE_CLUSTER_PSWD, s.HOPSSITE_CLUSTER_PSWD);
+    s.HOPSSITE_CLUSTER_PSWD_AUX = setVar(VARIABLE_HOPSSITE_CLUSTER_PSWD_AUX, s.HOPSSITE_CLUSTER_PSWD_AUX);
+    s.HOPSSITE_HOST = setVar(VARIABLE_HOPSSITE_BASE_URI_HOST, s.HOPSSITE_HOST);
+    s.HOPSSITE = setVar(VARIABLE_HOPSSITE_BASE_URI, s.HOPSSITE);
+    s.HOPSSITE_HEARTBEAT_INTERVAL = setLongVar(VARIABLE_HOPSSITE_HEARTBEAT_INTERVAL, s.HOPSSITE_HEARTBEAT_INTERVAL);
+
+    s.DELA_TRANSFER_IP = setStrVar(VARIABLE_DELA_CLUSTER_IP, s.DELA_TRANSFER_IP);
+    s.DELA_TRANSFER_HTTP_PORT = setStrVar(VARIABLE_DELA_CLUSTER_HTTP_PORT, s.DELA_TRANSFER_HTTP_PORT);
+    s.DELA_SEARCH_ENDPOINT = setStrVar(VARIABLE_DELA_SEARCH_ENDPOINT, s.DELA_SEARCH_ENDPOINT);
+    s.DELA_TRANSFER_ENDPOINT = setStrVar(VARIABLE_DELA_TRANSFER_ENDPOINT, s.DELA_TRANSFER_ENDPOINT);
+    s.DELA_PUBLIC_HOPSWORK_PORT = setStrVar(VARIABLE_DELA_PUBLIC_HOPSWORKS_PORT, s.DELA_PUBLIC_HOPSWORK_PORT);
+    s.PUBLIC_HTTPS_PORT = setStrVar(VARIABLE_PUBLIC_HTTPS_PORT, s.PUBLIC_HTTPS_PORT);
+    s.DELA_CLUSTER_ID = setStrVar(VARIABLE_DELA_CLUSTER_ID, s.DELA_CLUSTER_ID);
+  }
+
+  private void populateServiceJWTCache(Snapshot s) {
+    s.SERVICE_MASTER_JWT = setStrVar(VARIABLE_SERVICE_MASTER_JWT, s.SERVICE_MASTER_JWT);
+    s.RENEW_TOKENS = new String[NUM_OF_SERVICE_RENEW_TOKENS];
     for (int i = 0; i < NUM_OF_SERVICE_RENEW_TOKENS; i++) {
       String variableKey = String.format(SERVICE_RENEW_TOKEN_VARIABLE_TEMPLATE, i);
       String token = setStrVar(variableKey, "");
-      RENEW_TOKENS[i] = token;
+      s.RENEW_TOKENS[i] = token;
     }
   }
 
-  public synchronized Boolean isDelaEnabled() {
-    checkCache();
-    return DELA_ENABLED;
+  public Boolean isDelaEnabled() {
+    return getSnapshot().DELA_ENABLED;
   }
 
-  public synchronized DelaClientType getDelaClientType() {
-    return DELA_CLIENT_TYPE;
+  public DelaClientType getDelaClientType() {
+    return getSnapshot().DELA_CLIENT_TYPE;
   }
 
-  public synchronized String getHOPSSITE_HOST() {
-    checkCache();
-    return HOPSSITE_HOST;
+  public String getHOPSSITE_HOST() {
+    return getSnapshot().HOPSSITE_HOST;
   }
 
-  public synchronized String getHOPSSITE() {
-    checkCache();
-    return HOPSSITE;
+  public String getHOPSSITE() {
+    return getSnapshot().HOPSSITE;
   }
 
-  public synchronized long getHOPSSITE_HEARTBEAT_RETRY() {
-    checkCache();
+  public long getHOPSSITE_HEARTBEAT_RETRY() {
     return HOPSSITE_HEARTBEAT_RETRY;
   }
 
-  public synchronized long getHOPSSITE_HEARTBEAT_INTERVAL() {
-    checkCache();
-    return HOPSSITE_HEARTBEAT_INTERVAL;
+  public long getHOPSSITE_HEARTBEAT_INTERVAL() {
+    return getSnapshot().HOPSSITE_HEARTBEAT_INTERVAL;
   }
 
-  public synchronized String getDELA_TRANSFER_IP() {
-    checkCache();
-    return DELA_TRANSFER_IP;
+  public String getDELA_TRANSFER_IP() {
+    return getSnapshot().DELA_TRANSFER_IP;
   }
 
-  public synchronized String getDELA_TRANSFER_HTTP_PORT() {
-    checkCache();
-    return DELA_TRANSFER_HTTP_PORT;
+  public String getDELA_TRANSFER_HTTP_PORT() {
+    return getSnapshot().DELA_TRANSFER_HTTP_PORT;
   }
 
-  public synchronized String getDELA_TRANSFER_HTTP_ENDPOINT() {
-    checkCache();
-    return "http://" + DELA_TRANSFER_IP + ":" + DELA_TRANSFER_HTTP_PORT + "/";
+  public String getDELA_TRANSFER_HTTP_ENDPOINT() {
+    Snapshot s = getSnapshot();
+    return "http://" + s.DELA_TRANSFER_IP + ":" + s.DELA_TRANSFER_HTTP_PORT + "/";
   }
 
-  public synchronized String getDELA_HOPSWORKS_PORT() {
-    checkCache();
-    return DELA_PUBLIC_HOPSWORK_PORT;
+  public String getDELA_HOPSWORKS_PORT() {
+    return getSnapshot().DELA_PUBLIC_HOPSWORK_PORT;
   }
 
-  public synchronized String getPUBLIC_HTTPS_PORT() {
-    checkCache();
-    return PUBLIC_HTTPS_PORT;
+  public String getPUBLIC_HTTPS_PORT() {
+    return getSnapshot().PUBLIC_HTTPS_PORT;
   }
 
-  public synchronized AddressJSON getDELA_PUBLIC_ENDPOINT() {
+  public AddressJSON getDELA_PUBLIC_ENDPOINT() {
     return DELA_PUBLIC_ENDPOINT;
   }
 
-  public synchronized String getDELA_SEARCH_ENDPOINT() {
-    checkCache();
-    if (DELA_SEARCH_ENDPOINT != null) {
-      return DELA_SEARCH_ENDPOINT;
+  public String getDELA_SEARCH_ENDPOINT() {
+    Snapshot s = getSnapshot();
+    if (s.DELA_SEARCH_ENDPOINT != null) {
+      return s.DELA_SEARCH_ENDPOINT;
     }
-    return setStrVar(DELA_SEARCH_ENDPOINT, null);
+    return setStrVar(s.DELA_SEARCH_ENDPOINT, null);
   }
 
-  public synchronized String getDELA_TRANSFER_ENDPOINT() {
-    checkCache();
-    if (DELA_TRANSFER_ENDPOINT != null) {
-      return DELA_TRANSFER_ENDPOINT;
+  public String getDELA_TRANSFER_ENDPOINT() {
+    Snapshot s = getSnapshot();
+    if (s.DELA_TRANSFER_ENDPOINT != null) {
+      return s.DELA_TRANSFER_ENDPOINT;
     }
-    return setStrVar(DELA_TRANSFER_ENDPOINT, null);
+    return setStrVar(s.DELA_TRANSFER_ENDPOINT, null);
   }
 
   public synchronized void setDELA_PUBLIC_ENDPOINT(AddressJSON endpoint) {
@@ -2626,14 +2744,17 @@ public class Settings implements Serializable {
     } else {
       em.merge(new Variables(VARIABLE_DELA_SEARCH_ENDPOINT, delaSearchEndpoint));
     }
-    DELA_SEARCH_ENDPOINT = delaSearchEndpoint;
 
     if (getDELA_TRANSFER_ENDPOINT() == null) {
       em.persist(new Variables(VARIABLE_DELA_TRANSFER_ENDPOINT, delaTransferEndpoint));
     } else {
       em.merge(new Variables(VARIABLE_DELA_TRANSFER_ENDPOINT, delaTransferEndpoint));
     }
-    DELA_TRANSFER_ENDPOINT = delaTransferEndpoint;
+
+    Snapshot next = getSnapshot().copy();
+    next.DELA_SEARCH_ENDPOINT = delaSearchEndpoint;
+    next.DELA_TRANSFER_ENDPOINT = delaTransferEndpoint;
+    snapshot = next;
   }
 
   public synchronized void setDELA_CLUSTER_ID(String id) {
@@ -2642,20 +2763,23 @@ public class Settings implements Serializable {
     } else {
       em.merge(new Variables(VARIABLE_DELA_CLUSTER_ID, id));
     }
-    DELA_CLUSTER_ID = id;
+    Snapshot next = getSnapshot().copy();
+    next.DELA_CLUSTER_ID = id;
+    snapshot = next;
   }
 
-  public synchronized String getDELA_CLUSTER_ID() {
-    checkCache();
-    if (DELA_CLUSTER_ID != null) {
-      return DELA_CLUSTER_ID;
+  public String getDELA_CLUSTER_ID() {
+    Snapshot s = getSnapshot();
+    if (s.DELA_CLUSTER_ID != null) {
+      return s.DELA_CLUSTER_ID;
     }
     return setStrVar(VARIABLE_DELA_CLUSTER_ID, null);
   }
 
-  public synchronized String getDELA_DOMAIN() {
-    if (DELA_PUBLIC_ENDPOINT != null) {
-      return DELA_PUBLIC_ENDPOINT.getIp();
+  public String getDELA_DOMAIN() {
+    AddressJSON endpoint = DELA_PUBLIC_ENDPOINT;
+    if (endpoint != null) {
+      return endpoint.getIp();
     }
     return null;
   }
@@ -2672,13 +2796,8 @@ public class Settings implements Serializable {
   private static final String VARIABLE_HOPSSITE_CLUSTER_PSWD = "hops_site_cluster_pswd";
   private static final String VARIABLE_HOPSSITE_CLUSTER_PSWD_AUX = "hops_site_cluster_pswd_aux";
 
-  private String HOPSSITE_CLUSTER_NAME = null;
-  private String HOPSSITE_CLUSTER_PSWD = null;
-  private String HOPSSITE_CLUSTER_PSWD_AUX = "1234";
-
-  public synchronized Optional<String> getHopsSiteClusterName() {
-    checkCache();
-    return Optional.ofNullable(HOPSSITE_CLUSTER_NAME);
+  public Optional<String> getHopsSiteClusterName() {
+    return Optional.ofNullable(getSnapshot().HOPSSITE_CLUSTER_NAME);
   }
 
   public synchronized void setHopsSiteClusterName(String clusterName) {
@@ -2687,7 +2806,9 @@ public class Settings implements Serializable {
     } else {
       em.persist(new Variables(VARIABLE_HOPSSITE_CLUSTER_NAME, clusterName));
     }
-    HOPSSITE_CLUSTER_NAME = clusterName;
+    Snapshot next = getSnapshot().copy();
+    next.HOPSSITE_CLUSTER_NAME = clusterName;
+    snapshot = next;
   }
 
   public synchronized void deleteHopsSiteClusterName() {
@@ -2695,19 +2816,19 @@ public class Settings implements Serializable {
       Optional<Variables> v = findById(VARIABLE_HOPSSITE_CLUSTER_NAME);
       if (v.isPresent()) {
         em.remove(v);
-        HOPSSITE_CLUSTER_NAME = null;
+        Snapshot next = getSnapshot().copy();
+        next.HOPSSITE_CLUSTER_NAME = null;
+        snapshot = next;
       }
     }
   }
 
-  public synchronized String getHopsSiteClusterPswdAux() {
-    checkCache();
-    return HOPSSITE_CLUSTER_PSWD_AUX;
+  public String getHopsSiteClusterPswdAux() {
+    return getSnapshot().HOPSSITE_CLUSTER_PSWD_AUX;
   }
 
-  public synchronized Optional<String> getHopsSiteClusterPswd() {
-    checkCache();
-    return Optional.ofNullable(HOPSSITE_CLUSTER_PSWD);
+  public Optional<String> getHopsSiteClusterPswd() {
+    return Optional.ofNullable(getSnapshot().HOPSSITE_CLUSTER_PSWD);
   }
 
   public synchronized void setHopsSiteClusterPswd(String pswd) {
@@ -2716,34 +2837,36 @@ public class Settings implements Serializable {
     } else {
       em.persist(new Variables(VARIABLE_HOPSSITE_CLUSTER_PSWD, pswd));
     }
-    HOPSSITE_CLUSTER_PSWD = pswd;
+    Snapshot next = getSnapshot().copy();
+    next.HOPSSITE_CLUSTER_PSWD = pswd;
+    snapshot = next;
   }
 
-  public synchronized String getHopsSiteCaDir() {
+  public String getHopsSiteCaDir() {
     return getCertsDir() + File.separator + HOPS_SITE_CA_DIR;
   }
 
-  public synchronized String getHopsSiteCaScript() {
+  public String getHopsSiteCaScript() {
     return getSudoersDir() + File.separator + "ca-keystore.sh";
   }
 
-  public synchronized String getHopsSiteCert() {
+  public String getHopsSiteCert() {
     return getHopsSiteCaDir() + HOPS_SITE_CERTFILE;
   }
 
-  public synchronized String getHopsSiteCaCert() {
+  public String getHopsSiteCaCert() {
     return getHopsSiteCaDir() + HOPS_SITE_CA_CERTFILE;
   }
 
-  public synchronized String getHopsSiteIntermediateCert() {
+  public String getHopsSiteIntermediateCert() {
     return getHopsSiteCaDir() + HOPS_SITE_INTERMEDIATE_CERTFILE;
   }
 
-  public synchronized String getHopsSiteKeyStorePath() {
+  public String getHopsSiteKeyStorePath() {
     return getHopsSiteCaDir() + HOPS_SITE_KEY_STORE;
   }
 
-  public synchronized String getHopsSiteTrustStorePath() {
+  public String getHopsSiteTrustStorePath() {
     return getHopsSiteCaDir() + HOPS_SITE_TRUST_STORE;
   }
   //Dela END
@@ -2788,274 +2911,215 @@ public class Settings implements Serializable {
   private static final String VARIABLE_DISABLE_REGISTRATION = "disable_registration";
   private static final String VARIABLE_LDAP_GROUP_MAPPING_SYNC_INTERVAL = "ldap_group_mapping_sync_interval";
   
-  private String KRB_AUTH = "false";
-  private String LDAP_AUTH = "false";
-  private boolean IS_KRB_ENABLED = false;
-  private boolean IS_LDAP_ENABLED = false;
-  private String LDAP_GROUP_MAPPING = "";
-  private String LDAP_USER_ID = "uid"; //login name
-  private String LDAP_USER_GIVEN_NAME = "givenName";
-  private String LDAP_USER_SURNAME = "sn";
-  private String LDAP_USER_EMAIL = "mail";
-  private String LDAP_USER_SEARCH_FILTER = "uid=%s";
-  private String LDAP_GROUP_SEARCH_FILTER = "member=%d";
-  private String LDAP_KRB_USER_SEARCH_FILTER = "krbPrincipalName=%s";
-  private String LDAP_ATTR_BINARY = "java.naming.ldap.attributes.binary";
-  private String LDAP_GROUP_TARGET = "cn";
-  private String LDAP_DYNAMIC_GROUP_TARGET = "memberOf";
-  private String LDAP_USER_DN_DEFAULT = "";
-  private String LDAP_GROUP_DN_DEFAULT = "";
-  private String LDAP_USER_DN = LDAP_USER_DN_DEFAULT;
-  private String LDAP_GROUP_DN = LDAP_GROUP_DN_DEFAULT;
-  private String LDAP_GROUPS_TARGET = "distinguishedName";
-  private String LDAP_GROUPS_SEARCH_FILTER = "(&(objectCategory=group)(cn=%c))";
-  private String LDAP_GROUP_MEMBERS_SEARCH_FILTER = "(&(objectCategory=user)(memberOf=%d))";
-  private int LDAP_ACCOUNT_STATUS = 1;
-  private String OAUTH_ENABLED = "false";
-  private boolean IS_OAUTH_ENABLED = false;
-  private String OAUTH_GROUP_MAPPING = "";
-  private String OAUTH_REDIRECT_URI = "hopsworks/callback";
-  private int OAUTH_ACCOUNT_STATUS = 1;
-  private long LDAP_GROUP_MAPPING_SYNC_INTERVAL = 0;
-  
-  private boolean DISABLE_PASSWORD_LOGIN = false;
-  private boolean DISABLE_REGISTRATION = false;
-  
-  private void populateLDAPCache() {
-    KRB_AUTH = setVar(VARIABLE_KRB_AUTH, KRB_AUTH);
-    LDAP_AUTH = setVar(VARIABLE_LDAP_AUTH, LDAP_AUTH);
-    LDAP_GROUP_MAPPING = setVar(VARIABLE_LDAP_GROUP_MAPPING, LDAP_GROUP_MAPPING);
-    LDAP_USER_ID = setVar(VARIABLE_LDAP_USER_ID, LDAP_USER_ID);
-    LDAP_USER_GIVEN_NAME = setVar(VARIABLE_LDAP_USER_GIVEN_NAME, LDAP_USER_GIVEN_NAME);
-    LDAP_USER_SURNAME = setVar(VARIABLE_LDAP_USER_SURNAME, LDAP_USER_SURNAME);
-    LDAP_USER_EMAIL = setVar(VARIABLE_LDAP_USER_EMAIL, LDAP_USER_EMAIL);
-    LDAP_ACCOUNT_STATUS = setIntVar(VARIABLE_LDAP_ACCOUNT_STATUS, LDAP_ACCOUNT_STATUS);
-    LDAP_USER_SEARCH_FILTER = setVar(VARIABLE_LDAP_USER_SEARCH_FILTER, LDAP_USER_SEARCH_FILTER);
-    LDAP_GROUP_SEARCH_FILTER = setVar(VARIABLE_LDAP_GROUP_SEARCH_FILTER, LDAP_GROUP_SEARCH_FILTER);
-    LDAP_KRB_USER_SEARCH_FILTER = setVar(VARIABLE_LDAP_KRB_USER_SEARCH_FILTER, LDAP_KRB_USER_SEARCH_FILTER);
-    LDAP_ATTR_BINARY = setVar(VARIABLE_LDAP_ATTR_BINARY, LDAP_ATTR_BINARY);
-    LDAP_GROUP_TARGET = setVar(VARIABLE_LDAP_GROUP_TARGET, LDAP_GROUP_TARGET);
-    LDAP_DYNAMIC_GROUP_TARGET = setVar(VARIABLE_LDAP_DYNAMIC_GROUP_TARGET, LDAP_DYNAMIC_GROUP_TARGET);
-    LDAP_USER_DN = setStrVar(VARIABLE_LDAP_USERDN, LDAP_USER_DN_DEFAULT);
-    LDAP_GROUP_DN = setStrVar(VARIABLE_LDAP_GROUPDN, LDAP_GROUP_DN_DEFAULT);
-    LDAP_GROUPS_TARGET = setVar(VARIABLE_LDAP_GROUPS_TARGET, LDAP_GROUPS_TARGET);
-    LDAP_GROUPS_SEARCH_FILTER = setStrVar(VARIABLE_LDAP_GROUPS_SEARCH_FILTER, LDAP_GROUPS_SEARCH_FILTER);
-    LDAP_GROUP_MEMBERS_SEARCH_FILTER =
-      setStrVar(VARIABLE_LDAP_GROUP_MEMBERS_SEARCH_FILTER, LDAP_GROUP_MEMBERS_SEARCH_FILTER);
-    IS_KRB_ENABLED = setBoolVar(VARIABLE_KRB_AUTH, IS_KRB_ENABLED);
-    IS_LDAP_ENABLED = setBoolVar(VARIABLE_LDAP_AUTH, IS_LDAP_ENABLED);
-    OAUTH_ENABLED = setStrVar(VARIABLE_OAUTH_ENABLED, OAUTH_ENABLED);
-    IS_OAUTH_ENABLED = setBoolVar(VARIABLE_OAUTH_ENABLED, IS_OAUTH_ENABLED);
-    OAUTH_REDIRECT_URI = setStrVar(VARIABLE_OAUTH_REDIRECT_URI, OAUTH_REDIRECT_URI);
-    OAUTH_ACCOUNT_STATUS = setIntVar(VARIABLE_OAUTH_ACCOUNT_STATUS, OAUTH_ACCOUNT_STATUS);
-    OAUTH_GROUP_MAPPING = setStrVar(VARIABLE_OAUTH_GROUP_MAPPING, OAUTH_GROUP_MAPPING);
+  private static final String LDAP_USER_DN_DEFAULT = "";
+  private static final String LDAP_GROUP_DN_DEFAULT = "";
+  
+  private void populateLDAPCache(Snapshot s) {
+    s.KRB_AUTH = setVar(VARIABLE_KRB_AUTH, s.KRB_AUTH);
+    s.LDAP_AUTH = setVar(VARIABLE_LDAP_AUTH, s.LDAP_AUTH);
+    s.LDAP_GROUP_MAPPING = setVar(VARIABLE_LDAP_GROUP_MAPPING, s.LDAP_GROUP_MAPPING);
+    s.LDAP_USER_ID = setVar(VARIABLE_LDAP_USER_ID, s.LDAP_USER_ID);
+    s.LDAP_USER_GIVEN_NAME = setVar(VARIABLE_LDAP_USER_GIVEN_NAME, s.LDAP_USER_GIVEN_NAME);
+    s.LDAP_USER_SURNAME = setVar(VARIABLE_LDAP_USER_SURNAME, s.LDAP_USER_SURNAME);
+    s.LDAP_USER_EMAIL = setVar(VARIABLE_LDAP_USER_EMAIL, s.LDAP_USER_EMAIL);
+    s.LDAP_ACCOUNT_STATUS = setIntVar(VARIABLE_LDAP_ACCOUNT_STATUS, s.LDAP_ACCOUNT_STATUS);
+    s.LDAP_USER_SEARCH_FILTER = setVar(VARIABLE_LDAP_USER_SEARCH_FILTER, s.LDAP_USER_SEARCH_FILTER);
+    s.LDAP_GROUP_SEARCH_FILTER = setVar(VARIABLE_LDAP_GROUP_SEARCH_FILTER, s.LDAP_GROUP_SEARCH_FILTER);
+    s.LDAP_KRB_USER_SEARCH_FILTER = setVar(VARIABLE_LDAP_KRB_USER_SEARCH_FILTER, s.LDAP_KRB_USER_SEARCH_FILTER);
+    s.LDAP_ATTR_BINARY = setVar(VARIABLE_LDAP_ATTR_BINARY, s.LDAP_ATTR_BINARY);
+    s.LDAP_GROUP_TARGET = setVar(VARIABLE_LDAP_GROUP_TARGET, s.LDAP_GROUP_TARGET);
+    s.LDAP_DYNAMIC_GROUP_TARGET = setVar(VARIABLE_LDAP_DYNAMIC_GROUP_TARGET, s.LDAP_DYNAMIC_GROUP_TARGET);
+    s.LDAP_USER_DN = setStrVar(VARIABLE_LDAP_USERDN, LDAP_USER_DN_DEFAULT);
+    s.LDAP_GROUP_DN = setStrVar(VARIABLE_LDAP_GROUPDN, LDAP_GROUP_DN_DEFAULT);
+    s.LDAP_GROUPS_TARGET = setVar(VARIABLE_LDAP_GROUPS_TARGET, s.LDAP_GROUPS_TARGET);
+    s.LDAP_GROUPS_SEARCH_FILTER = setStrVar(VARIABLE_LDAP_GROUPS_SEARCH_FILTER, s.LDAP_GROUPS_SEARCH_FILTER);
+    s.LDAP_GROUP_MEMBERS_SEARCH_FILTER =
+      setStrVar(VARIABLE_LDAP_GROUP_MEMBERS_SEARCH_FILTER, s.LDAP_GROUP_MEMBERS_SEARCH_FILTER);
+    s.IS_KRB_ENABLED = setBoolVar(VARIABLE_KRB_AUTH, s.IS_KRB_ENABLED);
+    s.IS_LDAP_ENABLED = setBoolVar(VARIABLE_LDAP_AUTH, s.IS_LDAP_ENABLED);
+    s.OAUTH_ENABLED = setStrVar(VARIABLE_OAUTH_ENABLED, s.OAUTH_ENABLED);
+    s.IS_OAUTH_ENABLED = setBoolVar(VARIABLE_OAUTH_ENABLED, s.IS_OAUTH_ENABLED);
+    s.OAUTH_REDIRECT_URI = setStrVar(VARIABLE_OAUTH_REDIRECT_URI, s.OAUTH_REDIRECT_URI);
+    s.OAUTH_ACCOUNT_STATUS = setIntVar(VARIABLE_OAUTH_ACCOUNT_STATUS, s.OAUTH_ACCOUNT_STATUS);
+    s.OAUTH_GROUP_MAPPING = setStrVar(VARIABLE_OAUTH_GROUP_MAPPING, s.OAUTH_GROUP_MAPPING);
     
-    DISABLE_PASSWORD_LOGIN = setBoolVar(VARIABLE_DISABLE_PASSWORD_LOGIN, DISABLE_PASSWORD_LOGIN);
-    DISABLE_REGISTRATION = setBoolVar(VARIABLE_DISABLE_REGISTRATION, DISABLE_REGISTRATION);
+    s.DISABLE_PASSWORD_LOGIN = setBoolVar(VARIABLE_DISABLE_PASSWORD_LOGIN, s.DISABLE_PASSWORD_LOGIN);
+    s.DISABLE_REGISTRATION = setBoolVar(VARIABLE_DISABLE_REGISTRATION, s.DISABLE_REGISTRATION);
     
-    LDAP_GROUP_MAPPING_SYNC_INTERVAL = setLongVar(VARIABLE_LDAP_GROUP_MAPPING_SYNC_INTERVAL,
-      LDAP_GROUP_MAPPING_SYNC_INTERVAL);
+    s.LDAP_GROUP_MAPPING_SYNC_INTERVAL = setLongVar(VARIABLE_LDAP_GROUP_MAPPING_SYNC_INTERVAL,
+      s.LDAP_GROUP_MAPPING_SYNC_INTERVAL);
   }
   
-  public synchronized String getKRBAuthStatus() {
-    checkCache();
-    return KRB_AUTH;
+  public String getKRBAuthStatus() {
+    return getSnapshot().KRB_AUTH;
   }
   
-  public synchronized String getLDAPAuthStatus() {
-    checkCache();
-    return LDAP_AUTH;
+  public String getLDAPAuthStatus() {
+    return getSnapshot().LDAP_AUTH;
   }
   
-  public synchronized  boolean isKrbEnabled() {
-    checkCache();
-    return IS_KRB_ENABLED;
+  public  boolean isKrbEnabled() {
+    return getSnapshot().IS_KRB_ENABLED;
   }
   
-  public synchronized  boolean isLdapEnabled() {
-    checkCache();
-    return IS_LDAP_ENABLED;
+  public  boolean isLdapEnabled() {
+    return getSnapshot().IS_LDAP_ENABLED;
   }
   
-  public synchronized String getLdapGroupMapping() {
-    checkCache();
-    return LDAP_GROUP_MAPPING;
+  public String getLdapGroupMapping() {
+    return getSnapshot().LDAP_GROUP_MAPPING;
   }
   
-  public synchronized String getLdapUserId() {
-    checkCache();
-    return LDAP_USER_ID;
+  public String getLdapUserId() {
+    return getSnapshot().LDAP_USER_ID;
   }
   
-  public synchronized String getLdapUserGivenName() {
-    checkCache();
-    return LDAP_USER_GIVEN_NAME;
+  public String getLdapUserGivenName() {
+    return getSnapshot().LDAP_USER_GIVEN_NAME;
   }
   
-  public synchronized String getLdapUserSurname() {
-    checkCache();
-    return LDAP_USER_SURNAME;
+  public String getLdapUserSurname() {
+    return getSnapshot().LDAP_USER_SURNAME;
   }
   
-  public synchronized String getLdapUserMail() {
-    checkCache();
-    return LDAP_USER_EMAIL;
+  public String getLdapUserMail() {
+    return getSnapshot().LDAP_USER_EMAIL;
   }
   
-  public synchronized String getLdapUserSearchFilter() {
-    checkCache();
-    return LDAP_USER_SEARCH_FILTER;
+  public String getLdapUserSearchFilter() {
+    return getSnapshot().LDAP_USER_SEARCH_FILTER;
   }
   
-  public synchronized String getLdapGroupSearchFilter() {
-    checkCache();
-    return LDAP_GROUP_SEARCH_FILTER;
+  public String getLdapGroupSearchFilter() {
+    return getSnapshot().LDAP_GROUP_SEARCH_FILTER;
   }
   
-  public synchronized String getKrbUserSearchFilter() {
-    checkCache();
-    return LDAP_KRB_USER_SEARCH_FILTER;
+  public String getKrbUserSearchFilter() {
+    return getSnapshot().LDAP_KRB_USER_SEARCH_FILTER;
   }
   
-  public synchronized String getLdapAttrBinary() {
-    checkCache();
-    return LDAP_ATTR_BINARY;
+  public String getLdapAttrBinary() {
+    return getSnapshot().LDAP_ATTR_BINARY;
   }
   
-  public synchronized String getLdapGroupTarget() {
-    checkCache();
-    return LDAP_GROUP_TARGET;
+  public String getLdapGroupTarget() {
+    return getSnapshot().LDAP_GROUP_TARGET;
   }
   
-  public synchronized String getLdapDynGroupTarget() {
-    checkCache();
-    return LDAP_DYNAMIC_GROUP_TARGET;
+  public String getLdapDynGroupTarget() {
+    return getSnapshot().LDAP_DYNAMIC_GROUP_TARGET;
   }
   
-  public synchronized String getLdapUserDN() {
-    checkCache();
-    return LDAP_USER_DN;
+  public String getLdapUserDN() {
+    return getSnapshot().LDAP_USER_DN;
   }
   
-  public synchronized String getLdapGroupDN() {
-    checkCache();
-    return LDAP_GROUP_DN;
+  public String getLdapGroupDN() {
+    return getSnapshot().LDAP_GROUP_DN;
   }
   
-  public synchronized int getLdapAccountStatus() {
-    checkCache();
-    return LDAP_ACCOUNT_STATUS;
+  public int getLdapAccountStatus() {
+    return getSnapshot().LDAP_ACCOUNT_STATUS;
   }
   
-  public synchronized String getLdapGroupsTarget() {
-    checkCache();
-    return LDAP_GROUPS_TARGET;
+  public String getLdapGroupsTarget() {
+    return getSnapshot().LDAP_GROUPS_TARGET;
   }
   
-  public synchronized String getLdapGroupsSearchFilter() {
-    checkCache();
-    return LDAP_GROUPS_SEARCH_FILTER;
+  public String getLdapGroupsSearchFilter() {
+    return getSnapshot().LDAP_GROUPS_SEARCH_FILTER;
   }
   
-  public synchronized String getLdapGroupMembersFilter() {
-    checkCache();
-    return LDAP_GROUP_MEMBERS_SEARCH_FILTER;
+  public String getLdapGroupMembersFilter() {
+    return getSnapshot().LDAP_GROUP_MEMBERS_SEARCH_FILTER;
   }
   
-  public synchronized String getOAuthEnabled() {
-    checkCache();
-    return OAUTH_ENABLED;
+  public String getOAuthEnabled() {
+    return getSnapshot().OAUTH_ENABLED;
   }
   
-  public synchronized  boolean isOAuthEnabled() {
-    checkCache();
-    return IS_OAUTH_ENABLED;
+  public  boolean isOAuthEnabled() {
+    return getSnapshot().IS_OAUTH_ENABLED;
   }
   
-  public synchronized String getOAuthGroupMapping() {
-    checkCache();
-    return OAUTH_GROUP_MAPPING;
+  public String getOAuthGroupMapping() {
+    return getSnapshot().OAUTH_GROUP_MAPPING;
   }
   
-  public synchronized String getOauthRedirectUri() {
-    checkCache();
-    return OAUTH_REDIRECT_URI;
+  public String getOauthRedirectUri() {
+    return getSnapshot().OAUTH_REDIRECT_URI;
   }
   
-  public synchronized int getOAuthAccountStatus() {
-    checkCache();
-    return OAUTH_ACCOUNT_STATUS;
+  public int getOAuthAccountStatus() {
+    return getSnapshot().OAUTH_ACCOUNT_STATUS;
   }
   
-  public synchronized String getVarLdapAccountStatus() {
+  public String getVarLdapAccountStatus() {
     return VARIABLE_LDAP_ACCOUNT_STATUS;
   }
   
-  public synchronized String getVarLdapGroupMapping() {
+  public String getVarLdapGroupMapping() {
     return VARIABLE_LDAP_GROUP_MAPPING;
   }
   
-  public synchronized String getVarLdapUserId() {
+  public String getVarLdapUserId() {
     return VARIABLE_LDAP_USER_ID;
   }
   
-  public synchronized String getVarLdapUserGivenName() {
+  public String getVarLdapUserGivenName() {
     return VARIABLE_LDAP_USER_GIVEN_NAME;
   }
   
-  public synchronized String getVarLdapUserSurname() {
+  public String getVarLdapUserSurname() {
     return VARIABLE_LDAP_USER_SURNAME;
   }
   
-  public synchronized String getVarLdapUserMail() {
+  public String getVarLdapUserMail() {
     return VARIABLE_LDAP_USER_EMAIL;
   }
   
-  public synchronized String getVarLdapUserSearchFilter() {
+  public String getVarLdapUserSearchFilter() {
     return VARIABLE_LDAP_USER_SEARCH_FILTER;
   }
   
-  public synchronized String getVarLdapGroupSearchFilter() {
+  public String getVarLdapGroupSearchFilter() {
     return VARIABLE_LDAP_GROUP_SEARCH_FILTER;
   }
   
-  public synchronized String getVarKrbUserSearchFilter() {
+  public String getVarKrbUserSearchFilter() {
     return VARIABLE_LDAP_KRB_USER_SEARCH_FILTER;
   }
   
-  public synchronized String getVarLdapAttrBinary() {
+  public String getVarLdapAttrBinary() {
     return VARIABLE_LDAP_ATTR_BINARY;
   }
   
-  public synchronized String getVarLdapGroupTarget() {
+  public String getVarLdapGroupTarget() {
     return VARIABLE_LDAP_GROUP_TARGET;
   }
   
-  public synchronized String getVarLdapDynGroupTarget() {
+  public String getVarLdapDynGroupTarget() {
     return VARIABLE_LDAP_DYNAMIC_GROUP_TARGET;
   }
   
-  public synchronized String getVarLdapUserDN() {
+  public String getVarLdapUserDN() {
     return VARIABLE_LDAP_USERDN;
   }
   
-  public synchronized String getVarLdapGroupDN() {
+  public String getVarLdapGroupDN() {
     return VARIABLE_LDAP_GROUPDN;
   }
   
-  public synchronized  boolean isPasswordLoginDisabled() {
-    checkCache();
-    return DISABLE_PASSWORD_LOGIN;
+  public  boolean isPasswordLoginDisabled() {
+    return getSnapshot().DISABLE_PASSWORD_LOGIN;
   }
   
-  public synchronized  boolean isRegistrationDisabled() {
-    checkCache();
-    return DISABLE_REGISTRATION;
+  public  boolean isRegistrationDisabled() {
+    return getSnapshot().DISABLE_REGISTRATION;
   }
   
-  public synchronized long ldapGroupMappingSyncInterval() {
-    checkCache();
-    return LDAP_GROUP_MAPPING_SYNC_INTERVAL;
+  public long ldapGroupMappingSyncInterval() {
+    return getSnapshot().LDAP_GROUP_MAPPING_SYNC_INTERVAL;
   }
   
   
@@ -3064,38 +3128,30 @@ public class Settings implements Serializable {
   
   // Service key rotation enabled
   private static final String SERVICE_KEY_ROTATION_ENABLED_KEY = "service_key_rotation_enabled";
-  private boolean serviceKeyRotationEnabled = false;
 
-  public synchronized boolean isServiceKeyRotationEnabled() {
-    checkCache();
-    return serviceKeyRotationEnabled;
+  public boolean isServiceKeyRotationEnabled() {
+    return getSnapshot().serviceKeyRotationEnabled;
   }
 
   // Service key rotation interval
   private static final String SERVICE_KEY_ROTATION_INTERVAL_KEY = "service_key_rotation_interval";
-  private String serviceKeyRotationInterval = "3d";
 
-  public synchronized String getServiceKeyRotationInterval() {
-    checkCache();
-    return serviceKeyRotationInterval;
+  public String getServiceKeyRotationInterval() {
+    return getSnapshot().serviceKeyRotationInterval;
   }
 
  // TensorBoard kill rotation interval in milliseconds (should be lower than the TensorBoardKillTimer)
   private static final String TENSORBOARD_MAX_LAST_ACCESSED = "tensorboard_max_last_accessed";
-  private int tensorBoardMaxLastAccessed = 1140000;
 
-  public synchronized int getTensorBoardMaxLastAccessed() {
-    checkCache();
-    return tensorBoardMaxLastAccessed;
+  public int getTensorBoardMaxLastAccessed() {
+    return getSnapshot().tensorBoardMaxLastAccessed;
   }
 
   // TensorBoard kill rotation interval in milliseconds
   private static final String SPARK_UI_LOGS_OFFSET = "spark_ui_logs_offset";
-  private int sparkUILogsOffset = 512000;
 
-  public synchronized int getSparkUILogsOffset() {
-    checkCache();
-    return sparkUILogsOffset;
+  public int getSparkUILogsOffset() {
+    return getSnapshot().sparkUILogsOffset;
   }
 
   public Long getConfTimeValue(String configurationTime) {
@@ -3123,342 +3179,241 @@ public class Settings implements Serializable {
   }
 
   // Libraries that should not be uninstallable
-  private Set<String> IMMUTABLE_PYTHON_LIBRARY_NAMES;
   private static final String VARIABLE_IMMUTABLE_PYTHON_LIBRARY_NAMES = "preinstalled_python_lib_names";
   private static final String DEFAULT_IMMUTABLE_PYTHON_LIBRARY_NAMES = "pydoop, pyspark, jupyterlab, sparkmagic, " +
       "hdfscontents, pyjks, hops-apache-beam, pyopenssl";
 
-  public synchronized Set<String> getImmutablePythonLibraryNames() {
-    checkCache();
-    return IMMUTABLE_PYTHON_LIBRARY_NAMES;
+  public Set<String> getImmutablePythonLibraryNames() {
+    return getSnapshot().IMMUTABLE_PYTHON_LIBRARY_NAMES;
   }
 
-  private String HOPSWORKS_VERSION;
-
-  public synchronized String getHopsworksVersion() {
-    checkCache();
-    return HOPSWORKS_VERSION;
+  public String getHopsworksVersion() {
+    return getSnapshot().HOPSWORKS_VERSION;
   }
 
-  private String TENSORFLOW_VERSION;
-
-  public synchronized String getTensorflowVersion() {
-    checkCache();
-    return TENSORFLOW_VERSION;
+  public String getTensorflowVersion() {
+    return getSnapshot().TENSORFLOW_VERSION;
   }
 
-  private String ELASTIC_VERSION;
-
-  public synchronized String getElasticVersion() {
-    checkCache();
-    return ELASTIC_VERSION;
+  public String getElasticVersion() {
+    return getSnapshot().ELASTIC_VERSION;
   }
 
-  private String KAFKA_VERSION;
-
-  public synchronized String getKafkaVersion() {
-    checkCache();
-    return KAFKA_VERSION;
+  public String getKafkaVersion() {
+    return getSnapshot().KAFKA_VERSION;
   }
 
-  private String DELA_VERSION;
-
-  public synchronized String getDelaVersion() {
-    checkCache();
-    return DELA_VERSION;
+  public String getDelaVersion() {
+    return getSnapshot().DELA_VERSION;
   }
 
-  private String EPIPE_VERSION;
-
-  public synchronized String getEpipeVersion() {
-    checkCache();
-    return EPIPE_VERSION;
+  public String getEpipeVersion() {
+    return getSnapshot().EPIPE_VERSION;
   }
 
-  private String FLINK_VERSION;
-
-  public synchronized String getFlinkVersion() {
-    checkCache();
-    return FLINK_VERSION;
+  public String getFlinkVersion() {
+    return getSnapshot().FLINK_VERSION;
   }
 
-  private String SPARK_VERSION;
-
-  public synchronized String getSparkVersion() {
-    checkCache();
-    return SPARK_VERSION;
+  public String getSparkVersion() {
+    return getSnapshot().SPARK_VERSION;
   }
 
-  private String SLIDER_VERSION;
-
-  public synchronized String getSliderVersion() {
-    checkCache();
-    return SLIDER_VERSION;
+  public String getSliderVersion() {
+    return getSnapshot().SLIDER_VERSION;
   }
 
-  private String TEZ_VERSION;
-
-  public synchronized String getTezVersion() {
-    checkCache();
-    return TEZ_VERSION;
+  public String getTezVersion() {
+    return getSnapshot().TEZ_VERSION;
   }
 
-  private String HIVE2_VERSION;
-
-  public synchronized String getHive2Version() {
-    checkCache();
-    return HIVE2_VERSION;
+  public String getHive2Version() {
+    return getSnapshot().HIVE2_VERSION;
   }
 
-  private String LIVY_VERSION;
-
-  public synchronized String getLivyVersion() {
-    checkCache();
-    return LIVY_VERSION;
+  public String getLivyVersion() {
+    return getSnapshot().LIVY_VERSION;
   }
 
-  private String NDB_VERSION;
-
-  public synchronized String getNdbVersion() {
-    checkCache();
-    return NDB_VERSION;
+  public String getNdbVersion() {
+    return getSnapshot().NDB_VERSION;
   }
 
-  private String FILEBEAT_VERSION;
-
-  public synchronized String getFilebeatVersion() {
-    checkCache();
-    return FILEBEAT_VERSION;
+  public String getFilebeatVersion() {
+    return getSnapshot().FILEBEAT_VERSION;
   }
 
-  private String KIBANA_VERSION;
-
-  public synchronized String getKibanaVersion() {
-    checkCache();
-    return KIBANA_VERSION;
+  public String getKibanaVersion() {
+    return getSnapshot().KIBANA_VERSION;
   }
 
-  private String LOGSTASH_VERSION;
-
-  public synchronized String getLogstashVersion() {
-    checkCache();
-    return LOGSTASH_VERSION;
+  public String getLogstashVersion() {
+    return getSnapshot().LOGSTASH_VERSION;
   }
 
-  private String KAPACITOR_VERSION;
-
-  public synchronized String getKapacitorVersion() {
-    checkCache();
-    return KAPACITOR_VERSION;
+  public String getKapacitorVersion() {
+    return getSnapshot().KAPACITOR_VERSION;
   }
 
-  private String TELEGRAF_VERSION;
-
-  public synchronized String getTelegrafVersion() {
-    checkCache();
-    return TELEGRAF_VERSION;
+  public String getTelegrafVersion() {
+    return getSnapshot().TELEGRAF_VERSION;
   }
 
-  private String GRAFANA_VERSION;
-
-  public synchronized String getGrafanaVersion() {
-    checkCache();
-    return GRAFANA_VERSION;
+  public String getGrafanaVersion() {
+    return getSnapshot().GRAFANA_VERSION;
   }
 
-  private String INFLUXDB_VERSION;
-
-  public synchronized String getInfluxdbVersion() {
-    checkCache();
-    return INFLUXDB_VERSION;
+  public String getInfluxdbVersion() {
+    return getSnapshot().INFLUXDB_VERSION;
   }
 
-  private String ZOOKEEPER_VERSION;
-
-  public synchronized String getZookeeperVersion() {
-    checkCache();
-    return ZOOKEEPER_VERSION;
+  public String getZookeeperVersion() {
+    return getSnapshot().ZOOKEEPER_VERSION;
   }
 
   // -------------------------------- Kubernetes ----------------------------------------------//
-  private String KUBE_USER = "kubernetes";
 
-  public synchronized String getKubeUser() {
-    checkCache();
-    return KUBE_USER;
+  public String getKubeUser() {
+    return getSnapshot().KUBE_USER;
   }
   
-  private String KUBE_HOPSWORKS_USER = "hopsworks";
-  
-  public synchronized String getKubeHopsworksUser() {
-    checkCache();
-    return KUBE_HOPSWORKS_USER;
+  public String getKubeHopsworksUser() {
+    return getSnapshot().KUBE_HOPSWORKS_USER;
   }
 
-  private String KUBEMASTER_URL = "https://192.168.68.102:6443";
-
-  public synchronized String getKubeMasterUrl() {
-    checkCache();
-    return KUBEMASTER_URL;
+  public String getKubeMasterUrl() {
+    return getSnapshot().KUBEMASTER_URL;
   }
 
-  private String KUBE_CA_CERTFILE = "/srv/hops/certs-dir/certs/ca.cert.pem";
-
-  public synchronized String getKubeCaCertfile() {
-    checkCache();
-    return KUBE_CA_CERTFILE;
+  public String getKubeCaCertfile() {
+    return getSnapshot().KUBE_CA_CERTFILE;
   }
 
-  private String KUBE_CLIENT_KEYFILE = "/srv/hops/certs-dir/kube/hopsworks/hopsworks.key.pem";
-
-  public synchronized String getKubeClientKeyfile() {
-    checkCache();
-    return KUBE_CLIENT_KEYFILE;
+  public String getKubeClientKeyfile() {
+    return getSnapshot().KUBE_CLIENT_KEYFILE;
   }
 
-  private String KUBE_CLIENT_CERTFILE = "/srv/hops/certs-dir/kube/hopsworks/hopsworks.cert.pem";
-
-  public synchronized String getKubeClientCertfile() {
-    checkCache();
-    return KUBE_CLIENT_CERTFILE;
+  public String getKubeClientCertfile() {
+    return getSnapshot().KUBE_CLIENT_CERTFILE;
   }
 
-  private String KUBE_CLIENT_KEYPASS = "adminpw";
-
-  public synchronized String getKubeClientKeypass() {
-    checkCache();
-    return KUBE_CLIENT_KEYPASS;
+  public String getKubeClientKeypass() {
+    return getSnapshot().KUBE_CLIENT_KEYPASS;
   }
 
-  private String KUBE_TRUSTSTORE_PATH = "/srv/hops/certs-dir/kube/hopsworks/hopsworks__tstore.jks";
+  public String getKubeTruststorePath() {
+    return getSnapshot().KUBE_TRUSTSTORE_PATH;
+  }
 
-  public synchronized String getKubeTruststorePath() {
-    checkCache();
-    return KUBE_TRUSTSTORE_PATH;
+  public String getKubeTruststoreKey() {
+    return getSnapshot().KUBE_TRUSTSTORE_KEY;
   }
 
-  private String KUBE_TRUSTSTORE_KEY = "adminpw";
+  public String getKubeKeystorePath() {
+    return getSnapshot().KUBE_KEYSTORE_PATH;
+  }
 
-  public synchronized String getKubeTruststoreKey() {
-    checkCache();
-    return KUBE_TRUSTSTORE_KEY;
+  public String getKubeKeystoreKey() {
+    return getSnapshot().KUBE_KEYSTORE_KEY;
   }
 
-  private String KUBE_KEYSTORE_PATH = "/srv/hops/certs-dir/kube/hopsworks/hopsworks__kstore.jks";
+  public String getKubeRegistry() {
+    return getSnapshot().KUBE_REGISTRY;
+  }
 
-  public synchronized String getKubeKeystorePath() {
-    checkCache();
-    return KUBE_KEYSTORE_PATH;
+  public Integer getKubeMaxServingInstances() {
+    return getSnapshot().KUBE_MAX_SERVING_INSTANCES;
   }
 
-  private String KUBE_KEYSTORE_KEY = "adminpw";
+  public Integer getKubeAPIMaxAttempts() {
+    return getSnapshot().KUBE_API_MAX_ATTEMPTS;
+  }
+  
+  
+  public Boolean isOnlineFeaturestore() {
+    return getSnapshot().ONLINE_FEATURESTORE;
+  }
 
-  public synchronized String getKubeKeystoreKey() {
-    checkCache();
-    return KUBE_KEYSTORE_KEY;
+  public String getOnlineFeatureStoreTableSpace() {
+    return getSnapshot().ONLINE_FEATURESTORE_TS;
   }
 
-  private String KUBE_REGISTRY = "registry.docker-registry.svc.cluster.local";
+  // Maximum number of idle JDBC connections kept per online feature store database user
+  public int getOnlineFeaturestorePoolMaxSize() {
+    return getSnapshot().ONLINE_FEATURESTORE_POOL_MAX_SIZE;
+  }
 
-  public synchronized String getKubeRegistry() {
-    checkCache();
-    return KUBE_REGISTRY;
+  public long getOnlineFeaturestorePoolIdleTimeoutMs() {
+    return getSnapshot().ONLINE_FEATURESTORE_POOL_IDLE_TIMEOUT_MS;
   }
 
-  private Integer KUBE_MAX_SERVING_INSTANCES = 10;
+  public Integer getKubeDockerMaxMemoryAllocation() {
+    return getSnapshot().KUBE_DOCKER_MAX_MEMORY_ALLOCATION;
+  }
 
-  public synchronized Integer getKubeMaxServingInstances() {
-    checkCache();
-    return KUBE_MAX_SERVING_INSTANCES;
+  public Integer getKubeDockerMaxCoresAllocation() {
+    return getSnapshot().KUBE_DOCKER_MAX_CORES_ALLOCATION;
   }
 
-  private Integer KUBE_API_MAX_ATTEMPTS = 12;
-  public synchronized Integer getKubeAPIMaxAttempts() {
-    checkCache();
-    return KUBE_API_MAX_ATTEMPTS;
+  public Double getKubeDockerCoresFraction() {
+    return getSnapshot().KUBE_DOCKER_CORES_FRACTION;
   }
   
+  public Boolean getKubeInstalled() {
+    return getSnapshot().KUBE_INSTALLED;
+  }
   
-  private Boolean ONLINE_FEATURESTORE = false;
-  
-  public synchronized Boolean isOnlineFeaturestore() {
-    checkCache();
-    return ONLINE_FEATURESTORE;
+  public Boolean getHopsworksEnterprise() {
+    return getSnapshot().HOPSWORKS_ENTERPRISE;
   }
 
-  private String ONLINE_FEATURESTORE_TS = "";
-  public synchronized String getOnlineFeatureStoreTableSpace() {
-    checkCache();
-    return ONLINE_FEATURESTORE_TS;
+  public String getServingMonitorInt() {
+    return getSnapshot().SERVING_MONITOR_INT;
   }
 
-  private Integer KUBE_DOCKER_MAX_MEMORY_ALLOCATION = 8192;
-  public synchronized Integer getKubeDockerMaxMemoryAllocation() {
-    checkCache();
-    return KUBE_DOCKER_MAX_MEMORY_ALLOCATION;
+  public int getServingConnectionPoolSize() {
+    return getSnapshot().SERVING_CONNECTION_POOL_SIZE;
   }
 
-  private Integer KUBE_DOCKER_MAX_CORES_ALLOCATION = 4;
-  public synchronized Integer getKubeDockerMaxCoresAllocation() {
-    checkCache();
-    return KUBE_DOCKER_MAX_CORES_ALLOCATION;
+  public int getServingMaxRouteConnections() {
+    return getSnapshot().SERVING_MAX_ROUTE_CONNECTIONS;
   }
 
-  private Double KUBE_DOCKER_CORES_FRACTION = 1.0;
-  public synchronized Double getKubeDockerCoresFraction() {
-    checkCache();
-    return KUBE_DOCKER_CORES_FRACTION;
-  }
-  
-  private Boolean KUBE_INSTALLED = false;
-  public synchronized Boolean getKubeInstalled() {
-    checkCache();
-    return KUBE_INSTALLED;
-  }
-  
-  private Boolean HOPSWORKS_ENTERPRISE = false;
-  public synchronized Boolean getHopsworksEnterprise() {
-    checkCache();
-    return HOPSWORKS_ENTERPRISE;
+  // How long a serving looked up by name is reused for inference requests
+  public long getServingEndpointCacheTTL() {
+    return getSnapshot().SERVING_ENDPOINT_CACHE_TTL_MS;
   }
 
-  private String SERVING_MONITOR_INT = "30s";
-
-  public synchronized String getServingMonitorInt() {
-    checkCache();
-    return SERVING_MONITOR_INT;
+  // Time window in which concurrent predict requests to the same model are merged, 0 disables batching
+  public long getServingBatchingWindow() {
+    return getSnapshot().SERVING_BATCHING_WINDOW_MS;
   }
 
-  private int SERVING_CONNECTION_POOL_SIZE = 40;
-  public synchronized int getServingConnectionPoolSize() {
-    checkCache();
-    return SERVING_CONNECTION_POOL_SIZE;
+  // Maximum number of instances merged in one batch
+  public int getServingBatchingMaxSize() {
+    return getSnapshot().SERVING_BATCHING_MAX_SIZE;
   }
 
-  private int SERVING_MAX_ROUTE_CONNECTIONS = 10;
-  public synchronized int getServingMaxRouteConnections() {
-    checkCache();
-    return SERVING_MAX_ROUTE_CONNECTIONS;
+  // How long opening a connection to a serving server, or waiting for a free one in the pool, may take
+  public long getServingConnectTimeout() {
+    return getSnapshot().SERVING_CONNECT_TIMEOUT_MS;
   }
 
-  private int TENSORBOARD_MAX_RELOAD_THREADS = 1;
-  public synchronized int getTensorBoardMaxReloadThreads() {
-    checkCache();
-    return TENSORBOARD_MAX_RELOAD_THREADS;
+  // How long a serving server may stay silent while answering an inference request
+  public long getServingRequestTimeout() {
+    return getSnapshot().SERVING_REQUEST_TIMEOUT_MS;
   }
 
-  private String JUPYTER_HOST = "localhost";
+  public int getTensorBoardMaxReloadThreads() {
+    return getSnapshot().TENSORBOARD_MAX_RELOAD_THREADS;
+  }
 
-  public synchronized String getJupyterHost() {
-    checkCache();
-    return JUPYTER_HOST;
+  public String getJupyterHost() {
+    return getSnapshot().JUPYTER_HOST;
   }
   
-  private String HOPS_VERIFICATION_VERSION = "1.0.0-SNAPSHOT";
-  
-  public synchronized String getHopsVerificationVersion() {
-    checkCache();
-    return HOPS_VERIFICATION_VERSION;
+  public String getHopsVerificationVersion() {
+    return getSnapshot().HOPS_VERIFICATION_VERSION;
   }
   
   private volatile String HOPS_VERIFICATION_MAIN_CLASS = null;
@@ -3477,69 +3432,50 @@ public class Settings implements Serializable {
     return HOPS_VERIFICATION_MAIN_CLASS;
   }
 
-  private String JWT_SIGNATURE_ALGORITHM = "HS512";
-  private String JWT_SIGNING_KEY_NAME = "apiKey";
-  private String JWT_ISSUER = "hopsworks@logicalclocks.com";
-
-  private long JWT_LIFETIME_MS = 1800000l;
-  private int JWT_EXP_LEEWAY_SEC = 900;
-
-  private long SERVICE_JWT_LIFETIME_MS = 86400000l;
-  private int SERVICE_JWT_EXP_LEEWAY_SEC = 43200;
-
-  public synchronized String getJWTSignatureAlg() {
-    checkCache();
-    return JWT_SIGNATURE_ALGORITHM;
+  public String getJWTSignatureAlg() {
+    return getSnapshot().JWT_SIGNATURE_ALGORITHM;
   }
 
-  public synchronized long getJWTLifetimeMs() {
-    checkCache();
-    return JWT_LIFETIME_MS;
+  public long getJWTLifetimeMs() {
+    return getSnapshot().JWT_LIFETIME_MS;
   }
 
-  public synchronized int getJWTExpLeewaySec() {
-    checkCache();
-    return JWT_EXP_LEEWAY_SEC;
+  public int getJWTExpLeewaySec() {
+    return getSnapshot().JWT_EXP_LEEWAY_SEC;
   }
 
-  public synchronized long getServiceJWTLifetimeMS() {
-    checkCache();
-    return SERVICE_JWT_LIFETIME_MS;
+  public long getServiceJWTLifetimeMS() {
+    return getSnapshot().SERVICE_JWT_LIFETIME_MS;
   }
 
-  public synchronized int getServiceJWTExpLeewaySec() {
-    checkCache();
-    return SERVICE_JWT_EXP_LEEWAY_SEC;
+  public int getServiceJWTExpLeewaySec() {
+    return getSnapshot().SERVICE_JWT_EXP_LEEWAY_SEC;
   }
 
-  public synchronized String getJWTSigningKeyName() {
-    checkCache();
-    return JWT_SIGNING_KEY_NAME;
+  public String getJWTSigningKeyName() {
+    return getSnapshot().JWT_SIGNING_KEY_NAME;
   }
 
-  public synchronized String getJWTIssuer() {
-    checkCache();
-    return JWT_ISSUER;
+  public String getJWTIssuer() {
+    return getSnapshot().JWT_ISSUER;
   }
 
-  private String SERVICE_MASTER_JWT = "";
-  public synchronized String getServiceMasterJWT() {
-    checkCache();
-    return SERVICE_MASTER_JWT;
+  public String getServiceMasterJWT() {
+    return getSnapshot().SERVICE_MASTER_JWT;
   }
 
   public synchronized void setServiceMasterJWT(String JWT) {
     updateVariableInternal(VARIABLE_SERVICE_MASTER_JWT, JWT, VariablesVisibility.ADMIN);
     em.flush();
-    SERVICE_MASTER_JWT = JWT;
+    Snapshot next = getSnapshot().copy();
+    next.SERVICE_MASTER_JWT = JWT;
+    snapshot = next;
   }
 
   private final int NUM_OF_SERVICE_RENEW_TOKENS = 5;
   private final static String SERVICE_RENEW_TOKEN_VARIABLE_TEMPLATE = "service_renew_token_%d";
-  private String[] RENEW_TOKENS = new String[0];
-  public synchronized String[] getServiceRenewJWTs() {
-    checkCache();
-    return RENEW_TOKENS;
+  public String[] getServiceRenewJWTs() {
+    return getSnapshot().RENEW_TOKENS;
   }
 
   public synchronized void setServiceRenewJWTs(String[] renewTokens) {
@@ -3547,73 +3483,72 @@ public class Settings implements Serializable {
       String variableKey = String.format(SERVICE_RENEW_TOKEN_VARIABLE_TEMPLATE, i);
       updateVariableInternal(variableKey, renewTokens[i], VariablesVisibility.ADMIN);
     }
-    RENEW_TOKENS = renewTokens;
+    Snapshot next = getSnapshot().copy();
+    next.RENEW_TOKENS = renewTokens;
+    snapshot = next;
   }
 
-  private int CONNECTION_KEEPALIVE_TIMEOUT = 30;
-  public synchronized int getConnectionKeepAliveTimeout() {
-    checkCache();
-    return CONNECTION_KEEPALIVE_TIMEOUT;
+  public int getConnectionKeepAliveTimeout() {
+    return getSnapshot().CONNECTION_KEEPALIVE_TIMEOUT;
   }
 
   private int MAGGY_CLEANUP_INTERVAL = 24 * 60 * 1000;
-  public synchronized int getMaggyCleanupInterval() {
-    checkCache();
+  public int getMaggyCleanupInterval() {
     return MAGGY_CLEANUP_INTERVAL;
   }
 
-  private String HIVE_CONF_PATH = "/srv/hops/apache-hive/conf/hive-site.xml";
-  public synchronized String getHiveConfPath() {
-    checkCache();
-    return HIVE_CONF_PATH;
+  public String getHiveConfPath() {
+    return getSnapshot().HIVE_CONF_PATH;
   }
 
-  public String getHiveSiteSparkHdfsPath() {
-    return "hdfs:///user/" + getSparkUser() + "/hive-site.xml";
+  // Maximum number of idle Hive metastore clients kept per project user
+  public int getHiveMetastorePoolMaxSize() {
+    return getSnapshot().HIVE_METASTORE_POOL_MAX_SIZE;
   }
 
-  private String FEATURESTORE_DB_DEFAULT_QUOTA = "50000";
+  public long getHiveMetastorePoolIdleTimeoutMs() {
+    return getSnapshot().HIVE_METASTORE_POOL_IDLE_TIMEOUT_MS;
+  }
 
-  public synchronized Long getFeaturestoreDbDefaultQuota() {
-    checkCache();
-    return Long.parseLong(FEATURESTORE_DB_DEFAULT_QUOTA);
+  // Maximum number of idle HiveServer2 connections kept per project user and database
+  public int getHiveServerPoolMaxSize() {
+    return getSnapshot().HIVE_SERVER_POOL_MAX_SIZE;
   }
 
-  private String FEATURESTORE_DB_DEFAULT_STORAGE_FORMAT = "ORC";
+  public long getHiveServerPoolIdleTimeoutMs() {
+    return getSnapshot().HIVE_SERVER_POOL_IDLE_TIMEOUT_MS;
+  }
 
-  public synchronized String getFeaturestoreDbDefaultStorageFormat() {
-    checkCache();
-    return FEATURESTORE_DB_DEFAULT_STORAGE_FORMAT;
+  public String getHiveSiteSparkHdfsPath() {
+    return "hdfs:///user/" + getSparkUser() + "/hive-site.xml";
   }
 
-  private Boolean LOCALHOST = false;
+  public Long getFeaturestoreDbDefaultQuota() {
+    return Long.parseLong(getSnapshot().FEATURESTORE_DB_DEFAULT_QUOTA);
+  }
 
-  public synchronized Boolean isLocalHost() {
-    checkCache();
-    return LOCALHOST;
+  public String getFeaturestoreDbDefaultStorageFormat() {
+    return getSnapshot().FEATURESTORE_DB_DEFAULT_STORAGE_FORMAT;
   }
 
-  private String CLOUD = "";
+  public Boolean isLocalHost() {
+    return getSnapshot().LOCALHOST;
+  }
 
-  public synchronized String getCloudProvider() {
-    checkCache();
-    return CLOUD;
+  public String getCloudProvider() {
+    return getSnapshot().CLOUD;
   }
 
   public Boolean isCloud() {
     return !getCloudProvider().isEmpty();
   }
 
-  private boolean IAM_ROLE_CONFIGURED = false;
-  public synchronized boolean isIAMRoleConfigured() {
-    checkCache();
-    return IAM_ROLE_CONFIGURED;
+  public boolean isIAMRoleConfigured() {
+    return getSnapshot().IAM_ROLE_CONFIGURED;
   }
 
-  private String CLOUD_TYPE = CLOUD_TYPES.NONE.name();
-  public synchronized CLOUD_TYPES getCloudType() {
-    checkCache();
-    return CLOUD_TYPES.valueOf(CLOUD_TYPE.toUpperCase());
+  public CLOUD_TYPES getCloudType() {
+    return CLOUD_TYPES.valueOf(getSnapshot().CLOUD_TYPE.toUpperCase());
   }
 
   public static enum CLOUD_TYPES {
@@ -3627,34 +3562,24 @@ public class Settings implements Serializable {
     return isCloud() || isLocalHost();
   }
   
-  private String FEATURESTORE_JDBC_URL = "jdbc:mysql://" + HOPSWORKS_IP + ":3306/";
-  
-  public synchronized String getFeaturestoreJdbcUrl() {
-    checkCache();
-    return FEATURESTORE_JDBC_URL;
+  public String getFeaturestoreJdbcUrl() {
+    return getSnapshot().FEATURESTORE_JDBC_URL;
   }
   
-  private Boolean REQUESTS_VERIFY = false;
-  
   /**
    * Whether to verify HTTP requests in hops-util-py. Accepted values are "true", "false"
    *
    */
-  public synchronized Boolean getRequestsVerify() {
-    checkCache();
-    return REQUESTS_VERIFY;
+  public Boolean getRequestsVerify() {
+    return getSnapshot().REQUESTS_VERIFY;
   }
   
-  private  Boolean KIBANA_HTTPS_ENABELED = false;
-  public synchronized Boolean isKibanaHTTPSEnabled() {
-    checkCache();
-    return KIBANA_HTTPS_ENABELED;
+  public Boolean isKibanaHTTPSEnabled() {
+    return getSnapshot().KIBANA_HTTPS_ENABELED;
   }
   
-  private  Boolean KIBANA_MULTI_TENANCY_ENABELED = false;
-  public synchronized Boolean isKibanaMultiTenancyEnabled() {
-    checkCache();
-    return KIBANA_MULTI_TENANCY_ENABELED;
+  public Boolean isKibanaMultiTenancyEnabled() {
+    return getSnapshot().KIBANA_MULTI_TENANCY_ENABELED;
   }
   
   public static final int ELASTIC_KIBANA_NO_CONNECTIONS = 5;
@@ -3667,12 +3592,6 @@ public class Settings implements Serializable {
   private static final String VARIABLE_PROVENANCE_CLEANER_PERIOD = "provenance_cleaner_period";
   
   public static final String PROV_FILE_INDEX_SUFFIX = "__file_prov";
-  private Provenance.Type PROVENANCE_TYPE = Provenance.Type.MIN;
-  private String PROVENANCE_TYPE_S = PROVENANCE_TYPE.name();
-  private Integer PROVENANCE_CLEANUP_SIZE = 5;
-  private Integer PROVENANCE_ARCHIVE_SIZE = 100;
-  private Long PROVENANCE_CLEANER_PERIOD = 3600L; //1h in s
-  private Long PROVENANCE_ARCHIVE_DELAY = 0l;
   private Integer PROVENANCE_ELASTIC_ARCHIVAL_PAGE_SIZE = 50;
   public static final Integer PROVENANCE_ELASTIC_PAGE_DEFAULT_SIZE = 1000;
   
@@ -3680,181 +3599,162 @@ public class Settings implements Serializable {
     return projectIId.toString() + Settings.PROV_FILE_INDEX_SUFFIX;
   }
   
-  private void populateProvenanceCache() {
-    PROVENANCE_TYPE_S = setStrVar(VARIABLE_PROVENANCE_TYPE, PROVENANCE_TYPE_S);
+  private void populateProvenanceCache(Snapshot s) {
+    s.PROVENANCE_TYPE_S = setStrVar(VARIABLE_PROVENANCE_TYPE, s.PROVENANCE_TYPE_S);
     try {
-      PROVENANCE_TYPE = ProvTypeDTO.provTypeFromString(PROVENANCE_TYPE_S);
+      s.PROVENANCE_TYPE = ProvTypeDTO.provTypeFromString(s.PROVENANCE_TYPE_S);
     } catch(ProvenanceException e) {
-      LOGGER.log(Level.WARNING, "unknown prov type:" + PROVENANCE_TYPE_S + ", using default");
-      PROVENANCE_TYPE = Provenance.Type.MIN;
-      PROVENANCE_TYPE_S = PROVENANCE_TYPE.name();
+      LOGGER.log(Level.WARNING, "unknown prov type:" + s.PROVENANCE_TYPE_S + ", using default");
+      s.PROVENANCE_TYPE = Provenance.Type.MIN;
+      s.PROVENANCE_TYPE_S = s.PROVENANCE_TYPE.name();
     }
-    PROVENANCE_ARCHIVE_SIZE = setIntVar(VARIABLE_PROVENANCE_ARCHIVE_SIZE, PROVENANCE_ARCHIVE_SIZE);
-    PROVENANCE_ARCHIVE_DELAY = setLongVar(VARIABLE_PROVENANCE_ARCHIVE_DELAY, PROVENANCE_ARCHIVE_DELAY);
-    PROVENANCE_CLEANUP_SIZE = setIntVar(VARIABLE_PROVENANCE_CLEANUP_SIZE, PROVENANCE_CLEANUP_SIZE);
-    PROVENANCE_CLEANER_PERIOD = setLongVar(VARIABLE_PROVENANCE_CLEANER_PERIOD, PROVENANCE_CLEANER_PERIOD);
+    s.PROVENANCE_ARCHIVE_SIZE = setIntVar(VARIABLE_PROVENANCE_ARCHIVE_SIZE, s.PROVENANCE_ARCHIVE_SIZE);
+    s.PROVENANCE_ARCHIVE_DELAY = setLongVar(VARIABLE_PROVENANCE_ARCHIVE_DELAY, s.PROVENANCE_ARCHIVE_DELAY);
+    s.PROVENANCE_CLEANUP_SIZE = setIntVar(VARIABLE_PROVENANCE_CLEANUP_SIZE, s.PROVENANCE_CLEANUP_SIZE);
+    s.PROVENANCE_CLEANER_PERIOD = setLongVar(VARIABLE_PROVENANCE_CLEANER_PERIOD, s.PROVENANCE_CLEANER_PERIOD);
   }
   
-  public synchronized Provenance.Type getProvType() {
-    checkCache();
-    return PROVENANCE_TYPE;
+  public Provenance.Type getProvType() {
+    return getSnapshot().PROVENANCE_TYPE;
   }
   
-  public synchronized Integer getProvArchiveSize() {
-    checkCache();
-    return PROVENANCE_ARCHIVE_SIZE;
+  public Integer getProvArchiveSize() {
+    return getSnapshot().PROVENANCE_ARCHIVE_SIZE;
   }
   
   public synchronized void setProvArchiveSize(Integer size) {
-    if(!PROVENANCE_ARCHIVE_SIZE.equals(size)) {
+    Snapshot s = getSnapshot();
+    if(!s.PROVENANCE_ARCHIVE_SIZE.equals(size)) {
       em.merge(new Variables(VARIABLE_PROVENANCE_ARCHIVE_SIZE, size.toString()));
-      PROVENANCE_ARCHIVE_SIZE = size;
+      Snapshot next = s.copy();
+      next.PROVENANCE_ARCHIVE_SIZE = size;
+      snapshot = next;
     }
   }
   
-  public synchronized Long getProvArchiveDelay() {
-    checkCache();
-    return PROVENANCE_ARCHIVE_DELAY;
+  public Long getProvArchiveDelay() {
+    return getSnapshot().PROVENANCE_ARCHIVE_DELAY;
   }
   
   public synchronized void setProvArchiveDelay(Long delay) {
-    if(!PROVENANCE_ARCHIVE_DELAY.equals(delay)) {
+    Snapshot s = getSnapshot();
+    if(!s.PROVENANCE_ARCHIVE_DELAY.equals(delay)) {
       em.merge(new Variables(VARIABLE_PROVENANCE_ARCHIVE_DELAY, delay.toString()));
-      PROVENANCE_ARCHIVE_DELAY = delay;
+      Snapshot next = s.copy();
+      next.PROVENANCE_ARCHIVE_DELAY = delay;
+      snapshot = next;
     }
   }
   
-  public synchronized Integer getProvCleanupSize() {
-    checkCache();
-    return PROVENANCE_CLEANUP_SIZE;
+  public Integer getProvCleanupSize() {
+    return getSnapshot().PROVENANCE_CLEANUP_SIZE;
   }
   
-  public synchronized Integer getProvElasticArchivalPageSize() {
-    checkCache();
+  public Integer getProvElasticArchivalPageSize() {
     return PROVENANCE_ELASTIC_ARCHIVAL_PAGE_SIZE;
   }
   
-  public synchronized Long getProvCleanerPeriod() {
-    checkCache();
-    return PROVENANCE_CLEANER_PERIOD;
+  public Long getProvCleanerPeriod() {
+    return getSnapshot().PROVENANCE_CLEANER_PERIOD;
   }
   
   public synchronized void setProvCleanerPeriod(Long period) {
-    if(!PROVENANCE_CLEANER_PERIOD.equals(period)) {
+    Snapshot s = getSnapshot();
+    if(!s.PROVENANCE_CLEANER_PERIOD.equals(period)) {
       em.merge(new Variables(VARIABLE_PROVENANCE_CLEANER_PERIOD, period.toString()));
-      PROVENANCE_CLEANER_PERIOD = period;
+      Snapshot next = s.copy();
+      next.PROVENANCE_CLEANER_PERIOD = period;
+      snapshot = next;
     }
   }
   //------------------------------ END PROVENANCE --------------------------------------------//
   
   // CLOUD
-  private String CLOUD_EVENTS_ENDPOINT = "";
   
-  public synchronized String getCloudEventsEndPoint() {
-    checkCache();
-    return CLOUD_EVENTS_ENDPOINT;
+  public String getCloudEventsEndPoint() {
+    return getSnapshot().CLOUD_EVENTS_ENDPOINT;
   }
   
-  private String CLOUD_EVENTS_ENDPOINT_API_KEY = "";
-  
-  public synchronized String getCloudEventsEndPointAPIKey() {
-    checkCache();
-    return CLOUD_EVENTS_ENDPOINT_API_KEY;
+  public String getCloudEventsEndPointAPIKey() {
+    return getSnapshot().CLOUD_EVENTS_ENDPOINT_API_KEY;
+  }
+
+  public int getFGPreviewLimit() {
+    return getSnapshot().FG_PREVIEW_LIMIT;
+  }
+
+  // Row limit of previews which are streamed to the client instead of being loaded in memory
+  public int getFGPreviewStreamLimit() {
+    return getSnapshot().FG_PREVIEW_STREAM_LIMIT;
   }
 
-  private int FG_PREVIEW_LIMIT = 100;
-  public synchronized int getFGPreviewLimit() {
-    checkCache();
-    return FG_PREVIEW_LIMIT;
+  public int getFGPreviewFetchSize() {
+    return getSnapshot().FG_PREVIEW_FETCH_SIZE;
   }
 
   public static final String FEATURESTORE_INDEX = "featurestore";
   public static final String FEATURESTORE_PROJECT_ID_FIELD = "project_id";
 
   //-----------------------------YARN DOCKER-------------------------------------------------//
-  private static String YARN_RUNTIME = "docker";
   
-  public synchronized String getYarnRuntime(){
-    checkCache();
-    return YARN_RUNTIME;
+  public String getYarnRuntime(){
+    return getSnapshot().YARN_RUNTIME;
   }
 
   //----------------------------YARN NODEMANAGER--------------------------------------------//
-  private boolean checkNodemanagersStatus = false;
-  public synchronized boolean isCheckingForNodemanagerStatusEnabled() {
-    checkCache();
-    return checkNodemanagersStatus;
+  public boolean isCheckingForNodemanagerStatusEnabled() {
+    return getSnapshot().checkNodemanagersStatus;
   }
 
-  private static String DOCKER_MOUNTS = 
-      "/srv/hops/hadoop/etc/hadoop,/srv/hops/spark,/srv/hops/flink";
-  
-  public synchronized String getDockerMounts() {
-    checkCache();
+  public String getDockerMounts() {
     String result = "";
-    for(String mountPoint: DOCKER_MOUNTS.split(",")){
+    for(String mountPoint: getSnapshot().DOCKER_MOUNTS.split(",")){
       result += mountPoint + ":" + mountPoint + ":ro,";
     }
     return result.substring(0, result.length() - 1);
   }
 
-  private String DOCKER_BASE_IMAGE_PYTHON_NAME = "python37";
-
-  public synchronized String getBaseDockerImagePythonName() {
-    checkCache();
+  public String getBaseDockerImagePythonName() {
+    Snapshot s = getSnapshot();
     if(isManagedDockerRegistry()){
-      return DOCKER_BASE_NON_PYTHON_IMAGE + ":" + DOCKER_BASE_IMAGE_PYTHON_NAME +
-          "_" + HOPSWORKS_VERSION;
+      return DOCKER_BASE_NON_PYTHON_IMAGE + ":" + s.DOCKER_BASE_IMAGE_PYTHON_NAME +
+          "_" + s.HOPSWORKS_VERSION;
     }else{
-      return DOCKER_BASE_IMAGE_PYTHON_NAME + ":" + HOPSWORKS_VERSION;
+      return s.DOCKER_BASE_IMAGE_PYTHON_NAME + ":" + s.HOPSWORKS_VERSION;
     }
   }
 
-  private String DOCKER_BASE_IMAGE_PYTHON_VERSION = "3.7";
-
-  public synchronized String getDockerBaseImagePythonVersion() {
-    checkCache();
-    return DOCKER_BASE_IMAGE_PYTHON_VERSION;
+  public String getDockerBaseImagePythonVersion() {
+    return getSnapshot().DOCKER_BASE_IMAGE_PYTHON_VERSION;
   }
 
   private final static String DOCKER_BASE_NON_PYTHON_IMAGE = "base";
-  public synchronized String getBaseNonPythonDockerImage() {
-    return DOCKER_BASE_NON_PYTHON_IMAGE + ":" + HOPSWORKS_VERSION;
+  public String getBaseNonPythonDockerImage() {
+    return DOCKER_BASE_NON_PYTHON_IMAGE + ":" + getSnapshot().HOPSWORKS_VERSION;
   }
 
-  private long YARN_APP_UID = 1235L;
   public long getYarnAppUID() {
-    checkCache();
-    return YARN_APP_UID;
+    return getSnapshot().YARN_APP_UID;
   }
   //-----------------------------END YARN DOCKER-------------------------------------------------//
   
-  private KubeType KUBE_TYPE = KubeType.Local;
-  public synchronized KubeType getKubeType() {
-    checkCache();
-    return KUBE_TYPE;
+  public KubeType getKubeType() {
+    return getSnapshot().KUBE_TYPE;
   }
   
-  private String DOCKER_NAMESPACE = "";
-  public synchronized String getDockerNamespace(){
-    checkCache();
-    return DOCKER_NAMESPACE;
+  public String getDockerNamespace(){
+    return getSnapshot().DOCKER_NAMESPACE;
   }
   
-  private Boolean MANAGED_DOCKER_REGISTRY = false;
-  public synchronized Boolean isManagedDockerRegistry(){
-    checkCache();
-    return MANAGED_DOCKER_REGISTRY && isCloud();
+  public Boolean isManagedDockerRegistry(){
+    return getSnapshot().MANAGED_DOCKER_REGISTRY && isCloud();
   }
   
-  public synchronized String getBaseNonPythonDockerImageWithNoTag(){
-    checkCache();
+  public String getBaseNonPythonDockerImageWithNoTag(){
     return DOCKER_BASE_NON_PYTHON_IMAGE;
   }
 
-  private int MAX_ENV_YML_BYTE_SIZE = 20000;
-  public synchronized int getMaxEnvYmlByteSize() {
-    checkCache();
-    return MAX_ENV_YML_BYTE_SIZE;
+  public int getMaxEnvYmlByteSize() {
+    return getSnapshot().MAX_ENV_YML_BYTE_SIZE;
   }
 }
@@ -0,0 +1,209 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.websocket;
+
+import javax.websocket.CloseReason;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Sends text messages to websocket sessions without blocking the thread that queues them. Each session has a bounded
+ * queue, drained with one asynchronous send in flight per session. A message identical to one still waiting in a
+ * queue is dropped, and a session whose queue is full is closed instead of holding back the others.
+ */
+public class WebsocketSendQueues {
+  
+  private static final Logger LOGGER = Logger.getLogger(WebsocketSendQueues.class.getName());
+  
+  private final ConcurrentMap<String, SessionQueue> queues = new ConcurrentHashMap<>();
+  private final AtomicLong sent = new AtomicLong();
+  private final AtomicLong coalesced = new AtomicLong();
+  private final AtomicLong evicted = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final int queueSize;
+  
+  /**
+   * @param queueSize the number of messages pending per session before the session is closed
+   */
+  public WebsocketSendQueues(int queueSize) {
+    this.queueSize = Math.max(1, queueSize);
+  }
+  
+  public void register(Session session, Integer projectId) {
+    queues.put(session.getId(), new SessionQueue(session, projectId));
+  }
+  
+  public void unregister(Session session) {
+    SessionQueue queue = queues.remove(session.getId());
+    if (queue != null) {
+      queue.close();
+    }
+  }
+  
+  /**
+   * Queue a message for every session open on a project
+   *
+   * @param projectId
+   * @param text
+   */
+  public void broadcast(Integer projectId, String text) {
+    for (SessionQueue queue : queues.values()) {
+      if (queue.projectId.equals(projectId)) {
+        queue.offer(text);
+      }
+    }
+  }
+  
+  /**
+   * Queue a message for one session
+   *
+   * @param session
+   * @param text
+   * @return false if the session is not registered
+   */
+  public boolean send(Session session, String text) {
+    SessionQueue queue = queues.get(session.getId());
+    if (queue == null) {
+      return false;
+    }
+    queue.offer(text);
+    return true;
+  }
+  
+  public WebsocketSendQueuesMetrics getMetrics() {
+    WebsocketSendQueuesMetrics metrics = new WebsocketSendQueuesMetrics();
+    metrics.setQueueSize(queueSize);
+    metrics.setSent(sent.get());
+    metrics.setCoalesced(coalesced.get());
+    metrics.setEvicted(evicted.get());
+    metrics.setFailed(failed.get());
+    List<WebsocketSendQueuesMetrics.SessionMetrics> sessions = new ArrayList<>();
+    for (SessionQueue queue : queues.values()) {
+      sessions.add(queue.getMetrics());
+    }
+    metrics.setSessions(sessions);
+    return metrics;
+  }
+  
+  private void evict(SessionQueue queue) {
+    if (queues.remove(queue.session.getId(), queue)) {
+      evicted.incrementAndGet();
+      LOGGER.log(Level.INFO, "Closing slow websocket session {0} of project {1}, {2} messages pending",
+        new Object[]{queue.session.getId(), queue.projectId, queueSize});
+      try {
+        queue.session.close(new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER,
+          "Too many pending messages"));
+      } catch (IOException ex) {
+        LOGGER.log(Level.FINE, "Could not close websocket session " + queue.session.getId(), ex);
+      }
+    }
+  }
+  
+  private class SessionQueue {
+    private final Session session;
+    private final Integer projectId;
+    // insertion ordered, so identical pending messages are coalesced and the rest keep their order
+    private final LinkedHashSet<String> pending = new LinkedHashSet<>();
+    private boolean sending = false;
+    private boolean closed = false;
+    private int maxDepth = 0;
+    private long sessionSent = 0;
+    
+    private SessionQueue(Session session, Integer projectId) {
+      this.session = session;
+      this.projectId = projectId;
+    }
+    
+    private void offer(String text) {
+      boolean full;
+      synchronized (this) {
+        if (closed) {
+          return;
+        }
+        if (pending.contains(text)) {
+          coalesced.incrementAndGet();
+          return;
+        }
+        full = pending.size() >= queueSize;
+        if (full) {
+          closed = true;
+          pending.clear();
+        } else {
+          pending.add(text);
+          maxDepth = Math.max(maxDepth, pending.size());
+          if (!sending) {
+            sendNext();
+          }
+        }
+      }
+      if (full) {
+        evict(this);
+      }
+    }
+    
+    // called holding the lock, with no send in flight
+    private void sendNext() {
+      Iterator<String> it = pending.iterator();
+      if (closed || !it.hasNext()) {
+        sending = false;
+        return;
+      }
+      String text = it.next();
+      it.remove();
+      sending = true;
+      try {
+        session.getAsyncRemote().sendText(text, this::onResult);
+      } catch (IllegalStateException ex) {
+        // session closed meanwhile, onClose unregisters it
+        failed.incrementAndGet();
+        closed = true;
+        sending = false;
+      }
+    }
+    
+    private synchronized void onResult(SendResult result) {
+      if (result.isOK()) {
+        sent.incrementAndGet();
+        sessionSent++;
+      } else {
+        failed.incrementAndGet();
+        LOGGER.log(Level.FINE, "Could not send to websocket session " + session.getId(), result.getException());
+      }
+      sendNext();
+    }
+    
+    private synchronized void close() {
+      closed = true;
+      pending.clear();
+    }
+    
+    private synchronized WebsocketSendQueuesMetrics.SessionMetrics getMetrics() {
+      return new WebsocketSendQueuesMetrics.SessionMetrics(session.getId(), projectId, pending.size(), maxDepth,
+        sessionSent, sending);
+    }
+  }
+}
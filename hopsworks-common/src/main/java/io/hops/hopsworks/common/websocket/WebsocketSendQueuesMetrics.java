@@ -0,0 +1,158 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.websocket;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outbound queues of websocket sessions, see {@link WebsocketSendQueues}
+ */
+@XmlRootElement
+public class WebsocketSendQueuesMetrics implements Serializable {
+  
+  private int queueSize;
+  private long sent;
+  private long coalesced;
+  private long evicted;
+  private long failed;
+  private List<SessionMetrics> sessions = new ArrayList<>();
+  
+  public WebsocketSendQueuesMetrics() {
+  }
+  
+  public int getQueueSize() {
+    return queueSize;
+  }
+  
+  public void setQueueSize(int queueSize) {
+    this.queueSize = queueSize;
+  }
+  
+  public long getSent() {
+    return sent;
+  }
+  
+  public void setSent(long sent) {
+    this.sent = sent;
+  }
+  
+  public long getCoalesced() {
+    return coalesced;
+  }
+  
+  public void setCoalesced(long coalesced) {
+    this.coalesced = coalesced;
+  }
+  
+  public long getEvicted() {
+    return evicted;
+  }
+  
+  public void setEvicted(long evicted) {
+    this.evicted = evicted;
+  }
+  
+  public long getFailed() {
+    return failed;
+  }
+  
+  public void setFailed(long failed) {
+    this.failed = failed;
+  }
+  
+  public List<SessionMetrics> getSessions() {
+    return sessions;
+  }
+  
+  public void setSessions(List<SessionMetrics> sessions) {
+    this.sessions = sessions;
+  }
+  
+  public static class SessionMetrics implements Serializable {
+    
+    private String id;
+    private Integer projectId;
+    private int queueDepth;
+    private int maxQueueDepth;
+    private long sent;
+    private boolean sending;
+    
+    public SessionMetrics() {
+    }
+    
+    public SessionMetrics(String id, Integer projectId, int queueDepth, int maxQueueDepth, long sent,
+      boolean sending) {
+      this.id = id;
+      this.projectId = projectId;
+      this.queueDepth = queueDepth;
+      this.maxQueueDepth = maxQueueDepth;
+      this.sent = sent;
+      this.sending = sending;
+    }
+    
+    public String getId() {
+      return id;
+    }
+    
+    public void setId(String id) {
+      this.id = id;
+    }
+    
+    public Integer getProjectId() {
+      return projectId;
+    }
+    
+    public void setProjectId(Integer projectId) {
+      this.projectId = projectId;
+    }
+    
+    public int getQueueDepth() {
+      return queueDepth;
+    }
+    
+    public void setQueueDepth(int queueDepth) {
+      this.queueDepth = queueDepth;
+    }
+    
+    public int getMaxQueueDepth() {
+      return maxQueueDepth;
+    }
+    
+    public void setMaxQueueDepth(int maxQueueDepth) {
+      this.maxQueueDepth = maxQueueDepth;
+    }
+    
+    public long getSent() {
+      return sent;
+    }
+    
+    public void setSent(long sent) {
+      this.sent = sent;
+    }
+    
+    public boolean isSending() {
+      return sending;
+    }
+    
+    public void setSending(boolean sending) {
+      this.sending = sending;
+    }
+  }
+}
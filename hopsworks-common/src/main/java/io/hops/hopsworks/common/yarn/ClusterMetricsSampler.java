@@ -0,0 +1,208 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.yarn;
+
+import com.logicalclocks.servicediscoverclient.exceptions.ServiceDiscoveryException;
+import com.logicalclocks.servicediscoverclient.service.Service;
+import io.hops.hopsworks.common.hosts.ServiceDiscoveryController;
+import io.hops.hopsworks.common.proxies.client.HttpClient;
+import io.hops.hopsworks.common.util.Settings;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Samples the ResourceManager cluster metrics at a fixed rate, so that any number of clients can be served from the
+ * latest snapshot. Sampling starts with the first reader and stops when the metrics have not been read for a while.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@DependsOn("Settings")
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class ClusterMetricsSampler {
+  
+  private static final Logger LOGGER = Logger.getLogger(ClusterMetricsSampler.class.getName());
+  private static final String CLUSTER_METRICS_PATH = "/ws/v1/cluster/metrics";
+  private static final long IDLE_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(1);
+  // How long the first reader waits for the first sample
+  private static final long FIRST_SAMPLE_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(10);
+  
+  @EJB
+  private Settings settings;
+  @EJB
+  private ServiceDiscoveryController serviceDiscoveryController;
+  @EJB
+  private HttpClient httpClient;
+  @Resource
+  private ManagedScheduledExecutorService scheduler;
+  
+  private ClusterMetricsSnapshot snapshot;
+  private ScheduledFuture<?> sampling;
+  private long lastRead;
+  // Long-polling readers waiting for a snapshot newer than the version they have
+  private final List<CompletableFuture<ClusterMetricsSnapshot>> waiters = new ArrayList<>();
+  
+  @PreDestroy
+  public synchronized void destroy() {
+    if (sampling != null) {
+      sampling.cancel(false);
+      sampling = null;
+    }
+    waiters.forEach(waiter -> waiter.complete(snapshot));
+    waiters.clear();
+  }
+  
+  /**
+   * @return the latest snapshot, null if the metrics have not been sampled yet
+   */
+  public ClusterMetricsSnapshot getSnapshot() {
+    try {
+      return awaitChange(0, FIRST_SAMPLE_TIMEOUT_MS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      synchronized (this) {
+        return snapshot;
+      }
+    }
+  }
+  
+  /**
+   * Wait until the metrics change
+   *
+   * @param version the version of the snapshot the caller has
+   * @param timeoutMs for how long to wait
+   * @return a snapshot newer than version, or the current snapshot if the metrics did not change in time
+   */
+  public synchronized ClusterMetricsSnapshot awaitChange(long version, long timeoutMs) throws InterruptedException {
+    lastRead = System.currentTimeMillis();
+    startSampling();
+    long deadline = lastRead + timeoutMs;
+    long remaining = timeoutMs;
+    while ((snapshot == null || snapshot.getVersion() <= version) && remaining > 0) {
+      wait(remaining);
+      remaining = deadline - System.currentTimeMillis();
+    }
+    return snapshot;
+  }
+  
+  /**
+   * Wait until the metrics change without holding the calling thread
+   *
+   * @param version the version of the snapshot the caller has
+   * @param timeoutMs for how long to wait
+   * @return completes with a snapshot of another version, or with the current snapshot if the metrics did not change
+   * in time
+   */
+  public synchronized CompletableFuture<ClusterMetricsSnapshot> onChange(long version, long timeoutMs) {
+    lastRead = System.currentTimeMillis();
+    startSampling();
+    // A version from before a restart is newer than the current one, the caller gets the current snapshot
+    if (snapshot != null && snapshot.getVersion() != version) {
+      return CompletableFuture.completedFuture(snapshot);
+    }
+    CompletableFuture<ClusterMetricsSnapshot> waiter = new CompletableFuture<>();
+    waiters.add(waiter);
+    scheduler.schedule(() -> expire(waiter), timeoutMs, TimeUnit.MILLISECONDS);
+    return waiter;
+  }
+  
+  private void expire(CompletableFuture<ClusterMetricsSnapshot> waiter) {
+    ClusterMetricsSnapshot current;
+    synchronized (this) {
+      if (!waiters.remove(waiter)) {
+        return;
+      }
+      current = snapshot;
+    }
+    waiter.complete(current);
+  }
+  
+  private void startSampling() {
+    if (sampling == null) {
+      sampling = scheduler.scheduleAtFixedRate(this::sample, 0, settings.getClusterMetricsSampleInterval(),
+        TimeUnit.MILLISECONDS);
+    }
+  }
+  
+  private void sample() {
+    synchronized (this) {
+      if (System.currentTimeMillis() - lastRead > IDLE_TIMEOUT_MS) {
+        if (sampling != null) {
+          sampling.cancel(false);
+          sampling = null;
+        }
+        return;
+      }
+    }
+    String metrics = fetchMetrics();
+    ClusterMetricsSnapshot changed;
+    List<CompletableFuture<ClusterMetricsSnapshot>> woken;
+    synchronized (this) {
+      if (snapshot != null && Objects.equals(snapshot.getMetrics(), metrics)) {
+        return;
+      }
+      long version = snapshot == null ? 1 : snapshot.getVersion() + 1;
+      snapshot = new ClusterMetricsSnapshot(version, System.currentTimeMillis(), metrics);
+      changed = snapshot;
+      notifyAll();
+      woken = new ArrayList<>(waiters);
+      waiters.clear();
+    }
+    // Completing outside of the lock as the dependent stages resume the suspended requests in this thread
+    woken.forEach(waiter -> waiter.complete(changed));
+  }
+  
+  private String fetchMetrics() {
+    try {
+      Service rm = serviceDiscoveryController
+          .getAnyAddressOfServiceWithDNS(ServiceDiscoveryController.HopsworksService.HTTP_RESOURCEMANAGER);
+      return httpClient.execute(new HttpHost(rm.getAddress(), rm.getPort()), new HttpGet(CLUSTER_METRICS_PATH),
+        response -> {
+          if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK || response.getEntity() == null) {
+            LOGGER.log(Level.FINE, "ResourceManager returned " + response.getStatusLine() + " for cluster metrics");
+            return null;
+          }
+          return EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+        });
+    } catch (ServiceDiscoveryException | IOException e) {
+      LOGGER.log(Level.FINE, "Could not sample the cluster metrics", e);
+      return null;
+    }
+  }
+}
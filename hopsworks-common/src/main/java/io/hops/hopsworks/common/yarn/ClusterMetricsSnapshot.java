@@ -0,0 +1,66 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.common.yarn;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * Immutable sample of the ResourceManager cluster metrics
+ */
+public final class ClusterMetricsSnapshot {
+  
+  private final long version;
+  private final long modifiedAt;
+  private final String metrics;
+  private final String etag;
+  
+  ClusterMetricsSnapshot(long version, long modifiedAt, String metrics) {
+    this.version = version;
+    this.modifiedAt = modifiedAt;
+    this.metrics = metrics;
+    this.etag = metrics == null ? null : DigestUtils.sha1Hex(metrics);
+  }
+  
+  /**
+   * Increases every time the metrics change
+   */
+  public long getVersion() {
+    return version;
+  }
+  
+  /**
+   * When the metrics last changed
+   */
+  public long getModifiedAt() {
+    return modifiedAt;
+  }
+  
+  /**
+   * @return the json returned by the ResourceManager, null if it could not be reached
+   */
+  public String getMetrics() {
+    return metrics;
+  }
+  
+  public String getEtag() {
+    return etag;
+  }
+  
+  public boolean isAvailable() {
+    return metrics != null;
+  }
+}
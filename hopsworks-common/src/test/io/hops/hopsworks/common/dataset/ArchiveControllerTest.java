@@ -0,0 +1,78 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.dataset;
+
+import org.apache.hadoop.fs.Path;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class ArchiveControllerTest {
+
+  private static final Path DESTINATION = new Path("/Projects/project1/Resources");
+
+  @Test
+  public void testResolve() throws IOException {
+    Assert.assertEquals(new Path("/Projects/project1/Resources/dir/file.txt"),
+      ArchiveController.resolve(DESTINATION, "dir/file.txt"));
+  }
+
+  @Test
+  public void testResolveNormalizes() throws IOException {
+    Assert.assertEquals(new Path("/Projects/project1/Resources/dir/file.txt"),
+      ArchiveController.resolve(DESTINATION, "/./dir//file.txt"));
+    Assert.assertEquals(new Path("/Projects/project1/Resources/dir/file.txt"),
+      ArchiveController.resolve(DESTINATION, "dir\\file.txt"));
+  }
+
+  @Test
+  public void testResolveKeepsSchemeAndAuthorityOfDestination() throws IOException {
+    Path destination = new Path("hdfs://namenode:8020/Projects/project1/Resources");
+    Assert.assertEquals(new Path("hdfs://namenode:8020/Projects/project1/Resources/file.txt"),
+      ArchiveController.resolve(destination, "file.txt"));
+  }
+
+  @Test
+  public void testResolveRejectsParent() {
+    assertRejected("../file.txt");
+    assertRejected("dir/../../file.txt");
+    assertRejected("dir\\..\\..\\file.txt");
+  }
+
+  @Test
+  public void testResolveRejectsSchemeAndAuthority() {
+    assertRejected("hdfs://namenode:8020/Projects/project2/file.txt");
+    assertRejected("file:/etc/passwd");
+    assertRejected("C:\\file.txt");
+  }
+
+  @Test
+  public void testResolveRejectsDestinationItself() {
+    assertRejected("");
+    assertRejected("/");
+    assertRejected("./");
+  }
+
+  private void assertRejected(String name) {
+    try {
+      Path resolved = ArchiveController.resolve(DESTINATION, name);
+      Assert.fail(name + " was resolved to " + resolved);
+    } catch (IOException e) {
+      // Expected
+    }
+  }
+}
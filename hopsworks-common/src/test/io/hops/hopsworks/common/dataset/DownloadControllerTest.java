@@ -0,0 +1,74 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.dataset;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DownloadControllerTest {
+
+  private static final long LENGTH = 1000;
+  private static final String ETAG = "\"176bb3e707b-3e8\"";
+  // Fri, 01 Jan 2021 00:00:00.123 GMT
+  private static final long MODIFICATION_TIME = 1609459200123L;
+
+  @Test
+  public void testParseRange() {
+    Assert.assertArrayEquals(new long[]{0, 99}, DownloadController.parseRange("bytes=0-99", LENGTH));
+    Assert.assertArrayEquals(new long[]{100, 999}, DownloadController.parseRange("bytes=100-", LENGTH));
+    Assert.assertArrayEquals(new long[]{900, 999}, DownloadController.parseRange("bytes=900-2000", LENGTH));
+  }
+
+  @Test
+  public void testParseSuffixRange() {
+    Assert.assertArrayEquals(new long[]{900, 999}, DownloadController.parseRange("bytes=-100", LENGTH));
+    Assert.assertArrayEquals(new long[]{0, 999}, DownloadController.parseRange("bytes=-2000", LENGTH));
+  }
+
+  @Test
+  public void testParseUnsatisfiableRange() {
+    long[] range = DownloadController.parseRange("bytes=1000-", LENGTH);
+    Assert.assertNotNull(range);
+    Assert.assertTrue(range[0] >= LENGTH);
+    range = DownloadController.parseRange("bytes=-0", LENGTH);
+    Assert.assertNotNull(range);
+    Assert.assertTrue(range[0] >= LENGTH);
+  }
+
+  @Test
+  public void testParseRangeSendsWholeFile() {
+    Assert.assertNull(DownloadController.parseRange(null, LENGTH));
+    Assert.assertNull(DownloadController.parseRange("items=0-99", LENGTH));
+    Assert.assertNull(DownloadController.parseRange("bytes=0-9,20-29", LENGTH));
+    Assert.assertNull(DownloadController.parseRange("bytes=99-0", LENGTH));
+    Assert.assertNull(DownloadController.parseRange("bytes=a-b", LENGTH));
+    Assert.assertNull(DownloadController.parseRange("bytes=", LENGTH));
+  }
+
+  @Test
+  public void testIsSameVersionEntityTag() {
+    Assert.assertTrue(DownloadController.isSameVersion(ETAG, ETAG, MODIFICATION_TIME));
+    Assert.assertFalse(DownloadController.isSameVersion("\"176bb3e707b-3e9\"", ETAG, MODIFICATION_TIME));
+    Assert.assertFalse(DownloadController.isSameVersion("W/" + ETAG, ETAG, MODIFICATION_TIME));
+  }
+
+  @Test
+  public void testIsSameVersionDate() {
+    Assert.assertTrue(DownloadController.isSameVersion("Fri, 01 Jan 2021 00:00:00 GMT", ETAG, MODIFICATION_TIME));
+    Assert.assertFalse(DownloadController.isSameVersion("Fri, 01 Jan 2021 00:00:01 GMT", ETAG, MODIFICATION_TIME));
+    Assert.assertFalse(DownloadController.isSameVersion("yesterday", ETAG, MODIFICATION_TIME));
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.jobs.execution;
+
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.PositionedReadable;
+import org.apache.hadoop.fs.Seekable;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+public class ExecutionLogReaderTest {
+
+  // Characters of one, two, three and four bytes
+  private static final String LOG = "ab\u00e9c\u20acd\ud83d\ude00e";
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void testReadRangeAscii() throws IOException {
+    byte[] log = "0123456789".getBytes(StandardCharsets.UTF_8);
+    ExecutionLogReader.Page page = ExecutionLogReader.readRange(stream(log), log.length, 2, 5);
+    Assert.assertEquals("23456", page.getContent());
+    Assert.assertEquals(2, page.getOffset());
+    Assert.assertEquals(7, page.getNextOffset());
+  }
+
+  @Test
+  public void testReadRangePastEnd() throws IOException {
+    byte[] log = "0123456789".getBytes(StandardCharsets.UTF_8);
+    ExecutionLogReader.Page page = ExecutionLogReader.readRange(stream(log), log.length, 8, 5);
+    Assert.assertEquals("89", page.getContent());
+    Assert.assertEquals(10, page.getNextOffset());
+    page = ExecutionLogReader.readRange(stream(log), log.length, 20, 5);
+    Assert.assertEquals("", page.getContent());
+    Assert.assertEquals(10, page.getOffset());
+    Assert.assertEquals(10, page.getNextOffset());
+  }
+
+  @Test
+  public void testReadRangeLeavesSplitCharacterToNextPage() throws IOException {
+    byte[] log = LOG.getBytes(StandardCharsets.UTF_8);
+    // The page ends in the middle of the two byte character
+    ExecutionLogReader.Page page = ExecutionLogReader.readRange(stream(log), log.length, 0, 3);
+    Assert.assertEquals("ab", page.getContent());
+    Assert.assertEquals(2, page.getNextOffset());
+    page = ExecutionLogReader.readRange(stream(log), log.length, page.getNextOffset(), 3);
+    Assert.assertEquals("\u00e9c", page.getContent());
+  }
+
+  @Test
+  public void testReadRangeSkipsCharacterStartedBeforeOffset() throws IOException {
+    byte[] log = LOG.getBytes(StandardCharsets.UTF_8);
+    // Offset 6 is the second byte of the three byte character
+    ExecutionLogReader.Page page = ExecutionLogReader.readRange(stream(log), log.length, 6, 5);
+    Assert.assertEquals("d", page.getContent());
+    Assert.assertEquals(8, page.getOffset());
+    Assert.assertEquals(9, page.getNextOffset());
+  }
+
+  @Test
+  public void testReadRangePagesConcatenateToLog() throws IOException {
+    byte[] log = LOG.getBytes(StandardCharsets.UTF_8);
+    for (int length = 4; length <= log.length; length++) {
+      StringBuilder read = new StringBuilder();
+      long offset = 0;
+      while (offset < log.length) {
+        ExecutionLogReader.Page page = ExecutionLogReader.readRange(stream(log), log.length, offset, length);
+        Assert.assertEquals(offset, page.getOffset());
+        Assert.assertTrue(page.getNextOffset() > offset);
+        read.append(page.getContent());
+        offset = page.getNextOffset();
+      }
+      Assert.assertEquals(LOG, read.toString());
+    }
+  }
+
+  @Test
+  public void testReadRangeShorterThanCharacterMakesProgress() throws IOException {
+    byte[] log = LOG.getBytes(StandardCharsets.UTF_8);
+    // The four byte character starts at byte 9
+    ExecutionLogReader.Page page = ExecutionLogReader.readRange(stream(log), log.length, 9, 2);
+    Assert.assertEquals(11, page.getNextOffset());
+  }
+
+  @Test
+  public void testFilterStopsBeforeLineThatTakesTooLong() throws Exception {
+    // Matching the second line backtracks through a polynomial of high degree, far longer than the limit
+    byte[] log = "aaaaaaaaaaaab\naaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa\n".getBytes(StandardCharsets.UTF_8);
+    ExecutionLogReader.Page page = ExecutionLogReader.filter(stream(log), log.length, 0,
+      Pattern.compile("(.*a){12}b"), 1024, 100);
+    Assert.assertEquals("aaaaaaaaaaaab\n", page.getContent());
+    Assert.assertEquals(14, page.getNextOffset());
+  }
+
+  @Test
+  public void testFilterTimesOutOnFirstLine() throws Exception {
+    thrown.expect(TimeoutException.class);
+    byte[] log = "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa\n".getBytes(StandardCharsets.UTF_8);
+    ExecutionLogReader.filter(stream(log), log.length, 0, Pattern.compile("(.*a){12}b"), 1024, 100);
+  }
+
+  private FSDataInputStream stream(byte[] content) throws IOException {
+    return new FSDataInputStream(new SeekableBytes(content));
+  }
+
+  /**
+   * An in memory stream with the seekable reads of an HDFS stream
+   */
+  private static class SeekableBytes extends ByteArrayInputStream implements Seekable, PositionedReadable {
+
+    private SeekableBytes(byte[] content) {
+      super(content);
+    }
+
+    @Override
+    public synchronized void seek(long position) throws IOException {
+      if (position < 0 || position > count) {
+        throw new EOFException("Cannot seek to " + position);
+      }
+      pos = (int) position;
+    }
+
+    @Override
+    public synchronized long getPos() {
+      return pos;
+    }
+
+    @Override
+    public boolean seekToNewSource(long targetPos) {
+      return false;
+    }
+
+    @Override
+    public synchronized int read(long position, byte[] buffer, int offset, int length) {
+      if (position >= count) {
+        return -1;
+      }
+      int read = (int) Math.min(length, count - position);
+      System.arraycopy(buf, (int) position, buffer, offset, read);
+      return read;
+    }
+
+    @Override
+    public void readFully(long position, byte[] buffer, int offset, int length) throws IOException {
+      if (length > 0 && read(position, buffer, offset, length) < length) {
+        throw new EOFException("Cannot read " + length + " bytes at " + position);
+      }
+    }
+
+    @Override
+    public void readFully(long position, byte[] buffer) throws IOException {
+      readFully(position, buffer, 0, buffer.length);
+    }
+  }
+}
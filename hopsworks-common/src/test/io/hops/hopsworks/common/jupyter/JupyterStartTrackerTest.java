@@ -0,0 +1,67 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.jupyter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JupyterStartTrackerTest {
+
+  @Test
+  public void testPercentileNearestRank() {
+    long[] sorted = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+    Assert.assertEquals(1, JupyterStartTracker.percentile(sorted, 0));
+    Assert.assertEquals(5, JupyterStartTracker.percentile(sorted, 50));
+    Assert.assertEquals(9, JupyterStartTracker.percentile(sorted, 90));
+    Assert.assertEquals(10, JupyterStartTracker.percentile(sorted, 99));
+    Assert.assertEquals(10, JupyterStartTracker.percentile(sorted, 100));
+  }
+
+  @Test
+  public void testPercentileSingleSample() {
+    long[] sorted = {42};
+    Assert.assertEquals(42, JupyterStartTracker.percentile(sorted, 50));
+    Assert.assertEquals(42, JupyterStartTracker.percentile(sorted, 99));
+  }
+
+  @Test
+  public void testMetricsWithoutSamples() {
+    JupyterStartTracker tracker = new JupyterStartTracker();
+    tracker.failed();
+    JupyterStartTrackerMetrics metrics = tracker.getMetrics();
+    Assert.assertEquals(0, metrics.getSamples());
+    Assert.assertEquals(1, metrics.getFailed());
+    Assert.assertEquals(0, metrics.getTotal().getMax());
+  }
+
+  @Test
+  public void testMetricsKeepLastSamples() {
+    JupyterStartTracker tracker = new JupyterStartTracker();
+    for (int i = 0; i < 1100; i++) {
+      tracker.started(i, 1, i + 1);
+    }
+    JupyterStartTrackerMetrics metrics = tracker.getMetrics();
+    Assert.assertEquals(1100, metrics.getStarted());
+    Assert.assertEquals(1000, metrics.getSamples());
+    // The window holds the starts 100 to 1099
+    Assert.assertEquals(599, metrics.getServerStart().getP50());
+    Assert.assertEquals(999, metrics.getServerStart().getP90());
+    Assert.assertEquals(1089, metrics.getServerStart().getP99());
+    Assert.assertEquals(1099, metrics.getServerStart().getMax());
+    Assert.assertEquals(1, metrics.getMaterialization().getP99());
+    Assert.assertEquals(1100, metrics.getTotal().getMax());
+  }
+}
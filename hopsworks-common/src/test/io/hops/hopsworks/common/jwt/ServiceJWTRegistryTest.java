@@ -0,0 +1,146 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.jwt;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class ServiceJWTRegistryTest {
+
+  private ServiceJWTRegistry<String, String> registry;
+  private LocalDateTime expired;
+  private LocalDateTime valid;
+
+  @Before
+  public void setup() {
+    registry = new ServiceJWTRegistry<>();
+    expired = LocalDateTime.now().minusMinutes(1);
+    valid = LocalDateTime.now().plusHours(1);
+  }
+
+  @Test
+  public void testPollExpired() {
+    registry.put("a", "token-a", expired);
+    registry.put("b", "token-b", valid);
+    Assert.assertEquals(Collections.singletonList("a"), registry.pollExpired());
+    // A key taken is not returned again, its token is still registered
+    Assert.assertTrue(registry.pollExpired().isEmpty());
+    Assert.assertEquals("token-a", registry.get("a"));
+    Assert.assertEquals(2, registry.size());
+  }
+
+  @Test
+  public void testPollExpiredSameExpiration() {
+    registry.put("a", "token-a", expired);
+    registry.put("b", "token-b", expired);
+    Assert.assertEquals(new HashSet<>(Arrays.asList("a", "b")), new HashSet<>(registry.pollExpired()));
+  }
+
+  @Test
+  public void testPollExpiredSkipsRenewedAndRemoved() {
+    registry.put("a", "token-a", expired);
+    registry.put("a", "token-a2", valid);
+    registry.put("b", "token-b", expired);
+    Assert.assertEquals("token-b", registry.remove("b"));
+    Assert.assertTrue(registry.pollExpired().isEmpty());
+    Assert.assertEquals("token-a2", registry.get("a"));
+    Assert.assertNull(registry.get("b"));
+  }
+
+  @Test
+  public void testReschedule() {
+    registry.put("a", "token-a", expired);
+    registry.put("b", "token-b", expired);
+    Assert.assertEquals(2, registry.pollExpired().size());
+    registry.reschedule("a");
+    registry.remove("b");
+    registry.reschedule("b");
+    Assert.assertEquals(Collections.singletonList("a"), registry.pollExpired());
+  }
+
+  @Test
+  public void testRenewExpired() throws InterruptedException {
+    for (int i = 0; i < 10; i++) {
+      registry.put("key-" + i, "token", i % 2 == 0 ? expired : valid);
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      ConcurrentLinkedQueue<String> renewed = new ConcurrentLinkedQueue<>();
+      registry.renewExpired(executor, 4, renewed::add);
+      Assert.assertEquals(5, renewed.size());
+      Assert.assertEquals(new HashSet<>(Arrays.asList("key-0", "key-2", "key-4", "key-6", "key-8")),
+        new HashSet<>(renewed));
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+
+  @Test
+  public void testRenewExpiredOnCallingThread() {
+    registry.put("a", "token-a", expired);
+    registry.put("b", "token-b", expired);
+    registry.put("c", "token-c", expired);
+    List<String> renewed = new ArrayList<>();
+    Set<Thread> threads = new HashSet<>();
+    registry.renewExpired(task -> {
+      throw new RejectedExecutionException("busy");
+    }, 3, key -> {
+      threads.add(Thread.currentThread());
+      renewed.add(key);
+    });
+    Assert.assertEquals(new HashSet<>(Arrays.asList("a", "b", "c")), new HashSet<>(renewed));
+    Assert.assertEquals(3, renewed.size());
+    Assert.assertEquals(Collections.singleton(Thread.currentThread()), threads);
+  }
+
+  @Test
+  public void testLockBlocksOtherThreads() throws InterruptedException {
+    CountDownLatch locked = new CountDownLatch(1);
+    Thread thread = new Thread(() -> {
+      registry.lock("a");
+      registry.unlock("a");
+      locked.countDown();
+    });
+    registry.lock("a");
+    try {
+      // The lock is reentrant for the thread holding it
+      registry.lock("a");
+      registry.unlock("a");
+      thread.start();
+      Assert.assertFalse(locked.await(100, TimeUnit.MILLISECONDS));
+    } finally {
+      registry.unlock("a");
+    }
+    Assert.assertTrue(locked.await(10, TimeUnit.SECONDS));
+    thread.join();
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.serving.inference;
+
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class InferenceBatcherTest {
+
+  @Test
+  public void testSplitInOrder() {
+    String response = "{\"predictions\": [[0.1], [0.2], [0.3], [0.4]]}";
+    List<String> split = InferenceBatcher.split(response, Arrays.asList(1, 2, 1));
+    Assert.assertNotNull(split);
+    Assert.assertEquals(3, split.size());
+    Assert.assertEquals(1, new JSONObject(split.get(0)).getJSONArray("predictions").length());
+    Assert.assertEquals(0.1, new JSONObject(split.get(0)).getJSONArray("predictions").getJSONArray(0).getDouble(0),
+      0.0);
+    Assert.assertEquals(2, new JSONObject(split.get(1)).getJSONArray("predictions").length());
+    Assert.assertEquals(0.3, new JSONObject(split.get(1)).getJSONArray("predictions").getJSONArray(1).getDouble(0),
+      0.0);
+    Assert.assertEquals(0.4, new JSONObject(split.get(2)).getJSONArray("predictions").getJSONArray(0).getDouble(0),
+      0.0);
+  }
+
+  @Test
+  public void testSplitWrongPredictionCount() {
+    String response = "{\"predictions\": [[0.1], [0.2], [0.3]]}";
+    Assert.assertNull(InferenceBatcher.split(response, Arrays.asList(1, 2, 1)));
+  }
+
+  @Test
+  public void testSplitNoPredictions() {
+    Assert.assertNull(InferenceBatcher.split("{\"error\": \"bad input\"}", Arrays.asList(1, 1)));
+  }
+
+  @Test
+  public void testSplitUnparsableResponse() {
+    Assert.assertNull(InferenceBatcher.split("Internal Server Error", Arrays.asList(1, 1)));
+  }
+}
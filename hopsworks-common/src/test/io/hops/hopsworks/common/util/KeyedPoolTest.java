@@ -0,0 +1,121 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.util;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class KeyedPoolTest {
+
+  private final AtomicInteger opened = new AtomicInteger();
+  private final List<String> closed = new ArrayList<>();
+  private boolean valid;
+
+  private KeyedPool<String, String> pool;
+
+  @Before
+  public void setup() {
+    valid = true;
+    pool = new KeyedPool<>("test client", 0L, client -> valid, (key, client) -> closed.add(client));
+  }
+
+  private String open(String key) {
+    return key + "-" + opened.incrementAndGet();
+  }
+
+  @Test
+  public void testReuseIdleClient() {
+    String first = pool.acquire("a", () -> open("a"));
+    pool.release(first, true, 2);
+    String second = pool.acquire("a", () -> open("a"));
+    Assert.assertEquals(first, second);
+    Assert.assertEquals(1, pool.getHits());
+    Assert.assertEquals(1, pool.getMisses());
+    Assert.assertEquals(1, pool.getLeased());
+    Assert.assertEquals(0, pool.getIdle());
+  }
+
+  @Test
+  public void testKeysDoNotShareClients() {
+    String a = pool.acquire("a", () -> open("a"));
+    pool.release(a, true, 2);
+    String b = pool.acquire("b", () -> open("b"));
+    Assert.assertEquals("b-2", b);
+    Assert.assertEquals(2, pool.getKeys());
+  }
+
+  @Test
+  public void testCloseUnusableAndExcessClients() {
+    String first = pool.acquire("a", () -> open("a"));
+    String second = pool.acquire("a", () -> open("a"));
+    String third = pool.acquire("a", () -> open("a"));
+    pool.release(first, false, 1);
+    pool.release(second, true, 1);
+    pool.release(third, true, 1);
+    Assert.assertEquals(2, closed.size());
+    Assert.assertTrue(closed.contains(first));
+    Assert.assertTrue(closed.contains(third));
+    Assert.assertEquals(1, pool.getIdle());
+    Assert.assertEquals(0, pool.getLeased());
+  }
+
+  @Test
+  public void testInvalidIdleClientIsReplaced() {
+    String first = pool.acquire("a", () -> open("a"));
+    pool.release(first, true, 2);
+    valid = false;
+    String second = pool.acquire("a", () -> open("a"));
+    Assert.assertFalse(first.equals(second));
+    Assert.assertEquals(1, pool.getEvictions());
+    Assert.assertTrue(closed.contains(first));
+  }
+
+  @Test
+  public void testInvalidateClosesIdleNowAndLeasedOnRelease() {
+    String idle = pool.acquire("a", () -> open("a"));
+    String leased = pool.acquire("a", () -> open("a"));
+    pool.release(idle, true, 2);
+    pool.invalidate(key -> key.equals("a"));
+    Assert.assertEquals(1, closed.size());
+    Assert.assertTrue(closed.contains(idle));
+    pool.release(leased, true, 2);
+    Assert.assertTrue(closed.contains(leased));
+    Assert.assertEquals(0, pool.getKeys());
+  }
+
+  @Test
+  public void testEvictIdleDropsUnusedKeys() {
+    String client = pool.acquire("a", () -> open("a"));
+    pool.release(client, true, 2);
+    pool.evictIdle(-1L);
+    Assert.assertTrue(closed.contains(client));
+    Assert.assertEquals(0, pool.getKeys());
+    Assert.assertEquals(1, pool.getEvictions());
+  }
+
+  @Test
+  public void testReleaseUnknownClient() {
+    pool.release("unknown", true, 2);
+    pool.release(null, true, 2);
+    Assert.assertTrue(closed.isEmpty());
+    Assert.assertEquals(0, pool.getLeased());
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+package io.hops.hopsworks.common.websocket;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import javax.websocket.CloseReason;
+import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+import java.io.IOException;
+import java.util.List;
+
+public class WebsocketSendQueuesTest {
+
+  private static final Integer PROJECT_ID = 1;
+
+  private WebsocketSendQueues queues;
+  private Session session;
+  private RemoteEndpoint.Async remote;
+
+  @Before
+  public void setup() {
+    queues = new WebsocketSendQueues(2);
+    remote = Mockito.mock(RemoteEndpoint.Async.class);
+    session = session("1", remote);
+    queues.register(session, PROJECT_ID);
+  }
+
+  @Test
+  public void testOneSendInFlight() {
+    queues.broadcast(PROJECT_ID, "a");
+    queues.broadcast(PROJECT_ID, "b");
+    List<SendHandler> handlers = sent(remote, "a");
+    Mockito.verify(remote, Mockito.never()).sendText(Mockito.eq("b"), Mockito.any(SendHandler.class));
+    handlers.get(0).onResult(new SendResult());
+    sent(remote, "b").get(0).onResult(new SendResult());
+    WebsocketSendQueuesMetrics metrics = queues.getMetrics();
+    Assert.assertEquals(2, metrics.getSent());
+    Assert.assertEquals(0, metrics.getSessions().get(0).getQueueDepth());
+    Assert.assertFalse(metrics.getSessions().get(0).isSending());
+  }
+
+  @Test
+  public void testFailedSendDrainsQueue() {
+    queues.broadcast(PROJECT_ID, "a");
+    queues.broadcast(PROJECT_ID, "b");
+    sent(remote, "a").get(0).onResult(new SendResult(new IOException("broken pipe")));
+    sent(remote, "b");
+    Assert.assertEquals(1, queues.getMetrics().getFailed());
+  }
+
+  @Test
+  public void testCoalescePendingMessages() {
+    queues.broadcast(PROJECT_ID, "a");
+    queues.broadcast(PROJECT_ID, "b");
+    queues.broadcast(PROJECT_ID, "b");
+    Assert.assertEquals(1, queues.getMetrics().getCoalesced());
+    sent(remote, "a").get(0).onResult(new SendResult());
+    sent(remote, "b").get(0).onResult(new SendResult());
+    // b is no longer pending, so it is sent again
+    queues.broadcast(PROJECT_ID, "b");
+    Assert.assertEquals(2, sent(remote, "b").size());
+    Assert.assertEquals(1, queues.getMetrics().getCoalesced());
+  }
+
+  @Test
+  public void testEvictSlowSession() throws IOException {
+    queues.broadcast(PROJECT_ID, "a");
+    queues.broadcast(PROJECT_ID, "b");
+    queues.broadcast(PROJECT_ID, "c");
+    Mockito.verify(session, Mockito.never()).close(Mockito.any(CloseReason.class));
+    queues.broadcast(PROJECT_ID, "d");
+    ArgumentCaptor<CloseReason> reason = ArgumentCaptor.forClass(CloseReason.class);
+    Mockito.verify(session).close(reason.capture());
+    Assert.assertEquals(CloseReason.CloseCodes.TRY_AGAIN_LATER, reason.getValue().getCloseCode());
+    WebsocketSendQueuesMetrics metrics = queues.getMetrics();
+    Assert.assertEquals(1, metrics.getEvicted());
+    Assert.assertTrue(metrics.getSessions().isEmpty());
+    // The pending messages are dropped with the session
+    sent(remote, "a").get(0).onResult(new SendResult());
+    Mockito.verify(remote, Mockito.times(1)).sendText(Mockito.anyString(), Mockito.any(SendHandler.class));
+    Assert.assertFalse(queues.send(session, "e"));
+  }
+
+  @Test
+  public void testBroadcastToProjectSessions() {
+    RemoteEndpoint.Async otherRemote = Mockito.mock(RemoteEndpoint.Async.class);
+    queues.register(session("2", otherRemote), 2);
+    queues.broadcast(PROJECT_ID, "a");
+    sent(remote, "a");
+    Mockito.verify(otherRemote, Mockito.never()).sendText(Mockito.anyString(), Mockito.any(SendHandler.class));
+    Assert.assertTrue(queues.send(session, "b"));
+  }
+
+  @Test
+  public void testUnregisterDropsPendingMessages() {
+    queues.broadcast(PROJECT_ID, "a");
+    queues.broadcast(PROJECT_ID, "b");
+    queues.unregister(session);
+    sent(remote, "a").get(0).onResult(new SendResult());
+    Mockito.verify(remote, Mockito.never()).sendText(Mockito.eq("b"), Mockito.any(SendHandler.class));
+    Assert.assertFalse(queues.send(session, "c"));
+  }
+
+  private Session session(String id, RemoteEndpoint.Async remote) {
+    Session session = Mockito.mock(Session.class);
+    Mockito.when(session.getId()).thenReturn(id);
+    Mockito.when(session.getAsyncRemote()).thenReturn(remote);
+    return session;
+  }
+
+  private List<SendHandler> sent(RemoteEndpoint.Async remote, String text) {
+    ArgumentCaptor<SendHandler> handler = ArgumentCaptor.forClass(SendHandler.class);
+    Mockito.verify(remote, Mockito.atLeastOnce()).sendText(Mockito.eq(text), handler.capture());
+    return handler.getAllValues();
+  }
+}
@@ -36,6 +36,8 @@ public class AlgorithmFactory {
 
   @EJB
   private JwtSigningKeyFacade jwtSigningKeyFacade;
+  @EJB
+  private JWTCache jwtCache;
 
   public Algorithm getAlgorithm(DecodedJWT jwt) throws SigningKeyNotFoundException {
     return getAlgorithm(jwt.getAlgorithm(), jwt.getKeyId());
@@ -90,7 +92,7 @@ public class AlgorithmFactory {
     return Algorithm.ECDSA512(keyProvider);
   }
 
-  private byte[] getSigningKey(String keyId) throws SigningKeyNotFoundException {
+  private JwtSigningKey getSigningKey(String keyId) throws SigningKeyNotFoundException {
     Integer id;
     try {
       id = Integer.parseInt(keyId);
@@ -101,19 +103,43 @@ public class AlgorithmFactory {
     if (signingKey == null) {
       throw new SigningKeyNotFoundException("Signing key not found.");
     }
-    return Base64.getDecoder().decode(signingKey.getSecret());
+    return signingKey;
   }
 
   private Algorithm getHS256Algorithm(String keyId) throws SigningKeyNotFoundException {
-    return Algorithm.HMAC256(getSigningKey(keyId));
+    return getHMACAlgorithm(SignatureAlgorithm.HS256, keyId);
   }
 
   private Algorithm getHS384Algorithm(String keyId) throws SigningKeyNotFoundException {
-    return Algorithm.HMAC384(getSigningKey(keyId));
+    return getHMACAlgorithm(SignatureAlgorithm.HS384, keyId);
   }
 
   private Algorithm getHS512Algorithm(String keyId) throws SigningKeyNotFoundException {
-    return Algorithm.HMAC512(getSigningKey(keyId));
+    return getHMACAlgorithm(SignatureAlgorithm.HS512, keyId);
+  }
+
+  private Algorithm getHMACAlgorithm(SignatureAlgorithm algorithm, String keyId) throws SigningKeyNotFoundException {
+    Algorithm alg = jwtCache.getAlgorithm(algorithm, keyId);
+    if (alg != null) {
+      return alg;
+    }
+    JwtSigningKey signingKey = getSigningKey(keyId);
+    byte[] secret = Base64.getDecoder().decode(signingKey.getSecret());
+    switch (algorithm) {
+      case HS256:
+        alg = Algorithm.HMAC256(secret);
+        break;
+      case HS384:
+        alg = Algorithm.HMAC384(secret);
+        break;
+      case HS512:
+        alg = Algorithm.HMAC512(secret);
+        break;
+      default:
+        throw new NotSupportedException("Algorithm not supported.");
+    }
+    jwtCache.putAlgorithm(algorithm, keyId, signingKey.getName(), alg);
+    return alg;
   }
 
   private Algorithm getRS256Algorithm(String keyId) {
@@ -0,0 +1,180 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.jwt;
+
+import com.auth0.jwt.algorithms.Algorithm;
+import io.hops.hopsworks.jwt.dao.InvalidJwtFacade;
+import io.hops.hopsworks.jwt.dao.JwtSigningKeyFacade;
+import io.hops.hopsworks.persistence.entity.jwt.InvalidJwt;
+import io.hops.hopsworks.persistence.entity.jwt.JwtSigningKey;
+
+import javax.annotation.PostConstruct;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.EJB;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.ejb.Timer;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps what is needed to verify a token in memory, so that verification does not hit the database.
+ * <ul>
+ * <li>Signing algorithms built from the signing keys, keyed by algorithm and key id. Entries are dropped when the
+ * key is renamed or deleted by this instance, and every {@link #REFRESH_S} seconds the entries whose key was
+ * renamed or deleted by another instance are dropped as well.</li>
+ * <li>The ids of invalidated tokens. Tokens invalidated by this instance are added immediately, the rest are picked
+ * up from the database every {@link #REFRESH_S} seconds. Only the ids are read on every refresh, full rows are read
+ * for the ids which were not seen before. An entry is dropped once the token has expired including its leeway and
+ * its row has been cleaned up, because such a token does not pass verification anyway.</li>
+ * </ul>
+ * A token or signing key revoked on another instance is therefore still accepted here for at most {@link #REFRESH_S}
+ * seconds. {@link JwtSigningKey} is kept out of the JPA shared cache so that this bound holds.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class JWTCache {
+  
+  private static final Logger LOGGER = Logger.getLogger(JWTCache.class.getName());
+  // Must match the period of the @Schedule below
+  private static final int REFRESH_S = 10;
+  private static final int MAX_JTIS_PER_QUERY = 500;
+  
+  @EJB
+  private InvalidJwtFacade invalidJwtFacade;
+  @EJB
+  private JwtSigningKeyFacade jwtSigningKeyFacade;
+  
+  private final Map<String, CachedAlgorithm> algorithms = new ConcurrentHashMap<>();
+  // Token id -> time in ms after which the token fails verification on its own
+  private final Map<String, Long> invalidatedTokens = new ConcurrentHashMap<>();
+  private volatile boolean invalidatedTokensLoaded = false;
+  
+  @PostConstruct
+  public void init() {
+    loadInvalidatedTokens();
+  }
+  
+  @Schedule(persistent = false, second = "*/10", minute = "*", hour = "*")
+  public void refresh(Timer timer) {
+    loadInvalidatedTokens();
+    dropChangedSigningKeys();
+  }
+  
+  private void loadInvalidatedTokens() {
+    try {
+      Set<String> stored = new HashSet<>(invalidJwtFacade.findAllJti());
+      List<String> unseen = new ArrayList<>();
+      for (String jti : stored) {
+        if (!invalidatedTokens.containsKey(jti)) {
+          unseen.add(jti);
+        }
+      }
+      for (int i = 0; i < unseen.size(); i += MAX_JTIS_PER_QUERY) {
+        List<String> batch = unseen.subList(i, Math.min(i + MAX_JTIS_PER_QUERY, unseen.size()));
+        for (InvalidJwt token : invalidJwtFacade.findByJtis(batch)) {
+          invalidatedTokens.put(token.getJti(), verifiableUntil(token.getExpirationTime(),
+            token.getRenewableForSec()));
+        }
+      }
+      // Rows still in the table are kept, otherwise they would be read in full again on the next refresh
+      long now = System.currentTimeMillis();
+      invalidatedTokens.entrySet().removeIf(e -> e.getValue() < now && !stored.contains(e.getKey()));
+      invalidatedTokensLoaded = true;
+    } catch (Exception ex) {
+      LOGGER.log(Level.WARNING, "Could not load invalidated tokens, falling back to the database", ex);
+      invalidatedTokensLoaded = false;
+    }
+  }
+  
+  private void dropChangedSigningKeys() {
+    if (algorithms.isEmpty()) {
+      return;
+    }
+    try {
+      Map<String, String> names = new HashMap<>();
+      for (JwtSigningKey key : jwtSigningKeyFacade.findAll()) {
+        names.put(String.valueOf(key.getId()), key.getName());
+      }
+      algorithms.values().removeIf(cached -> !cached.keyName.equals(names.get(cached.keyId)));
+    } catch (Exception ex) {
+      LOGGER.log(Level.WARNING, "Could not check the signing keys, dropping all cached algorithms", ex);
+      algorithms.clear();
+    }
+  }
+  
+  private long verifiableUntil(Date expiresAt, int leewaySec) {
+    return expiresAt == null ? Long.MAX_VALUE : expiresAt.getTime() + leewaySec * 1000L;
+  }
+  
+  public boolean isTokenInvalidated(String jti) {
+    if (!invalidatedTokensLoaded) {
+      return invalidJwtFacade.find(jti) != null;
+    }
+    return invalidatedTokens.containsKey(jti);
+  }
+  
+  public void addInvalidatedToken(String jti, Date expiresAt, int leewaySec) {
+    invalidatedTokens.put(jti, verifiableUntil(expiresAt, leewaySec));
+  }
+  
+  public Algorithm getAlgorithm(SignatureAlgorithm algorithm, String keyId) {
+    CachedAlgorithm cached = algorithms.get(cacheKey(algorithm, keyId));
+    return cached == null ? null : cached.algorithm;
+  }
+  
+  public void putAlgorithm(SignatureAlgorithm algorithm, String keyId, String keyName, Algorithm alg) {
+    algorithms.put(cacheKey(algorithm, keyId), new CachedAlgorithm(keyId, keyName, alg));
+  }
+  
+  /**
+   * Drop every algorithm built from the signing key with the given name
+   *
+   * @param keyName signing key name
+   */
+  public void invalidateSigningKey(String keyName) {
+    algorithms.values().removeIf(cached -> cached.keyName.equals(keyName));
+  }
+  
+  private String cacheKey(SignatureAlgorithm algorithm, String keyId) {
+    return algorithm.name() + ":" + keyId;
+  }
+  
+  private static class CachedAlgorithm {
+    private final String keyId;
+    private final String keyName;
+    private final Algorithm algorithm;
+    
+    private CachedAlgorithm(String keyId, String keyName, Algorithm algorithm) {
+      this.keyId = keyId;
+      this.keyName = keyName;
+      this.algorithm = algorithm;
+    }
+  }
+}
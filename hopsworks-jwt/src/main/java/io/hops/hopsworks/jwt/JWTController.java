@@ -72,6 +72,8 @@ public class JWTController {
   private AlgorithmFactory algorithmFactory;
   @EJB
   private JwtSigningKeyFacade jwtSigningKeyFacade;
+  @EJB
+  private JWTCache jwtCache;
 
   /**
    * Create a jwt.
@@ -366,8 +368,7 @@ public class JWTController {
   }
 
   private boolean isTokenInvalidated(String id) {
-    InvalidJwt invalidJwt = invalidJwtFacade.find(id);
-    return invalidJwt != null;
+    return jwtCache.isTokenInvalidated(id);
   }
 
   /**
@@ -605,6 +606,7 @@ public class JWTController {
     try {
       InvalidJwt invalidJwt = new InvalidJwt(id, exp, leeway);
       invalidJwtFacade.persist(invalidJwt);
+      jwtCache.addInvalidatedToken(id, exp, leeway);
     } catch (Exception e) {
       throw new InvalidationException("Could not persist token.", e.getCause());
     }
@@ -641,12 +643,10 @@ public class JWTController {
   public String generateJti() {
     UUID uuid = UUID.randomUUID();
     String randomUUIDString = uuid.toString();
-    InvalidJwt invalidJwt = invalidJwtFacade.find(randomUUIDString);
     //Wikipedia: the probability to find a duplicate within 103 trillion version 4 UUIDs is one in a billion.
-    while (invalidJwt != null) {
+    while (isTokenInvalidated(randomUUIDString)) {
       uuid = UUID.randomUUID();
       randomUUIDString = uuid.toString();
-      invalidJwt = invalidJwtFacade.find(randomUUIDString);
     }
     return randomUUIDString;
   }
@@ -684,6 +684,7 @@ public class JWTController {
    */
   public void deleteSigningKey(String keyName) {
     jwtSigningKeyFacade.remove(keyName);
+    jwtCache.invalidateSigningKey(keyName);
   }
 
   public JwtSigningKey findSigningKeyById(Integer id) {
@@ -715,6 +716,7 @@ public class JWTController {
     if (jwtSigningKey != null && jwtSigningKey.getCreatedOn().before(cal.getTime())) {
       removeMarkedKeys();//remove if there is an old marked but not deleted.
       jwtSigningKeyFacade.renameSigningKey(jwtSigningKey, Constants.OLD_ONE_TIME_JWT_SIGNING_KEY_NAME);
+      jwtCache.invalidateSigningKey(Constants.ONE_TIME_JWT_SIGNING_KEY_NAME);
       try {
         jwtSigningKeyFacade.getOrCreateSigningKey(Constants.ONE_TIME_JWT_SIGNING_KEY_NAME, SignatureAlgorithm.HS256);
       } catch (NoSuchAlgorithmException ex) {
@@ -729,6 +731,7 @@ public class JWTController {
     JwtSigningKey jwtSigningKey = jwtSigningKeyFacade.findByName(Constants.OLD_ONE_TIME_JWT_SIGNING_KEY_NAME);
     if (jwtSigningKey != null) {
       jwtSigningKeyFacade.remove(jwtSigningKey);
+      jwtCache.invalidateSigningKey(jwtSigningKey.getName());
     }
   }
   
@@ -17,6 +17,7 @@ package io.hops.hopsworks.jwt.dao;
 
 import io.hops.hopsworks.persistence.entity.jwt.InvalidJwt;
 
+import java.util.Collection;
 import java.util.List;
 import javax.ejb.Stateless;
 import javax.persistence.EntityManager;
@@ -43,6 +44,12 @@ public class InvalidJwtFacade {
     return query.getResultList();
   }
 
+  public List<InvalidJwt> findByJtis(Collection<String> jtis) {
+    TypedQuery<InvalidJwt> query = em.createNamedQuery("InvalidJwt.findByJtis", InvalidJwt.class).
+        setParameter("jtis", jtis);
+    return query.getResultList();
+  }
+
   public List<InvalidJwt> findExpired() {
     TypedQuery<InvalidJwt> query = em.createNamedQuery("InvalidJwt.findExpired", InvalidJwt.class);
     return query.getResultList();
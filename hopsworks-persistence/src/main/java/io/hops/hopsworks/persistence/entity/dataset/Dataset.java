@@ -83,6 +83,9 @@ import java.util.Collection;
   ,
     @NamedQuery(name = "Dataset.findByInode",
       query = "SELECT d FROM Dataset d WHERE d.inode = :inode")
+  ,
+    @NamedQuery(name = "Dataset.findByInodeIdIn",
+      query = "SELECT d FROM Dataset d WHERE d.inodeId IN :inodeIds")
   ,
     @NamedQuery(name = "Dataset.findByProject",
       query = "SELECT d FROM Dataset d WHERE d.project = :project")
@@ -80,6 +80,10 @@ import javax.xml.bind.annotation.XmlTransient;
   @NamedQuery(name = "Inode.findByParentId",
           query
           = "SELECT i FROM Inode i WHERE i.inodePK.parentId = :parentId"),
+  @NamedQuery(name = "Inode.findByParentIdAfterName",
+          query
+          = "SELECT i FROM Inode i WHERE i.inodePK.parentId = :parentId AND i.inodePK.name > :name "
+          + "ORDER BY i.inodePK.name"),
   @NamedQuery(name = "Inode.countByParentId",
           query
           = "SELECT COUNT(DISTINCT i.inodePK.name) FROM Inode i WHERE i.inodePK.parentId = :parentId"),
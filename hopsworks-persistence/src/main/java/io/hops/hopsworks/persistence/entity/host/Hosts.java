@@ -43,6 +43,7 @@ import java.io.Serializable;
 import java.util.Collection;
 import java.util.Date;
 import javax.persistence.Basic;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
@@ -58,8 +59,15 @@ import javax.xml.bind.annotation.XmlTransient;
 import io.hops.hopsworks.persistence.entity.kagent.HostServices;
 import io.hops.hopsworks.persistence.entity.util.FormatUtils;
 import org.codehaus.jackson.annotate.JsonIgnore;
+import org.eclipse.persistence.annotations.Cache;
+import org.eclipse.persistence.annotations.CacheCoordinationType;
+import org.eclipse.persistence.annotations.Noncacheable;
 
 @Entity
+@Cacheable(true)
+@Cache(expiry = 10000,
+    alwaysRefresh = true,
+    coordinationType = CacheCoordinationType.INVALIDATE_CHANGED_OBJECTS)
 @Table(name = "hosts", catalog = "hopsworks")
 @XmlRootElement
 @NamedQueries({
@@ -119,6 +127,7 @@ public class Hosts implements Serializable {
   @Column(name = "registered")
   private Boolean registered;
 
+  @Noncacheable
   @OneToMany(mappedBy = "host")
   private Collection<HostServices> hostServices;
   
@@ -42,6 +42,9 @@ import javax.xml.bind.annotation.XmlRootElement;
   ,
     @NamedQuery(name = "InvalidJwt.findByJti",
       query = "SELECT i FROM InvalidJwt i WHERE i.jti = :jti")
+  ,
+    @NamedQuery(name = "InvalidJwt.findByJtis",
+      query = "SELECT i FROM InvalidJwt i WHERE i.jti IN :jtis")
   ,
     @NamedQuery(name = "InvalidJwt.findByExpirationTime",
       query
@@ -40,6 +40,7 @@
 package io.hops.hopsworks.persistence.entity.project.service;
 
 import java.io.Serializable;
+import javax.persistence.Cacheable;
 import javax.persistence.EmbeddedId;
 import javax.persistence.Entity;
 import javax.persistence.JoinColumn;
@@ -49,8 +50,14 @@ import javax.persistence.NamedQuery;
 import javax.persistence.Table;
 import javax.xml.bind.annotation.XmlRootElement;
 import io.hops.hopsworks.persistence.entity.project.Project;
+import org.eclipse.persistence.annotations.Cache;
+import org.eclipse.persistence.annotations.CacheCoordinationType;
 
 @Entity
+@Cacheable(true)
+@Cache(expiry = 30000,
+    alwaysRefresh = true,
+    coordinationType = CacheCoordinationType.INVALIDATE_CHANGED_OBJECTS)
 @Table(name = "project_services", catalog = "hopsworks")
 @XmlRootElement
 @NamedQueries({
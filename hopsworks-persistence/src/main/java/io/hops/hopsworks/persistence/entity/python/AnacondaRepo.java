@@ -42,6 +42,7 @@ package io.hops.hopsworks.persistence.entity.python;
 import java.io.Serializable;
 import java.util.Collection;
 import javax.persistence.Basic;
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -57,8 +58,15 @@ import javax.validation.constraints.Size;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlTransient;
 import org.codehaus.jackson.annotate.JsonIgnore;
+import org.eclipse.persistence.annotations.Cache;
+import org.eclipse.persistence.annotations.CacheCoordinationType;
+import org.eclipse.persistence.annotations.Noncacheable;
 
 @Entity
+@Cacheable(true)
+@Cache(expiry = 60000,
+    alwaysRefresh = true,
+    coordinationType = CacheCoordinationType.INVALIDATE_CHANGED_OBJECTS)
 @Table(name = "anaconda_repo",
         catalog = "hopsworks",
         schema = "")
@@ -87,6 +95,7 @@ public class AnacondaRepo implements Serializable {
           max = 255)
   @Column(name = "url")
   private String url;
+  @Noncacheable
   @OneToMany(cascade = CascadeType.ALL,
           mappedBy = "repoUrl")
   private Collection<PythonDep> pythonDepCollection;
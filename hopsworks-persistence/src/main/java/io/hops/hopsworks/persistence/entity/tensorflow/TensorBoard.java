@@ -76,6 +76,8 @@ import java.util.Date;
         "t.users.email = :email")
         , @NamedQuery(name = "TensorBoard.findByMlId", query = "SELECT t FROM TensorBoard t WHERE " +
         "t.mlId = :mlId")
+        , @NamedQuery(name = "TensorBoard.findByMlIds", query = "SELECT t FROM TensorBoard t WHERE " +
+        "t.mlId IN :mlIds")
         , @NamedQuery(name = "TensorBoard.findByProjectAndUser", query = "SELECT t FROM TensorBoard t WHERE " +
         "t.tensorBoardPK.projectId = :projectId AND t.tensorBoardPK.userId = :userId")})
 public class TensorBoard implements Serializable {
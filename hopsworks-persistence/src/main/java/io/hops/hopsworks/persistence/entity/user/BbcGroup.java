@@ -42,6 +42,7 @@ package io.hops.hopsworks.persistence.entity.user;
 import java.io.Serializable;
 import java.util.Collection;
 import javax.persistence.Basic;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
@@ -54,8 +55,15 @@ import javax.validation.constraints.Size;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlTransient;
 import org.codehaus.jackson.annotate.JsonIgnore;
+import org.eclipse.persistence.annotations.Cache;
+import org.eclipse.persistence.annotations.CacheCoordinationType;
+import org.eclipse.persistence.annotations.Noncacheable;
 
 @Entity
+@Cacheable(true)
+@Cache(expiry = 60000,
+    alwaysRefresh = true,
+    coordinationType = CacheCoordinationType.INVALIDATE_CHANGED_OBJECTS)
 @Table(name = "bbc_group", catalog = "hopsworks")
 @XmlRootElement
 @NamedQueries({
@@ -85,6 +93,7 @@ public class BbcGroup implements Serializable {
   @Column(name = "gid")
   private Integer gid;
 
+  @Noncacheable
   @ManyToMany(mappedBy = "bbcGroupCollection")
   private Collection<Users> usersCollection;
 
@@ -36,6 +36,8 @@ import java.util.Date;
                 query = "SELECT s FROM Secret s WHERE s.id.uid = :uid"),
     @NamedQuery(name = "Secret.findAll",
                 query = "SELECT s FROM Secret s"),
+    @NamedQuery(name = "Secret.findAllOrderById",
+                query = "SELECT s FROM Secret s ORDER BY s.id.uid, s.id.name"),
     @NamedQuery(name = "Secret.findByName",
         query = "SELECT s FROM Secret s WHERE s.id.name = :name")
   })
@@ -0,0 +1,74 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.persistence.entity.util;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import java.io.Serializable;
+
+@XmlRootElement
+public class SharedCacheEntityStats implements Serializable {
+  
+  private String entity;
+  private long hits;
+  private long misses;
+  
+  public SharedCacheEntityStats() {
+  }
+  
+  public SharedCacheEntityStats(String entity, long hits, long misses) {
+    this.entity = entity;
+    this.hits = hits;
+    this.misses = misses;
+  }
+  
+  public String getEntity() {
+    return entity;
+  }
+  
+  public void setEntity(String entity) {
+    this.entity = entity;
+  }
+  
+  public long getHits() {
+    return hits;
+  }
+  
+  public void setHits(long hits) {
+    this.hits = hits;
+  }
+  
+  public long getMisses() {
+    return misses;
+  }
+  
+  public void setMisses(long misses) {
+    this.misses = misses;
+  }
+  
+  /**
+   * @return hits / (hits + misses). EclipseLink does not report every read served from the cache, see
+   * {@link SharedCacheProfiler}, so the ratio is only indicative.
+   */
+  public double getIndicativeHitRatio() {
+    long total = hits + misses;
+    return total == 0 ? 0 : (double) hits / total;
+  }
+  
+  public void setIndicativeHitRatio(double indicativeHitRatio) {
+    // derived from hits and misses
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * This file is part of Hopsworks
+ * Copyright (C) 2021, Logical Clocks AB. All rights reserved
+ *
+ * Hopsworks is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Affero General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * Hopsworks is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ * PURPOSE.  See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package io.hops.hopsworks.persistence.entity.util;
+
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.sessions.SessionProfiler;
+import org.eclipse.persistence.sessions.SessionProfilerAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lightweight EclipseLink profiler which only counts identity map hits and misses per entity. It is registered
+ * through the eclipselink.profiler property of the persistence unit and is what backs the shared cache hit ratio
+ * reported by the admin monitoring endpoint. Everything else is left to the no-op adapter so that query execution
+ * is not timed.
+ * <p>
+ * The counts are indicative only. EclipseLink does not call {@link #occurred} for every read served from the
+ * cache: entities found in the persistence context, {@code EntityManager.find} hits resolved before a query is
+ * built and relationships loaded from the shared cache are not reported. Hits are therefore under-counted, and
+ * the ratio is reported as indicativeHitRatio to make clear that it is not the real shared cache hit ratio.
+ */
+public class SharedCacheProfiler extends SessionProfilerAdapter {
+  
+  private static final Map<String, Counters> COUNTERS = new ConcurrentHashMap<>();
+  
+  public SharedCacheProfiler() {
+  }
+  
+  @Override
+  public int getProfileWeight() {
+    return SessionProfiler.NORMAL;
+  }
+  
+  @Override
+  public void occurred(String operationName, DatabaseQuery query, AbstractSession session) {
+    boolean hit = SessionProfiler.CacheHits.equals(operationName);
+    if (!hit && !SessionProfiler.CacheMisses.equals(operationName)) {
+      return;
+    }
+    if (query == null || query.getReferenceClass() == null) {
+      return;
+    }
+    Counters counters = COUNTERS.computeIfAbsent(query.getReferenceClass().getSimpleName(), k -> new Counters());
+    if (hit) {
+      counters.hits.increment();
+    } else {
+      counters.misses.increment();
+    }
+  }
+  
+  public static List<SharedCacheEntityStats> getStatistics() {
+    List<SharedCacheEntityStats> stats = new ArrayList<>(COUNTERS.size());
+    for (Map.Entry<String, Counters> entry : COUNTERS.entrySet()) {
+      stats.add(new SharedCacheEntityStats(entry.getKey(), entry.getValue().hits.sum(),
+        entry.getValue().misses.sum()));
+    }
+    return stats;
+  }
+  
+  public static void reset() {
+    COUNTERS.clear();
+  }
+  
+  private static class Counters {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+  }
+}
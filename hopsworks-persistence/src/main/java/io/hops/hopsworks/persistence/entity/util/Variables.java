@@ -41,6 +41,7 @@ package io.hops.hopsworks.persistence.entity.util;
 
 import java.io.Serializable;
 import javax.persistence.Basic;
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
@@ -50,8 +51,14 @@ import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 import javax.xml.bind.annotation.XmlRootElement;
+import org.eclipse.persistence.annotations.Cache;
+import org.eclipse.persistence.annotations.CacheCoordinationType;
 
 @Entity
+@Cacheable(true)
+@Cache(expiry = 60000,
+    alwaysRefresh = true,
+    coordinationType = CacheCoordinationType.INVALIDATE_CHANGED_OBJECTS)
 @Table(name = "variables", catalog = "hopsworks")
 @XmlRootElement
 @NamedQueries({
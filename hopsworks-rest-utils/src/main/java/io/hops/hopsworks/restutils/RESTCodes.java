@@ -1173,7 +1173,8 @@ public class RESTCodes {
     MISSING_VERB(5, "Verb is missing", Response.Status.BAD_REQUEST),
     ERROR_READING_RESPONSE(6, "Error while reading the response", Response.Status.INTERNAL_SERVER_ERROR),
     SERVING_INSTANCE_INTERNAL(7, "Serving instance internal error", Response.Status.INTERNAL_SERVER_ERROR),
-    SERVING_INSTANCE_BAD_REQUEST(8, "Serving instance bad request error", Response.Status.BAD_REQUEST);
+    SERVING_INSTANCE_BAD_REQUEST(8, "Serving instance bad request error", Response.Status.BAD_REQUEST),
+    REQUEST_TIMEOUT(9, "The serving server did not answer in time", Response.Status.SERVICE_UNAVAILABLE);
 
     private int code;
     private String message;